@@ -0,0 +1,315 @@
+package dominio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Alfabeto de fichas de un idioma: asigna a cada letra o dígrafo («CH»,
+ * «L·L», «NY»...) un código ordinal pequeño, en el orden en que aparece en el
+ * fichero <code>&lt;idioma&gt;Punt.txt</code>.  Estos códigos son las
+ * etiquetas de las aristas del {@link DAWG} del idioma, de modo que los
+ * recorridos trabajan con enteros en lugar de cadenas.
+ * </p>
+ * <p>
+ * Es el único separador de palabras en fichas del juego:
+ * {@link #leer(CharSequence, int)} reconoce la ficha que empieza en una
+ * posición de un texto sin crear objetos (los dígrafos tienen prioridad sobre
+ * la letra simple con la que empiezan) y {@link #codificar(CharSequence)}
+ * convierte una palabra entera en su vector de códigos en una sola pasada.
+ * La puntuación de cada ficha se guarda en una tabla indexada por código.
+ * </p>
+ */
+public class Alfabeto {
+
+    /** Código que indica que no hay ninguna ficha en la posición consultada. */
+    public static final int NINGUNA = -1;
+
+    /** Idioma del alfabeto. */
+    private final String idioma;
+
+    /** Letra o dígrafo de cada código. */
+    private final String[] letras;
+
+    /** Puntuación de cada ficha, indexada por código. */
+    private final int[] puntuaciones;
+
+    /** Código de cada letra o dígrafo. */
+    private final Map<String, Integer> codigos;
+
+    /**
+     * Para cada carácter inicial, los códigos de las fichas que empiezan por
+     * él, de la más larga a la más corta.
+     */
+    private final int[][] porInicial;
+
+    /**
+     * Crea un alfabeto con las letras indicadas, todas con puntuación 0; el
+     * código de cada una es su posición.
+     *
+     * @param idioma Idioma del alfabeto.
+     * @param letras Letras y dígrafos del idioma.
+     * @throws IllegalArgumentException si hay letras repetidas, vacías o más de 256.
+     */
+    public Alfabeto(String idioma, List<String> letras) {
+        this(idioma, letras, new int[letras.size()]);
+    }
+
+    /**
+     * Crea un alfabeto con las letras y puntuaciones indicadas; el código de
+     * cada letra es su posición.
+     *
+     * @param idioma       Idioma del alfabeto.
+     * @param letras       Letras y dígrafos del idioma.
+     * @param puntuaciones Puntuación de cada letra, en el mismo orden.
+     * @throws IllegalArgumentException si hay letras repetidas, vacías o más de
+     *                                  256, o si las longitudes no coinciden.
+     */
+    public Alfabeto(String idioma, List<String> letras, int[] puntuaciones) {
+        if (letras.size() > 256) {
+            throw new IllegalArgumentException("Un alfabeto no puede tener más de 256 fichas.");
+        }
+        if (puntuaciones.length != letras.size()) {
+            throw new IllegalArgumentException("Cada letra del alfabeto necesita una puntuación.");
+        }
+        this.idioma = idioma;
+        this.letras = letras.toArray(new String[0]);
+        this.puntuaciones = puntuaciones.clone();
+        this.codigos = new HashMap<>();
+        char maximo = 0;
+        for (int i = 0; i < this.letras.length; i++) {
+            String letra = this.letras[i];
+            if (letra.isEmpty() || codigos.put(letra, i) != null) {
+                throw new IllegalArgumentException("Letra vacía o repetida en el alfabeto: " + letra);
+            }
+            maximo = (char) Math.max(maximo, letra.charAt(0));
+        }
+
+        this.porInicial = new int[maximo + 1][];
+        for (char c = 0; c <= maximo && this.letras.length > 0; c++) {
+            List<Integer> candidatos = new ArrayList<>();
+            for (int i = 0; i < this.letras.length; i++) {
+                if (this.letras[i].charAt(0) == c) {
+                    candidatos.add(i);
+                }
+            }
+            if (!candidatos.isEmpty()) {
+                candidatos.sort((a, b) -> this.letras[b].length() - this.letras[a].length());
+                porInicial[c] = candidatos.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    /**
+     * Lee el alfabeto de un idioma del fichero <code>&lt;idioma&gt;Punt.txt</code>,
+     * con líneas del tipo «LETRA PUNTOS».  Si el fichero no existe, el
+     * alfabeto queda vacío.
+     *
+     * @param idioma Idioma del alfabeto.
+     * @return Alfabeto del idioma.
+     */
+    public static Alfabeto cargar(String idioma) {
+        List<String> letras = new ArrayList<>();
+        List<Integer> puntos = new ArrayList<>();
+        String nombreArchivo = idioma + "Punt.txt";
+        try (InputStream entrada = Alfabeto.class.getClassLoader().getResourceAsStream(nombreArchivo)) {
+            if (entrada == null) {
+                System.out.println("No se encontró el archivo de puntuaciones: " + nombreArchivo);
+            } else {
+                BufferedReader br = new BufferedReader(new InputStreamReader(entrada));
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    String[] partes = linea.split(" ");
+                    if (partes.length == 2) {
+                        try {
+                            int puntuacion = Integer.parseInt(partes[1]);
+                            int anterior = letras.indexOf(partes[0]);
+                            if (anterior >= 0) {
+                                puntos.set(anterior, puntuacion);
+                            } else {
+                                letras.add(partes[0]);
+                                puntos.add(puntuacion);
+                            }
+                        } catch (NumberFormatException ex) {
+                            System.out.println("⚠️ Número inválido en línea de puntuaciones: " + linea);
+                        }
+                    } else {
+                        System.out.println("⚠️ Línea inválida en archivo de puntuaciones: " + linea);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error al leer archivo de puntuaciones: " + e.getMessage());
+        }
+        return new Alfabeto(idioma, letras, puntos.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Reconoce la ficha que empieza en la posición {@code i} de un texto.
+     *
+     * @param texto Texto en mayúsculas.
+     * @param i     Posición inicial.
+     * @return Código de la ficha, o {@link #NINGUNA} si ninguna ficha empieza ahí.
+     */
+    public int leer(CharSequence texto, int i) {
+        char c = texto.charAt(i);
+        if (c >= porInicial.length || porInicial[c] == null) {
+            return NINGUNA;
+        }
+        for (int codigo : porInicial[c]) {
+            String letra = letras[codigo];
+            int n = letra.length();
+            if (i + n <= texto.length()) {
+                int k = 1;
+                while (k < n && texto.charAt(i + k) == letra.charAt(k)) {
+                    k++;
+                }
+                if (k == n) {
+                    return codigo;
+                }
+            }
+        }
+        return NINGUNA;
+    }
+
+    /**
+     * Convierte una palabra en el vector de códigos de sus fichas, en una sola pasada.
+     *
+     * @param palabra Palabra en mayúsculas.
+     * @return Código de cada ficha (léanse con {@code & 0xFF}).
+     * @throws IllegalArgumentException si algún carácter no forma parte de ninguna ficha.
+     */
+    public byte[] codificar(CharSequence palabra) {
+        byte[] codigos = new byte[palabra.length()];
+        int n = 0;
+        for (int i = 0; i < palabra.length(); ) {
+            int codigo = leer(palabra, i);
+            if (codigo == NINGUNA) {
+                throw new IllegalArgumentException("La palabra " + palabra + " contiene letras que no son fichas del idioma " + idioma + ".");
+            }
+            codigos[n++] = (byte) codigo;
+            i += letras[codigo].length();
+        }
+        return n == codigos.length ? codigos : Arrays.copyOf(codigos, n);
+    }
+
+    /**
+     * Convierte un vector de códigos en la palabra que forman.
+     *
+     * @param codigos Códigos de las fichas.
+     * @return Palabra formada por las fichas.
+     */
+    public String decodificar(byte[] codigos) {
+        StringBuilder sb = new StringBuilder(codigos.length);
+        for (byte codigo : codigos) {
+            sb.append(letras[codigo & 0xFF]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Suma la puntuación de las fichas de una palabra ya codificada.
+     *
+     * @param codigos Códigos de las fichas.
+     * @return Puntuación de la palabra sin bonificaciones.
+     */
+    public int puntuar(byte[] codigos) {
+        int total = 0;
+        for (byte codigo : codigos) {
+            total += puntuaciones[codigo & 0xFF];
+        }
+        return total;
+    }
+
+    /**
+     * Suma la puntuación de las fichas de una palabra.  Los caracteres que no
+     * forman parte de ninguna ficha valen 0.
+     *
+     * @param palabra Palabra en mayúsculas.
+     * @return Puntuación de la palabra sin bonificaciones.
+     */
+    public int puntuar(CharSequence palabra) {
+        int total = 0;
+        for (int i = 0; i < palabra.length(); ) {
+            int codigo = leer(palabra, i);
+            if (codigo == NINGUNA) {
+                i++;
+            } else {
+                total += puntuaciones[codigo];
+                i += letras[codigo].length();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @param codigo Código de una ficha.
+     * @return Puntuación de la ficha.
+     */
+    public int getPuntuacion(int codigo) {
+        return puntuaciones[codigo];
+    }
+
+    /**
+     * @param letra Letra o dígrafo.
+     * @return Código de la letra, o {@link #NINGUNA} si no pertenece al alfabeto.
+     */
+    public int codigo(String letra) {
+        Integer codigo = codigos.get(letra);
+        return codigo == null ? NINGUNA : codigo;
+    }
+
+    /**
+     * @param codigo Código de una ficha.
+     * @return Letra o dígrafo correspondiente.
+     */
+    public String getLetra(int codigo) {
+        return letras[codigo];
+    }
+
+    /**
+     * @param codigo Código de una ficha.
+     * @return Número de caracteres que ocupa la ficha en un texto.
+     */
+    public int longitud(int codigo) {
+        return letras[codigo].length();
+    }
+
+    /** @return número de fichas distintas del alfabeto */
+    public int getNumLetras() {
+        return letras.length;
+    }
+
+    /** @return letras del alfabeto que ocupan más de un carácter (dígrafos) */
+    public List<String> getDigrafos() {
+        List<String> digrafos = new ArrayList<>();
+        for (String letra : letras) {
+            if (letra.length() > 1) {
+                digrafos.add(letra);
+            }
+        }
+        return digrafos;
+    }
+
+    /** @return copia de las letras del alfabeto, indexadas por código */
+    public String[] getLetras() {
+        return letras.clone();
+    }
+
+    /** @return idioma del alfabeto */
+    public String getIdioma() {
+        return idioma;
+    }
+
+    @Override
+    public String toString() {
+        return "Alfabeto{" + idioma + "=" + Arrays.toString(letras) + "}";
+    }
+}
@@ -1,12 +1,13 @@
 package dominio;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * La clase Algoritmo implementa la lógica para calcular las mejores jugadas en el juego de Scrabble.
- * Utiliza estructuras de datos como Trie y DAWG para optimizar la generación y validación de palabras.
+ * Utiliza el DAWG del {@link Lexico} compartido del idioma para optimizar la generación y validación de palabras.
  */
 public class Algoritmo {
     /**
@@ -20,75 +21,174 @@ public class Algoritmo {
     private Tablero tablero;
 
     /**
-     * Estructura Trie utilizada para almacenar las palabras del diccionario.
+     * Léxico compartido (diccionario y DAWG) del idioma del algoritmo.
      */
-    private static Trie trie;
+    private Lexico lexico;
 
     /**
-     * Estructura DAWG utilizada para minimizar redundancias en las palabras del diccionario.
+     * Generador de movimientos sobre el DAWG del léxico; se crea al generar
+     * la primera jugada.
      */
-    private static DAWG dawg;
+    private GeneradorMovimientos generador;
+
+    /**
+     * Indica si los movimientos se generan con el GADDAG en lugar del DAWG.
+     */
+    private boolean usarGaddag;
+
+    /**
+     * Indica si a la puntuación de cada movimiento se suma el valor de las
+     * fichas que deja en el atril ({@link TablaRestos}).  Con el saco vacío
+     * ya no se roban fichas y conviene desactivarlo.
+     */
+    private boolean valorarRestos = true;
+
+    /**
+     * Búsqueda exacta del final de partida; se crea la primera vez que se usa.
+     */
+    private SolucionadorFinal solucionadorFinal;
+
+    /**
+     * Ejecutor en el que se reparten las líneas del tablero al generar
+     * movimientos, o {@code null} para generar en serie.
+     */
+    private Executor ejecutor;
+
+    /**
+     * Número de tareas en que se reparte cada generación en paralelo.
+     */
+    private int partes = 1;
+
+    /**
+     * Longitud máxima de la palabra principal de los movimientos, o 0 si no
+     * hay límite; restringe el vocabulario de los robots principiantes.
+     */
+    private int longitudMaxima;
+
+    /**
+     * Caché de transposiciones de las líneas del tablero, o {@code null} (por
+     * defecto) para generar siempre desde cero.
+     */
+    private CacheLineas cacheLineas;
 
     /**
      * Constructor de la clase Algoritmo.
-     * Inicializa el Trie y el DAWG a partir del diccionario proporcionado.
+     * Obtiene el léxico del idioma indicado del {@link RegistroLexicos}, de
+     * modo que el DAWG solo se construye una vez por idioma y proceso.
      *
-     * @param diccionario Diccionario con las palabras válidas.
+     * @param diccionario Diccionario con las puntuaciones de las letras; si es
+     *                    {@code null} se usa el del léxico compartido.
      * @param tablero     Tablero de juego asociado.
+     * @param idioma      Idioma del diccionario.
      */
     public Algoritmo(Diccionario diccionario, Tablero tablero, String idioma) {
-        this.diccionario = diccionario;
-        this.tablero = tablero;
-        // Initialize Trie and DAWG only once
-        if (trie == null || dawg == null) {
-            synchronized (Algoritmo.class) {
-                if (trie == null) {
-                    trie = diccionario2trie(diccionario, idioma);
-                }
-                if (dawg == null) {
-                    dawg = trie2dawg(trie);
-                }
-            }
+        this(RegistroLexicos.getInstance().getLexico(idioma), tablero);
+        if (diccionario != null) {
+            this.diccionario = diccionario;
         }
     }
 
     /**
-     * Convierte un diccionario en una estructura Trie.
+     * Constructor de la clase Algoritmo que toma el idioma del propio tablero.
      *
-     * @param diccionario Diccionario con las palabras válidas.
-     * @return Estructura Trie generada.
-     */
-    private Trie diccionario2trie(Diccionario diccionario, String idioma) {
-        Trie trie = new Trie();
-        List<String> letrasEspeciales = new ArrayList<>();
-
-        if ("catalan".equals(idioma)) {
-            letrasEspeciales.add("L·L");
-            letrasEspeciales.add("NY");
-        } else if ("castellano".equals(idioma)) {
-            letrasEspeciales.add("CH");
-            letrasEspeciales.add("LL");
-            letrasEspeciales.add("RR");
-        }
+     * @param diccionario Diccionario con las puntuaciones de las letras.
+     * @param tablero     Tablero de juego asociado, con el idioma ya fijado.
+     */
+    public Algoritmo(Diccionario diccionario, Tablero tablero) {
+        this(diccionario, tablero, tablero.getIdioma());
+    }
 
-        for (String palabra : diccionario.getPalabras()) {
-            trie.insert(palabra, letrasEspeciales);
-        }
-        return trie;
+    /**
+     * Constructor de la clase Algoritmo a partir de un léxico ya resuelto.
+     *
+     * @param lexico  Léxico compartido del idioma.
+     * @param tablero Tablero de juego asociado.
+     */
+    public Algoritmo(Lexico lexico, Tablero tablero) {
+        this(lexico, tablero, false);
     }
 
+    /**
+     * Constructor de la clase Algoritmo que permite elegir la estructura con
+     * la que se generan los movimientos.  El {@link GADDAG} genera las
+     * palabras en ambas direcciones desde el anclaje y es más rápido, a
+     * cambio de ocupar bastante más memoria que el DAWG.
+     *
+     * @param lexico     Léxico compartido del idioma.
+     * @param tablero    Tablero de juego asociado.
+     * @param usarGaddag {@code true} para generar con el GADDAG del léxico.
+     */
+    public Algoritmo(Lexico lexico, Tablero tablero, boolean usarGaddag) {
+        this.lexico = lexico;
+        this.diccionario = lexico.getDiccionario();
+        this.tablero = tablero;
+        this.usarGaddag = usarGaddag;
+    }
 
     /**
-     * Convierte un Trie en una estructura DAWG.
+     * Obtiene el léxico usado por el algoritmo.
      *
-     * @param trie Estructura Trie a convertir.
-     * @return Estructura DAWG generada.
+     * @return Léxico del idioma del algoritmo.
      */
-    private DAWG trie2dawg(Trie trie) {
-        DAWG dawg = new DAWG();
-        dawg.buildFromTrie(trie);
+    public Lexico getLexico() {
+        return lexico;
+    }
+
+    /**
+     * Indica si se valora el resto del atril al elegir la mejor jugada.
+     *
+     * @param valorarRestos {@code true} para sumar a cada movimiento el valor
+     *                      de las fichas que deja en el atril.
+     */
+    public void setValorarRestos(boolean valorarRestos) {
+        this.valorarRestos = valorarRestos;
+    }
+
+    /**
+     * Establece la caché de las líneas del tablero con la que se reutilizan
+     * los movimientos de las filas y columnas que no han cambiado (véase
+     * {@link CacheLineas}).  Varios algoritmos pueden compartir la misma, como
+     * los de los sucesivos turnos de un robot.  Por defecto no se usa ninguna.
+     *
+     * @param cacheLineas Caché de líneas, o {@code null} para no usarla.
+     */
+    public void setCacheLineas(CacheLineas cacheLineas) {
+        this.cacheLineas = cacheLineas;
+    }
+
+    /**
+     * Obtiene la caché de las líneas del tablero, por ejemplo para consultar
+     * su tasa de aciertos o invalidar las líneas de un movimiento jugado.
+     *
+     * @return Caché de líneas, o {@code null} si no se usa.
+     */
+    public CacheLineas getCacheLineas() {
+        return cacheLineas;
+    }
+
+    /**
+     * Limita la longitud, en fichas, de la palabra principal de los
+     * movimientos que se generan, para restringir el vocabulario de un robot.
+     *
+     * @param longitudMaxima Longitud máxima, o 0 (o menos) para no limitarla.
+     */
+    public void setLongitudMaxima(int longitudMaxima) {
+        this.longitudMaxima = Math.max(0, longitudMaxima);
+    }
 
-        return dawg;
+    /**
+     * Indica el ejecutor con el que generar los movimientos en paralelo,
+     * repartiendo las filas y columnas del tablero entre {@code partes}
+     * tareas (véase {@link GeneradorMovimientos#generar(Tablero, List, Executor, int)}).
+     * Por defecto se genera en serie, que es lo que conviene cuando quien
+     * llama ya reparte su trabajo entre hilos, como {@link EstrategiaMonteCarlo}.
+     *
+     * @param ejecutor Ejecutor de las tareas, o {@code null} para generar en serie.
+     * @param partes   Número de tareas de cada generación.
+     */
+    public void setEjecutor(Executor ejecutor, int partes) {
+        this.ejecutor = ejecutor;
+        this.partes = Math.max(1, partes);
     }
 
     /**
@@ -98,122 +198,133 @@ public class Algoritmo {
      * @return Movimiento que representa la mejor jugada.
      */
     public Movimiento calcularMejorJugada(Usuario jugador) {
-        //System.out.println("LLegando a calcularMejorJugada");
-        System.out.println("tablero en algoritmo:");
-        String[][] tablerothis = tablero.getTab();
-        for (int i = 0; i < 15; i++) {
-            for (int j = 0; j < 15; j++) {
-                System.out.print(tablerothis[i][j] + " ");
-            }
-            System.out.println();
-        }
-        List<Movimiento> movimientos = generarMovimientos(jugador);
-        Movimiento mejorMovimiento = evaluarMovimientos(jugador, movimientos);
-        return mejorMovimiento;
+        return calcularMejorJugada(jugador.getFichas());
     }
 
     /**
-     * Genera una lista de movimientos posibles para el jugador dado.
+     * Calcula la mejor jugada posible para un atril.
      *
-     * @param jugador Usuario que está jugando.
-     * @return Lista de movimientos generados.
+     * @param fichas Fichas del atril.
+     * @return Movimiento que representa la mejor jugada.
      */
-    public List<Movimiento> generarMovimientos(Usuario jugador) {
-        List<Movimiento> movimientos = new ArrayList<>();
-        //System.out.println("llega aqui anclaje " );
-        System.out.println("tablero en generarMovimientos:");
-        String[][] tablerothis = tablero.getTab();
-        for (int i = 0; i < 15; i++) {
-            for (int j = 0; j < 15; j++) {
-                System.out.print(tablerothis[i][j] + " ");
-            }
-            System.out.println();
-        }
-        List<int[]> anclajes = tablero.obtenerPuntosDeAnclaje();
-        System.out.println("Lista de anclajes:");
-        for (int[] anclaje : anclajes) {
-            System.out.println("Anclaje: (" + anclaje[0] + ", " + anclaje[1] + ")");
+    public Movimiento calcularMejorJugada(List<String> fichas) {
+        if (ejecutor != null) {
+            return evaluarMovimientos(generarMovimientos(fichas));
         }
+        MejoresJugadas mejores = new MejoresJugadas(1);
+        generarMovimientos(fichas, mejores);
+        return mejores.getMejor();
+    }
 
-        System.out.println("Tamaño de la lista de anclajes: " + anclajes.size());
-        StringBuilder coordenadas = new StringBuilder("Coordenadas de los anclajes: ");
-        for (int[] anclaje : anclajes) {
-            coordenadas.append("(").append(anclaje[0]).append(", ").append(anclaje[1]).append(") ");
-        }
-       
-        System.out.println(coordenadas.toString());
-        for (int[] anclaje : anclajes) {
-            int fila = anclaje[0];
-            int columna = anclaje[1];
-            System.out.println("AnclajeAlgoritmo: (" + fila + ", " + columna + ")");
-            List<String> posiblesPalabras = generarPalabrasValidas(jugador.getFichas());
-            for (String palabra : posiblesPalabras) {
-                List<String> fichasUsadas = obtenerFichasUsadas(jugador.getFichas(), palabra);
-                if (tablero.puedeColocarPalabra(palabra, fila, columna, true) ) {
-                    int puntuacion = calcularPuntuacion(palabra, fila, columna, true, false);
-
-                    movimientos.add(new Movimiento(fichasUsadas, fila, columna, true, puntuacion, palabra));
-                }
-                if (tablero.puedeColocarPalabra(palabra, fila, columna, false)) {
-                    int puntuacion = calcularPuntuacion(palabra, fila, columna, false, false);
-                    movimientos.add(new Movimiento(fichasUsadas, fila, columna, false, puntuacion, palabra));
-                }
-            }
+    /**
+     * Calcula las {@code k} jugadas de mayor valoración de un atril sin crear
+     * un {@link Movimiento} por cada movimiento legal: la generación pasa los
+     * movimientos a un {@link MejoresJugadas} de tamaño {@code k}.  Con
+     * ejecutor (véase {@link #setEjecutor}) se generan todos en paralelo y se
+     * ordenan.
+     *
+     * @param fichas Fichas del atril.
+     * @param k      Número de jugadas.
+     * @return Hasta {@code k} jugadas, de mayor a menor valoración y, a igual
+     *         valoración, en el orden en que se generan.
+     */
+    public List<Movimiento> calcularMejoresJugadas(List<String> fichas, int k) {
+        if (ejecutor != null) {
+            List<Movimiento> movimientos = new ArrayList<>(generarMovimientos(fichas));
+            movimientos.sort(Comparator.comparingDouble(Movimiento::getValoracion).reversed());
+            return movimientos.size() > k ? new ArrayList<>(movimientos.subList(0, k)) : movimientos;
         }
-        return movimientos;
+        MejoresJugadas mejores = new MejoresJugadas(k);
+        generarMovimientos(fichas, mejores);
+        return mejores.getMovimientos();
     }
 
     /**
-     * Obtiene las fichas utilizadas para formar una palabra a partir de las fichas disponibles.
+     * Calcula la mejor jugada del final de partida, cuando el saco está vacío
+     * y el único rival tiene las fichas indicadas: busca la secuencia de
+     * jugadas de ambos que maximiza la diferencia de puntos hasta el final
+     * (véase {@link SolucionadorFinal}), dentro de su presupuesto de nodos y
+     * de tiempo.
      *
-     * @param fichasDisponibles Fichas disponibles para formar palabras.
-     * @param palabra           Palabra que se desea formar.
-     * @return Lista de fichas utilizadas para formar la palabra.
-     */
-    private List<String> obtenerFichasUsadas(List<String> fichasDisponibles, String palabra) {
-        List<String> fichasUsadas = new ArrayList<>();
-        List<String> fichasTemp = new ArrayList<>(fichasDisponibles); // Temporary copy of available tiles
-        for (char letra : palabra.toCharArray()) {
-            String letraStr = String.valueOf(letra);
-            if (fichasTemp.contains(letraStr)) {
-                fichasUsadas.add(letraStr);
-                fichasTemp.remove(letraStr); // Remove the used tile to avoid duplicates
-            }
+     * @param fichas      Fichas del atril del jugador que está jugando.
+     * @param fichasRival Fichas del atril del rival.
+     * @return Mejor jugada, o {@code null} si no hay ninguna o lo mejor es pasar.
+     */
+    public Movimiento calcularJugadaFinal(List<String> fichas, List<String> fichasRival) {
+        return getSolucionadorFinal().resolver(tablero, fichas, fichasRival);
+    }
+
+    /**
+     * Obtiene la búsqueda del final de partida, para ajustar sus presupuestos
+     * o consultar los contadores de la última búsqueda.
+     *
+     * @return Solucionador del final de partida del algoritmo.
+     */
+    public SolucionadorFinal getSolucionadorFinal() {
+        if (solucionadorFinal == null) {
+            solucionadorFinal = new SolucionadorFinal(lexico);
         }
-        return fichasUsadas;
+        return solucionadorFinal;
+    }
+
+    /**
+     * Genera todos los movimientos legales del jugador con el
+     * {@link GeneradorMovimientos} (sobre el DAWG o el GADDAG): cada colocación
+     * (incluidas las que se enganchan o atraviesan fichas del tablero) aparece
+     * una sola vez, ya validada y puntuada.
+     *
+     * @param jugador Usuario que está jugando.
+     * @return Lista de movimientos generados.
+     */
+    public List<Movimiento> generarMovimientos(Usuario jugador) {
+        return generarMovimientos(jugador.getFichas());
     }
 
     /**
-     * Genera una lista de palabras válidas a partir de las fichas disponibles.
+     * Genera todos los movimientos legales de un atril en el tablero del
+     * algoritmo (véase {@link #generarMovimientos(Usuario)}).
      *
-     * @param fichas Fichas disponibles para formar palabras.
-     * @return Lista de palabras válidas generadas.
+     * @param fichas Fichas del atril.
+     * @return Lista de movimientos generados.
      */
-    private List<String> generarPalabrasValidas(List<String> fichas) {
-        List<String> palabrasValidas = new ArrayList<>();
-        generarCombinaciones(fichas, "", dawg.getRoot(), palabrasValidas);
-        return palabrasValidas;
+    public List<Movimiento> generarMovimientos(List<String> fichas) {
+        if (generador == null) {
+            generador = new GeneradorMovimientos(lexico, usarGaddag);
+        }
+        generador.setTablaRestos(valorarRestos ? lexico.getTablaRestos() : null);
+        generador.setCache(cacheLineas);
+        List<Movimiento> movimientos = generador.generar(tablero, fichas, ejecutor, partes);
+        if (longitudMaxima > 0) {
+            movimientos.removeIf(movimiento -> movimiento.getLargo() > longitudMaxima);
+        }
+        return movimientos;
     }
 
     /**
-     * Genera todas las combinaciones posibles de letras a partir de las fichas disponibles.
+     * Genera todos los movimientos legales de un atril en el tablero del
+     * algoritmo y se los pasa al receptor a medida que los encuentra, sin
+     * crear un {@link Movimiento} por cada uno (véase
+     * {@link GeneradorMovimientos#generar(Tablero, List, ReceptorJugadas)}).
+     * Se genera siempre en serie, en el hilo que llama.
      *
-     * @param fichas   Fichas disponibles para formar palabras.
-     * @param actual   Palabra actual en construcción.
-     * @param nodo     Nodo actual en el DAWG.
-     * @param resultados Lista de palabras generadas.
-     */
-    private void generarCombinaciones(List<String> fichas, String actual, DAWG.DAWGNode nodo, List<String> resultados) {
-        if (nodo.isEndOfWord) {
-            resultados.add(actual);
+     * @param fichas   Fichas del atril.
+     * @param receptor Receptor de los movimientos.
+     */
+    public void generarMovimientos(List<String> fichas, ReceptorJugadas receptor) {
+        if (generador == null) {
+            generador = new GeneradorMovimientos(lexico, usarGaddag);
         }
-        for (int i = 0; i < fichas.size(); i++) {
-            String letra = fichas.get(i);
-            if (nodo.getChildren().containsKey(letra)) {
-                List<String> restantes = new ArrayList<>(fichas);
-                restantes.remove(i);
-                generarCombinaciones(restantes, actual + letra, nodo.getChildren().get(letra), resultados);
-            }
+        generador.setTablaRestos(valorarRestos ? lexico.getTablaRestos() : null);
+        generador.setCache(cacheLineas);
+        if (longitudMaxima > 0) {
+            int maximo = longitudMaxima;
+            generador.generar(tablero, fichas, jugada -> {
+                if (jugada.getLargo() <= maximo) {
+                    receptor.recibir(jugada);
+                }
+            });
+        } else {
+            generador.generar(tablero, fichas, receptor);
         }
     }
 
@@ -233,31 +344,17 @@ public class Algoritmo {
         if(setBon)System.out.println("Calculando puntuación para la palabra: " + palabra + " en fila: " + fila + ", columna: " + columna + ", horizontal: " + horizontal);
 
         try {
-            int z=0;
-            for (int i = 0; i < palabra.length(); i++) {
-                String letra = String.valueOf(palabra.charAt(i));
-                String idioma = this.tablero.getIdioma();
-                if ("catalan".equals(idioma)) {
-                    if (i + 2 < palabra.length() && palabra.charAt(i) == 'L' && palabra.charAt(i + 1) == '·') {
-                        letra = letra + palabra.charAt(i + 1) + palabra.charAt(i + 2);
-                        i += 2;
-                    } else if (i + 1 < palabra.length() && palabra.charAt(i) == 'N' && palabra.charAt(i + 1) == 'Y') {
-                        letra = letra + palabra.charAt(i + 1);
-                        i++;
-                    }
-                } else if ("castellano".equals(idioma)) {
-                    if (i + 1 < palabra.length() && palabra.charAt(i) == 'C' && palabra.charAt(i + 1) == 'H') {
-                        letra = letra + palabra.charAt(i + 1);
-                        i++;
-                    } else if (i + 1 < palabra.length() && palabra.charAt(i) == 'L' && palabra.charAt(i + 1) == 'L') {
-                        letra = letra + palabra.charAt(i + 1);
-                        i++;
-                    } else if (i + 1 < palabra.length() && palabra.charAt(i) == 'R' && palabra.charAt(i + 1) == 'R') {
-                        letra = letra + palabra.charAt(i + 1);
-                        i++;
-                    }
+            Alfabeto alfabeto = diccionario.getAlfabeto();
+            // z: casilla de la ficha; i: carácter de la palabra donde empieza
+            for (int i = 0, z = 0; i < palabra.length(); z++) {
+                int codigo = alfabeto.leer(palabra, i);
+                int valorLetra = 0;
+                if (codigo == Alfabeto.NINGUNA) {
+                    i++; // caracter que no es ficha: ocupa casilla pero no puntúa
+                } else {
+                    valorLetra = alfabeto.getPuntuacion(codigo);
+                    i += alfabeto.longitud(codigo);
                 }
-                int valorLetra = diccionario.getPuntuacionLetra(letra);
                 int bonificacion = 0;
                 
                 if (horizontal) {
@@ -265,7 +362,7 @@ public class Algoritmo {
                         throw new IllegalArgumentException("Puntuacion Coordenadas fuera de los límites del tablero: fila=" + fila + ", columna=" + (columna + i));
                     }*/
                    
-                    if(columna + i <= this.tablero.getCols()) {
+                    if(columna + z <= this.tablero.getCols()) {
                         bonificacion = tablero.getBonificacionCasilla(fila, columna + z);
                         if(setBon)System.out.println("Bonificación en la casilla (" + fila + ", " + (columna + z) + "): " + bonificacion);
                         //tablero.setBonificacionCasilla(fila, columna+i, 0); // Clear the bonus after using it
@@ -276,7 +373,7 @@ public class Algoritmo {
                         throw new IllegalArgumentException("Puntuacion Coordenadas fuera de los límites del tablero: fila=" + (fila + i) + ", columna=" + columna);
                     }*/
                     
-                    if(fila + i <= this.tablero.getRows()) {
+                    if(fila + z <= this.tablero.getRows()) {
                         bonificacion = tablero.getBonificacionCasilla(fila + z, columna);
                         if(setBon)System.out.println("Bonificación en la casilla (" + (fila + z) + ", " + columna + "): " + bonificacion);
                         //tablero.setBonificacionCasilla(fila+i, columna, 0); // Clear the bonus after using it
@@ -296,8 +393,6 @@ public class Algoritmo {
                 }
 
                 puntuacion += valorLetra;
-                z++;
-                
             }
         } catch (IllegalArgumentException e) {
             System.err.println("Error: " + e.getMessage());
@@ -308,104 +403,21 @@ public class Algoritmo {
     }
 
     /**
-     * Evalúa los movimientos generados y selecciona el mejor movimiento basado en la puntuación.
+     * Evalúa los movimientos generados y selecciona el mejor movimiento basado
+     * en su valoración: la puntuación más, si se valoran los restos, el valor
+     * de las fichas que deja en el atril.  Los movimientos ya vienen validados
+     * por el generador, así que no hace falta simularlos en el tablero.
      *
      * @param movimientos Lista de movimientos generados.
-     * @return El mejor movimiento encontrado.
+     * @return El mejor movimiento encontrado, o {@code null} si no hay ninguno.
      */
-    private Movimiento evaluarMovimientos(Usuario jugador, List<Movimiento> movimientos) {
+    private Movimiento evaluarMovimientos(List<Movimiento> movimientos) {
         Movimiento mejorMovimiento = null;
-        int mejorPuntuacion = Integer.MIN_VALUE;
-        int umbralPuntuacion = 6;
-
-        Tablero tableroBase = new Tablero(tablero);
-
         for (Movimiento movimiento : movimientos) {
-            Tablero tableroSim = new Tablero(tableroBase);
-            String palabraInv = "\0";
-            if (movimiento.getPuntuacion() > mejorPuntuacion) {
-                try {
-                    List<int[]> coordenadasLetras = new ArrayList<>();
-                    int fila = movimiento.getFila();
-                    int columna = movimiento.getColumna();
-                    String palabra = movimiento.getPalabraFormada();
-
-                    if (!palabraInv.equals(palabra)) {
-                        // Agregar las coordenadas de la palabra al tablero
-                        System.out.println("palabra: "+palabra);
-                        for (int i = 0; i < palabra.length(); i++) {
-                            String l = null;
-                            String idioma = tablero.getIdioma();
-                            l= String.valueOf(palabra.charAt(i));
-                            if (movimiento.esHorizontal()) {
-                                if ("catalan".equals(idioma)) {
-                                    if (i + 2 < palabra.length() && palabra.charAt(i) == 'L' && palabra.charAt(i + 1) == '·') {
-                                        l = l + palabra.charAt(i + 1) + palabra.charAt(i + 2);
-                                        i += 2;
-                                    } else if (i + 1 < palabra.length() && palabra.charAt(i) == 'N' && palabra.charAt(i + 1) == 'Y') {
-                                        l = l + palabra.charAt(i + 1);
-                                        i++;
-                                    }
-                                } else if ("castellano".equals(idioma)) {
-                                    if (i + 1 < palabra.length() && palabra.charAt(i) == 'C' && palabra.charAt(i + 1) == 'H') {
-                                        l = l + palabra.charAt(i + 1);
-                                        i++;
-                                    } else if (i + 1 < palabra.length() && palabra.charAt(i) == 'L' && palabra.charAt(i + 1) == 'L') {
-                                        l = l + palabra.charAt(i + 1);
-                                        i++;
-                                    } else if (i + 1 < palabra.length() && palabra.charAt(i) == 'R' && palabra.charAt(i + 1) == 'R') {
-                                        l = l + palabra.charAt(i + 1);
-                                        i++;
-                                    }
-                                }
-                                coordenadasLetras.add(new int[]{fila, columna + i});
-                                tableroSim.setCasilla(l, fila, columna + i);
-                            } else {
-                                coordenadasLetras.add(new int[]{fila + i, columna});
-                                tableroSim.setCasilla(l, fila + i, columna);
-                            }
-                        }
-                        List<int[]> nuevasCoordenadas = new ArrayList<>();
-                        //System.out.println("palabra: " + palabra);
-                        for(int[] coordenada : coordenadasLetras) {
-                            nuevasCoordenadas.add(new int[]{coordenada[0], coordenada[1]});
-                            //System.out.println("Coordenadas de la letraALGG: " + (coordenada[0]+1) + ", " + (coordenada[1]+1));
-                        }
-                        movimiento.setCoordenadas(nuevasCoordenadas);
-                        // Intentar extraer palabras y calcular puntuación
-                        int puntuacion;
-                        try{
-                        puntuacion = tableroSim.extraerPalabras(coordenadasLetras, false, jugador);
-                        }
-                        catch (Tablero.ErrorJuegoException e) {
-                            //System.err.println("ErrorJuegoException lanzada con código: " + e.getCodigoError());
-                            tableroSim.limpiarMap(); // Limpia el tablero en caso de error
-                            continue; // Salta al siguiente movimiento
-                        }
-                        // Imprimir la palabra y su puntuación
-                        System.out.println("Palabra evaluada: " + palabra + ", Puntuación: " + puntuacion);
-
-                        // Limpiar el tablero después de la simulación
-                        tableroSim.limpiarMap();
-
-                        // Actualizar el mejor movimiento si la puntuación es mayor
-                        if (puntuacion > mejorPuntuacion) {
-                            mejorPuntuacion = puntuacion;
-                            mejorMovimiento = movimiento;
-                        }
-                    }
-                } catch (IllegalArgumentException e) {
-                    // Limpiar el tablero en caso de error
-                    tablero.limpiarMap();
-
-                    // Manejar palabras inválidas
-                    if (e.getMessage().equals("Error: La palabra " + movimiento.getPalabraFormada() + " no es válida en el idioma " + tablero.getIdioma() + ".")) {
-                        palabraInv = movimiento.getPalabraFormada();
-                    }
-                }
+            if (mejorMovimiento == null || movimiento.getValoracion() > mejorMovimiento.getValoracion()) {
+                mejorMovimiento = movimiento;
             }
         }
-
         return mejorMovimiento;
     }
 
@@ -417,53 +429,31 @@ public class Algoritmo {
      * @return {@code true} si la palabra es válida, {@code false} en caso contrario.
      */
     public boolean esPalabraValida(String palabra, String idioma) {
-        //System.out.println("Validating word: " + palabra + " in language: " + idioma);
-        DAWG.DAWGNode nodoActual = dawg.getRoot();
-        List<String> letrasEspeciales = new ArrayList<>();
-
-        // Define special letters based on the language
-        if ("catalan".equals(idioma)) {
-            letrasEspeciales.add("L·L");
-            letrasEspeciales.add("NY");
-        } else if ("castellano".equals(idioma)) {
-            letrasEspeciales.add("CH");
-            letrasEspeciales.add("LL");
-            letrasEspeciales.add("RR");
-        }
-        //System.out.println("Special letters for " + idioma + ": " + letrasEspeciales);
+        Lexico lexicoIdioma = idioma == null || idioma.equals(lexico.getIdioma())
+                ? lexico
+                : RegistroLexicos.getInstance().getLexico(idioma);
+        DAWG dawg = lexicoIdioma.getDawg();
+        Alfabeto alfabeto = lexicoIdioma.getAlfabeto();
+        int nodoActual = dawg.getRaiz();
+        boolean finPalabra = false;
 
         for (int i = 0; i < palabra.length(); ) {
-            String letra = String.valueOf(palabra.charAt(i));
-            boolean letraEspecialEncontrada = false;
-
-            // Check for special letters in the next characters
-            for (String especial : letrasEspeciales) {
-                if (i + especial.length() <= palabra.length() &&
-                        palabra.substring(i, i + especial.length()).equals(especial)) {
-                    letra = especial;
-                    letraEspecialEncontrada = true;
-                    i += especial.length();
-                    //System.out.println("Found special letter: " + letra);
-                    break;
-                }
-            }
-
-            if (!letraEspecialEncontrada) {
-                i++; // Move to the next character if no special letter is found
-                //System.out.println("Processing normal letter: " + letra);
+            // Letter (normal or special) starting at position i
+            int codigo = alfabeto.leer(palabra, i);
+            if (codigo == Alfabeto.NINGUNA) {
+                return false;
             }
+            i += alfabeto.longitud(codigo);
 
-            // Verify if the letter (normal or special) exists in the current node's children
-            if (!nodoActual.getChildren().containsKey(letra)) {
-                //System.out.println("Letter not found in DAWG: " + letra);
+            // Verify if the letter leaves the current node
+            int arista = dawg.arista(nodoActual, codigo);
+            if (arista < 0) {
                 return false; // The letter does not exist in the DAWG
             }
-            nodoActual = nodoActual.getChildren().get(letra); // Move to the next node
-            //System.out.println("Moved to next node for letter: " + letra);
+            finPalabra = dawg.esFinDePalabra(arista);
+            nodoActual = dawg.hijo(arista); // Move to the next node
         }
 
-        boolean isEndOfWord = nodoActual.isEndOfWord();
-        //System.out.println("Word validation result for '" + palabra + "': " + isEndOfWord);
-        return isEndOfWord; // Check if the final node marks the end of a word
+        return finPalabra; // Check if the last edge marks the end of a word
     }
 }
@@ -0,0 +1,171 @@
+package dominio;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Búsqueda de jugada «en cualquier momento» (<i>anytime</i>): se lanza en
+ * segundo plano y en todo momento tiene una jugada, la mejor encontrada hasta
+ * ahora.  La búsqueda se hace por fases, cada una más cara y más precisa que
+ * la anterior (por ejemplo, la jugada de mayor valoración y después la de una
+ * {@link EstrategiaRobot} o la del {@link SolucionadorFinal}); al terminar una
+ * fase, su jugada pasa a ser la mejor.
+ * </p>
+ * <p>
+ * {@link #getResultado()} se completa con la mejor jugada cuando terminan
+ * todas las fases, cuando vence el plazo o cuando se cancela la búsqueda, lo
+ * que ocurra antes; nunca se completa con una excepción.  El plazo no corta la
+ * primera fase, que da la jugada de referencia: si vence antes de que
+ * termine, el resultado llega en cuanto termina y no empieza ninguna otra.
+ * Si vence después, la búsqueda se cancela y se interrumpe la fase en curso.
+ * Solo una cancelación explícita antes de terminar la primera fase completa
+ * el resultado con {@code null}.  Las fases deben trabajar sobre copias del
+ * tablero y del atril, porque la fase interrumpida sigue ejecutándose hasta
+ * que atiende la interrupción; {@link #esperarFin()} espera a que se detenga.
+ * </p>
+ */
+public class BusquedaJugada {
+
+    /** Hilos de las búsquedas en curso; son demonios para no impedir que termine la aplicación. */
+    private static final ExecutorService HILOS = Executors.newCachedThreadPool(tarea -> {
+        Thread hilo = new Thread(tarea, "busqueda-jugada");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /** Mejor jugada encontrada hasta ahora. */
+    private final AtomicReference<Movimiento> mejor = new AtomicReference<>();
+
+    /** Resultado de la búsqueda. */
+    private final CompletableFuture<Movimiento> resultado = new CompletableFuture<>();
+
+    /** Número de fases terminadas. */
+    private volatile int fasesTerminadas;
+
+    /** Tarea que ejecuta las fases. */
+    private volatile Future<?> tarea;
+
+    /** Indica si ha vencido el plazo. */
+    private volatile boolean plazoVencido;
+
+    /** Indica si la tarea ha empezado a ejecutar las fases. */
+    private volatile boolean iniciada;
+
+    /** Se abre cuando la tarea ha dejado de ejecutar las fases. */
+    private final CountDownLatch detenida = new CountDownLatch(1);
+
+    private BusquedaJugada() {
+    }
+
+    /**
+     * Lanza una búsqueda en segundo plano.
+     *
+     * @param fases   Fases de la búsqueda, en orden; cada una devuelve su jugada
+     *                o {@code null} si no encuentra ninguna.
+     * @param plazoMs Tiempo máximo hasta tener el resultado, en milisegundos.
+     * @return Búsqueda en curso.
+     */
+    public static BusquedaJugada iniciar(List<Supplier<Movimiento>> fases, long plazoMs) {
+        BusquedaJugada busqueda = new BusquedaJugada();
+        CompletableFuture.delayedExecutor(plazoMs, TimeUnit.MILLISECONDS).execute(busqueda::vencerPlazo);
+        busqueda.tarea = HILOS.submit(() -> busqueda.ejecutar(fases));
+        return busqueda;
+    }
+
+    /**
+     * Ejecuta las fases mientras la búsqueda no haya terminado.
+     */
+    private void ejecutar(List<Supplier<Movimiento>> fases) {
+        iniciada = true;
+        try {
+            for (Supplier<Movimiento> fase : fases) {
+                if (resultado.isDone() || plazoVencido || Thread.currentThread().isInterrupted()) return;
+                Movimiento jugada = fase.get();
+                if (Thread.currentThread().isInterrupted()) return; // cancelada
+                if (jugada != null) {
+                    mejor.set(jugada);
+                }
+                fasesTerminadas++;
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error en la búsqueda de la jugada: " + e.getMessage());
+        } finally {
+            terminar();
+            detenida.countDown();
+        }
+    }
+
+    /**
+     * Al vencer el plazo se cancela la búsqueda si la primera fase ya ha
+     * terminado; si no, la tarea termina al acabar la primera fase.
+     */
+    private void vencerPlazo() {
+        plazoVencido = true;
+        if (fasesTerminadas > 0) {
+            cancelar();
+        }
+    }
+
+    /**
+     * Completa el resultado con la mejor jugada encontrada hasta ahora.
+     */
+    private void terminar() {
+        resultado.complete(mejor.get());
+    }
+
+    /**
+     * Cancela la búsqueda: el resultado se completa en el acto con la mejor
+     * jugada encontrada hasta ahora y se interrumpe la fase en curso.
+     */
+    public void cancelar() {
+        terminar();
+        Future<?> enCurso = tarea;
+        if (enCurso != null) {
+            enCurso.cancel(true);
+        }
+    }
+
+    /**
+     * @return resultado de la búsqueda; se completa con la mejor jugada al
+     *         terminar, al vencer el plazo o al cancelarla
+     */
+    public CompletableFuture<Movimiento> getResultado() {
+        return resultado;
+    }
+
+    /** @return mejor jugada encontrada hasta ahora, o {@code null} si aún no hay ninguna */
+    public Movimiento getMejorHastaAhora() {
+        return mejor.get();
+    }
+
+    /** @return número de fases terminadas */
+    public int getFasesTerminadas() {
+        return fasesTerminadas;
+    }
+
+    /**
+     * Espera a que la tarea deje de ejecutar fases, por ejemplo para no
+     * empezar otra búsqueda mientras la fase interrumpida aún ocupa un hilo.
+     * Si la tarea se canceló antes de empezar, vuelve en el acto.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void esperarFin() throws InterruptedException {
+        if (iniciada) {
+            detenida.await();
+        }
+    }
+
+    /** @return {@code true} si el resultado ya está disponible */
+    public boolean haTerminado() {
+        return resultado.isDone();
+    }
+}
@@ -0,0 +1,292 @@
+package dominio;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * Caché de transposiciones de la generación de movimientos por líneas.  Los
+ * movimientos de una fila o columna solo dependen de lo que hay en ella: sus
+ * fichas, los conjuntos y sumas de cruce y las bonificaciones y anclajes de
+ * sus casillas, además del atril.  Entre un turno y el siguiente casi todas las
+ * líneas siguen igual, y las simulaciones y la búsqueda por fases generan una
+ * y otra vez sobre el mismo tablero, así que el {@link GeneradorMovimientos}
+ * guarda aquí las jugadas de cada línea y las reutiliza.
+ * </p>
+ * <p>
+ * La clave de una línea es un hash de Zobrist: un número aleatorio por cada
+ * ficha en cada casilla, mezclado con los conjuntos de cruce, las sumas, las
+ * bonificaciones y los anclajes, con un número aleatorio por cada copia de
+ * cada ficha del atril y con uno por cada opción del generador que cambia las
+ * jugadas (tabla de restos y GADDAG).  Como la clave cubre todo el estado de
+ * la línea, una línea que ha cambiado nunca devuelve jugadas viejas; además,
+ * {@link #invalidar(Movimiento)} descarta las entradas de las líneas que toca
+ * un movimiento para no ocupar la caché con ellas.  La capacidad se mide en
+ * jugadas guardadas, no en líneas, porque una línea puede tener miles; al
+ * superarla se descartan las líneas usadas hace más tiempo (LRU).  La caché
+ * es opcional: solo la usa quien la pasa al generador o al algoritmo.
+ * </p>
+ * <p>
+ * Los métodos están sincronizados: la caché se puede compartir entre los
+ * algoritmos de un robot y entre los hilos de la generación en paralelo.
+ * </p>
+ */
+public class CacheLineas {
+
+    /** Capacidad por defecto, en jugadas. */
+    public static final int CAPACIDAD_POR_DEFECTO = 50_000;
+
+    /** Semilla de los números aleatorios de las claves. */
+    private static final long SEMILLA = 0x4C494E45L;
+
+    /** Jugadas guardadas de una línea. */
+    private static class Entrada {
+        final int indice;
+        final List<JugadaGenerada> jugadas;
+
+        Entrada(int indice, List<JugadaGenerada> jugadas) {
+            this.indice = indice;
+            this.jugadas = jugadas;
+        }
+    }
+
+    /** Número máximo de jugadas guardadas. */
+    private final int capacidad;
+
+    /** Número de jugadas guardadas en todas las líneas. */
+    private int numJugadas;
+
+    /** Entradas por clave, en orden de uso. */
+    private final LinkedHashMap<Long, Entrada> entradas;
+
+    /** Número aleatorio de cada ficha en cada casilla: {@code [casilla][codigo + 2]}. */
+    private long[][] aleatoriosCasilla;
+
+    /** Número aleatorio de cada casilla para mezclar cruces, sumas, bonificaciones y anclajes. */
+    private long[] aleatoriosEstado;
+
+    /** Número aleatorio de cada copia de cada ficha del atril: {@code [codigo][copia]}. */
+    private long[][] aleatoriosAtril;
+
+    /** Número aleatorio de cada línea (orientación y posición). */
+    private long[] aleatoriosLinea;
+
+    /** Números aleatorios de las opciones del generador: tabla de restos y GADDAG. */
+    private long aleatorioRestos, aleatorioGaddag;
+
+    /** Consultas y aciertos desde la creación o la última vez que se vació. */
+    private long consultas, aciertos;
+
+    /**
+     * Crea una caché con la capacidad por defecto.
+     */
+    public CacheLineas() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea una caché.
+     *
+     * @param capacidad Número máximo de jugadas guardadas.
+     * @throws IllegalArgumentException si la capacidad no es positiva.
+     */
+    public CacheLineas(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva.");
+        }
+        this.capacidad = capacidad;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Crea los números aleatorios para un tablero de {@code n x n} y un
+     * alfabeto de {@code numLetras} fichas, si aún no existen o no bastan.
+     */
+    private void reservar(int n, int numLetras) {
+        if (aleatoriosCasilla != null && aleatoriosCasilla.length >= n && aleatoriosAtril.length >= numLetras) {
+            return;
+        }
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        aleatoriosCasilla = new long[n][numLetras + 2];
+        aleatoriosEstado = new long[n];
+        for (int p = 0; p < n; p++) {
+            for (int i = 0; i < numLetras + 2; i++) aleatoriosCasilla[p][i] = aleatorio.nextLong();
+            aleatoriosEstado[p] = aleatorio.nextLong();
+        }
+        aleatoriosAtril = new long[numLetras][TablaRestos.MAX_FICHAS];
+        for (long[] ficha : aleatoriosAtril) {
+            for (int k = 0; k < ficha.length; k++) ficha[k] = aleatorio.nextLong();
+        }
+        aleatoriosLinea = new long[2 * n];
+        for (int i = 0; i < 2 * n; i++) aleatoriosLinea[i] = aleatorio.nextLong();
+        aleatorioRestos = aleatorio.nextLong();
+        aleatorioGaddag = aleatorio.nextLong();
+    }
+
+    /**
+     * Calcula la clave de un atril y de la configuración del generador, que
+     * también cambia las jugadas (sus restos y su orden).
+     *
+     * @param atril      Número de fichas de cada código.
+     * @param n          Tamaño del tablero.
+     * @param conRestos  {@code true} si el generador valora los restos.
+     * @param conGaddag  {@code true} si el generador usa el GADDAG.
+     * @return Clave del multiconjunto de fichas y de la configuración.
+     */
+    synchronized long claveAtril(int[] atril, int n, boolean conRestos, boolean conGaddag) {
+        reservar(n, atril.length);
+        long clave = (conRestos ? aleatorioRestos : 0) ^ (conGaddag ? aleatorioGaddag : 0);
+        for (int codigo = 0; codigo < atril.length; codigo++) {
+            for (int k = 0; k < atril[codigo] && k < TablaRestos.MAX_FICHAS; k++) {
+                clave ^= aleatoriosAtril[codigo][k];
+            }
+        }
+        return clave;
+    }
+
+    /**
+     * Calcula la clave de una línea con un atril.
+     *
+     * @param indice    Línea: filas de {@code 0} a {@code n - 1}, columnas después.
+     * @param casillas  Códigos de las fichas de la línea.
+     * @param cruces    Conjuntos de cruce de sus casillas.
+     * @param sumas     Sumas de cruce de sus casillas.
+     * @param bonos     Bonificaciones de sus casillas.
+     * @param anclajes  Anclajes de la línea, un bit por casilla.
+     * @param claveAtril Clave del atril ({@link #claveAtril(int[], int, boolean, boolean)}).
+     * @return Clave de la línea.
+     */
+    long claveLinea(int indice, int[] casillas, long[] cruces, int[] sumas, int[] bonos,
+                    long anclajes, long claveAtril) {
+        long clave = aleatoriosLinea[indice] ^ claveAtril ^ mezclar(anclajes + aleatoriosLinea[indice]);
+        for (int p = 0; p < casillas.length; p++) {
+            clave ^= aleatoriosCasilla[p][casillas[p] + 2];
+            long estado = aleatoriosEstado[p];
+            clave ^= mezclar(cruces[p] ^ estado);
+            clave ^= mezclar(((long) sumas[p] << 32 | (bonos[p] & 0xFFFFFFFFL)) + estado);
+        }
+        return clave;
+    }
+
+    /**
+     * Mezcla los bits de un valor (finalizador de SplitMix64).
+     */
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Busca las jugadas de una línea.
+     *
+     * @param clave Clave de la línea.
+     * @return Jugadas guardadas, o {@code null} si no están.
+     */
+    synchronized List<JugadaGenerada> buscar(long clave) {
+        consultas++;
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            return null;
+        }
+        aciertos++;
+        return entrada.jugadas;
+    }
+
+    /**
+     * Guarda las jugadas de una línea y descarta las líneas usadas hace más
+     * tiempo hasta volver a la capacidad.  Una línea con más jugadas que la
+     * capacidad no se guarda.
+     *
+     * @param clave   Clave de la línea.
+     * @param indice  Línea.
+     * @param jugadas Jugadas de la línea; no deben modificarse después.
+     */
+    synchronized void guardar(long clave, int indice, List<JugadaGenerada> jugadas) {
+        if (jugadas.size() > capacidad) {
+            return;
+        }
+        Entrada anterior = entradas.put(clave, new Entrada(indice, jugadas));
+        if (anterior != null) {
+            numJugadas -= anterior.jugadas.size();
+        }
+        numJugadas += jugadas.size();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (numJugadas > capacidad) {
+            numJugadas -= it.next().jugadas.size();
+            it.remove();
+        }
+    }
+
+    /**
+     * Descarta las entradas de las líneas que toca un movimiento: las filas y
+     * columnas de sus fichas y las contiguas, cuyos cruces y anclajes cambian.
+     *
+     * @param movimiento Movimiento jugado.
+     */
+    public synchronized void invalidar(Movimiento movimiento) {
+        if (movimiento == null || movimiento.getPosiciones() == null || aleatoriosLinea == null) {
+            return;
+        }
+        int n = aleatoriosLinea.length / 2;
+        boolean[] tocadas = new boolean[2 * n];
+        for (int[] posicion : movimiento.getPosiciones()) {
+            for (int d = -1; d <= 1; d++) {
+                int fila = posicion[0] - 1 + d;
+                int columna = posicion[1] - 1 + d;
+                if (fila >= 0 && fila < n) tocadas[fila] = true;
+                if (columna >= 0 && columna < n) tocadas[n + columna] = true;
+            }
+        }
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada entrada = it.next();
+            if (tocadas[entrada.indice]) {
+                numJugadas -= entrada.jugadas.size();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Vacía la caché y sus contadores.
+     */
+    public synchronized void vaciar() {
+        entradas.clear();
+        numJugadas = 0;
+        consultas = 0;
+        aciertos = 0;
+    }
+
+    /** @return número de líneas guardadas */
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /** @return número de jugadas guardadas en todas las líneas */
+    public synchronized int getNumJugadas() {
+        return numJugadas;
+    }
+
+    /** @return número máximo de jugadas guardadas */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /** @return consultas desde la creación o la última vez que se vació */
+    public synchronized long getConsultas() {
+        return consultas;
+    }
+
+    /** @return aciertos desde la creación o la última vez que se vació */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /** @return fracción de consultas que encuentran la línea, o 0 si no hay consultas */
+    public synchronized double getTasaAciertos() {
+        return consultas == 0 ? 0 : (double) aciertos / consultas;
+    }
+}
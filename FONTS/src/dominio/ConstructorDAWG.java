@@ -0,0 +1,388 @@
+package dominio;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Construye un {@link DAWG} mínimo de forma incremental a partir de las
+ * palabras en orden creciente (algoritmo de Daciuk et al. para listas
+ * ordenadas).  Solo se mantiene sin minimizar el camino de la última palabra
+ * añadida: cada vez que una palabra nueva se separa de él, los estados que
+ * quedan atrás ya no pueden cambiar y se sustituyen por un estado equivalente
+ * del registro o se registran como nuevos.  Nunca se llega a materializar el
+ * Trie completo del diccionario.
+ * </p>
+ * <p>
+ * Cada palabra se da como una secuencia de códigos de etiqueta (un
+ * {@code char} por letra o dígrafo).  Las palabras deben llegar en orden
+ * lexicográfico de códigos; las repetidas se ignoran.
+ * </p>
+ * <p>
+ * El constructor mide el tiempo de construcción y el pico de memoria del
+ * montículo observado mientras se añaden palabras.
+ * </p>
+ */
+public class ConstructorDAWG {
+
+    /** Estados registrados: índice de su primera transición. */
+    private int[] inicio;
+
+    /** Estados registrados: número de transiciones. */
+    private int[] numTransiciones;
+
+    /** Estados registrados: si son finales (alguna palabra termina en ellos). */
+    private boolean[] finales;
+
+    /** Número de estados registrados (el estado 0 no se usa). */
+    private int numEstados;
+
+    /** Transiciones de los estados registrados: código de la etiqueta. */
+    private int[] etiquetas;
+
+    /** Transiciones de los estados registrados: estado destino. */
+    private int[] destinos;
+
+    /** Número de transiciones registradas. */
+    private int totalTransiciones;
+
+    /** Registro de estados por contenido (direccionamiento abierto; 0 = libre). */
+    private int[] registro;
+
+    /** Camino sin minimizar, por profundidad: códigos de las transiciones. */
+    private int[][] caminoEtiquetas;
+
+    /** Camino sin minimizar, por profundidad: destinos de las transiciones. */
+    private int[][] caminoDestinos;
+
+    /** Camino sin minimizar, por profundidad: número de transiciones. */
+    private int[] caminoNum;
+
+    /** Camino sin minimizar, por profundidad: si el estado es final. */
+    private boolean[] caminoFinal;
+
+    /** Última palabra añadida. */
+    private char[] anterior;
+
+    /** Longitud de la última palabra añadida. */
+    private int longitudAnterior;
+
+    /** Palabras distintas añadidas. */
+    private int numPalabras;
+
+    /** Instante de creación, en nanosegundos. */
+    private final long inicioConstruccion;
+
+    /** Duración total de la construcción, en nanosegundos. */
+    private long tiempoConstruccion;
+
+    /** Mayor ocupación del montículo observada, en bytes. */
+    private long memoriaPico;
+
+    /** Si ya se ha llamado a {@link #construir(String[])}. */
+    private boolean terminado;
+
+    /**
+     * Crea un constructor vacío.
+     */
+    public ConstructorDAWG() {
+        inicio = new int[1024];
+        numTransiciones = new int[1024];
+        finales = new boolean[1024];
+        numEstados = 1;
+        etiquetas = new int[4096];
+        destinos = new int[4096];
+        registro = new int[2048];
+        caminoEtiquetas = new int[16][8];
+        caminoDestinos = new int[16][8];
+        caminoNum = new int[16];
+        caminoFinal = new boolean[16];
+        anterior = new char[16];
+        inicioConstruccion = System.nanoTime();
+        muestrearMemoria();
+    }
+
+    /**
+     * Añade una palabra.  Debe ser mayor o igual, en orden de códigos, que la
+     * última añadida.
+     *
+     * @param palabra Códigos de las etiquetas de la palabra, uno por {@code char}.
+     * @throws IllegalArgumentException si la palabra está fuera de orden.
+     * @throws IllegalStateException    si el DAWG ya se ha construido.
+     */
+    public void agregar(CharSequence palabra) {
+        if (terminado) {
+            throw new IllegalStateException("El DAWG ya se ha construido.");
+        }
+        int longitud = palabra.length();
+        int comun = 0;
+        while (comun < longitud && comun < longitudAnterior && palabra.charAt(comun) == anterior[comun]) {
+            comun++;
+        }
+        if (comun == longitud && comun == longitudAnterior && numPalabras > 0) {
+            return; // palabra repetida
+        }
+        if (comun < longitudAnterior && (comun == longitud || palabra.charAt(comun) < anterior[comun])) {
+            throw new IllegalArgumentException("Las palabras deben añadirse en orden creciente.");
+        }
+
+        minimizarHasta(comun);
+        asegurarProfundidad(longitud + 1);
+        for (int i = comun; i < longitud; i++) {
+            int n = caminoNum[i];
+            if (n == caminoEtiquetas[i].length) {
+                caminoEtiquetas[i] = Arrays.copyOf(caminoEtiquetas[i], n * 2);
+                caminoDestinos[i] = Arrays.copyOf(caminoDestinos[i], n * 2);
+            }
+            caminoEtiquetas[i][n] = palabra.charAt(i);
+            caminoDestinos[i][n] = 0;
+            caminoNum[i] = n + 1;
+            caminoNum[i + 1] = 0;
+            caminoFinal[i + 1] = false;
+            anterior[i] = palabra.charAt(i);
+        }
+        caminoFinal[longitud] = true;
+        longitudAnterior = longitud;
+
+        if ((++numPalabras & 0xFFF) == 0) {
+            muestrearMemoria();
+        }
+    }
+
+    /**
+     * Termina la construcción y empaqueta el grafo.
+     *
+     * @param tablaEtiquetas Letra o dígrafo de cada código usado en las palabras.
+     * @return DAWG mínimo con todas las palabras añadidas.
+     * @throws IllegalStateException si el grafo no cabe en el formato empaquetado.
+     */
+    public DAWG construir(String[] tablaEtiquetas) {
+        if (terminado) {
+            throw new IllegalStateException("El DAWG ya se ha construido.");
+        }
+        terminado = true;
+        minimizarHasta(0);
+        muestrearMemoria();
+
+        // Bloque contiguo por estado con transiciones: la raíz primero y
+        // después el resto en orden inverso de registro (de arriba abajo).
+        int[] posicion = new int[numEstados];
+        int siguiente = 1;
+        int raiz = caminoNum[0] > 0 ? siguiente : 0;
+        siguiente += caminoNum[0];
+        for (int e = numEstados - 1; e >= 1; e--) {
+            if (numTransiciones[e] > 0) {
+                posicion[e] = siguiente;
+                siguiente += numTransiciones[e];
+            }
+        }
+        if (siguiente > DAWG.MASCARA_HIJO || tablaEtiquetas.length > 256) {
+            throw new IllegalStateException("El diccionario es demasiado grande para empaquetarlo en el DAWG.");
+        }
+
+        int[] vector = new int[siguiente];
+        for (int k = 0; k < caminoNum[0]; k++) {
+            vector[raiz + k] = arista(caminoEtiquetas[0][k], caminoDestinos[0][k], posicion, k == caminoNum[0] - 1);
+        }
+        for (int e = 1; e < numEstados; e++) {
+            int n = numTransiciones[e];
+            for (int k = 0; k < n; k++) {
+                int t = inicio[e] + k;
+                vector[posicion[e] + k] = arista(etiquetas[t], destinos[t], posicion, k == n - 1);
+            }
+        }
+
+        // Se libera todo lo que ya no hace falta antes de devolver el DAWG
+        inicio = numTransiciones = etiquetas = destinos = registro = null;
+        finales = null;
+        caminoEtiquetas = caminoDestinos = null;
+
+        tiempoConstruccion = System.nanoTime() - inicioConstruccion;
+        return new DAWG(tablaEtiquetas.clone(), IntBuffer.wrap(vector), raiz);
+    }
+
+    /**
+     * Codifica una arista del vector empaquetado.
+     */
+    private int arista(int etiqueta, int destino, int[] posicion, boolean ultima) {
+        int a = (etiqueta << DAWG.DESPLAZAMIENTO_ETIQUETA) | posicion[destino];
+        if (finales[destino]) a |= DAWG.BIT_FIN_PALABRA;
+        if (ultima) a |= DAWG.BIT_ULTIMA;
+        return a;
+    }
+
+    /**
+     * Sustituye por su estado registrado cada estado del camino más profundo
+     * que {@code profundidad}, de abajo arriba.
+     *
+     * @param profundidad Longitud del prefijo del camino que sigue abierto.
+     */
+    private void minimizarHasta(int profundidad) {
+        for (int d = longitudAnterior; d > profundidad; d--) {
+            int estado = registrar(d);
+            caminoDestinos[d - 1][caminoNum[d - 1] - 1] = estado;
+        }
+    }
+
+    /**
+     * Busca en el registro un estado equivalente al del camino a la
+     * profundidad indicada; si no existe, lo registra.
+     *
+     * @param d Profundidad del estado en el camino.
+     * @return Identificador del estado registrado.
+     */
+    private int registrar(int d) {
+        int n = caminoNum[d];
+        int[] ets = caminoEtiquetas[d];
+        int[] dst = caminoDestinos[d];
+        boolean fin = caminoFinal[d];
+
+        int h = fin ? 1 : 0;
+        for (int k = 0; k < n; k++) {
+            h = h * 31 + ets[k];
+            h = h * 31 + dst[k];
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+
+        int mascara = registro.length - 1;
+        for (int i = h & mascara; ; i = (i + 1) & mascara) {
+            int e = registro[i];
+            if (e == 0) {
+                e = nuevoEstado(ets, dst, n, fin);
+                registro[i] = e;
+                if (numEstados * 2 > registro.length) {
+                    redimensionarRegistro();
+                }
+                return e;
+            }
+            if (equivalente(e, ets, dst, n, fin)) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Compara un estado registrado con uno del camino.
+     */
+    private boolean equivalente(int e, int[] ets, int[] dst, int n, boolean fin) {
+        if (finales[e] != fin || numTransiciones[e] != n) {
+            return false;
+        }
+        int base = inicio[e];
+        for (int k = 0; k < n; k++) {
+            if (etiquetas[base + k] != ets[k] || destinos[base + k] != dst[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia un estado del camino a los vectores de estados registrados.
+     */
+    private int nuevoEstado(int[] ets, int[] dst, int n, boolean fin) {
+        if (numEstados == inicio.length) {
+            int capacidad = numEstados * 2;
+            inicio = Arrays.copyOf(inicio, capacidad);
+            numTransiciones = Arrays.copyOf(numTransiciones, capacidad);
+            finales = Arrays.copyOf(finales, capacidad);
+        }
+        if (totalTransiciones + n > etiquetas.length) {
+            int capacidad = Math.max(etiquetas.length * 2, totalTransiciones + n);
+            etiquetas = Arrays.copyOf(etiquetas, capacidad);
+            destinos = Arrays.copyOf(destinos, capacidad);
+        }
+        System.arraycopy(ets, 0, etiquetas, totalTransiciones, n);
+        System.arraycopy(dst, 0, destinos, totalTransiciones, n);
+        int e = numEstados++;
+        inicio[e] = totalTransiciones;
+        numTransiciones[e] = n;
+        finales[e] = fin;
+        totalTransiciones += n;
+        return e;
+    }
+
+    /**
+     * Duplica la tabla del registro y vuelve a insertar los estados.
+     */
+    private void redimensionarRegistro() {
+        int[] antiguo = registro;
+        registro = new int[antiguo.length * 2];
+        int mascara = registro.length - 1;
+        for (int e : antiguo) {
+            if (e == 0) continue;
+            int h = finales[e] ? 1 : 0;
+            for (int t = inicio[e]; t < inicio[e] + numTransiciones[e]; t++) {
+                h = h * 31 + etiquetas[t];
+                h = h * 31 + destinos[t];
+            }
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            int i = h & mascara;
+            while (registro[i] != 0) {
+                i = (i + 1) & mascara;
+            }
+            registro[i] = e;
+        }
+    }
+
+    /**
+     * Garantiza que el camino admite la profundidad indicada.
+     */
+    private void asegurarProfundidad(int profundidad) {
+        if (profundidad <= caminoNum.length) {
+            return;
+        }
+        int anteriorLongitud = caminoNum.length;
+        int capacidad = Math.max(profundidad, anteriorLongitud * 2);
+        caminoEtiquetas = Arrays.copyOf(caminoEtiquetas, capacidad);
+        caminoDestinos = Arrays.copyOf(caminoDestinos, capacidad);
+        for (int i = anteriorLongitud; i < capacidad; i++) {
+            caminoEtiquetas[i] = new int[8];
+            caminoDestinos[i] = new int[8];
+        }
+        caminoNum = Arrays.copyOf(caminoNum, capacidad);
+        caminoFinal = Arrays.copyOf(caminoFinal, capacidad);
+        anterior = Arrays.copyOf(anterior, capacidad);
+    }
+
+    /** Actualiza el pico de memoria observado. */
+    private void muestrearMemoria() {
+        Runtime rt = Runtime.getRuntime();
+        memoriaPico = Math.max(memoriaPico, rt.totalMemory() - rt.freeMemory());
+    }
+
+    /** @return número de palabras distintas añadidas */
+    public int getNumPalabras() {
+        return numPalabras;
+    }
+
+    /** @return número de estados del DAWG mínimo (sin contar la raíz) */
+    public int getNumEstados() {
+        return numEstados - 1;
+    }
+
+    /** @return tiempo total de construcción en milisegundos (0 si no ha terminado) */
+    public long getTiempoConstruccionMs() {
+        return tiempoConstruccion / 1_000_000L;
+    }
+
+    /** @return mayor ocupación del montículo observada durante la construcción, en bytes */
+    public long getMemoriaPico() {
+        return memoriaPico;
+    }
+
+    /**
+     * Devuelve un resumen de la construcción.
+     *
+     * @return Palabras, estados, tiempo y pico de memoria.
+     */
+    @Override
+    public String toString() {
+        return numPalabras + " palabras, " + getNumEstados() + " estados, "
+                + getTiempoConstruccionMs() + " ms, pico de memoria " + (memoriaPico >> 20) + " MB";
+    }
+}
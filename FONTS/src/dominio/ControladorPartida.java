@@ -1,6 +1,7 @@
 package dominio;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Map;
@@ -142,6 +143,37 @@ public class ControladorPartida {
      * @param numBots   número de bots entre 1 y 3 (el valor se corrige si está fuera de rango)
      */
     public void crearPartida(String idPartida, String idioma, int numBots) {
+        crearPartida(idPartida, idioma, numBots, PerfilRobot.EXPERTO);
+    }
+
+    /**
+     * Construye una nueva {@link Partida} con el usuario humano y un número de
+     * bots del mismo perfil de dificultad (véase
+     * {@link #crearPartida(String, String, List)}).
+     *
+     * @param idPartida identificador único que se asignará a la partida
+     * @param idioma    idioma elegido («catalan», «castellano» o «ingles»)
+     * @param numBots   número de bots entre 1 y 3 (el valor se corrige si está fuera de rango)
+     * @param perfil    perfil de dificultad de los bots
+     */
+    public void crearPartida(String idPartida, String idioma, int numBots, PerfilRobot perfil) {
+        if (numBots < 1 || numBots > 3) {
+            vista.printlnMensaje("Número de bots no válido. Se añadirá un bot por defecto.");
+            numBots = 1;
+        }
+        crearPartida(idPartida, idioma, new ArrayList<>(Collections.nCopies(numBots, perfil)));
+    }
+
+    /**
+     * Construye una nueva {@link Partida} con el usuario humano y un bot por
+     * cada perfil de dificultad indicado, de modo que en una misma mesa puede
+     * haber bots baratos y bots fuertes.
+     *
+     * @param idPartida identificador único que se asignará a la partida
+     * @param idioma    idioma elegido («catalan», «castellano» o «ingles»)
+     * @param perfiles  perfil de cada bot, entre 1 y 3 (si no, se añade un bot experto)
+     */
+    public void crearPartida(String idPartida, String idioma, List<PerfilRobot> perfiles) {
         limpiarPantalla();
         
         List<Usuario> jugadores = new ArrayList<>();
@@ -171,14 +203,16 @@ public class ControladorPartida {
         Algoritmo algPartida = this.partidaActual.getAlgoritmo();
 
         
-        if (numBots < 1 || numBots > 3) {
+        if (perfiles == null || perfiles.size() < 1 || perfiles.size() > 3) {
             vista.printlnMensaje("Número de bots no válido. Se añadirá un bot por defecto.");
-            numBots = 1;
+            perfiles = List.of(PerfilRobot.EXPERTO);
         }
-        for (int i = 0; i < numBots; i++) {
+        int numBots = perfiles.size();
+        for (PerfilRobot perfil : perfiles) {
             String nombreBot = "Bot" + (int) (Math.random() * 100000);
             Robot bot = new Robot(nombreBot, algPartida, this.partidaActual.getTablero());
-            vista.printlnMensaje("Bot creado: " + nombreBot);
+            bot.setPerfil(perfil == null ? PerfilRobot.EXPERTO : perfil);
+            vista.printlnMensaje("Bot creado: " + nombreBot + " (" + bot.getPerfil().getNombre() + ")");
             jugadores.add(bot);
             this.partidaActual.getTablero().anadirJugador(bot);
         }
@@ -354,13 +388,26 @@ public class ControladorPartida {
                     }
                     System.out.println();
                 }
+                // Con el saco vacío no se reponen fichas: el resto del atril ya no cuenta
+                ((Robot) jugadorActual).setValorarRestos(!partidaActual.getSaco().estaVacio());
+                ((Robot) jugadorActual).setFichasNoVistas(getFichasNoVistas(jugadorActual));
+                ((Robot) jugadorActual).setFichasRival(getFichasRival(jugadorActual));
                 Movimiento jugada = ((Robot) jugadorActual).jugar(tableroActual);
+                MetricaTurno metrica = ((Robot) jugadorActual).getUltimaMetrica();
+                partidaActual.registrarMetrica(metrica);
+                vista.printlnMensaje("Métricas del turno: " + metrica);
+                CacheLineas cache = ((Robot) jugadorActual).getCacheLineas();
+                if (cache != null) {
+                    vista.printlnMensaje(String.format("Caché de líneas: %d consultas, %.1f%% de aciertos",
+                            cache.getConsultas(), 100 * cache.getTasaAciertos()));
+                }
                 //chequear que jugada no sea null
                 if (jugada == null) {
                     vista.printlnMensaje("El robot no ha podido realizar una jugada válida.");
                     pasarTurno();
                     return null;
                 }
+                partidaActual.registrarJugada(jugadorActual, jugada);
                 System.out.println("tablero en CPartida después de robot.jugar: ");
                 String[][] tablero70 = getTab();
                 for (int i = 0; i < 15; i++) {
@@ -369,46 +416,21 @@ public class ControladorPartida {
                     }
                     System.out.println();
                 }
-                String palabraFormada = jugada.getPalabraFormada();
                 List<int[]> posiciones = jugada.getPosiciones();
                 //mostrar posiciones
                 System.out.println("PosicionesMovvvv: ");
                 for (int[] posicion : posiciones) {
                     System.out.println("Fila: " + posicion[0] + ", Columna: " + posicion[1]);
                 }
-                int z=0;
+                List<String> fichas = jugada.getFichas();
                 Map<String, List<int[]>> mapaLetras = new HashMap<>();
-                for (int i = 0; i < palabraFormada.length(); i++) {
-                    String letra = String.valueOf(palabraFormada.charAt(i));
+                for (int z = 0; z < fichas.size(); z++) {
+                    String letra = fichas.get(z);
                     int[] posicion = posiciones.get(z);
-    
-                    // Verificar si la letra es especial según el idioma
-                    String idioma = partidaActual.getTablero().getIdioma();
-                    if ("catalan".equals(idioma)) {
-                        if (i + 2 < palabraFormada.length() && palabraFormada.charAt(i) == 'L' && palabraFormada.charAt(i + 1) == '·') {
-                            letra = letra + palabraFormada.charAt(i + 1) + palabraFormada.charAt(i + 2);
-                            i += 2;
-                        } else if (i + 1 < palabraFormada.length() && palabraFormada.charAt(i) == 'N' && palabraFormada.charAt(i + 1) == 'Y') {
-                            letra = letra + palabraFormada.charAt(i + 1);
-                            i++;
-                        }
-                    } else if ("castellano".equals(idioma)) {
-                        if (i + 1 < palabraFormada.length() && palabraFormada.charAt(i) == 'C' && palabraFormada.charAt(i + 1) == 'H') {
-                            letra = letra + palabraFormada.charAt(i + 1);
-                            i++;
-                        } else if (i + 1 < palabraFormada.length() && palabraFormada.charAt(i) == 'L' && palabraFormada.charAt(i + 1) == 'L') {
-                            letra = letra + palabraFormada.charAt(i + 1);
-                            i++;
-                        } else if (i + 1 < palabraFormada.length() && palabraFormada.charAt(i) == 'R' && palabraFormada.charAt(i + 1) == 'R') {
-                            letra = letra + palabraFormada.charAt(i + 1);
-                            i++;
-                        }
-                    }
-                    ++z;
+
                     // Agregar la posición a la lista asociada con la letra
-                    mapaLetras.putIfAbsent(letra, new ArrayList<>());
-                    mapaLetras.get(letra).add(new int[]{posicion[0], posicion[1]});
-    
+                    mapaLetras.computeIfAbsent(letra, l -> new ArrayList<>()).add(new int[]{posicion[0], posicion[1]});
+
                     System.out.println("Letra: " + letra + " -> Coordenadas: (" + posicion[0] + ", " + posicion[1] + ")");
                 }
                 return mapaLetras;
@@ -426,6 +448,44 @@ public class ControladorPartida {
         return partidaActual.getWinnerUsuario();
     }
 
+    /**
+     * Devuelve las fichas que un jugador no ve: las que quedan en el saco y
+     * las de los atriles de los demás jugadores.
+     *
+     * @param jugador Jugador desde cuyo punto de vista se cuentan las fichas.
+     * @return Lista con una entrada por ficha.
+     */
+    private List<String> getFichasNoVistas(Usuario jugador) {
+        List<String> noVistas = new ArrayList<>();
+        for (Map.Entry<String, Integer> entrada : partidaActual.getSaco().getLetrasFreq().entrySet()) {
+            for (int i = 0; i < entrada.getValue(); i++) {
+                noVistas.add(entrada.getKey());
+            }
+        }
+        for (Usuario otro : partidaActual.getUsuarios()) {
+            if (otro != jugador) {
+                noVistas.addAll(otro.getFichas());
+            }
+        }
+        return noVistas;
+    }
+
+    /**
+     * Devuelve las fichas del rival de un jugador cuando se conocen: el saco
+     * está vacío y solo hay un rival.
+     *
+     * @param jugador Jugador al que le toca.
+     * @return Fichas del atril del rival, o {@code null} si no se conocen.
+     */
+    private List<String> getFichasRival(Usuario jugador) {
+        List<Usuario> usuarios = partidaActual.getUsuarios();
+        if (!partidaActual.getSaco().estaVacio() || usuarios.size() != 2) {
+            return null;
+        }
+        Usuario rival = usuarios.get(0) == jugador ? usuarios.get(1) : usuarios.get(0);
+        return new ArrayList<>(rival.getFichas());
+    }
+
     /**
      * Realiza una jugada en la partida actual utilizando un mapa de letras y sus
      * coordenadas.  Coloca las letras en el tablero y verifica si la jugada es
@@ -439,6 +499,7 @@ public class ControladorPartida {
         
             limpiarPantalla();
             List<int[]> coordenadasLetras = new ArrayList<>();
+            List<String> letrasJugada = new ArrayList<>();
             int n=0;
             for(Map.Entry<String, List<int[]>> entry : mapaLetras.entrySet()) {
                 // Extraer la letra y sus coordenadas
@@ -453,6 +514,7 @@ public class ControladorPartida {
                     System.out.println("Letra: " + letra + " -> Coordenadas: (" + fila + ", " + columna + ")");
                     this.partidaActual.getTablero().setCasilla(letra, fila, columna); // Colocar la letra en el tablero
                     coordenadasLetras.add(coordenada);
+                    letrasJugada.add(letra);
                 }
                 
             }
@@ -495,12 +557,17 @@ public class ControladorPartida {
             }
         }
         
-       //Marcar las posiciones ocupadas
-        for (int[] posicion : coordenadasLetras) {
-            System.out.println("Fila: " + posicion[0] + ", Columna: " + posicion[1]);
-            this.partidaActual.getTablero().setCasillaOcupada(posicion[0], posicion[1]);
-        }
+       //Marcar las posiciones ocupadas y gastar sus bonificaciones
+        this.partidaActual.getTablero().confirmarFichas(coordenadasLetras);
         jugadorActual.sumarPuntos(n); // Sumar puntos al jugador
+        if (!coordenadasLetras.isEmpty()) {
+            // Se anota en el registro de la partida para poder reproducirla
+            int[] primera = coordenadasLetras.get(0);
+            boolean horizontal = coordenadasLetras.size() == 1 || coordenadasLetras.get(1)[0] == primera[0];
+            Movimiento movimiento = new Movimiento(letrasJugada, primera[0], primera[1], horizontal, n, "");
+            movimiento.setCoordenadas(coordenadasLetras);
+            partidaActual.registrarJugada(jugadorActual, movimiento);
+        }
 
         return 0;
     }  
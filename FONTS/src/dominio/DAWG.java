@@ -1,142 +1,258 @@
 package dominio;
 
+import java.nio.IntBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * La clase DAWG (Directed Acyclic Word Graph) implementa una estructura de datos
  * que permite almacenar palabras de manera eficiente, eliminando redundancias
  * mediante la minimización de nodos.
+ * <p>
+ * Una vez construido, el grafo se guarda empaquetado en un único vector de
+ * enteros: cada nodo es un bloque contiguo de aristas y cada arista ocupa un
+ * {@code int} con este formato:
+ * </p>
+ * <ul>
+ *   <li>bits 0-21: índice de la primera arista del nodo hijo (0 si no tiene hijos);</li>
+ *   <li>bit 22: la palabra termina al recorrer la arista;</li>
+ *   <li>bit 23: última arista del nodo;</li>
+ *   <li>bits 24-31: índice de la etiqueta (letra o dígrafo) de la arista; en
+ *       los léxicos de los idiomas es el código de la ficha en su {@link Alfabeto}.</li>
+ * </ul>
+ * <p>
+ * La posición 0 del vector es un centinela, de modo que un hijo 0 significa
+ * «sin hijos».  El grafo mínimo se obtiene con {@link ConstructorDAWG}.  El vector puede residir en el montículo o en un fichero
+ * proyectado en memoria (véase {@link ImagenLexico}); en ambos casos las
+ * consultas se hacen directamente sobre él.
+ * </p>
  */
 public class DAWG {
 
-    /**
-     * La clase DAWGNode representa un nodo en el DAWG.
-     * Cada nodo contiene un mapa de hijos y un indicador de si es el final de una palabra.
-     */
-    static class DAWGNode {
-        /**
-         * Mapa que almacena los hijos del nodo actual, donde la clave es un carácter
-         * y el valor es otro nodo DAWGNode.
-         */
-        Map<String, DAWGNode> children;
-
-        /**
-         * Indica si el nodo actual representa el final de una palabra.
-         */
-        boolean isEndOfWord;
-
-        /**
-         * Constructor de la clase DAWGNode.
-         * Inicializa el mapa de hijos y establece el indicador de fin de palabra en falso.
-         */
-        DAWGNode() {
-            children = new HashMap<>();
-            isEndOfWord = false;
-        }
+    /** Máscara del índice del nodo hijo dentro de una arista. */
+    static final int MASCARA_HIJO = (1 << 22) - 1;
 
-        /**
-         * Obtiene los hijos del nodo actual.
-         *
-         * @return Un mapa que contiene los hijos del nodo.
-         */
-        public Map<String, DAWGNode> getChildren() {
-            return children;
-        }
+    /** Bit que indica que la palabra termina al recorrer la arista. */
+    static final int BIT_FIN_PALABRA = 1 << 22;
 
-        /**
-         * Verifica si el nodo actual representa el final de una palabra.
-         *
-         * @return {@code true} si es el final de una palabra, {@code false} en caso contrario.
-         */
-        public boolean isEndOfWord() {
-            return isEndOfWord;
-        }
+    /** Bit que indica que la arista es la última de su nodo. */
+    static final int BIT_ULTIMA = 1 << 23;
 
-        /**
-         * Calcula el código hash del nodo actual.
-         *
-         * @return El código hash basado en los hijos y el indicador de fin de palabra.
-         */
-        @Override
-        public int hashCode() {
-            return children.hashCode() + (isEndOfWord ? 1 : 0);
-        }
+    /** Desplazamiento de la etiqueta dentro de una arista. */
+    static final int DESPLAZAMIENTO_ETIQUETA = 24;
 
-        /**
-         * Compara este nodo con otro objeto para verificar si son iguales.
-         *
-         * @param obj El objeto a comparar.
-         * @return {@code true} si los nodos son iguales, {@code false} en caso contrario.
-         */
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            DAWGNode other = (DAWGNode) obj;
-            return isEndOfWord == other.isEndOfWord && children.equals(other.children);
-        }
-    }
+    /**
+     * Aristas empaquetadas del grafo.
+     */
+    private IntBuffer aristas;
 
     /**
-     * Nodo raíz del DAWG.
+     * Índice de la primera arista del nodo raíz (0 si el DAWG está vacío).
      */
-    private DAWGNode root;
+    private int raiz;
 
     /**
-     * Mapa que almacena los nodos minimizados para evitar redundancias.
+     * Etiquetas (letras o dígrafos) de las aristas, indexadas por su código.
      */
-    private Map<DAWGNode, DAWGNode> minimizedNodes;
+    private String[] etiquetas;
+
+    /**
+     * Código de cada etiqueta.
+     */
+    private Map<String, Integer> indicesEtiquetas;
 
     /**
      * Constructor de la clase DAWG.
-     * Inicializa el DAWG con un nodo raíz vacío y un mapa de nodos minimizados.
+     * Inicializa un DAWG vacío, sin palabras.
      */
     public DAWG() {
-        root = new DAWGNode();
-        minimizedNodes = new HashMap<>();
+        this(new String[0], IntBuffer.wrap(new int[1]), 0);
+    }
+
+    /**
+     * Crea un DAWG sobre un vector de aristas ya empaquetado.
+     *
+     * @param etiquetas Etiquetas de las aristas, indexadas por código.
+     * @param aristas   Aristas empaquetadas (la posición 0 es el centinela).
+     * @param raiz      Índice de la primera arista del nodo raíz.
+     */
+    DAWG(String[] etiquetas, IntBuffer aristas, int raiz) {
+        this.etiquetas = etiquetas;
+        this.aristas = aristas;
+        this.raiz = raiz;
+        this.indicesEtiquetas = new HashMap<>();
+        for (int i = 0; i < etiquetas.length; i++) {
+            indicesEtiquetas.put(etiquetas[i], i);
+        }
     }
 
     /**
      * Obtiene el nodo raíz del DAWG.
      *
-     * @return El nodo raíz.
+     * @return Índice de la primera arista de la raíz, o 0 si el DAWG está vacío.
      */
-    public DAWGNode getRoot() {
-        return root;
+    public int getRaiz() {
+        return raiz;
     }
 
     /**
-     * Construye el DAWG a partir de un Trie dado.
+     * Construye el DAWG a partir de un Trie dado.  Recorre el Trie en orden
+     * y pasa sus palabras a un {@link ConstructorDAWG}.
      *
      * @param trie El Trie del cual se desea construir el DAWG.
      */
     public void buildFromTrie(Trie trie) {
-        root = minimize(trie.root);
+        TreeSet<String> conjuntoEtiquetas = new TreeSet<>();
+        recogerEtiquetas(trie.root, conjuntoEtiquetas);
+        String[] tablaEtiquetas = conjuntoEtiquetas.toArray(new String[0]);
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < tablaEtiquetas.length; i++) {
+            indices.put(tablaEtiquetas[i], i);
+        }
+
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        recorrer(trie.root, new StringBuilder(), indices, constructor);
+        DAWG dawg = constructor.construir(tablaEtiquetas);
+
+        this.etiquetas = dawg.etiquetas;
+        this.indicesEtiquetas = dawg.indicesEtiquetas;
+        this.aristas = dawg.aristas;
+        this.raiz = dawg.raiz;
+    }
+
+    /**
+     * Añade a {@code conjunto} todas las etiquetas que aparecen bajo un nodo del Trie.
+     */
+    private static void recogerEtiquetas(Trie.TrieNode nodo, Set<String> conjunto) {
+        for (Map.Entry<String, Trie.TrieNode> hijo : nodo.children.entrySet()) {
+            conjunto.add(hijo.getKey());
+            recogerEtiquetas(hijo.getValue(), conjunto);
+        }
+    }
+
+    /**
+     * Recorre en orden las palabras bajo un nodo del Trie y las añade al constructor.
+     */
+    private static void recorrer(Trie.TrieNode nodo, StringBuilder prefijo, Map<String, Integer> indices,
+                                 ConstructorDAWG constructor) {
+        if (nodo.isEndOfWord) {
+            constructor.agregar(prefijo);
+        }
+        List<String> claves = new ArrayList<>(nodo.children.keySet());
+        claves.sort(null);
+        for (String clave : claves) {
+            prefijo.append((char) indices.get(clave).intValue());
+            recorrer(nodo.children.get(clave), prefijo, indices, constructor);
+            prefijo.setLength(prefijo.length() - 1);
+        }
     }
 
     /**
-     * Minimiza un nodo del Trie y lo convierte en un nodo del DAWG.
+     * Busca la arista de un nodo con la etiqueta indicada.
      *
-     * @param trieNode El nodo del Trie que se desea minimizar.
-     * @return El nodo minimizado del DAWG.
-     */
-    private DAWGNode minimize(Trie.TrieNode trieNode) {
-        DAWGNode dawgNode = new DAWGNode();
-        dawgNode.isEndOfWord = trieNode.isEndOfWord;
-
-        for (Map.Entry<String, Trie.TrieNode> entry : trieNode.children.entrySet()) {
-            String key = entry.getKey();
-            Trie.TrieNode childTrieNode = entry.getValue();
-            DAWGNode childDawgNode = minimize(childTrieNode);
-            dawgNode.children.put(key, childDawgNode);
+     * @param nodo     Índice de la primera arista del nodo (0 si no tiene hijos).
+     * @param etiqueta Código de la etiqueta buscada.
+     * @return Índice de la arista, o -1 si el nodo no tiene esa etiqueta.
+     */
+    public int arista(int nodo, int etiqueta) {
+        if (nodo == 0 || etiqueta < 0) return -1;
+        for (int i = nodo; ; i++) {
+            int a = aristas.get(i);
+            if ((a >>> DESPLAZAMIENTO_ETIQUETA) == etiqueta) return i;
+            if ((a & BIT_ULTIMA) != 0) return -1;
         }
+    }
+
+    /**
+     * Busca la arista de un nodo con la letra indicada.
+     *
+     * @param nodo  Índice de la primera arista del nodo.
+     * @param letra Letra o dígrafo buscado.
+     * @return Índice de la arista, o -1 si no existe.
+     */
+    public int arista(int nodo, String letra) {
+        return arista(nodo, indiceEtiqueta(letra));
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return Índice de la primera arista del nodo hijo (0 si no tiene hijos).
+     */
+    public int hijo(int arista) {
+        return aristas.get(arista) & MASCARA_HIJO;
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return {@code true} si alguna palabra termina al recorrer la arista.
+     */
+    public boolean esFinDePalabra(int arista) {
+        return (aristas.get(arista) & BIT_FIN_PALABRA) != 0;
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return {@code true} si es la última arista de su nodo.
+     */
+    public boolean esUltima(int arista) {
+        return (aristas.get(arista) & BIT_ULTIMA) != 0;
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return Código de la etiqueta de la arista.
+     */
+    public int etiqueta(int arista) {
+        return aristas.get(arista) >>> DESPLAZAMIENTO_ETIQUETA;
+    }
+
+    /**
+     * @param letra Letra o dígrafo.
+     * @return Código de la etiqueta, o -1 si ninguna arista la usa.
+     */
+    public int indiceEtiqueta(String letra) {
+        Integer indice = indicesEtiquetas.get(letra);
+        return indice == null ? -1 : indice;
+    }
+
+    /**
+     * @param indice Código de una etiqueta.
+     * @return Letra o dígrafo correspondiente.
+     */
+    public String getEtiqueta(int indice) {
+        return etiquetas[indice];
+    }
 
-        if (minimizedNodes.containsKey(dawgNode)) {
-            return minimizedNodes.get(dawgNode);
-        } else {
-            minimizedNodes.put(dawgNode, dawgNode);
-            return dawgNode;
+    /** @return copia de la tabla de etiquetas, indexada por código */
+    public String[] getEtiquetas() {
+        return etiquetas.clone();
+    }
+
+    /** @return número de posiciones del vector de aristas (incluido el centinela) */
+    public int getNumAristas() {
+        return aristas.limit();
+    }
+
+    /**
+     * Devuelve el tamaño aproximado que ocupa el DAWG: el vector de aristas
+     * más la tabla de etiquetas.
+     *
+     * @return Tamaño en bytes.
+     */
+    public long getTamanoBytes() {
+        long tamano = (long) aristas.limit() * Integer.BYTES;
+        for (String etiqueta : etiquetas) {
+            tamano += etiqueta.length() * 2L;
         }
+        return tamano;
+    }
+
+    /** @return vista de solo lectura del vector de aristas */
+    IntBuffer getAristas() {
+        return aristas.asReadOnlyBuffer();
     }
-}
\ No newline at end of file
+}
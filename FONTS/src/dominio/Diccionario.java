@@ -4,10 +4,13 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * <p>
@@ -38,6 +41,9 @@ public class Diccionario implements java.io.Serializable {
     /** Conjunto de todas las palabras válidas admitidas en el idioma. */
     private Set<String> palabrasDiccionario;
 
+    /** Alfabeto de fichas con las mismas puntuaciones; se reconstruye si hace falta. */
+    private transient Alfabeto alfabeto;
+
     /** Crea un diccionario vacío. El contenido se carga con {@link #setCargarDiccionario(String)}. */
     public Diccionario() {
         puntuacionLetras = new HashMap<>();
@@ -60,34 +66,30 @@ public class Diccionario implements java.io.Serializable {
      * @param idioma Identificador (en minúsculas) del idioma a cargar.
      */
     public void setCargarDiccionario(String idioma) {
-        // ─── Fichero de puntuaciones ─────────────────────────────────────────
-        String nombreArchivoPuntuacion = idioma + "Punt.txt";
-        try (InputStream inputStreamPunt = getClass().getClassLoader().getResourceAsStream(nombreArchivoPuntuacion)) {
-            if (inputStreamPunt == null) {
-                System.out.println("No se encontró el archivo de puntuaciones: " + nombreArchivoPuntuacion);
-            } else {
-                try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStreamPunt))) {
-                    String linea;
-                    while ((linea = br.readLine()) != null) {
-                        String[] partes = linea.split(" ");
-                        if (partes.length == 2) {
-                            String letra = partes[0];
-                            try {
-                                int puntuacion = Integer.parseInt(partes[1]);
-                                puntuacionLetras.put(letra, puntuacion);
-                            } catch (NumberFormatException ex) {
-                                System.out.println("⚠️ Número inválido en línea de puntuaciones: " + linea);
-                            }
-                        } else {
-                            System.out.println("⚠️ Línea inválida en archivo de puntuaciones: " + linea);
-                        }
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("Error al leer archivo de puntuaciones: " + e.getMessage());
+        setCargarPuntuaciones(idioma);
+        setCargarPalabras(idioma);
+    }
+
+    /**
+     * Carga en memoria solo el fichero <code>&lt;idioma&gt;Punt.txt</code>.
+     * Es lo único que necesita un léxico cuyo DAWG procede de una imagen
+     * precompilada.
+     *
+     * @param idioma Identificador (en minúsculas) del idioma a cargar.
+     */
+    public void setCargarPuntuaciones(String idioma) {
+        alfabeto = Alfabeto.cargar(idioma);
+        for (String letra : alfabeto.getLetras()) {
+            puntuacionLetras.put(letra, alfabeto.getPuntuacion(alfabeto.codigo(letra)));
         }
+    }
 
+    /**
+     * Carga en memoria solo el fichero <code>&lt;idioma&gt;Dic.txt</code>.
+     *
+     * @param idioma Identificador (en minúsculas) del idioma a cargar.
+     */
+    public void setCargarPalabras(String idioma) {
         // ─── Fichero de palabras ────────────────────────────────────────────
         String nombreArchivoPalabras = idioma + "Dic.txt";
         try (InputStream inputStreamDic = getClass().getClassLoader().getResourceAsStream(nombreArchivoPalabras)) {
@@ -124,31 +126,26 @@ public class Diccionario implements java.io.Serializable {
      * @return suma de puntos de la palabra entera
      */
     public int calcularPuntuacionPalabra(String palabra) {
-        int puntuacionTotal = 0;
-        palabra = palabra.toUpperCase();
-        int i = 0;
-        while (i < palabra.length()) {
-            if (i + 2 < palabra.length()) {
-                String tres = palabra.substring(i, i + 3);
-                if (puntuacionLetras.containsKey(tres)) {
-                    puntuacionTotal += getPuntuacionLetra(tres);
-                    i += 3;
-                    continue;
-                }
-            }
-            if (i + 1 < palabra.length()) {
-                String dos = palabra.substring(i, i + 2);
-                if (puntuacionLetras.containsKey(dos)) {
-                    puntuacionTotal += getPuntuacionLetra(dos);
-                    i += 2;
-                    continue;
-                }
+        return getAlfabeto().puntuar(palabra.toUpperCase());
+    }
+
+    /**
+     * Devuelve el alfabeto de fichas con las puntuaciones del diccionario.  Si
+     * el diccionario se ha deserializado, se reconstruye a partir del mapa de
+     * puntuaciones.
+     *
+     * @return alfabeto del diccionario
+     */
+    public Alfabeto getAlfabeto() {
+        if (alfabeto == null) {
+            List<String> letras = new ArrayList<>(new TreeMap<>(puntuacionLetras).keySet());
+            int[] puntos = new int[letras.size()];
+            for (int i = 0; i < puntos.length; i++) {
+                puntos[i] = puntuacionLetras.get(letras.get(i));
             }
-            String una = palabra.substring(i, i + 1);
-            puntuacionTotal += getPuntuacionLetra(una);
-            i += 1;
+            alfabeto = new Alfabeto("", letras, puntos);
         }
-        return puntuacionTotal;
+        return alfabeto;
     }
 
     /**
@@ -0,0 +1,111 @@
+package dominio;
+
+import java.util.Arrays;
+
+/**
+ * Foto inmutable del estado de una partida del {@link MotorJuego} tras una
+ * jugada: a quién le toca, las puntuaciones, las fichas que quedan en el saco
+ * y, si ha terminado, quién ha ganado.  No incluye el tablero ni los atriles,
+ * que se consultan en el propio motor.
+ */
+public class EstadoJuego {
+
+    /** Número de turnos jugados (jugadas y pases). */
+    private final int numTurno;
+
+    /** Jugador al que le toca jugar. */
+    private final int turno;
+
+    /** Puntuación de cada jugador. */
+    private final int[] puntuaciones;
+
+    /** Fichas que quedan en el saco. */
+    private final int fichasEnSaco;
+
+    /** Pases seguidos hasta ahora. */
+    private final int pasesSeguidos;
+
+    /** Última jugada, o {@code null} si aún no hay ninguna o el último turno fue un pase. */
+    private final Movimiento ultimaJugada;
+
+    /** Puntos de la última jugada. */
+    private final int ultimaPuntuacion;
+
+    /** Indica si la partida ha terminado. */
+    private final boolean terminada;
+
+    /** Jugador ganador, o -1 si no ha terminado o hay empate. */
+    private final int ganador;
+
+    EstadoJuego(int numTurno, int turno, int[] puntuaciones, int fichasEnSaco, int pasesSeguidos,
+                Movimiento ultimaJugada, int ultimaPuntuacion, boolean terminada, int ganador) {
+        this.numTurno = numTurno;
+        this.turno = turno;
+        this.puntuaciones = puntuaciones.clone();
+        this.fichasEnSaco = fichasEnSaco;
+        this.pasesSeguidos = pasesSeguidos;
+        this.ultimaJugada = ultimaJugada;
+        this.ultimaPuntuacion = ultimaPuntuacion;
+        this.terminada = terminada;
+        this.ganador = ganador;
+    }
+
+    /** @return número de turnos jugados (jugadas y pases) */
+    public int getNumTurno() {
+        return numTurno;
+    }
+
+    /** @return jugador al que le toca jugar */
+    public int getTurno() {
+        return turno;
+    }
+
+    /**
+     * @param jugador Índice del jugador.
+     * @return puntuación del jugador
+     */
+    public int getPuntuacion(int jugador) {
+        return puntuaciones[jugador];
+    }
+
+    /** @return puntuación de cada jugador */
+    public int[] getPuntuaciones() {
+        return puntuaciones.clone();
+    }
+
+    /** @return fichas que quedan en el saco */
+    public int getFichasEnSaco() {
+        return fichasEnSaco;
+    }
+
+    /** @return pases seguidos hasta ahora */
+    public int getPasesSeguidos() {
+        return pasesSeguidos;
+    }
+
+    /** @return última jugada, o {@code null} si el último turno fue un pase */
+    public Movimiento getUltimaJugada() {
+        return ultimaJugada;
+    }
+
+    /** @return puntos de la última jugada */
+    public int getUltimaPuntuacion() {
+        return ultimaPuntuacion;
+    }
+
+    /** @return {@code true} si la partida ha terminado */
+    public boolean isTerminada() {
+        return terminada;
+    }
+
+    /** @return jugador ganador, o -1 si la partida no ha terminado o hay empate */
+    public int getGanador() {
+        return ganador;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadoJuego{turno=" + numTurno + ", juega=" + turno + ", puntuaciones=" + Arrays.toString(puntuaciones)
+                + ", saco=" + fichasEnSaco + (terminada ? ", terminada, ganador=" + ganador : "") + '}';
+    }
+}
@@ -0,0 +1,266 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>
+ * Estrategia de robot por simulación de Monte Carlo a dos jugadas.  Toma los
+ * {@link #getNumCandidatos() mejores} movimientos del {@link Algoritmo}
+ * (según {@link Movimiento#getValoracion()}) y, para cada uno, simula muchas
+ * veces la respuesta del rival: lo aplica sobre una copia del tablero, reparte
+ * al rival un atril al azar entre las fichas no vistas (saco y atriles
+ * ocultos) y resta la mejor puntuación que consigue.  Gana el candidato con
+ * mayor valoración menos la respuesta media del rival.
+ * </p>
+ * <p>
+ * Las simulaciones se reparten entre el hilo que llama y las tareas de un
+ * ejecutor.  Por defecto es un {@link ForkJoinPool} que comparten todas las
+ * estrategias del proceso, con un hilo menos que procesadores, de modo que el
+ * robot de una partida interactiva usa todos los núcleos.  Con
+ * {@link #setEjecutor(Executor, int)} quien llama indica otro ejecutor y
+ * cuántos núcleos usa cada robot, o que simule solo en su hilo, como hace el
+ * {@link TorneoRobots}.  Cada hilo trabaja con su propia copia del
+ * {@link Tablero} y su propio {@link GeneradorMovimientos}, aplica y deshace
+ * los movimientos sin volver a copiar, y recorre los candidatos por turnos
+ * hasta agotar el presupuesto de tiempo.  Así la jugada llega en
+ * {@link #getPresupuestoMs()} milisegundos (más lo que tarde en terminar la
+ * simulación en curso) sea cual sea la posición; si no hay fichas no vistas o
+ * solo hay un candidato se juega directamente el de mayor valoración.
+ * </p>
+ */
+public class EstrategiaMonteCarlo implements EstrategiaRobot {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Candidatos que se simulan por defecto. */
+    public static final int CANDIDATOS_POR_DEFECTO = 8;
+
+    /** Presupuesto de tiempo por defecto de cada jugada, en milisegundos. */
+    public static final long PRESUPUESTO_POR_DEFECTO_MS = 1000;
+
+    /** Hilos que simulan por defecto, contando el que llama: uno por procesador. */
+    public static final int HILOS_POR_DEFECTO = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /** Margen para recoger los resultados de los hilos una vez agotado el presupuesto. */
+    private static final long MARGEN_MS = 200;
+
+    /** Número de candidatos que se simulan. */
+    private final int numCandidatos;
+
+    /** Presupuesto de tiempo de cada jugada, en milisegundos. */
+    private final long presupuestoMs;
+
+    /** Número de simulaciones de la última jugada, para estadísticas y pruebas. */
+    private transient volatile int ultimasSimulaciones;
+
+    /**
+     * Ejecutor compartido por las estrategias que no indican otro; se crea la
+     * primera vez que se usa y sus hilos no impiden que termine el proceso.
+     */
+    private static class Compartido {
+        static final ForkJoinPool EJECUTOR = new ForkJoinPool(Math.max(1, HILOS_POR_DEFECTO - 1));
+    }
+
+    /** Indica si se ha llamado a {@link #setEjecutor}; si no, se usa el ejecutor compartido. */
+    private transient boolean ejecutorIndicado;
+
+    /** Ejecutor de las simulaciones de los demás hilos, o {@code null} para simular solo en el que llama. */
+    private transient Executor ejecutor;
+
+    /** Número de hilos que simulan, contando el que llama. */
+    private transient int hilos = 1;
+
+    /**
+     * Crea la estrategia con los valores por defecto.
+     */
+    public EstrategiaMonteCarlo() {
+        this(CANDIDATOS_POR_DEFECTO, PRESUPUESTO_POR_DEFECTO_MS);
+    }
+
+    /**
+     * Crea la estrategia.
+     *
+     * @param numCandidatos Número de movimientos candidatos que se simulan.
+     * @param presupuestoMs Tiempo máximo de simulación de cada jugada, en milisegundos.
+     * @throws IllegalArgumentException si algún parámetro no es positivo.
+     */
+    public EstrategiaMonteCarlo(int numCandidatos, long presupuestoMs) {
+        if (numCandidatos < 1 || presupuestoMs < 1) {
+            throw new IllegalArgumentException("El número de candidatos y el presupuesto deben ser positivos.");
+        }
+        this.numCandidatos = numCandidatos;
+        this.presupuestoMs = presupuestoMs;
+    }
+
+    /** @return número de movimientos candidatos que se simulan */
+    public int getNumCandidatos() {
+        return numCandidatos;
+    }
+
+    /** @return presupuesto de tiempo de cada jugada, en milisegundos */
+    public long getPresupuestoMs() {
+        return presupuestoMs;
+    }
+
+    /** @return número de simulaciones hechas en la última jugada */
+    public int getUltimasSimulaciones() {
+        return ultimasSimulaciones;
+    }
+
+    /**
+     * Indica el ejecutor con el que simular en paralelo: el hilo que llama
+     * hace una parte de las simulaciones y el ejecutor, {@code hilos - 1}
+     * tareas más.  Sustituye al ejecutor compartido por defecto y no se
+     * guarda con la partida.
+     *
+     * @param ejecutor Ejecutor de las tareas, o {@code null} para simular solo
+     *                 en el hilo que llama.
+     * @param hilos    Número de hilos que simulan, contando el que llama.
+     */
+    public void setEjecutor(Executor ejecutor, int hilos) {
+        this.ejecutorIndicado = true;
+        this.ejecutor = ejecutor;
+        this.hilos = Math.max(1, hilos);
+    }
+
+    /** @return número de hilos que simulan cada jugada, contando el que llama */
+    public int getHilos() {
+        if (!ejecutorIndicado) {
+            return HILOS_POR_DEFECTO;
+        }
+        return ejecutor == null ? 1 : hilos;
+    }
+
+    @Override
+    public Movimiento elegirJugada(Algoritmo algoritmo, List<String> fichas, Tablero tablero, List<String> fichasNoVistas) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(presupuestoMs);
+        ultimasSimulaciones = 0;
+        List<Movimiento> candidatos = algoritmo.calcularMejoresJugadas(fichas, numCandidatos);
+        if (candidatos.isEmpty()) {
+            return null;
+        }
+        if (candidatos.size() == 1 || fichasNoVistas == null || fichasNoVistas.isEmpty()) {
+            return candidatos.get(0);
+        }
+
+        List<Movimiento> elegibles = candidatos;
+        String[] noVistas = fichasNoVistas.toArray(new String[0]);
+        Lexico lexico = algoritmo.getLexico();
+        Executor ejecutorTurno = ejecutorIndicado ? ejecutor : Compartido.EJECUTOR;
+        int numHilos = getHilos();
+        List<CompletableFuture<double[]>> resultados = new ArrayList<>();
+        for (int h = 1; h < numHilos; h++) {
+            int inicio = h;
+            resultados.add(CompletableFuture.supplyAsync(
+                    () -> simular(lexico, tablero, elegibles, noVistas, inicio, limite), ejecutorTurno));
+        }
+
+        // Suma de las respuestas del rival y número de simulaciones de cada candidato
+        double[] sumas = new double[elegibles.size()];
+        int[] cuentas = new int[elegibles.size()];
+        sumar(simular(lexico, tablero, elegibles, noVistas, 0, limite), sumas, cuentas);
+        long limiteRecogida = limite + TimeUnit.MILLISECONDS.toNanos(MARGEN_MS);
+        for (CompletableFuture<double[]> resultado : resultados) {
+            try {
+                sumar(resultado.get(Math.max(0, limiteRecogida - System.nanoTime()), TimeUnit.NANOSECONDS),
+                        sumas, cuentas);
+            } catch (TimeoutException | ExecutionException e) {
+                // Las simulaciones de ese hilo no cuentan; las demás bastan para decidir
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        double sumaTotal = 0;
+        int total = 0;
+        for (int i = 0; i < elegibles.size(); i++) {
+            sumaTotal += sumas[i];
+            total += cuentas[i];
+        }
+        ultimasSimulaciones = total;
+        if (total == 0) {
+            return elegibles.get(0);
+        }
+        // Los candidatos sin simulaciones se comparan con la respuesta media
+        double mediaRival = sumaTotal / total;
+        Movimiento mejor = null;
+        double mejorValor = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < elegibles.size(); i++) {
+            double rival = cuentas[i] > 0 ? sumas[i] / cuentas[i] : mediaRival;
+            double valor = elegibles.get(i).getValoracion() - rival;
+            if (valor > mejorValor) {
+                mejorValor = valor;
+                mejor = elegibles.get(i);
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Acumula las simulaciones de un hilo (véase {@link #simular}).
+     */
+    private static void sumar(double[] parcial, double[] sumas, int[] cuentas) {
+        for (int i = 0; i < sumas.length; i++) {
+            sumas[i] += parcial[2 * i];
+            cuentas[i] += (int) parcial[2 * i + 1];
+        }
+    }
+
+    /**
+     * Simulaciones de un hilo: recorre los candidatos por turnos, empezando
+     * por {@code inicio}, hasta agotar el tiempo.  Hace al menos una.
+     *
+     * @return para cada candidato {@code i}, la suma de las respuestas del
+     *         rival en la posición {@code 2i} y el número de simulaciones en la
+     *         {@code 2i + 1}
+     */
+    private static double[] simular(Lexico lexico, Tablero original, List<Movimiento> candidatos,
+                                    String[] noVistas, int inicio, long limite) {
+        Tablero tablero = new Tablero(original);
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        SplittableRandom azar = new SplittableRandom();
+        String[] bolsa = noVistas.clone();
+        List<String> atril = new ArrayList<>(TablaRestos.MAX_FICHAS);
+        double[] resultado = new double[2 * candidatos.size()];
+        // Solo interesa la mejor puntuación del rival: no se crea ningún movimiento
+        int[] rival = new int[1];
+        ReceptorJugadas respuesta = jugada -> rival[0] = Math.max(rival[0], jugada.getPuntuacion());
+        int i = inicio % candidatos.size();
+        do {
+            tablero.aplicarMovimiento(candidatos.get(i));
+            repartir(bolsa, atril, azar);
+            rival[0] = 0;
+            generador.generar(tablero, atril, respuesta);
+            tablero.deshacerMovimiento();
+            resultado[2 * i] += rival[0];
+            resultado[2 * i + 1]++;
+            i = (i + 1) % candidatos.size();
+        } while (System.nanoTime() < limite && !Thread.currentThread().isInterrupted());
+        return resultado;
+    }
+
+    /**
+     * Reparte un atril al azar: baraja parcialmente la bolsa (sin crear
+     * objetos) y toma sus primeras fichas.
+     */
+    private static void repartir(String[] bolsa, List<String> atril, SplittableRandom azar) {
+        atril.clear();
+        int fichas = Math.min(TablaRestos.MAX_FICHAS, bolsa.length);
+        for (int k = 0; k < fichas; k++) {
+            int j = k + azar.nextInt(bolsa.length - k);
+            String ficha = bolsa[j];
+            bolsa[j] = bolsa[k];
+            bolsa[k] = ficha;
+            atril.add(ficha);
+        }
+    }
+}
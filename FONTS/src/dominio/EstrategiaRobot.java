@@ -0,0 +1,25 @@
+package dominio;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Estrategia con la que un {@link Robot} elige su jugada entre los
+ * movimientos que genera el {@link Algoritmo}.  Un robot sin estrategia juega
+ * el movimiento de mayor valoración ({@link Algoritmo#calcularMejorJugada}).
+ * Es {@link Serializable} porque se guarda con el robot en la partida.
+ */
+public interface EstrategiaRobot extends Serializable {
+
+    /**
+     * Elige la jugada del robot.  No modifica el tablero.
+     *
+     * @param algoritmo      Algoritmo asociado al tablero.
+     * @param fichas         Fichas del atril del robot.
+     * @param tablero        Tablero sobre el que se juega.
+     * @param fichasNoVistas Fichas que el robot no ve: las del saco y las de
+     *                       los atriles de los rivales.
+     * @return Movimiento elegido, o {@code null} si no hay ninguno posible.
+     */
+    Movimiento elegirJugada(Algoritmo algoritmo, List<String> fichas, Tablero tablero, List<String> fichasNoVistas);
+}
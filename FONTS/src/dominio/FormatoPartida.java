@@ -0,0 +1,393 @@
+package dominio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Formato binario compacto de las partidas guardadas, en lugar de serializar
+ * todo el grafo de objetos de {@link Partida}.  Solo guarda el estado que hace
+ * falta para seguir jugando: el turno, el contenido del saco, las casillas
+ * ocupadas y las bonificaciones que cambian, los atriles, las puntuaciones,
+ * la configuración de los robots y el {@link RegistroPartida}.  Nunca guarda
+ * nada del léxico: el diccionario y el algoritmo se recuperan de
+ * {@link RegistroLexicos} con {@link Partida#inicializarPostCarga()}.
+ * </p>
+ * <p>
+ * Cada ficha se codifica con un byte, su índice en la tabla de letras de la
+ * cabecera (las del saco, en el orden del fichero de frecuencias, y después
+ * las que no son del saco).  El tablero se guarda como un mapa de 225 bits de
+ * casillas ocupadas seguido del código de cada ficha, y de las bonificaciones
+ * solo las que no son las de un tablero vacío.  El {@link RegistroPartida} se
+ * guarda con la misma tabla de letras.  Una partida recién empezada ocupa unos
+ * 400 bytes y cada turno añade unos 20 al registro; serializada con
+ * {@code ObjectOutputStream} ocupaba más de 8 KB.
+ * </p>
+ * <p>
+ * El formato empieza por una marca y la versión {@link #VERSION}; al cambiar
+ * su estructura hay que subir la versión y seguir leyendo las anteriores.  La
+ * versión 2 añade el estado del generador del saco (semilla y pasos dados),
+ * para que una partida cargada reparta las mismas fichas que la original; las
+ * de la versión 1 siguen robando con un generador nuevo.
+ * </p>
+ */
+public class FormatoPartida {
+
+    /** Marca de las partidas guardadas («FBPG»). */
+    private static final int MAGICO = 0x46425047;
+
+    /** Versión del formato. */
+    public static final int VERSION = 2;
+
+    /** Lado del tablero. */
+    private static final int LADO = 15;
+
+    /** Tipos de jugador. */
+    private static final byte USUARIO = 0, HUMANO = 1, ROBOT = 2;
+
+    /** Estrategias de robot. */
+    private static final byte SIN_ESTRATEGIA = 0, MONTE_CARLO = 1;
+
+    /** Perfil de un robot configurado a mano. */
+    private static final int SIN_PERFIL = 0xFF;
+
+    private FormatoPartida() {
+    }
+
+    /**
+     * Indica si un fichero está en este formato sin consumir nada.
+     *
+     * @param entrada Origen; debe admitir {@link InputStream#mark(int)}.
+     * @return {@code true} si empieza por la marca del formato.
+     * @throws IOException si falla la lectura.
+     */
+    public static boolean esFormato(InputStream entrada) throws IOException {
+        entrada.mark(4);
+        try {
+            int magico = 0;
+            for (int i = 0; i < 4; i++) {
+                int b = entrada.read();
+                if (b < 0) return false;
+                magico = (magico << 8) | b;
+            }
+            return magico == MAGICO;
+        } finally {
+            entrada.reset();
+        }
+    }
+
+    /**
+     * Escribe la partida.
+     *
+     * @param partida Partida que se guarda.
+     * @param salida  Destino; no se cierra.
+     * @throws IOException si falla la escritura o la partida no se puede
+     *         representar (más de 255 letras o una estrategia desconocida).
+     */
+    public static void escribir(Partida partida, OutputStream salida) throws IOException {
+        DataOutputStream out = new DataOutputStream(salida);
+        out.writeInt(MAGICO);
+        out.writeByte(VERSION);
+        escribirTexto(out, partida.getId());
+        escribirTexto(out, partida.getIdioma());
+        out.writeLong(partida.getSemilla());
+        out.writeByte(partida.getTurnoActual());
+        out.writeBoolean(partida.isPartidaEnCurso());
+        out.writeBoolean(partida.getHaJugadoTurno());
+
+        // Tabla de letras: primero las del saco, también las que se han acabado
+        Saco saco = partida.getSaco();
+        Tablero tablero = partida.getTablero();
+        List<String> letrasSaco = saco.getLetras();
+        Map<String, Integer> codigos = new LinkedHashMap<>();
+        for (String letra : letrasSaco) {
+            codigos.putIfAbsent(letra, codigos.size());
+        }
+        byte[] ocupadas = new byte[(LADO * LADO + 7) / 8];
+        byte[] fichas = new byte[LADO * LADO];
+        byte[] bonificaciones = new byte[2 * LADO * LADO];
+        int numFichas = 0;
+        int numBonificaciones = 0;
+        for (int f = 0; f < LADO; f++) {
+            for (int c = 0; c < LADO; c++) {
+                int casilla = f * LADO + c;
+                if (tablero.isOcupadafunc(f + 1, c + 1)) {
+                    ocupadas[casilla >> 3] |= (byte) (1 << (casilla & 7));
+                    fichas[numFichas++] = (byte) codigo(codigos, tablero.getLetra(f, c));
+                }
+                int bonificacion = tablero.getBonificacionCasilla(f + 1, c + 1);
+                if (bonificacion != TableroCompacto.getBonificacion(f, c)) {
+                    bonificaciones[2 * numBonificaciones] = (byte) casilla;
+                    bonificaciones[2 * numBonificaciones + 1] = (byte) bonificacion;
+                    numBonificaciones++;
+                }
+            }
+        }
+        for (Usuario usuario : partida.getUsuarios()) {
+            for (String ficha : usuario.getFichas()) {
+                codigo(codigos, ficha);
+            }
+        }
+        RegistroPartida registro = partida.getRegistro();
+        Map<String, Integer> sacoInicial = registro == null ? Map.of() : registro.getSacoInicial();
+        for (String letra : sacoInicial.keySet()) {
+            codigo(codigos, letra);
+        }
+        if (codigos.size() > 0xFF) {
+            throw new IOException("Demasiadas letras para el formato compacto: " + codigos.size());
+        }
+        // Las letras nunca llevan espacios: se escriben todas en una sola cadena
+        out.writeByte(letrasSaco.size());
+        out.writeUTF(String.join(" ", codigos.keySet()));
+
+        // Saco: fichas que quedan de cada letra del saco
+        Map<String, Integer> quedan = saco.getLetrasFreq();
+        byte[] cantidades = new byte[2 * letrasSaco.size()];
+        for (int l = 0; l < letrasSaco.size(); l++) {
+            int cantidad = quedan.getOrDefault(letrasSaco.get(l), 0);
+            cantidades[2 * l] = (byte) (cantidad >>> 8);
+            cantidades[2 * l + 1] = (byte) cantidad;
+        }
+        out.write(cantidades);
+        out.writeBoolean(saco.tieneSemilla());
+        if (saco.tieneSemilla()) {
+            out.writeLong(saco.getSemilla());
+            out.writeLong(saco.getPasosAzar());
+        }
+
+        // Tablero: casillas ocupadas, sus fichas y las bonificaciones cambiadas
+        escribirTexto(out, tablero.getIdioma());
+        out.write(ocupadas);
+        out.write(fichas, 0, numFichas);
+        out.writeByte(numBonificaciones);
+        out.write(bonificaciones, 0, 2 * numBonificaciones);
+        out.writeShort(tablero.getContadorHumano());
+
+        // Jugadores
+        List<Usuario> usuarios = partida.getUsuarios();
+        out.writeByte(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            if (usuario instanceof Robot) {
+                out.writeByte(ROBOT);
+                out.writeUTF(usuario.getUsername());
+            } else {
+                out.writeByte(usuario instanceof Humano ? HUMANO : USUARIO);
+                out.writeUTF(usuario.getUsername());
+                out.writeUTF(usuario.getPassword());
+            }
+            out.writeBoolean(usuario.getesRobot());
+            out.writeInt(usuario.getPuntuacionPartidaActual());
+            byte[] atril = new byte[usuario.getFichas().size()];
+            for (int f = 0; f < atril.length; f++) {
+                atril[f] = (byte) (int) codigos.get(usuario.getFichas().get(f));
+            }
+            out.writeByte(atril.length);
+            out.write(atril);
+            escribirTexto(out, tablero.getMapaJugadoresPalabraLarga().get(usuario));
+            if (usuario instanceof Robot) {
+                escribirRobot(out, (Robot) usuario);
+            }
+        }
+
+        // Registro: su cabecera usa la misma tabla de letras
+        out.writeBoolean(registro != null);
+        if (registro != null) {
+            escribirTexto(out, registro.getIdioma());
+            out.writeLong(registro.getSemilla());
+            out.writeByte(registro.getJugadores().size());
+            for (String jugador : registro.getJugadores()) {
+                out.writeUTF(jugador);
+            }
+            byte[] inicial = new byte[3 * sacoInicial.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entrada : sacoInicial.entrySet()) {
+                inicial[i++] = (byte) (int) codigos.get(entrada.getKey());
+                inicial[i++] = (byte) (entrada.getValue() >>> 8);
+                inicial[i++] = (byte) (int) entrada.getValue();
+            }
+            out.writeByte(sacoInicial.size());
+            out.write(inicial);
+            registro.escribirEventos(out);
+        }
+        out.flush();
+    }
+
+    private static void escribirRobot(DataOutputStream out, Robot robot) throws IOException {
+        out.writeByte(robot.getPerfil() == null ? SIN_PERFIL : robot.getPerfil().ordinal());
+        out.writeBoolean(robot.isValorarRestos());
+        out.writeLong(robot.getPresupuestoMs());
+        EstrategiaRobot estrategia = robot.getEstrategia();
+        if (estrategia == null) {
+            out.writeByte(SIN_ESTRATEGIA);
+        } else if (estrategia instanceof EstrategiaMonteCarlo) {
+            EstrategiaMonteCarlo monteCarlo = (EstrategiaMonteCarlo) estrategia;
+            out.writeByte(MONTE_CARLO);
+            out.writeInt(monteCarlo.getNumCandidatos());
+            out.writeLong(monteCarlo.getPresupuestoMs());
+        } else {
+            throw new IOException("Estrategia de robot desconocida: " + estrategia.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Lee una partida escrita con {@link #escribir}.  Hay que llamar después a
+     * {@link Partida#inicializarPostCarga()} para recuperar el léxico.
+     *
+     * @param entrada Origen; no se cierra.
+     * @return Partida leída.
+     * @throws IOException si falla la lectura o el formato no es válido.
+     */
+    public static Partida leer(InputStream entrada) throws IOException {
+        DataInputStream in = new DataInputStream(entrada);
+        if (in.readInt() != MAGICO) {
+            throw new IOException("No es una partida guardada.");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Versión de partida no soportada: " + version);
+        }
+        String id = leerTexto(in);
+        String idioma = leerTexto(in);
+        long semilla = in.readLong();
+        int turnoActual = in.readUnsignedByte();
+        boolean enCurso = in.readBoolean();
+        boolean haJugadoTurno = in.readBoolean();
+
+        int letrasSaco = in.readUnsignedByte();
+        String tabla = in.readUTF();
+        List<String> letras = tabla.isEmpty() ? new ArrayList<>() : Arrays.asList(tabla.split(" "));
+        if (letras.size() < letrasSaco) {
+            throw new IOException("Tabla de letras incompleta.");
+        }
+
+        Map<String, Integer> quedan = new LinkedHashMap<>();
+        for (int l = 0; l < letrasSaco; l++) {
+            quedan.put(letras.get(l), in.readUnsignedShort());
+        }
+        // Sin el estado del generador (versión 1) el saco sigue robando con uno nuevo
+        Saco saco = version >= 2 && in.readBoolean() ? new Saco(in.readLong(), in.readLong()) : new Saco();
+        saco.setLetrasFreq(quedan);
+
+        Tablero tablero = new Tablero();
+        tablero.setIdioma(leerTexto(in));
+        byte[] ocupadas = new byte[(LADO * LADO + 7) / 8];
+        in.readFully(ocupadas);
+        for (int casilla = 0; casilla < LADO * LADO; casilla++) {
+            if ((ocupadas[casilla >> 3] & (1 << (casilla & 7))) != 0) {
+                int f = casilla / LADO + 1;
+                int c = casilla % LADO + 1;
+                tablero.setCasilla(letra(letras, in.readUnsignedByte()), f, c);
+                tablero.setCasillaOcupada(f, c);
+            }
+        }
+        for (int b = in.readUnsignedByte(); b > 0; b--) {
+            int casilla = in.readUnsignedByte();
+            tablero.setBonificacionCasilla(casilla / LADO + 1, casilla % LADO + 1, in.readUnsignedByte());
+        }
+        tablero.setContadorHumano(in.readUnsignedShort());
+
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int j = in.readUnsignedByte(); j > 0; j--) {
+            byte tipo = in.readByte();
+            Usuario usuario;
+            switch (tipo) {
+                case ROBOT -> usuario = new Robot(in.readUTF(), null, tablero);
+                case HUMANO -> usuario = new Humano(in.readUTF(), in.readUTF());
+                case USUARIO -> usuario = new Usuario(in.readUTF(), in.readUTF());
+                default -> throw new IOException("Tipo de jugador desconocido: " + tipo);
+            }
+            usuario.setEsRobot(in.readBoolean());
+            usuario.setPuntuacionPartidaActual(in.readInt());
+            List<String> fichas = new ArrayList<>();
+            for (int f = in.readUnsignedByte(); f > 0; f--) {
+                fichas.add(letra(letras, in.readUnsignedByte()));
+            }
+            usuario.setFichas(fichas);
+            String palabraLarga = leerTexto(in);
+            if (palabraLarga != null) {
+                tablero.anadirPalabraAJugador(usuario, palabraLarga);
+            }
+            if (usuario instanceof Robot) {
+                leerRobot(in, (Robot) usuario);
+            }
+            usuarios.add(usuario);
+        }
+
+        Partida partida = new Partida(usuarios, tablero, saco, semilla);
+        partida.setId(id);
+        partida.setIdioma(idioma);
+        partida.setTurnoActual(turnoActual);
+        partida.setPartidaEnCurso(enCurso);
+        partida.setHaJugadoTurno(haJugadoTurno);
+        if (in.readBoolean()) {
+            String idiomaRegistro = leerTexto(in);
+            long semillaRegistro = in.readLong();
+            List<String> jugadores = new ArrayList<>();
+            for (int j = in.readUnsignedByte(); j > 0; j--) {
+                jugadores.add(in.readUTF());
+            }
+            Map<String, Integer> sacoInicial = new LinkedHashMap<>();
+            for (int l = in.readUnsignedByte(); l > 0; l--) {
+                sacoInicial.put(letra(letras, in.readUnsignedByte()), in.readUnsignedShort());
+            }
+            RegistroPartida registro = new RegistroPartida(idiomaRegistro, semillaRegistro, jugadores, sacoInicial);
+            registro.leerEventos(in);
+            partida.setRegistro(registro);
+        }
+        return partida;
+    }
+
+    private static void leerRobot(DataInputStream in, Robot robot) throws IOException {
+        int perfil = in.readUnsignedByte();
+        if (perfil != SIN_PERFIL) {
+            if (perfil >= PerfilRobot.values().length) {
+                throw new IOException("Perfil de robot desconocido: " + perfil);
+            }
+            robot.setPerfil(PerfilRobot.values()[perfil]);
+        }
+        robot.setValorarRestos(in.readBoolean());
+        robot.setPresupuestoMs(in.readLong());
+        byte estrategia = in.readByte();
+        switch (estrategia) {
+            case SIN_ESTRATEGIA -> robot.setEstrategia(null);
+            case MONTE_CARLO -> robot.setEstrategia(new EstrategiaMonteCarlo(in.readInt(), in.readLong()));
+            default -> throw new IOException("Estrategia de robot desconocida: " + estrategia);
+        }
+    }
+
+    /** @return código de la letra, que se añade a la tabla si no estaba */
+    private static int codigo(Map<String, Integer> codigos, String letra) {
+        Integer codigo = codigos.get(letra);
+        if (codigo == null) {
+            codigo = codigos.size();
+            codigos.put(letra, codigo);
+        }
+        return codigo;
+    }
+
+    private static String letra(List<String> letras, int codigo) throws IOException {
+        if (codigo >= letras.size()) {
+            throw new IOException("Código de ficha fuera de la tabla: " + codigo);
+        }
+        return letras.get(codigo);
+    }
+
+    private static void escribirTexto(DataOutputStream out, String texto) throws IOException {
+        out.writeBoolean(texto != null);
+        if (texto != null) {
+            out.writeUTF(texto);
+        }
+    }
+
+    private static String leerTexto(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,214 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * GADDAG de un léxico (Gordon, 1994): para cada palabra <i>w</i> y cada
+ * posición <i>i</i> guarda la cadena
+ * <i>inv(w[0..i])</i>&nbsp;◇&nbsp;<i>w[i+1..]</i>, es decir, el prefijo hasta la
+ * ficha <i>i</i> invertido, un separador y el resto de la palabra (la cadena
+ * sin separador cuando <i>i</i> es la última ficha).  Así el generador de
+ * movimientos puede empezar una palabra en cualquier ficha del anclaje,
+ * crecer hacia la izquierda y, tras el separador, hacia la derecha, sin
+ * enumerar partes izquierdas.
+ * </p>
+ * <p>
+ * Las cadenas se guardan en un {@link DAWG} mínimo etiquetado con los códigos
+ * del {@link Alfabeto}; el separador usa el código siguiente al último de
+ * las fichas.  El conjunto de palabras se obtiene recorriendo el DAWG del
+ * mismo léxico, de modo que ambos aceptan exactamente las mismas palabras.
+ * El grafo ocupa varias veces más que el DAWG: se construye solo cuando se
+ * pide (véase {@link Lexico#getGaddag()}).
+ * </p>
+ */
+public class GADDAG {
+
+    /** Etiqueta del separador entre la parte invertida y la parte directa. */
+    public static final String SEPARADOR = "◇";
+
+    /** Grafo con las cadenas del GADDAG. */
+    private final DAWG grafo;
+
+    /** Código del separador. */
+    private final int separador;
+
+    /** Número de nodos del grafo mínimo. */
+    private final int numNodos;
+
+    /** Resumen de la construcción. */
+    private final String resumenConstruccion;
+
+    /**
+     * Crea un GADDAG sobre un grafo ya construido.
+     */
+    private GADDAG(DAWG grafo, int separador, int numNodos, String resumenConstruccion) {
+        this.grafo = grafo;
+        this.separador = separador;
+        this.numNodos = numNodos;
+        this.resumenConstruccion = resumenConstruccion;
+    }
+
+    /**
+     * Construye el GADDAG de las palabras de un DAWG.  Las cadenas se generan
+     * agrupadas por su primera ficha, en orden de códigos, para pasarlas en
+     * orden al {@link ConstructorDAWG} sin tener que guardarlas todas a la vez.
+     *
+     * @param dawg DAWG con las palabras, etiquetado con los códigos del alfabeto.
+     * @return GADDAG con las mismas palabras.
+     */
+    public static GADDAG construir(DAWG dawg) {
+        String[] letras = dawg.getEtiquetas();
+        int separador = letras.length;
+        String[] etiquetas = new String[letras.length + 1];
+        System.arraycopy(letras, 0, etiquetas, 0, letras.length);
+        etiquetas[separador] = SEPARADOR;
+
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        List<String> cadenas = new ArrayList<>();
+        for (int inicial = 0; inicial < letras.length; inicial++) {
+            cadenas.clear();
+            recogerCadenas(dawg, dawg.getRaiz(), new char[16], 0, (char) inicial, (char) separador, cadenas);
+            cadenas.sort(null);
+            for (String cadena : cadenas) {
+                constructor.agregar(cadena);
+            }
+        }
+        DAWG grafo = constructor.construir(etiquetas);
+        return new GADDAG(grafo, separador, constructor.getNumEstados(),
+                constructor.toString() + ", " + grafo.getNumAristas() + " aristas, "
+                        + grafo.getTamanoBytes() / 1024 + " KB");
+    }
+
+    /**
+     * Recorre las palabras de un DAWG y, por cada posición de cada palabra
+     * donde aparece la ficha {@code inicial}, añade la cadena del GADDAG que
+     * empieza en esa posición.
+     */
+    private static void recogerCadenas(DAWG dawg, int nodo, char[] palabra, int longitud, char inicial,
+                                       char separador, List<String> cadenas) {
+        if (nodo == 0) return;
+        if (longitud == palabra.length) {
+            palabra = Arrays.copyOf(palabra, longitud * 2);
+        }
+        for (int arista = nodo; ; arista++) {
+            palabra[longitud] = (char) dawg.etiqueta(arista);
+            if (dawg.esFinDePalabra(arista)) {
+                agregarCadenas(palabra, longitud + 1, inicial, separador, cadenas);
+            }
+            recogerCadenas(dawg, dawg.hijo(arista), palabra, longitud + 1, inicial, separador, cadenas);
+            if (dawg.esUltima(arista)) break;
+        }
+    }
+
+    /**
+     * Añade las cadenas del GADDAG de una palabra que empiezan por {@code inicial}.
+     */
+    private static void agregarCadenas(char[] palabra, int longitud, char inicial, char separador,
+                                       List<String> cadenas) {
+        StringBuilder sb = new StringBuilder(longitud + 1);
+        for (int i = 0; i < longitud; i++) {
+            if (palabra[i] != inicial) continue;
+            sb.setLength(0);
+            for (int k = i; k >= 0; k--) {
+                sb.append(palabra[k]);
+            }
+            if (i < longitud - 1) {
+                sb.append(separador).append(palabra, i + 1, longitud - i - 1);
+            }
+            cadenas.add(sb.toString());
+        }
+    }
+
+    /** @return índice de la primera arista de la raíz */
+    public int getRaiz() {
+        return grafo.getRaiz();
+    }
+
+    /**
+     * @param nodo   Índice de la primera arista del nodo.
+     * @param codigo Código de la ficha o {@link #getSeparador()}.
+     * @return Índice de la arista, o -1 si no existe.
+     */
+    public int arista(int nodo, int codigo) {
+        return grafo.arista(nodo, codigo);
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return Índice de la primera arista del nodo hijo (0 si no tiene hijos).
+     */
+    public int hijo(int arista) {
+        return grafo.hijo(arista);
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return {@code true} si una cadena del GADDAG termina al recorrer la arista.
+     */
+    public boolean esFinDePalabra(int arista) {
+        return grafo.esFinDePalabra(arista);
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return {@code true} si es la última arista de su nodo.
+     */
+    public boolean esUltima(int arista) {
+        return grafo.esUltima(arista);
+    }
+
+    /**
+     * @param arista Índice de una arista.
+     * @return Código de la etiqueta de la arista.
+     */
+    public int etiqueta(int arista) {
+        return grafo.etiqueta(arista);
+    }
+
+    /**
+     * Comprueba si una palabra, dada por los códigos de sus fichas, está en el
+     * GADDAG (cadena de la última ficha: la palabra invertida).
+     *
+     * @param codigos Códigos de las fichas de la palabra.
+     * @return {@code true} si la palabra es válida.
+     */
+    public boolean contiene(byte[] codigos) {
+        int nodo = grafo.getRaiz();
+        boolean fin = false;
+        for (int i = codigos.length - 1; i >= 0; i--) {
+            int arista = grafo.arista(nodo, codigos[i] & 0xFF);
+            if (arista < 0) return false;
+            fin = grafo.esFinDePalabra(arista);
+            nodo = grafo.hijo(arista);
+        }
+        return fin;
+    }
+
+    /** @return código del separador */
+    public int getSeparador() {
+        return separador;
+    }
+
+    /** @return número de nodos del grafo mínimo (sin contar la raíz) */
+    public int getNumNodos() {
+        return numNodos;
+    }
+
+    /** @return número de posiciones del vector de aristas (incluido el centinela) */
+    public int getNumAristas() {
+        return grafo.getNumAristas();
+    }
+
+    /** @return tamaño aproximado del grafo en memoria, en bytes */
+    public long getTamanoBytes() {
+        return grafo.getTamanoBytes();
+    }
+
+    /** @return resumen de la construcción (cadenas, nodos, aristas, tiempo y memoria) */
+    public String getResumenConstruccion() {
+        return resumenConstruccion;
+    }
+}
@@ -0,0 +1,751 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Generador de movimientos de Appel y Jacobson sobre el {@link DAWG} de un
+ * {@link Lexico}.  En lugar de formar todas las palabras del atril y probarlas
+ * en cada anclaje, recorre el DAWG a la vez que el tablero:
+ * </p>
+ * <ol>
+ *   <li>lee del {@link Tablero}, para cada casilla libre y cada orientación,
+ *       el conjunto de fichas que forman una palabra válida en la dirección
+ *       perpendicular (conjunto de cruce) y la suma de las fichas ya
+ *       colocadas en esa palabra perpendicular;</li>
+ *   <li>para cada anclaje (casilla libre junto a una ficha, o la central si el
+ *       tablero está vacío) genera las partes izquierdas posibles con las
+ *       casillas libres que no son anclajes, o toma las fichas del tablero que
+ *       ya están a su izquierda;</li>
+ *   <li>extiende cada parte izquierda hacia la derecha atravesando las fichas
+ *       del tablero y colocando solo fichas del atril permitidas por el
+ *       conjunto de cruce de la casilla.</li>
+ * </ol>
+ * <p>
+ * Así cada colocación legal, incluidas las que se enganchan o pasan a través
+ * de fichas existentes, se genera exactamente una vez y ya validada.  Las
+ * coordenadas del tablero se trabajan por «líneas»: las filas para los
+ * movimientos horizontales y las columnas (tablero traspuesto) para los
+ * verticales.
+ * </p>
+ * <p>
+ * Opcionalmente la búsqueda puede hacerse sobre el {@link GADDAG} del léxico:
+ * la palabra empieza en el propio anclaje, crece hacia la izquierda y, al
+ * cruzar el separador, hacia la derecha, así que no hay que enumerar partes
+ * izquierdas.  Los conjuntos de cruce se calculan siempre con el DAWG y ambas
+ * variantes generan exactamente los mismos movimientos.
+ * </p>
+ * <p>
+ * Un generador guarda el estado de la generación en curso, así que no debe
+ * usarse desde varios hilos a la vez; para repartir una generación entre
+ * varios hilos está {@link #generar(Tablero, List, Executor, int)}.
+ * </p>
+ */
+public class GeneradorMovimientos {
+
+    /** Código de una casilla libre. */
+    private static final int VACIA = Tablero.VACIA;
+
+    /** Código de una casilla con una letra que no pertenece al alfabeto. */
+    private static final int DESCONOCIDA = Tablero.DESCONOCIDA;
+
+    /** Suma de cruce de una casilla sin palabra perpendicular. */
+    private static final int SIN_CRUCE = Tablero.SIN_CRUCE;
+
+    /** Léxico del idioma. */
+    private final Lexico lexico;
+
+    /** DAWG del léxico. */
+    private final DAWG dawg;
+
+    /** Alfabeto del léxico; sus códigos son las etiquetas del DAWG. */
+    private final Alfabeto alfabeto;
+
+    /** GADDAG del léxico, o {@code null} si se genera con el DAWG. */
+    private final GADDAG gaddag;
+
+    /** Número de líneas (y de casillas por línea) del tablero. */
+    private int n;
+
+    /** Fichas del tablero por orientación: [0] por filas, [1] por columnas. */
+    private int[][][] celdas;
+
+    /** Bonificaciones de las casillas por orientación. */
+    private int[][][] bonificaciones;
+
+    /** Conjuntos de cruce (bit por código) de las casillas libres por orientación. */
+    private long[][][] cruces;
+
+    /** Suma de las fichas de la palabra perpendicular de cada casilla libre, o {@link #SIN_CRUCE}. */
+    private int[][][] sumasCruce;
+
+    /** Anclajes del tablero, indexados por fila y columna. */
+    private boolean[][] anclajes;
+
+    /** Fichas del atril por código. */
+    private int[] atril;
+
+    /** Tabla con la que se valora el resto del atril, o {@code null} para no valorarlo. */
+    private TablaRestos tablaRestos;
+
+    /** Clave en {@link #tablaRestos} de las fichas que quedan en el atril. */
+    private long claveResto;
+
+    /** Valor aditivo de las fichas que quedan en el atril (si su resto no está en la tabla). */
+    private double aditivoResto;
+
+    /** Códigos de la parte izquierda en construcción. */
+    private int[] izquierda;
+
+    /** Código colocado en cada casilla de la línea en curso. */
+    private int[] colocadas;
+
+    /** Orientación en curso: 0 horizontal, 1 vertical. */
+    private int orientacion;
+
+    /** Línea en curso. */
+    private int linea;
+
+    /** Movimientos generados. */
+    private List<Movimiento> movimientos;
+
+    /** Jugada que se rellena para cada movimiento encontrado y se pasa al receptor. */
+    private JugadaGenerada jugada;
+
+    /** Receptor de la generación en curso. */
+    private ReceptorJugadas receptor;
+
+    /** Receptor que convierte cada jugada en un {@link Movimiento} de {@link #movimientos}. */
+    private final ReceptorJugadas enLista = jugada -> movimientos.add(jugada.aMovimiento());
+
+    /** Caché de las jugadas de cada línea, o {@code null} para no usarla. */
+    private CacheLineas cache;
+
+    /** Clave del atril y de la configuración del generador en {@link #cache}. */
+    private long claveAtril;
+
+    /** Jugadas de la línea en curso que se guardarán en la caché, o {@code null}. */
+    private List<JugadaGenerada> grabadas;
+
+    /** Generadores auxiliares de la generación en paralelo, o {@code null} si aún no se ha usado. */
+    private List<GeneradorMovimientos> auxiliares;
+
+    /**
+     * Crea un generador para un léxico que recorre su DAWG.
+     *
+     * @param lexico Léxico del idioma.
+     * @throws IllegalArgumentException si el alfabeto tiene más de 64 fichas.
+     */
+    public GeneradorMovimientos(Lexico lexico) {
+        this(lexico, false);
+    }
+
+    /**
+     * Crea un generador para un léxico.
+     *
+     * @param lexico     Léxico del idioma.
+     * @param usarGaddag {@code true} para recorrer el GADDAG del léxico
+     *                   (se construye si aún no existe) en lugar del DAWG.
+     * @throws IllegalArgumentException si el alfabeto tiene más de 64 fichas.
+     */
+    public GeneradorMovimientos(Lexico lexico, boolean usarGaddag) {
+        this.lexico = lexico;
+        this.dawg = lexico.getDawg();
+        this.alfabeto = lexico.getAlfabeto();
+        this.gaddag = usarGaddag ? lexico.getGaddag() : null;
+        if (alfabeto.getNumLetras() > Long.SIZE) {
+            throw new IllegalArgumentException("El generador admite alfabetos de hasta " + Long.SIZE + " fichas.");
+        }
+    }
+
+    /**
+     * Indica la tabla con la que valorar el resto del atril de cada movimiento
+     * ({@link Movimiento#setValorResto(double)}).  La clave del resto se
+     * mantiene al sacar y devolver fichas del atril, así que la valoración
+     * cuesta una consulta por movimiento.
+     *
+     * @param tablaRestos Tabla de restos del idioma, o {@code null} para no valorar.
+     */
+    public void setTablaRestos(TablaRestos tablaRestos) {
+        this.tablaRestos = tablaRestos;
+    }
+
+    /**
+     * Indica la caché de transposiciones de las líneas del tablero: las
+     * líneas cuyo contenido y atril ya se han generado se reutilizan en lugar
+     * de recorrer de nuevo el DAWG.
+     *
+     * @param cache Caché de líneas, o {@code null} para no usarla.
+     */
+    public void setCache(CacheLineas cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Genera todos los movimientos legales de un atril en un tablero.  Solo se
+     * tienen en cuenta las casillas ocupadas; las letras colocadas pero no
+     * confirmadas se ignoran.
+     * <p>
+     * En cada {@link Movimiento} las fichas y las posiciones (base 1) son solo
+     * las que se colocan del atril, la fila y la columna son el inicio de la
+     * palabra principal, que es la palabra formada, y la puntuación incluye
+     * las bonificaciones de las casillas nuevas, las palabras perpendiculares
+     * y la de atril completo.  Si hay tabla de restos, cada movimiento lleva
+     * además el valor de las fichas que deja en el atril.
+     * </p>
+     *
+     * @param tablero Tablero de juego.
+     * @param fichas  Fichas del atril.
+     * @return Movimientos legales, cada uno una sola vez.
+     */
+    public List<Movimiento> generar(Tablero tablero, List<String> fichas) {
+        receptor = enLista;
+        if (preparar(tablero, fichas)) {
+            for (int indice = 0; indice < 2 * n; indice++) {
+                generarLinea(indice);
+            }
+        }
+        return movimientos;
+    }
+
+    /**
+     * Genera los mismos movimientos que {@link #generar(Tablero, List)}, y en
+     * el mismo orden, repartiendo las líneas del tablero (filas y columnas)
+     * entre varias tareas de un ejecutor.  El tablero se prepara una sola vez
+     * en el hilo que llama; después cada tarea toma la siguiente línea libre
+     * con su propio generador auxiliar, que comparte las vistas del tablero
+     * (solo se leen) y tiene su propia copia del atril, y deja los movimientos
+     * de cada línea en un búfer aparte.  Al final los búferes se juntan en el
+     * orden de las líneas.  El hilo que llama también genera líneas, así que
+     * con {@code partes} tareas se usan {@code partes - 1} hilos del ejecutor.
+     *
+     * @param tablero  Tablero de juego.
+     * @param fichas   Fichas del atril.
+     * @param ejecutor Ejecutor de las tareas, o {@code null} para generar en serie.
+     * @param partes   Número de tareas; con 1 o menos se genera en serie.
+     * @return Movimientos legales, cada uno una sola vez.
+     */
+    public List<Movimiento> generar(Tablero tablero, List<String> fichas, Executor ejecutor, int partes) {
+        if (ejecutor == null || partes <= 1) {
+            return generar(tablero, fichas);
+        }
+        receptor = enLista;
+        if (!preparar(tablero, fichas)) {
+            return movimientos;
+        }
+        int numLineas = 2 * n;
+        List<List<Movimiento>> porLinea = new ArrayList<>(Collections.nCopies(numLineas, null));
+        AtomicInteger siguiente = new AtomicInteger();
+        List<CompletableFuture<Void>> tareas = new ArrayList<>();
+        for (int k = 1; k < partes && k < numLineas; k++) {
+            GeneradorMovimientos auxiliar = getAuxiliar(k - 1);
+            auxiliar.copiarPreparacion(this);
+            tareas.add(CompletableFuture.runAsync(() -> auxiliar.generarLineas(siguiente, porLinea), ejecutor));
+        }
+        generarLineas(siguiente, porLinea);
+        CompletableFuture.allOf(tareas.toArray(new CompletableFuture<?>[0])).join();
+
+        int total = 0;
+        for (List<Movimiento> buffer : porLinea) {
+            total += buffer.size();
+        }
+        movimientos = new ArrayList<>(total);
+        for (List<Movimiento> buffer : porLinea) {
+            movimientos.addAll(buffer);
+        }
+        return movimientos;
+    }
+
+    /**
+     * Genera todos los movimientos legales de un atril, como
+     * {@link #generar(Tablero, List)}, pero en lugar de crear un
+     * {@link Movimiento} por cada uno se los pasa al receptor a medida que los
+     * encuentra, siempre en la misma {@link JugadaGenerada}.  Así la memoria
+     * de la generación no depende del número de movimientos legales: el
+     * receptor decide cuáles conserva (por ejemplo {@link MejoresJugadas}).
+     *
+     * @param tablero  Tablero de juego.
+     * @param fichas   Fichas del atril.
+     * @param receptor Receptor de los movimientos, en el mismo orden que la lista.
+     */
+    public void generar(Tablero tablero, List<String> fichas, ReceptorJugadas receptor) {
+        this.receptor = receptor;
+        try {
+            if (preparar(tablero, fichas)) {
+                for (int indice = 0; indice < 2 * n; indice++) {
+                    generarLinea(indice);
+                }
+            }
+        } finally {
+            this.receptor = enLista;
+        }
+    }
+
+    /**
+     * Prepara una generación: copia el tablero, cuenta las fichas del atril y
+     * calcula la clave de su resto.
+     *
+     * @return {@code false} si no hay nada que generar.
+     */
+    private boolean preparar(Tablero tablero, List<String> fichas) {
+        prepararTablero(tablero);
+        atril = new int[alfabeto.getNumLetras()];
+        int numFichas = 0;
+        for (String ficha : fichas) {
+            int codigo = alfabeto.codigo(ficha);
+            if (codigo != Alfabeto.NINGUNA) {
+                atril[codigo]++;
+                numFichas++;
+            }
+        }
+        claveResto = 0;
+        aditivoResto = 0;
+        if (tablaRestos != null) {
+            aditivoResto = tablaRestos.getValorVacio();
+            for (int codigo = 0; codigo < atril.length; codigo++) {
+                for (int k = 0; k < atril[codigo] && k < TablaRestos.MAX_FICHAS; k++) {
+                    claveResto += tablaRestos.getAleatorio(codigo, k);
+                    aditivoResto += tablaRestos.getMarginal(codigo, k);
+                }
+            }
+        }
+        izquierda = new int[Math.max(numFichas, 1)];
+        colocadas = new int[n];
+        movimientos = new ArrayList<>();
+        if (jugada == null || jugada.getCapacidad() < n) {
+            jugada = new JugadaGenerada(alfabeto, n);
+        }
+        if (cache != null) {
+            // Los restos y el orden de las jugadas dependen también de la configuración
+            claveAtril = cache.claveAtril(atril, n, tablaRestos != null, gaddag != null);
+        }
+        return numFichas > 0 && dawg.getRaiz() != 0;
+    }
+
+    /**
+     * Copia en un generador auxiliar la preparación de otro: comparte sus
+     * vistas del tablero y copia el atril y la clave del resto.
+     */
+    private void copiarPreparacion(GeneradorMovimientos origen) {
+        n = origen.n;
+        celdas = origen.celdas;
+        bonificaciones = origen.bonificaciones;
+        cruces = origen.cruces;
+        sumasCruce = origen.sumasCruce;
+        anclajes = origen.anclajes;
+        atril = origen.atril.clone();
+        tablaRestos = origen.tablaRestos;
+        claveResto = origen.claveResto;
+        aditivoResto = origen.aditivoResto;
+        izquierda = new int[origen.izquierda.length];
+        colocadas = new int[n];
+        if (jugada == null || jugada.getCapacidad() < n) {
+            jugada = new JugadaGenerada(alfabeto, n);
+        }
+        receptor = enLista;
+        cache = origen.cache;
+        claveAtril = origen.claveAtril;
+    }
+
+    /**
+     * @return generador auxiliar {@code k} para la generación en paralelo;
+     *         se crean la primera vez y se reutilizan
+     */
+    private GeneradorMovimientos getAuxiliar(int k) {
+        if (auxiliares == null) {
+            auxiliares = new ArrayList<>();
+        }
+        while (auxiliares.size() <= k) {
+            auxiliares.add(new GeneradorMovimientos(lexico, gaddag != null));
+        }
+        return auxiliares.get(k);
+    }
+
+    /**
+     * Genera líneas mientras queden: toma la siguiente del contador y deja
+     * sus movimientos en su búfer.
+     */
+    private void generarLineas(AtomicInteger siguiente, List<List<Movimiento>> porLinea) {
+        int indice;
+        while ((indice = siguiente.getAndIncrement()) < porLinea.size()) {
+            movimientos = new ArrayList<>();
+            generarLinea(indice);
+            porLinea.set(indice, movimientos);
+        }
+    }
+
+    /**
+     * Genera los movimientos de los anclajes de una línea.
+     *
+     * @param indice Línea: de {@code 0} a {@code n - 1} las filas y de
+     *               {@code n} a {@code 2n - 1} las columnas.
+     */
+    private void generarLinea(int indice) {
+        orientacion = indice / n;
+        linea = indice % n;
+        int[] casillas = celdas[orientacion][linea];
+        if (cache != null) {
+            long anclajesLinea = 0;
+            for (int p = 0; p < n; p++) {
+                if (esAnclaje(linea, p)) anclajesLinea |= 1L << p;
+            }
+            long clave = cache.claveLinea(indice, casillas, cruces[orientacion][linea], sumasCruce[orientacion][linea],
+                    bonificaciones[orientacion][linea], anclajesLinea, claveAtril);
+            List<JugadaGenerada> guardadas = cache.buscar(clave);
+            if (guardadas != null) {
+                for (JugadaGenerada guardada : guardadas) {
+                    receptor.recibir(guardada);
+                }
+                return;
+            }
+            grabadas = new ArrayList<>();
+            generarAnclajes(casillas);
+            cache.guardar(clave, indice, grabadas);
+            grabadas = null;
+        } else {
+            generarAnclajes(casillas);
+        }
+    }
+
+    /**
+     * Genera los movimientos de los anclajes de la línea en curso.
+     */
+    private void generarAnclajes(int[] casillas) {
+        for (int p = 0; p < n; p++) {
+            if (!esAnclaje(linea, p)) continue;
+            if (gaddag != null) {
+                izquierdaGaddag(p, p, gaddag.getRaiz());
+            } else if (p > 0 && casillas[p - 1] != VACIA) {
+                // La parte izquierda son las fichas que ya hay en el tablero
+                int inicio = p;
+                while (inicio > 0 && casillas[inicio - 1] != VACIA) {
+                    inicio--;
+                }
+                int nodo = dawg.getRaiz();
+                for (int k = inicio; k < p && nodo != 0; k++) {
+                    int arista = dawg.arista(nodo, casillas[k]);
+                    nodo = arista < 0 ? 0 : dawg.hijo(arista);
+                }
+                if (nodo != 0) {
+                    extenderDerecha(p, nodo, inicio, p, false);
+                }
+            } else {
+                int limite = 0;
+                for (int k = p - 1; k >= 0 && casillas[k] == VACIA && !esAnclaje(linea, k); k--) {
+                    limite++;
+                }
+                parteIzquierda(p, dawg.getRaiz(), 0, limite);
+            }
+        }
+    }
+
+    /**
+     * Copia el tablero en las vistas por filas y por columnas.  Los anclajes,
+     * los códigos de las fichas y los conjuntos de cruce los mantiene el
+     * propio {@link Tablero} a medida que se confirman fichas, así que aquí
+     * solo se leen.
+     */
+    private void prepararTablero(Tablero tablero) {
+        tablero.prepararCruces(lexico);
+        // Las vistas se reutilizan de una generación a otra mientras no cambie el tamaño
+        if (celdas == null || n != tablero.getRows()) {
+            n = tablero.getRows();
+            celdas = new int[2][n][n];
+            bonificaciones = new int[2][n][n];
+            cruces = new long[2][n][n];
+            sumasCruce = new int[2][n][n];
+            anclajes = new boolean[n][n];
+        }
+        for (int f = 0; f < n; f++) {
+            for (int c = 0; c < n; c++) {
+                celdas[0][f][c] = celdas[1][c][f] = tablero.getCodigoCasilla(f + 1, c + 1);
+                bonificaciones[0][f][c] = bonificaciones[1][c][f] = tablero.getBonificacionCasilla(f + 1, c + 1);
+                cruces[0][f][c] = tablero.getCruces(f + 1, c + 1, true);
+                cruces[1][c][f] = tablero.getCruces(f + 1, c + 1, false);
+                sumasCruce[0][f][c] = tablero.getSumaCruce(f + 1, c + 1, true);
+                sumasCruce[1][c][f] = tablero.getSumaCruce(f + 1, c + 1, false);
+                anclajes[f][c] = tablero.esAnclaje(f + 1, c + 1);
+            }
+        }
+    }
+
+    /**
+     * Genera las partes izquierdas de un anclaje con fichas del atril y
+     * extiende cada una hacia la derecha.
+     *
+     * @param anclaje Posición del anclaje en la línea.
+     * @param nodo    Nodo del DAWG tras la parte izquierda.
+     * @param largo   Longitud de la parte izquierda.
+     * @param limite  Casillas libres que aún puede ocupar la parte izquierda.
+     */
+    private void parteIzquierda(int anclaje, int nodo, int largo, int limite) {
+        int inicio = anclaje - largo;
+        System.arraycopy(izquierda, 0, colocadas, inicio, largo);
+        extenderDerecha(anclaje, nodo, inicio, anclaje, false);
+        if (limite == 0 || nodo == 0) return;
+        for (int arista = nodo; ; arista++) {
+            int codigo = dawg.etiqueta(arista);
+            if (atril[codigo] > 0) {
+                sacar(codigo);
+                izquierda[largo] = codigo;
+                parteIzquierda(anclaje, dawg.hijo(arista), largo + 1, limite - 1);
+                devolver(codigo);
+            }
+            if (dawg.esUltima(arista)) break;
+        }
+    }
+
+    /**
+     * Extiende una palabra hacia la derecha desde una casilla, atravesando las
+     * fichas del tablero y colocando fichas del atril en las casillas libres.
+     *
+     * @param p          Casilla siguiente de la línea.
+     * @param nodo       Nodo del DAWG tras las casillas anteriores.
+     * @param inicio     Casilla donde empieza la palabra.
+     * @param anclaje    Anclaje del que parte la palabra.
+     * @param finPalabra {@code true} si las casillas anteriores forman una palabra.
+     */
+    private void extenderDerecha(int p, int nodo, int inicio, int anclaje, boolean finPalabra) {
+        int[] casillas = celdas[orientacion][linea];
+        if (p == n || casillas[p] == VACIA) {
+            if (finPalabra && p > anclaje) {
+                registrar(inicio, p);
+            }
+            if (p == n || nodo == 0) return;
+            long permitidas = cruces[orientacion][linea][p];
+            for (int arista = nodo; ; arista++) {
+                int codigo = dawg.etiqueta(arista);
+                if (atril[codigo] > 0 && (permitidas >>> codigo & 1L) != 0) {
+                    sacar(codigo);
+                    colocadas[p] = codigo;
+                    extenderDerecha(p + 1, dawg.hijo(arista), inicio, anclaje, dawg.esFinDePalabra(arista));
+                    devolver(codigo);
+                }
+                if (dawg.esUltima(arista)) break;
+            }
+        } else {
+            int arista = dawg.arista(nodo, casillas[p]);
+            if (arista >= 0) {
+                extenderDerecha(p + 1, dawg.hijo(arista), inicio, anclaje, dawg.esFinDePalabra(arista));
+            }
+        }
+    }
+
+    /**
+     * Ocupa la casilla {@code p}, a la izquierda del anclaje o en él, con la
+     * ficha del tablero o con fichas del atril, siguiendo el GADDAG.
+     *
+     * @param p       Casilla de la línea.
+     * @param anclaje Anclaje del que parte la palabra.
+     * @param nodo    Nodo del GADDAG tras las casillas ya recorridas.
+     */
+    private void izquierdaGaddag(int p, int anclaje, int nodo) {
+        int[] casillas = celdas[orientacion][linea];
+        if (casillas[p] != VACIA) {
+            int arista = gaddag.arista(nodo, casillas[p]);
+            if (arista >= 0) {
+                continuarIzquierda(p, anclaje, arista);
+            }
+            return;
+        }
+        long permitidas = cruces[orientacion][linea][p];
+        int separador = gaddag.getSeparador();
+        for (int arista = nodo; ; arista++) {
+            int codigo = gaddag.etiqueta(arista);
+            if (codigo != separador && atril[codigo] > 0 && (permitidas >>> codigo & 1L) != 0) {
+                sacar(codigo);
+                colocadas[p] = codigo;
+                continuarIzquierda(p, anclaje, arista);
+                devolver(codigo);
+            }
+            if (gaddag.esUltima(arista)) break;
+        }
+    }
+
+    /**
+     * Tras ocupar la casilla {@code p} hacia la izquierda, registra la palabra
+     * si termina ahí y sigue hacia la izquierda o, cruzando el separador,
+     * hacia la derecha del anclaje.  Hacia la izquierda no se ocupan
+     * anclajes libres: esas palabras se generan desde ese otro anclaje.
+     * Cuando la casilla de la izquierda está libre, las dos continuaciones se
+     * resuelven en una sola pasada por las aristas del nodo.
+     */
+    private void continuarIzquierda(int p, int anclaje, int arista) {
+        int[] casillas = celdas[orientacion][linea];
+        boolean libreIzquierda = p == 0 || casillas[p - 1] == VACIA;
+        boolean libreDerecha = anclaje == n - 1 || casillas[anclaje + 1] == VACIA;
+        if (gaddag.esFinDePalabra(arista) && libreIzquierda && libreDerecha) {
+            registrar(p, anclaje + 1);
+        }
+        int nodo = gaddag.hijo(arista);
+        if (nodo == 0) return;
+        if (!libreIzquierda) {
+            izquierdaGaddag(p - 1, anclaje, nodo);
+            return;
+        }
+
+        boolean haciaIzquierda = p > 0 && !esAnclaje(linea, p - 1);
+        boolean haciaDerecha = anclaje < n - 1;
+        long permitidas = haciaIzquierda ? cruces[orientacion][linea][p - 1] : 0L;
+        int separador = gaddag.getSeparador();
+        for (int siguiente = nodo; ; siguiente++) {
+            int codigo = gaddag.etiqueta(siguiente);
+            if (codigo == separador) {
+                if (haciaDerecha) {
+                    derechaGaddag(anclaje + 1, p, gaddag.hijo(siguiente));
+                }
+            } else if ((permitidas >>> codigo & 1L) != 0 && atril[codigo] > 0) {
+                sacar(codigo);
+                colocadas[p - 1] = codigo;
+                continuarIzquierda(p - 1, anclaje, siguiente);
+                devolver(codigo);
+            }
+            if (gaddag.esUltima(siguiente)) break;
+        }
+    }
+
+    /**
+     * Ocupa la casilla {@code p}, a la derecha del anclaje, siguiendo el
+     * GADDAG después del separador.
+     *
+     * @param p      Casilla de la línea.
+     * @param inicio Casilla donde empieza la palabra.
+     * @param nodo   Nodo del GADDAG.
+     */
+    private void derechaGaddag(int p, int inicio, int nodo) {
+        if (nodo == 0) return;
+        int[] casillas = celdas[orientacion][linea];
+        if (casillas[p] != VACIA) {
+            int arista = gaddag.arista(nodo, casillas[p]);
+            if (arista >= 0) {
+                continuarDerecha(p, inicio, arista);
+            }
+            return;
+        }
+        long permitidas = cruces[orientacion][linea][p];
+        for (int arista = nodo; ; arista++) {
+            int codigo = gaddag.etiqueta(arista);
+            if (atril[codigo] > 0 && (permitidas >>> codigo & 1L) != 0) {
+                sacar(codigo);
+                colocadas[p] = codigo;
+                continuarDerecha(p, inicio, arista);
+                devolver(codigo);
+            }
+            if (gaddag.esUltima(arista)) break;
+        }
+    }
+
+    /**
+     * Tras ocupar la casilla {@code p} hacia la derecha, registra la palabra
+     * si termina ahí y sigue extendiéndola.
+     */
+    private void continuarDerecha(int p, int inicio, int arista) {
+        boolean libreDerecha = p == n - 1 || celdas[orientacion][linea][p + 1] == VACIA;
+        if (gaddag.esFinDePalabra(arista) && libreDerecha) {
+            registrar(inicio, p + 1);
+        }
+        if (p < n - 1) {
+            derechaGaddag(p + 1, inicio, gaddag.hijo(arista));
+        }
+    }
+
+    /**
+     * Registra la palabra que ocupa las casillas {@code inicio..fin-1} de la
+     * línea en curso y calcula su puntuación con las mismas reglas que el
+     * {@link Puntuador}.
+     */
+    private void registrar(int inicio, int fin) {
+        if (fin - inicio < 2) return;
+        int[] casillas = celdas[orientacion][linea];
+        int[] bonos = bonificaciones[orientacion][linea];
+        int[] sumas = sumasCruce[orientacion][linea];
+
+        int fila = orientacion == 0 ? linea + 1 : inicio + 1;
+        int columna = orientacion == 0 ? inicio + 1 : linea + 1;
+        jugada.iniciar(fila, columna, orientacion == 0);
+        int sumaPalabra = 0;
+        int multiplicador = 1;
+        int sumaCruces = 0;
+        int ultimaNueva = -1;
+        for (int p = inicio; p < fin; p++) {
+            if (casillas[p] != VACIA) {
+                sumaPalabra += puntuacion(casillas[p]);
+                jugada.anadirLetra(casillas[p]);
+                continue;
+            }
+            int codigo = colocadas[p];
+            int bonificacion = bonos[p];
+            int valor = alfabeto.getPuntuacion(codigo) * Puntuador.multiplicadorLetra(bonificacion);
+            int multiplicadorCasilla = Puntuador.multiplicadorPalabra(bonificacion);
+            sumaPalabra += valor;
+            multiplicador *= multiplicadorCasilla;
+            if (sumas[p] != SIN_CRUCE) {
+                sumaCruces += (sumas[p] + valor) * multiplicadorCasilla;
+            }
+            if (orientacion == 0) {
+                jugada.anadirFicha(codigo, linea + 1, p + 1);
+            } else {
+                jugada.anadirFicha(codigo, p + 1, linea + 1);
+            }
+            ultimaNueva = p;
+        }
+        // Una sola ficha con palabra en ambas direcciones ya se generó en horizontal
+        if (orientacion == 1 && jugada.getNumFichas() == 1 && sumas[ultimaNueva] != SIN_CRUCE) {
+            return;
+        }
+
+        int bingo = jugada.getNumFichas() == Puntuador.FICHAS_BINGO ? Puntuador.BONIFICACION_BINGO : 0;
+        jugada.setPuntuacion(sumaPalabra * multiplicador + sumaCruces + bingo);
+        if (tablaRestos != null) {
+            jugada.setValorResto(tablaRestos.valor(claveResto, aditivoResto));
+        }
+        receptor.recibir(jugada);
+        if (grabadas != null) {
+            grabadas.add(new JugadaGenerada(jugada));
+        }
+    }
+
+    /**
+     * Saca una ficha del atril y la quita de la clave del resto.
+     */
+    private void sacar(int codigo) {
+        int copia = --atril[codigo];
+        if (tablaRestos != null && copia < TablaRestos.MAX_FICHAS) {
+            claveResto -= tablaRestos.getAleatorio(codigo, copia);
+            aditivoResto -= tablaRestos.getMarginal(codigo, copia);
+        }
+    }
+
+    /**
+     * Devuelve al atril una ficha sacada con {@link #sacar(int)}.
+     */
+    private void devolver(int codigo) {
+        int copia = atril[codigo]++;
+        if (tablaRestos != null && copia < TablaRestos.MAX_FICHAS) {
+            claveResto += tablaRestos.getAleatorio(codigo, copia);
+            aditivoResto += tablaRestos.getMarginal(codigo, copia);
+        }
+    }
+
+    /**
+     * @param linea   Línea de la orientación en curso.
+     * @param p       Casilla de la línea.
+     * @return {@code true} si la casilla es un anclaje.
+     */
+    private boolean esAnclaje(int linea, int p) {
+        return orientacion == 0 ? anclajes[linea][p] : anclajes[p][linea];
+    }
+
+    /**
+     * @param codigo Código de una ficha del tablero.
+     * @return Puntuación de la ficha (0 si no pertenece al alfabeto).
+     */
+    private int puntuacion(int codigo) {
+        return codigo < 0 ? 0 : alfabeto.getPuntuacion(codigo);
+    }
+}
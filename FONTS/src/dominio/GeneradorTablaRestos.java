@@ -0,0 +1,241 @@
+package dominio;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>
+ * Herramienta que regenera la tabla de restos de un idioma
+ * (<code>&lt;idioma&gt;Restos.txt</code>, véase {@link TablaRestos}) a
+ * partir de partidas simuladas entre dos robots.  La tarea de Gradle
+ * {@code generarTablaRestos} ejecuta {@link #main(String[])}.
+ * </p>
+ * <p>
+ * En cada jugada con fichas en el saco se anota el resto que queda en el
+ * atril y, en el turno siguiente del mismo jugador, los puntos que consigue.
+ * El valor de un resto es la media de esos puntos menos la media de todos
+ * los turnos.  Se escriben el valor del resto vacío (tras colocar todo el
+ * atril), el de cada ficha suelta (media de los restos que la contienen) y el
+ * de cada resto de dos o más fichas con suficientes muestras; el resto de combinaciones se valoran de forma aditiva.  Los
+ * robots eligen sus jugadas con la tabla que ya tenga el idioma, así que
+ * volver a ejecutar la herramienta refina los valores.  Como en el
+ * {@link TorneoRobots}, la partida {@code i} usa un {@link Saco} con semilla
+ * {@code semilla + i}: con la misma semilla y la misma tabla de partida se
+ * obtiene la misma tabla.
+ * </p>
+ */
+public class GeneradorTablaRestos {
+
+    /** Muestras mínimas de un resto de varias fichas para escribirlo en la tabla. */
+    private static final int MINIMO_MUESTRAS = 40;
+
+    /** Léxico del idioma. */
+    private final Lexico lexico;
+
+    /** Generador de movimientos de los robots. */
+    private final GeneradorMovimientos generador;
+
+    /** Tabla que se está generando; da las claves de los restos. */
+    private final TablaRestos tabla;
+
+    /** Puntos acumulados y muestras de cada resto, por clave. */
+    private final Map<Long, double[]> muestras = new HashMap<>();
+
+    /** Fichas de cada resto, por clave. */
+    private final Map<Long, int[]> restos = new HashMap<>();
+
+    /** Puntos acumulados de los restos que contienen cada ficha. */
+    private final double[] puntosPorFicha;
+
+    /** Muestras de los restos que contienen cada ficha. */
+    private final long[] muestrasPorFicha;
+
+    /** Puntos acumulados de todas las muestras. */
+    private double puntosTotales;
+
+    /** Número total de muestras. */
+    private long muestrasTotales;
+
+    /**
+     * Crea el generador para un idioma.
+     *
+     * @param lexico Léxico del idioma.
+     */
+    public GeneradorTablaRestos(Lexico lexico) {
+        this.lexico = lexico;
+        this.generador = new GeneradorMovimientos(lexico);
+        TablaRestos actual = lexico.getTablaRestos();
+        this.generador.setTablaRestos(actual.estaVacia() ? null : actual);
+        this.tabla = new TablaRestos(lexico.getIdioma(), lexico.getAlfabeto());
+        this.puntosPorFicha = new double[lexico.getAlfabeto().getNumLetras()];
+        this.muestrasPorFicha = new long[lexico.getAlfabeto().getNumLetras()];
+    }
+
+    /**
+     * Simula una partida entre dos robots y anota sus restos.
+     *
+     * @param semilla Semilla del saco de la partida.
+     */
+    public void jugarPartida(long semilla) {
+        String idioma = lexico.getIdioma();
+        Alfabeto alfabeto = lexico.getAlfabeto();
+        Tablero tablero = new Tablero();
+        tablero.setIdioma(idioma);
+        Saco saco = new Saco(semilla);
+        saco.setLlenarSaco(idioma);
+        List<List<String>> atriles = new ArrayList<>();
+        for (int j = 0; j < 2; j++) {
+            List<String> atril = new ArrayList<>();
+            reponer(atril, saco);
+            atriles.add(atril);
+        }
+
+        int[][] pendientes = new int[2][];
+        int pases = 0;
+        for (int turno = 0; !Reglamento.terminaPorPases(pases, 2); turno ^= 1) {
+            List<String> atril = atriles.get(turno);
+            Movimiento mejor = null;
+            for (Movimiento movimiento : generador.generar(tablero, atril)) {
+                double valor = saco.estaVacio() ? movimiento.getPuntuacion() : movimiento.getValoracion();
+                if (mejor == null || valor > (saco.estaVacio() ? mejor.getPuntuacion() : mejor.getValoracion())) {
+                    mejor = movimiento;
+                }
+            }
+            if (pendientes[turno] != null) {
+                anotar(pendientes[turno], mejor == null ? 0 : mejor.getPuntuacion());
+                pendientes[turno] = null;
+            }
+            if (mejor == null) {
+                pases++;
+                continue;
+            }
+            pases = 0;
+            tablero.aplicarMovimiento(mejor);
+            for (String ficha : mejor.getFichas()) {
+                atril.remove(ficha);
+            }
+            if (!saco.estaVacio()) {
+                int[] resto = new int[atril.size()];
+                for (int i = 0; i < resto.length; i++) {
+                    resto[i] = alfabeto.codigo(atril.get(i));
+                }
+                pendientes[turno] = resto;
+            }
+            reponer(atril, saco);
+            if (atril.isEmpty()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Repone un atril hasta {@link TablaRestos#MAX_FICHAS} fichas robando del saco.
+     */
+    private static void reponer(List<String> atril, Saco saco) {
+        atril.addAll(saco.robarFichas(TablaRestos.MAX_FICHAS - atril.size()));
+    }
+
+    /**
+     * Anota los puntos conseguidos en el turno siguiente a dejar un resto.
+     */
+    private void anotar(int[] resto, int puntos) {
+        for (int codigo : resto) {
+            if (codigo < 0) return; // ficha que no pertenece al alfabeto
+        }
+        int[] ordenado = resto.clone();
+        Arrays.sort(ordenado);
+        long clave = tabla.clave(ordenado);
+        restos.putIfAbsent(clave, ordenado);
+        double[] acumulado = muestras.computeIfAbsent(clave, c -> new double[2]);
+        acumulado[0] += puntos;
+        acumulado[1]++;
+        for (int i = 0; i < ordenado.length; i++) {
+            if (i == 0 || ordenado[i] != ordenado[i - 1]) {
+                puntosPorFicha[ordenado[i]] += puntos;
+                muestrasPorFicha[ordenado[i]]++;
+            }
+        }
+        puntosTotales += puntos;
+        muestrasTotales++;
+    }
+
+    /**
+     * Escribe la tabla con el formato de <code>&lt;idioma&gt;Restos.txt</code>.
+     *
+     * @param salida   Destino.
+     * @param partidas Número de partidas simuladas, para la cabecera.
+     * @return Número de restos escritos.
+     * @throws IOException si falla la escritura.
+     */
+    public int escribir(Writer salida, int partidas) throws IOException {
+        double media = muestrasTotales == 0 ? 0 : puntosTotales / muestrasTotales;
+        salida.write("# Tabla de restos del atril (" + lexico.getIdioma() + ") generada por GeneradorTablaRestos\n");
+        salida.write(String.format(Locale.ROOT, "# %d partidas, %d turnos, media %.2f puntos por turno\n",
+                partidas, muestrasTotales, media));
+        int escritos = 0;
+        double[] vacio = muestras.get(tabla.clave(new int[0]));
+        if (vacio != null) {
+            tabla.escribir(salida, new int[0], vacio[0] / vacio[1] - media);
+            escritos++;
+        }
+        for (int codigo = 0; codigo < muestrasPorFicha.length; codigo++) {
+            if (muestrasPorFicha[codigo] > 0) {
+                tabla.escribir(salida, new int[]{codigo}, puntosPorFicha[codigo] / muestrasPorFicha[codigo] - media);
+                escritos++;
+            }
+        }
+        List<int[]> frecuentes = new ArrayList<>();
+        for (Map.Entry<Long, double[]> entrada : muestras.entrySet()) {
+            int[] resto = restos.get(entrada.getKey());
+            if (resto.length >= 2 && entrada.getValue()[1] >= MINIMO_MUESTRAS) {
+                frecuentes.add(resto);
+            }
+        }
+        frecuentes.sort((a, b) -> a.length != b.length ? a.length - b.length : Arrays.compare(a, b));
+        for (int[] resto : frecuentes) {
+            double[] acumulado = muestras.get(tabla.clave(resto));
+            tabla.escribir(salida, resto, acumulado[0] / acumulado[1] - media);
+            escritos++;
+        }
+        return escritos;
+    }
+
+    /**
+     * Simula partidas y escribe la tabla de restos de un idioma.
+     *
+     * @param args idioma (por defecto {@code ingles}), número de partidas (por
+     *             defecto 2000), directorio de salida (por defecto
+     *             {@code src/resources}) y semilla (por defecto 1).
+     * @throws IOException si no se puede escribir la tabla.
+     */
+    public static void main(String[] args) throws IOException {
+        String idioma = args.length > 0 ? args[0] : "ingles";
+        int partidas = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Path directorio = Paths.get(args.length > 2 ? args[2] : "src/resources");
+        long semilla = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        GeneradorTablaRestos generador = new GeneradorTablaRestos(RegistroLexicos.getInstance().getLexico(idioma));
+        long inicio = System.nanoTime();
+        for (int i = 1; i <= partidas; i++) {
+            generador.jugarPartida(semilla + i);
+            if (i % 100 == 0) {
+                System.out.printf("%d/%d partidas (%d s)%n", i, partidas, (System.nanoTime() - inicio) / 1_000_000_000L);
+            }
+        }
+        Path destino = directorio.resolve(idioma + "Restos.txt");
+        try (Writer salida = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+            int escritos = generador.escribir(salida, partidas);
+            System.out.println(escritos + " restos escritos en " + destino);
+        }
+    }
+}
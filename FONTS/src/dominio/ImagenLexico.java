@@ -0,0 +1,258 @@
+package dominio;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Imagen binaria precompilada del {@link DAWG} de un idioma.  La tarea de
+ * Gradle {@code compilarLexicos} ejecuta {@link #main(String[])} para
+ * convertir cada {@code <idioma>Dic.txt} en un fichero {@code <idioma>.lex};
+ * en tiempo de ejecución el fichero se proyecta en memoria con
+ * {@link FileChannel#map} y el DAWG se consulta directamente sobre él, sin
+ * leer el diccionario de texto ni construir el grafo en el montículo.
+ * </p>
+ *
+ * <h3>Formato (versión {@value #VERSION_FORMATO})</h3>
+ * <ul>
+ *   <li>{@code int} número mágico {@code FBLX} y {@code int} versión del formato;</li>
+ *   <li>{@code long} tamaño en bytes y {@code long} fecha de modificación
+ *       (milisegundos desde 1970, o 0 si no se conoce) del diccionario de
+ *       texto de origen, para detectar imágenes desfasadas como hace el
+ *       {@link RegistroLexicos};</li>
+ *   <li>idioma y tabla de etiquetas en UTF ({@link DataOutputStream#writeUTF});</li>
+ *   <li>{@code int} raíz y {@code int} número de aristas;</li>
+ *   <li>relleno hasta múltiplo de 4 y el vector de aristas del DAWG.</li>
+ * </ul>
+ * <p>
+ * Todos los enteros se escriben en orden <em>big-endian</em>.
+ * </p>
+ */
+public class ImagenLexico {
+
+    /** Número mágico de las imágenes de léxico («FBLX»). */
+    private static final int MAGIA = 0x46424C58;
+
+    /** Versión del formato de la imagen. */
+    public static final int VERSION_FORMATO = 3;
+
+    /** Extensión de los ficheros de imagen. */
+    private static final String EXTENSION = ".lex";
+
+    /** Constructor privado: clase de utilidades. */
+    private ImagenLexico() {
+    }
+
+    /**
+     * Devuelve el directorio de las imágenes.  Por defecto es {@code lexicos/}
+     * dentro del directorio de trabajo; se puede cambiar con la propiedad del
+     * sistema {@code fibble.lexicos.dir}.
+     *
+     * @return Directorio de las imágenes de léxico.
+     */
+    public static Path getDirectorio() {
+        String dir = System.getProperty("fibble.lexicos.dir");
+        return dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.dir"), "lexicos");
+    }
+
+    /**
+     * @param idioma Idioma del léxico.
+     * @return Ruta de la imagen del idioma en el directorio por defecto.
+     */
+    public static Path ruta(String idioma) {
+        return getDirectorio().resolve(idioma + EXTENSION);
+    }
+
+    /**
+     * Escribe la imagen binaria de un léxico.
+     *
+     * @param lexico Léxico a compilar.
+     * @param ruta   Fichero de destino.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static void escribir(Lexico lexico, Path ruta) throws IOException {
+        DAWG dawg = lexico.getDawg();
+        String[] etiquetas = dawg.getEtiquetas();
+
+        ByteArrayOutputStream cabecera = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(cabecera);
+        dos.writeInt(MAGIA);
+        dos.writeInt(VERSION_FORMATO);
+        long[] fuente = datosFuente(lexico.getIdioma());
+        dos.writeLong(fuente[0]);
+        dos.writeLong(fuente[1]);
+        dos.writeUTF(lexico.getIdioma());
+        dos.writeInt(etiquetas.length);
+        for (String etiqueta : etiquetas) {
+            dos.writeUTF(etiqueta);
+        }
+        dos.writeInt(dawg.getRaiz());
+        dos.writeInt(dawg.getNumAristas());
+        while (dos.size() % Integer.BYTES != 0) {
+            dos.writeByte(0);
+        }
+        dos.flush();
+
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+        try (OutputStream os = Files.newOutputStream(ruta);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+            cabecera.writeTo(out);
+            IntBuffer aristas = dawg.getAristas();
+            for (int i = 0; i < aristas.limit(); i++) {
+                out.writeInt(aristas.get(i));
+            }
+        }
+    }
+
+    /**
+     * Proyecta en memoria la imagen de un idioma.  Devuelve {@code null} si la
+     * imagen no existe, es de otra versión del formato o está desfasada
+     * respecto al diccionario de texto.
+     *
+     * @param idioma Idioma del léxico.
+     * @return DAWG consultado directamente sobre el fichero, o {@code null}.
+     */
+    public static DAWG abrir(String idioma) {
+        Path ruta = ruta(idioma);
+        if (!Files.isRegularFile(ruta)) {
+            return null;
+        }
+        try {
+            long[] fuente = datosFuente(idioma);
+            return abrir(ruta, idioma, fuente[0], fuente[1]);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Imagen de léxico no válida (" + ruta + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Proyecta en memoria una imagen concreta.
+     *
+     * @param ruta            Fichero de la imagen.
+     * @param idioma          Idioma esperado.
+     * @param longitudFuente  Tamaño esperado del diccionario de origen, o -1 para no comprobarlo.
+     * @param fechaFuente     Fecha de modificación esperada del diccionario de
+     *                        origen, o -1 para no comprobarla.
+     * @return DAWG sobre la imagen, o {@code null} si no corresponde al idioma o está desfasada.
+     * @throws IOException si el fichero no se puede leer o está truncado.
+     */
+    public static DAWG abrir(Path ruta, String idioma, long longitudFuente, long fechaFuente) throws IOException {
+        MappedByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (mapa.getInt() != MAGIA) {
+            throw new IOException("número mágico incorrecto");
+        }
+        if (mapa.getInt() != VERSION_FORMATO) {
+            return null;
+        }
+        long longitud = mapa.getLong();
+        long fecha = mapa.getLong();
+        if (!idioma.equals(leerUTF(mapa)) || (longitudFuente >= 0 && longitud != longitudFuente)
+                || (fechaFuente >= 0 && fecha != fechaFuente)) {
+            return null;
+        }
+        String[] etiquetas = new String[mapa.getInt()];
+        for (int i = 0; i < etiquetas.length; i++) {
+            etiquetas[i] = leerUTF(mapa);
+        }
+        int raiz = mapa.getInt();
+        int numAristas = mapa.getInt();
+        while (mapa.position() % Integer.BYTES != 0) {
+            mapa.get();
+        }
+        if (mapa.remaining() < (long) numAristas * Integer.BYTES) {
+            throw new IOException("imagen truncada");
+        }
+        IntBuffer aristas = mapa.slice().asIntBuffer();
+        aristas.limit(numAristas);
+        return new DAWG(etiquetas, aristas, raiz);
+    }
+
+    /**
+     * Lee una cadena escrita con {@link DataOutputStream#writeUTF}.
+     *
+     * @param buffer Buffer posicionado al inicio de la cadena.
+     * @return Cadena leída.
+     */
+    private static String leerUTF(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Devuelve el tamaño y la fecha de modificación del recurso
+     * {@code <idioma>Dic.txt}.
+     *
+     * @param idioma Idioma del diccionario.
+     * @return Tamaño en bytes y fecha en milisegundos (0 si no se conoce), o
+     *         {@code {-1, -1}} si el recurso no existe.
+     */
+    static long[] datosFuente(String idioma) {
+        URL recurso = ImagenLexico.class.getClassLoader().getResource(idioma + "Dic.txt");
+        if (recurso == null) {
+            return new long[]{-1, -1};
+        }
+        try {
+            URLConnection conexion = recurso.openConnection();
+            conexion.setUseCaches(false);
+            long[] datos = {conexion.getContentLengthLong(), conexion.getLastModified()};
+            conexion.getInputStream().close();
+            return datos;
+        } catch (IOException e) {
+            return new long[]{-1, -1};
+        }
+    }
+
+    /**
+     * Compila las imágenes de todos los diccionarios de un directorio de
+     * recursos.  Lo invoca la tarea de Gradle {@code compilarLexicos}.
+     *
+     * @param args {@code args[0]}: directorio con los {@code <idioma>Dic.txt};
+     *             {@code args[1]}: directorio de salida (opcional).
+     * @throws IOException si alguna imagen no se puede escribir.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Uso: ImagenLexico <directorio de recursos> [directorio de salida]");
+            return;
+        }
+        Path salida = args.length > 1 ? Paths.get(args[1]) : getDirectorio();
+        File[] diccionarios = new File(args[0]).listFiles((dir, nombre) -> nombre.endsWith("Dic.txt"));
+        if (diccionarios == null) {
+            System.out.println("No existe el directorio de recursos: " + args[0]);
+            return;
+        }
+        for (File fichero : diccionarios) {
+            String idioma = fichero.getName().substring(0, fichero.getName().length() - "Dic.txt".length());
+            long inicio = System.nanoTime();
+            Lexico lexico = Lexico.construir(idioma);
+            Path destino = salida.resolve(idioma + EXTENSION);
+            escribir(lexico, destino);
+            System.out.println("Léxico " + idioma + " (" + lexico.getResumenConstruccion() + "): "
+                    + lexico.getDawg().getNumAristas() + " aristas, "
+                    + lexico.getDawg().getTamanoBytes() / 1024 + " KB en memoria, "
+                    + Files.size(destino) + " bytes, " + (System.nanoTime() - inicio) / 1_000_000L + " ms");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Movimiento generado en forma compacta y reutilizable: en lugar de listas de
+ * fichas, posiciones y la palabra como texto, guarda los códigos del
+ * {@link Alfabeto} en vectores de tamaño fijo.  El {@link GeneradorMovimientos}
+ * rellena siempre la misma jugada y se la pasa a un {@link ReceptorJugadas},
+ * así que recorrer todos los movimientos legales no crea objetos; solo los que
+ * se quieren conservar se copian o se convierten en {@link Movimiento}.
+ * </p>
+ * <p>
+ * Las posiciones son de base 1, como en {@link Movimiento}.
+ * </p>
+ */
+public class JugadaGenerada {
+
+    /** Código de una letra del tablero que no pertenece al alfabeto. */
+    private static final int DESCONOCIDA = Tablero.DESCONOCIDA;
+
+    /** Alfabeto de los códigos. */
+    private final Alfabeto alfabeto;
+
+    /** Códigos de la palabra principal, incluidas las fichas del tablero. */
+    private int[] palabra;
+
+    /** Longitud de la palabra principal. */
+    private int largo;
+
+    /** Códigos de las fichas colocadas del atril. */
+    private int[] fichas;
+
+    /** Fila de cada ficha colocada. */
+    private int[] filas;
+
+    /** Columna de cada ficha colocada. */
+    private int[] columnas;
+
+    /** Número de fichas colocadas. */
+    private int numFichas;
+
+    /** Fila del inicio de la palabra principal. */
+    private int fila;
+
+    /** Columna del inicio de la palabra principal. */
+    private int columna;
+
+    /** Indica si la palabra principal es horizontal. */
+    private boolean horizontal;
+
+    /** Puntuación del movimiento. */
+    private int puntuacion;
+
+    /** Valor del resto del atril, o 0 si no se valora. */
+    private double valorResto;
+
+    /**
+     * Crea una jugada vacía.
+     *
+     * @param alfabeto  Alfabeto de los códigos.
+     * @param capacidad Longitud máxima de una palabra (el tamaño del tablero).
+     */
+    public JugadaGenerada(Alfabeto alfabeto, int capacidad) {
+        this.alfabeto = alfabeto;
+        reservar(capacidad);
+    }
+
+    /**
+     * Crea una copia de otra jugada.
+     *
+     * @param otra Jugada que se copia.
+     */
+    public JugadaGenerada(JugadaGenerada otra) {
+        this(otra.alfabeto, otra.palabra.length);
+        copiar(otra);
+    }
+
+    /**
+     * Reserva los vectores para palabras de hasta {@code capacidad} letras.
+     */
+    private void reservar(int capacidad) {
+        palabra = new int[capacidad];
+        fichas = new int[capacidad];
+        filas = new int[capacidad];
+        columnas = new int[capacidad];
+    }
+
+    /**
+     * Empieza una jugada nueva.
+     */
+    void iniciar(int fila, int columna, boolean horizontal) {
+        this.fila = fila;
+        this.columna = columna;
+        this.horizontal = horizontal;
+        largo = 0;
+        numFichas = 0;
+        puntuacion = 0;
+        valorResto = 0;
+    }
+
+    /**
+     * Añade a la palabra principal una letra que ya estaba en el tablero.
+     */
+    void anadirLetra(int codigo) {
+        palabra[largo++] = codigo;
+    }
+
+    /**
+     * Añade a la palabra principal una ficha del atril colocada en una casilla.
+     */
+    void anadirFicha(int codigo, int fila, int columna) {
+        palabra[largo++] = codigo;
+        fichas[numFichas] = codigo;
+        filas[numFichas] = fila;
+        columnas[numFichas] = columna;
+        numFichas++;
+    }
+
+    void setPuntuacion(int puntuacion) {
+        this.puntuacion = puntuacion;
+    }
+
+    void setValorResto(double valorResto) {
+        this.valorResto = valorResto;
+    }
+
+    /**
+     * Copia otra jugada en esta, sin crear objetos salvo que esta sea más
+     * pequeña.
+     *
+     * @param otra Jugada que se copia.
+     */
+    public void copiar(JugadaGenerada otra) {
+        if (palabra.length < otra.largo) {
+            reservar(otra.palabra.length);
+        }
+        System.arraycopy(otra.palabra, 0, palabra, 0, otra.largo);
+        System.arraycopy(otra.fichas, 0, fichas, 0, otra.numFichas);
+        System.arraycopy(otra.filas, 0, filas, 0, otra.numFichas);
+        System.arraycopy(otra.columnas, 0, columnas, 0, otra.numFichas);
+        largo = otra.largo;
+        numFichas = otra.numFichas;
+        fila = otra.fila;
+        columna = otra.columna;
+        horizontal = otra.horizontal;
+        puntuacion = otra.puntuacion;
+        valorResto = otra.valorResto;
+    }
+
+    /**
+     * Convierte la jugada en un {@link Movimiento} independiente, igual al que
+     * devuelve {@link GeneradorMovimientos#generar(Tablero, List)}.
+     *
+     * @return Movimiento nuevo.
+     */
+    public Movimiento aMovimiento() {
+        List<String> letras = new ArrayList<>(numFichas);
+        List<int[]> posiciones = new ArrayList<>(numFichas);
+        for (int i = 0; i < numFichas; i++) {
+            letras.add(alfabeto.getLetra(fichas[i]));
+            posiciones.add(new int[]{filas[i], columnas[i]});
+        }
+        StringBuilder texto = new StringBuilder(largo);
+        for (int i = 0; i < largo; i++) {
+            texto.append(palabra[i] == DESCONOCIDA ? "?" : alfabeto.getLetra(palabra[i]));
+        }
+        Movimiento movimiento = new Movimiento(letras, fila, columna, horizontal, puntuacion, texto.toString());
+        movimiento.setCoordenadas(posiciones);
+        movimiento.setValorResto(valorResto);
+        movimiento.setLargo(largo);
+        return movimiento;
+    }
+
+    /** @return longitud máxima de las palabras que caben en la jugada */
+    public int getCapacidad() {
+        return palabra.length;
+    }
+
+    /** @return longitud de la palabra principal */
+    public int getLargo() {
+        return largo;
+    }
+
+    /** @return número de fichas colocadas del atril */
+    public int getNumFichas() {
+        return numFichas;
+    }
+
+    /** @return fila del inicio de la palabra principal */
+    public int getFila() {
+        return fila;
+    }
+
+    /** @return columna del inicio de la palabra principal */
+    public int getColumna() {
+        return columna;
+    }
+
+    /** @return {@code true} si la palabra principal es horizontal */
+    public boolean esHorizontal() {
+        return horizontal;
+    }
+
+    /** @return puntuación del movimiento */
+    public int getPuntuacion() {
+        return puntuacion;
+    }
+
+    /** @return valor del resto del atril, o 0 si no se valora */
+    public double getValorResto() {
+        return valorResto;
+    }
+
+    /** @return puntuación más valor del resto, como {@link Movimiento#getValoracion()} */
+    public double getValoracion() {
+        return puntuacion + valorResto;
+    }
+}
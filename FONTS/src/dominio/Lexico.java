@@ -0,0 +1,273 @@
+package dominio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Representa el léxico ya preparado de un idioma: el {@link Diccionario} con
+ * las palabras y puntuaciones, y el {@link DAWG} construido a partir de él.
+ * <p>
+ * Un léxico es inmutable una vez construido y puede compartirse entre
+ * partidas, tableros, algoritmos y robots.  Las instancias se obtienen a
+ * través de {@link RegistroLexicos}, que garantiza que cada diccionario se
+ * lee y procesa como máximo una vez por proceso.
+ * </p>
+ */
+public class Lexico {
+
+    /** Idioma del léxico («castellano», «catalan», «ingles»). */
+    private final String idioma;
+
+    /** Diccionario con las palabras válidas y la puntuación de cada letra. */
+    private final Diccionario diccionario;
+
+    /** DAWG minimizado con todas las palabras del diccionario. */
+    private final DAWG dawg;
+
+    /** Letras especiales (dígrafos) que ocupan una sola ficha en el idioma. */
+    private final List<String> letrasEspeciales;
+
+    /** Alfabeto de fichas del idioma; sus códigos son las etiquetas del DAWG. */
+    private final Alfabeto alfabeto;
+
+    /** Resumen de la construcción del DAWG (tiempo y pico de memoria). */
+    private final String resumenConstruccion;
+
+    /** GADDAG del léxico; se construye la primera vez que se pide. */
+    private volatile GADDAG gaddag;
+
+    /** Tabla de valores del resto del atril; se lee la primera vez que se pide. */
+    private volatile TablaRestos tablaRestos;
+
+    /**
+     * Crea un léxico a partir de un diccionario ya cargado, construyendo su DAWG.
+     *
+     * @param idioma      Idioma del diccionario.
+     * @param diccionario Diccionario con las palabras válidas.
+     */
+    public Lexico(String idioma, Diccionario diccionario) {
+        this.idioma = idioma;
+        this.diccionario = diccionario;
+        this.alfabeto = diccionario.getAlfabeto();
+        this.letrasEspeciales = alfabeto.getDigrafos();
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        this.dawg = construirDAWG(diccionario.getPalabras(), alfabeto, constructor);
+        this.resumenConstruccion = constructor.toString();
+    }
+
+    /**
+     * Crea un léxico con un DAWG ya construido (por ejemplo, proyectado desde
+     * una {@link ImagenLexico}).
+     *
+     * @param idioma      Idioma del léxico.
+     * @param diccionario Diccionario con, al menos, las puntuaciones de las letras.
+     * @param dawg        DAWG con las palabras válidas.
+     */
+    public Lexico(String idioma, Diccionario diccionario, DAWG dawg) {
+        this.idioma = idioma;
+        this.diccionario = diccionario;
+        this.alfabeto = diccionario.getAlfabeto();
+        this.letrasEspeciales = alfabeto.getDigrafos();
+        this.dawg = dawg;
+        this.resumenConstruccion = "DAWG cargado ya construido";
+    }
+
+    /**
+     * Crea un léxico leyendo las palabras de un flujo de texto (una por línea).
+     * Las palabras no se guardan en el diccionario: pasan directamente al
+     * {@link ConstructorDAWG}.
+     *
+     * @param idioma      Idioma del léxico.
+     * @param diccionario Diccionario con las puntuaciones de las letras.
+     * @param lector      Flujo con una palabra por línea.
+     * @throws IOException si falla la lectura.
+     */
+    private Lexico(String idioma, Diccionario diccionario, BufferedReader lector) throws IOException {
+        this.idioma = idioma;
+        this.diccionario = diccionario;
+        this.alfabeto = diccionario.getAlfabeto();
+        this.letrasEspeciales = alfabeto.getDigrafos();
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        try {
+            this.dawg = construirDAWG(lector.lines()::iterator, alfabeto, constructor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        this.resumenConstruccion = constructor.toString();
+    }
+
+    /**
+     * Obtiene el léxico de un idioma.  Si existe una imagen precompilada,
+     * vigente y con el mismo alfabeto se proyecta en memoria y solo se leen las puntuaciones; en caso
+     * contrario se construye a partir del diccionario de texto.
+     *
+     * @param idioma Idioma a cargar.
+     * @return Léxico del idioma indicado.
+     */
+    public static Lexico cargar(String idioma) {
+        DAWG imagen = ImagenLexico.abrir(idioma);
+        if (imagen != null) {
+            Diccionario diccionario = new Diccionario();
+            diccionario.setCargarPuntuaciones(idioma);
+            if (Arrays.equals(imagen.getEtiquetas(), diccionario.getAlfabeto().getLetras())) {
+                return new Lexico(idioma, diccionario, imagen);
+            }
+        }
+        return construir(idioma);
+    }
+
+    /**
+     * Construye el léxico de un idioma a partir del diccionario de texto de
+     * los recursos.  Solo se cargan en el {@link Diccionario} las
+     * puntuaciones; las palabras se pasan directamente al DAWG.
+     *
+     * @param idioma Idioma a cargar.
+     * @return Léxico del idioma indicado.
+     */
+    public static Lexico construir(String idioma) {
+        Diccionario diccionario = new Diccionario();
+        diccionario.setCargarPuntuaciones(idioma);
+        String nombreArchivo = idioma + "Dic.txt";
+        try (InputStream entrada = Lexico.class.getClassLoader().getResourceAsStream(nombreArchivo)) {
+            if (entrada == null) {
+                System.out.println("❌ No se encontró el archivo del diccionario: " + nombreArchivo);
+                return new Lexico(idioma, diccionario, new BufferedReader(new StringReader("")));
+            }
+            return new Lexico(idioma, diccionario, new BufferedReader(new InputStreamReader(entrada)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el diccionario " + nombreArchivo, e);
+        }
+    }
+
+    /**
+     * Construye el DAWG mínimo de un conjunto de palabras.  Cada palabra se
+     * normaliza como en {@link Diccionario} y se codifica con un {@code char}
+     * por ficha del alfabeto; después las palabras codificadas se ordenan y se
+     * pasan en orden al constructor, que no necesita el Trie completo.  Las
+     * palabras con caracteres que no corresponden a ninguna ficha no se pueden
+     * formar en el tablero y se descartan.
+     *
+     * @param palabras    Palabras del diccionario, en cualquier orden.
+     * @param alfabeto    Alfabeto del idioma.
+     * @param constructor Constructor que recibe las palabras.
+     * @return DAWG mínimo con las palabras, etiquetado con los códigos del alfabeto.
+     */
+    static DAWG construirDAWG(Iterable<String> palabras, Alfabeto alfabeto, ConstructorDAWG constructor) {
+        List<String> codificadas = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        int descartadas = 0;
+        for (String linea : palabras) {
+            String palabra = linea.trim().toUpperCase();
+            if (palabra.isEmpty()) continue;
+            sb.setLength(0);
+            for (int i = 0; i < palabra.length(); ) {
+                int codigo = alfabeto.leer(palabra, i);
+                if (codigo == Alfabeto.NINGUNA) {
+                    sb.setLength(0);
+                    break;
+                }
+                sb.append((char) codigo);
+                i += alfabeto.longitud(codigo);
+            }
+            if (sb.length() == 0) {
+                descartadas++;
+            } else {
+                codificadas.add(sb.toString());
+            }
+        }
+        if (descartadas > 0) {
+            System.out.println("⚠️ " + descartadas + " palabras con letras fuera del alfabeto " + alfabeto.getIdioma());
+        }
+
+        codificadas.sort(null);
+        for (String palabra : codificadas) {
+            constructor.agregar(palabra);
+        }
+        return constructor.construir(alfabeto.getLetras());
+    }
+
+    /** @return idioma del léxico */
+    public String getIdioma() {
+        return idioma;
+    }
+
+    /**
+     * Devuelve el diccionario del léxico.  Si el léxico se ha cargado desde una
+     * imagen, el diccionario solo contiene las puntuaciones: las palabras se
+     * validan con el {@link DAWG}.
+     *
+     * @return diccionario del léxico
+     */
+    public Diccionario getDiccionario() {
+        return diccionario;
+    }
+
+    /** @return DAWG del léxico */
+    public DAWG getDawg() {
+        return dawg;
+    }
+
+    /**
+     * Devuelve el GADDAG del léxico, construyéndolo a partir del DAWG la
+     * primera vez.  Ocupa bastante más memoria que el DAWG, así que solo se
+     * construye si algún {@link Algoritmo} lo usa.  El tiempo y la memoria de
+     * la construcción se consultan con {@link GADDAG#getResumenConstruccion()}.
+     *
+     * @return GADDAG con las mismas palabras que el DAWG
+     */
+    public GADDAG getGaddag() {
+        GADDAG resultado = gaddag;
+        if (resultado == null) {
+            synchronized (this) {
+                resultado = gaddag;
+                if (resultado == null) {
+                    resultado = GADDAG.construir(dawg);
+                    gaddag = resultado;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve la tabla de valores del resto del atril del idioma, leída de
+     * <code>&lt;idioma&gt;Restos.txt</code> la primera vez que se pide.
+     *
+     * @return tabla de restos (vacía si el idioma no tiene fichero)
+     */
+    public TablaRestos getTablaRestos() {
+        TablaRestos resultado = tablaRestos;
+        if (resultado == null) {
+            synchronized (this) {
+                resultado = tablaRestos;
+                if (resultado == null) {
+                    resultado = TablaRestos.cargar(idioma, alfabeto);
+                    tablaRestos = resultado;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /** @return resumen de la construcción del DAWG del léxico */
+    public String getResumenConstruccion() {
+        return resumenConstruccion;
+    }
+
+    /** @return alfabeto de fichas del idioma del léxico */
+    public Alfabeto getAlfabeto() {
+        return alfabeto;
+    }
+
+    /** @return letras especiales del idioma del léxico */
+    public List<String> getLetrasEspeciales() {
+        return letrasEspeciales;
+    }
+}
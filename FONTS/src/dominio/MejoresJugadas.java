@@ -0,0 +1,165 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * {@link ReceptorJugadas} que se queda con las {@code k} jugadas de mayor
+ * valoración ({@link JugadaGenerada#getValoracion()}) en un montículo de
+ * mínimos de tamaño fijo.  Las jugadas del montículo se reservan una vez y
+ * se sobrescriben, así que la memoria no depende del número de movimientos
+ * legales; una jugada que no mejora a la peor del montículo se descarta sin
+ * copiarla.
+ * </p>
+ * <p>
+ * A igual valoración gana la que se generó antes, de modo que con
+ * {@code k = 1} el resultado es el mismo que recorrer la lista de
+ * {@link GeneradorMovimientos#generar(Tablero, List)} quedándose con el primer
+ * máximo.
+ * </p>
+ */
+public class MejoresJugadas implements ReceptorJugadas {
+
+    /** Número de jugadas que se conservan. */
+    private final int k;
+
+    /** Montículo de mínimos: en la raíz, la peor jugada conservada. */
+    private final JugadaGenerada[] monticulo;
+
+    /** Orden de llegada de cada jugada del montículo, para desempatar. */
+    private final long[] ordenes;
+
+    /** Jugadas en el montículo. */
+    private int tamano;
+
+    /** Jugadas recibidas desde la última vez que se vació. */
+    private long recibidas;
+
+    /**
+     * Crea el receptor.
+     *
+     * @param k Número de jugadas que se conservan.
+     * @throws IllegalArgumentException si {@code k} no es positivo.
+     */
+    public MejoresJugadas(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("El número de jugadas debe ser positivo.");
+        }
+        this.k = k;
+        this.monticulo = new JugadaGenerada[k];
+        this.ordenes = new long[k];
+    }
+
+    @Override
+    public void recibir(JugadaGenerada jugada) {
+        long orden = recibidas++;
+        if (tamano < k) {
+            if (monticulo[tamano] == null) {
+                monticulo[tamano] = new JugadaGenerada(jugada);
+            } else {
+                monticulo[tamano].copiar(jugada);
+            }
+            ordenes[tamano] = orden;
+            flotar(tamano++);
+        } else if (jugada.getValoracion() > monticulo[0].getValoracion()) {
+            monticulo[0].copiar(jugada);
+            ordenes[0] = orden;
+            hundir(0);
+        }
+    }
+
+    /**
+     * Vacía el receptor para reutilizarlo en otra generación.
+     */
+    public void vaciar() {
+        tamano = 0;
+        recibidas = 0;
+    }
+
+    /** @return número de jugadas recibidas desde la última vez que se vació */
+    public long getRecibidas() {
+        return recibidas;
+    }
+
+    /** @return número de jugadas conservadas */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * @return jugadas conservadas convertidas en {@link Movimiento}, de mayor a
+     *         menor valoración (y, a igual valoración, en orden de generación)
+     */
+    public List<Movimiento> getMovimientos() {
+        Integer[] indices = new Integer[tamano];
+        for (int i = 0; i < tamano; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> peor(a, b) ? 1 : peor(b, a) ? -1 : 0);
+        List<Movimiento> movimientos = new ArrayList<>(tamano);
+        for (int i : indices) {
+            movimientos.add(monticulo[i].aMovimiento());
+        }
+        return movimientos;
+    }
+
+    /**
+     * @return mejor jugada conservada convertida en {@link Movimiento}, o
+     *         {@code null} si no se ha recibido ninguna
+     */
+    public Movimiento getMejor() {
+        if (tamano == 0) {
+            return null;
+        }
+        int mejor = 0;
+        for (int i = 1; i < tamano; i++) {
+            if (peor(mejor, i)) {
+                mejor = i;
+            }
+        }
+        return monticulo[mejor].aMovimiento();
+    }
+
+    /**
+     * @return {@code true} si la jugada {@code a} del montículo es peor que la
+     *         {@code b}: menor valoración o, si empatan, generada después
+     */
+    private boolean peor(int a, int b) {
+        double va = monticulo[a].getValoracion();
+        double vb = monticulo[b].getValoracion();
+        return va < vb || (va == vb && ordenes[a] > ordenes[b]);
+    }
+
+    private void flotar(int i) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (!peor(i, padre)) return;
+            intercambiar(i, padre);
+            i = padre;
+        }
+    }
+
+    private void hundir(int i) {
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamano) return;
+            if (hijo + 1 < tamano && peor(hijo + 1, hijo)) {
+                hijo++;
+            }
+            if (!peor(hijo, i)) return;
+            intercambiar(i, hijo);
+            i = hijo;
+        }
+    }
+
+    private void intercambiar(int i, int j) {
+        JugadaGenerada jugada = monticulo[i];
+        monticulo[i] = monticulo[j];
+        monticulo[j] = jugada;
+        long orden = ordenes[i];
+        ordenes[i] = ordenes[j];
+        ordenes[j] = orden;
+    }
+}
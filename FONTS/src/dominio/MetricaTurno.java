@@ -0,0 +1,89 @@
+package dominio;
+
+import java.io.Serializable;
+
+/**
+ * Métricas de un turno de robot: con qué perfil ha jugado, cuánto ha tardado
+ * en decidir, cuántas fases de la búsqueda ha completado dentro del plazo y
+ * qué ha jugado.  Se guardan con la {@link Partida} para comparar el coste y
+ * el rendimiento de los perfiles.
+ */
+public class MetricaTurno implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Nombre del robot. */
+    private final String jugador;
+
+    /** Perfil del robot, o {@code null} si se configuró a mano. */
+    private final PerfilRobot perfil;
+
+    /** Tiempo que ha tardado en decidir la jugada, en milisegundos. */
+    private final long milisegundos;
+
+    /** Fases de la búsqueda terminadas antes del plazo. */
+    private final int fasesTerminadas;
+
+    /** Palabra formada, o {@code null} si no ha jugado. */
+    private final String palabra;
+
+    /** Puntos conseguidos. */
+    private final int puntuacion;
+
+    /**
+     * Crea las métricas de un turno.
+     *
+     * @param jugador         Nombre del robot.
+     * @param perfil          Perfil del robot, o {@code null}.
+     * @param milisegundos    Tiempo de decisión, en milisegundos.
+     * @param fasesTerminadas Fases de la búsqueda terminadas.
+     * @param palabra         Palabra formada, o {@code null} si no ha jugado.
+     * @param puntuacion      Puntos conseguidos.
+     */
+    public MetricaTurno(String jugador, PerfilRobot perfil, long milisegundos, int fasesTerminadas,
+                        String palabra, int puntuacion) {
+        this.jugador = jugador;
+        this.perfil = perfil;
+        this.milisegundos = milisegundos;
+        this.fasesTerminadas = fasesTerminadas;
+        this.palabra = palabra;
+        this.puntuacion = puntuacion;
+    }
+
+    /** @return nombre del robot */
+    public String getJugador() {
+        return jugador;
+    }
+
+    /** @return perfil del robot, o {@code null} si se configuró a mano */
+    public PerfilRobot getPerfil() {
+        return perfil;
+    }
+
+    /** @return tiempo que ha tardado en decidir la jugada, en milisegundos */
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    /** @return fases de la búsqueda terminadas antes del plazo */
+    public int getFasesTerminadas() {
+        return fasesTerminadas;
+    }
+
+    /** @return palabra formada, o {@code null} si no ha jugado */
+    public String getPalabra() {
+        return palabra;
+    }
+
+    /** @return puntos conseguidos */
+    public int getPuntuacion() {
+        return puntuacion;
+    }
+
+    @Override
+    public String toString() {
+        return jugador + " (" + (perfil == null ? "personalizado" : perfil.getNombre()) + "): "
+                + (palabra == null ? "pasa" : palabra + " por " + puntuacion + " puntos")
+                + " en " + milisegundos + " ms, " + fasesTerminadas + " fases";
+    }
+}
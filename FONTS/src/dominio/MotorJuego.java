@@ -0,0 +1,303 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Motor de juego sin interfaz: una partida completa (tablero, saco, atriles,
+ * turnos y puntuaciones) que se maneja solo con llamadas, sin {@link Vista},
+ * sin Swing, sin singletons y sin escribir nada.  Se crea la partida, se
+ * envía la jugada del jugador en turno con {@link #jugar(Movimiento)} o se
+ * pasa con {@link #pasar()}, y cada llamada devuelve el {@link EstadoJuego}
+ * siguiente.  Así se pueden jugar muchas partidas independientes en la misma
+ * máquina virtual, cada una en su hilo, para autojuego, torneos de robots o
+ * pruebas de carga.
+ * </p>
+ * <p>
+ * Las jugadas se validan y puntúan con el {@link Puntuador}, como en
+ * {@link Partida}, y los atriles se reponen hasta
+ * {@link TablaRestos#MAX_FICHAS} fichas.  La partida termina según la regla 8
+ * del {@link Reglamento}: cuando un jugador se queda sin fichas con el saco
+ * vacío o cuando todos los jugadores pasan su turno consecutivamente
+ * ({@link Reglamento#terminaPorPases(int, int)}).  Entonces a cada jugador se
+ * le restan los puntos de las fichas que le quedan
+ * ({@link Reglamento#valorAtril(List, Alfabeto)}) y gana el de mayor
+ * puntuación final, si no hay empate (regla 9).  {@link Partida} no aplica
+ * estas reglas por sí misma: allí la partida la finaliza el jugador.
+ * </p>
+ * <p>
+ * Un motor no es seguro entre hilos: cada partida debe jugarse desde un solo
+ * hilo.  El léxico sí se comparte entre todas.
+ * </p>
+ */
+public class MotorJuego {
+
+    /** Léxico del idioma. */
+    private final Lexico lexico;
+
+    /** Valida y puntúa las jugadas. */
+    private final Puntuador puntuador;
+
+    /** Tablero de la partida. */
+    private final Tablero tablero;
+
+    /** Saco de fichas. */
+    private final Saco saco;
+
+    /** Atril de cada jugador. */
+    private final List<List<String>> atriles = new ArrayList<>();
+
+    /** Puntuación de cada jugador. */
+    private final int[] puntuaciones;
+
+    /** Jugador al que le toca jugar. */
+    private int turno;
+
+    /** Turnos jugados. */
+    private int numTurno;
+
+    /** Pases seguidos. */
+    private int pasesSeguidos;
+
+    /** Indica si la partida ha terminado. */
+    private boolean terminada;
+
+    /** Jugador ganador, o -1. */
+    private int ganador = -1;
+
+    /** Estado tras el último turno. */
+    private EstadoJuego estado;
+
+    /**
+     * Crea una partida con el léxico compartido del idioma y un saco lleno.
+     *
+     * @param idioma       Idioma de la partida.
+     * @param numJugadores Número de jugadores.
+     */
+    public MotorJuego(String idioma, int numJugadores) {
+        this(RegistroLexicos.getInstance().getLexico(idioma), numJugadores, new Saco());
+    }
+
+    /**
+     * Crea una partida: llena el saco con las fichas del idioma y reparte los
+     * atriles en el orden de los jugadores.  Empieza el jugador 0.
+     *
+     * @param lexico       Léxico del idioma.
+     * @param numJugadores Número de jugadores.
+     * @param saco         Saco que se llenará y del que se robarán las fichas.
+     * @throws IllegalArgumentException si hay menos de dos jugadores.
+     */
+    public MotorJuego(Lexico lexico, int numJugadores, Saco saco) {
+        if (numJugadores < 2) {
+            throw new IllegalArgumentException("Una partida necesita al menos dos jugadores.");
+        }
+        this.lexico = lexico;
+        this.puntuador = new Puntuador(lexico);
+        this.tablero = new Tablero();
+        this.tablero.setIdioma(lexico.getIdioma());
+        this.saco = saco;
+        this.saco.setLlenarSaco(lexico.getIdioma());
+        this.puntuaciones = new int[numJugadores];
+        for (int j = 0; j < numJugadores; j++) {
+            List<String> atril = new ArrayList<>(TablaRestos.MAX_FICHAS);
+            reponer(atril);
+            atriles.add(atril);
+        }
+        this.estado = crearEstado(null, 0);
+    }
+
+    /**
+     * Juega un movimiento del jugador en turno: comprueba que tenga las
+     * fichas, lo valida y puntúa, lo coloca en el tablero, repone el atril y
+     * pasa el turno.
+     *
+     * @param movimiento Movimiento con las fichas del atril y sus posiciones (base 1).
+     * @return Estado siguiente.
+     * @throws IllegalStateException si la partida ya ha terminado.
+     * @throws IllegalArgumentException si el movimiento no indica las
+     *         posiciones de sus fichas o el jugador no las tiene.
+     * @throws Tablero.ErrorJuegoException si el movimiento no cumple las reglas;
+     *         en ese caso la partida no cambia.
+     */
+    public EstadoJuego jugar(Movimiento movimiento) {
+        comprobarEnCurso();
+        if (movimiento.getPosiciones() == null || movimiento.getPosiciones().size() != movimiento.getFichas().size()) {
+            throw new IllegalArgumentException("El movimiento no indica las posiciones de sus fichas.");
+        }
+        List<String> atril = atriles.get(turno);
+        List<String> restantes = new ArrayList<>(atril);
+        for (String ficha : movimiento.getFichas()) {
+            if (!restantes.remove(ficha)) {
+                throw new IllegalArgumentException("El jugador " + turno + " no tiene la ficha " + ficha + ".");
+            }
+        }
+        int puntos = puntuador.puntuar(tablero, movimiento);
+
+        tablero.aplicarMovimiento(movimiento);
+        atril.clear();
+        atril.addAll(restantes);
+        reponer(atril);
+        puntuaciones[turno] += puntos;
+        pasesSeguidos = 0;
+        numTurno++;
+        if (atril.isEmpty()) {
+            terminar();
+        } else {
+            turno = (turno + 1) % puntuaciones.length;
+        }
+        estado = crearEstado(movimiento, puntos);
+        return estado;
+    }
+
+    /**
+     * El jugador en turno pasa.
+     *
+     * @return Estado siguiente.
+     * @throws IllegalStateException si la partida ya ha terminado.
+     */
+    public EstadoJuego pasar() {
+        comprobarEnCurso();
+        pasesSeguidos++;
+        numTurno++;
+        if (Reglamento.terminaPorPases(pasesSeguidos, puntuaciones.length)) {
+            terminar();
+        } else {
+            turno = (turno + 1) % puntuaciones.length;
+        }
+        estado = crearEstado(null, 0);
+        return estado;
+    }
+
+    /**
+     * Termina la partida: resta a cada jugador los puntos de las fichas que le
+     * quedan y elige el ganador por la puntuación final.
+     */
+    private void terminar() {
+        for (int j = 0; j < puntuaciones.length; j++) {
+            puntuaciones[j] -= Reglamento.valorAtril(atriles.get(j), lexico.getAlfabeto());
+        }
+        terminada = true;
+        ganador = mejorPuntuacion();
+    }
+
+    /**
+     * @return jugador con la puntuación más alta, o -1 si hay empate
+     */
+    private int mejorPuntuacion() {
+        int mejor = 0;
+        boolean empate = false;
+        for (int j = 1; j < puntuaciones.length; j++) {
+            if (puntuaciones[j] > puntuaciones[mejor]) {
+                mejor = j;
+                empate = false;
+            } else if (puntuaciones[j] == puntuaciones[mejor]) {
+                empate = true;
+            }
+        }
+        return empate ? -1 : mejor;
+    }
+
+    private void comprobarEnCurso() {
+        if (terminada) {
+            throw new IllegalStateException("La partida ya ha terminado.");
+        }
+    }
+
+    /**
+     * Repone un atril robando del saco.
+     */
+    private void reponer(List<String> atril) {
+        atril.addAll(saco.robarFichas(TablaRestos.MAX_FICHAS - atril.size()));
+    }
+
+    private EstadoJuego crearEstado(Movimiento ultimaJugada, int ultimaPuntuacion) {
+        return new EstadoJuego(numTurno, turno, puntuaciones, getFichasEnSaco(), pasesSeguidos,
+                ultimaJugada, ultimaPuntuacion, terminada, ganador);
+    }
+
+    /** @return estado tras el último turno */
+    public EstadoJuego getEstado() {
+        return estado;
+    }
+
+    /** @return {@code true} si la partida ha terminado */
+    public boolean haTerminado() {
+        return terminada;
+    }
+
+    /** @return jugador al que le toca jugar */
+    public int getTurno() {
+        return turno;
+    }
+
+    /** @return número de jugadores */
+    public int getNumJugadores() {
+        return puntuaciones.length;
+    }
+
+    /** @return léxico de la partida */
+    public Lexico getLexico() {
+        return lexico;
+    }
+
+    /**
+     * Devuelve el tablero de la partida.  No debe modificarse: para simular
+     * jugadas hay que copiarlo ({@link Tablero#Tablero(Tablero)}) o aplicar y
+     * deshacer los movimientos.
+     *
+     * @return Tablero de la partida.
+     */
+    public Tablero getTablero() {
+        return tablero;
+    }
+
+    /**
+     * @param jugador Índice del jugador.
+     * @return copia del atril del jugador
+     */
+    public List<String> getAtril(int jugador) {
+        return new ArrayList<>(atriles.get(jugador));
+    }
+
+    /** @return número de fichas que quedan en el saco */
+    public int getFichasEnSaco() {
+        return saco.getNumFichas();
+    }
+
+    /**
+     * Devuelve las fichas que un jugador no ve: las del saco y las de los
+     * atriles de los demás.
+     *
+     * @param jugador Índice del jugador.
+     * @return Lista con una entrada por ficha.
+     */
+    public List<String> getFichasNoVistas(int jugador) {
+        List<String> noVistas = new ArrayList<>();
+        for (Map.Entry<String, Integer> entrada : saco.getLetrasFreq().entrySet()) {
+            noVistas.addAll(Collections.nCopies(entrada.getValue(), entrada.getKey()));
+        }
+        for (int j = 0; j < atriles.size(); j++) {
+            if (j != jugador) {
+                noVistas.addAll(atriles.get(j));
+            }
+        }
+        return noVistas;
+    }
+
+    /**
+     * Devuelve las fichas del rival cuando se pueden deducir: con el saco
+     * vacío y un solo rival son exactamente las que el jugador no ve.
+     *
+     * @param jugador Índice del jugador.
+     * @return Copia del atril del rival, o {@code null} si no se conoce.
+     */
+    public List<String> getFichasRival(int jugador) {
+        if (!saco.estaVacio() || atriles.size() != 2) {
+            return null;
+        }
+        return getAtril(1 - jugador);
+    }
+}
@@ -43,6 +43,18 @@ public class Movimiento {
      */
     private String palabraFormada;
 
+    /**
+     * Valor estimado de las fichas que quedan en el atril tras el movimiento
+     * (véase {@link TablaRestos}); 0 si no se ha valorado.
+     */
+    private double valorResto;
+
+    /**
+     * Número de fichas de la palabra principal, o -1 si no se ha indicado; no
+     * coincide con la longitud de {@link #palabraFormada} si tiene dígrafos.
+     */
+    private int largo = -1;
+
     /**
      * Constructor de la clase Movimiento.
      *
@@ -145,6 +157,52 @@ public class Movimiento {
         this.posiciones = posiciones;
     }
 
+    /**
+     * Obtiene el valor estimado de las fichas que quedan en el atril.
+     *
+     * @return Valor del resto del atril.
+     */
+    public double getValorResto() {
+        return valorResto;
+    }
+
+    /**
+     * Establece el valor estimado de las fichas que quedan en el atril.
+     *
+     * @param valorResto Valor del resto del atril.
+     */
+    public void setValorResto(double valorResto) {
+        this.valorResto = valorResto;
+    }
+
+    /**
+     * Obtiene el número de fichas de la palabra principal.
+     *
+     * @return Número de fichas, o la longitud de la palabra formada si no se ha indicado.
+     */
+    public int getLargo() {
+        return largo >= 0 ? largo : palabraFormada.length();
+    }
+
+    /**
+     * Establece el número de fichas de la palabra principal.
+     *
+     * @param largo Número de fichas de la palabra.
+     */
+    public void setLargo(int largo) {
+        this.largo = largo;
+    }
+
+    /**
+     * Obtiene la valoración del movimiento: su puntuación más el valor del
+     * resto del atril.
+     *
+     * @return Valoración del movimiento.
+     */
+    public double getValoracion() {
+        return puntuacion + valorResto;
+    }
+
     /**
      * Devuelve una representación en forma de cadena del movimiento.
      *
@@ -3,7 +3,9 @@ package dominio;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Representa una partida de Scrabble (o variante similar) gestionando usuarios,
@@ -11,10 +13,12 @@ import java.util.List;
  * iniciar, pausar y finalizar la partida, así como la (de)serialización para
  * persistir el estado en disco.
  * <p>
- * <b>Serialización:</b> La clase implementa {@link java.io.Serializable} para
- * poder guardarse mediante {@code ObjectOutputStream} y restaurarse con
- * {@code ObjectInputStream}.  Los campos marcados como {@code transient} se
- * recrean tras la carga mediante {@link #inicializarPostCarga(Tablero)}.
+ * <b>Serialización:</b> La partida se guarda con {@link FormatoPartida}, un
+ * formato binario compacto.  La clase sigue implementando
+ * {@link java.io.Serializable} para cargar las partidas guardadas con
+ * {@code ObjectOutputStream} por versiones anteriores.  Lo que no se guarda
+ * (léxico, diccionario, algoritmo y vista) se recrea tras la carga mediante
+ * {@link #inicializarPostCarga()}.
  * </p>
  *
  * @author  Yeray Franco
@@ -38,12 +42,26 @@ public class Partida implements Serializable {
     private transient Algoritmo algoritmo;
     /** Vista de interacción (CLI/GUI). No se serializa. */
     private transient Vista vista;
-    /** Diccionario usado para validar palabras. */
-    private Diccionario diccionario;
+    /**
+     * Diccionario usado para validar palabras.  Se comparte a través de
+     * {@link RegistroLexicos} y no se serializa con la partida.
+     */
+    private transient Diccionario diccionario;
     /** Estadísticas acumuladas de la partida. */
     private Estadistica estadisticas;
     /** Representación lógica del tablero. */
     private Tablero tablero;
+    /** Métricas de los turnos de los robots, en orden; {@code null} en partidas antiguas. */
+    private List<MetricaTurno> metricas;
+    /** Semilla del saco; 0 en partidas antiguas. */
+    private long semilla;
+    /** Registro de eventos para reproducir la partida; {@code null} hasta iniciarla y en partidas antiguas. */
+    private RegistroPartida registro;
+    /** Indica si el jugador en turno ya ha jugado o cambiado fichas; si no, pasar el turno es un pase. */
+    private boolean haJugadoTurno;
+
+    /** Fichas que debe haber en el saco como mínimo para poder cambiar. */
+    public static final int MIN_FICHAS_CAMBIO = 7;
 
     /**
      * Crea una nueva partida con la lista de usuarios indicada.
@@ -57,13 +75,31 @@ public class Partida implements Serializable {
         if (usuarios == null) throw new NullPointerException("La lista de usuarios no puede ser null");
         this.usuarios = usuarios;
         this.tablero = new Tablero();
-        this.saco = new Saco();
+        this.semilla = new Random().nextLong();
+        this.saco = new Saco(semilla);
         this.turnoActual = 0;
         this.partidaEnCurso = false;
         this.vista = new Vista();
         this.estadisticas = new Estadistica();
     }
 
+    /**
+     * Crea una partida cargada de disco.  Como al deserializarla, la vista, el
+     * diccionario y el algoritmo se recrean con {@link #inicializarPostCarga()}.
+     *
+     * @param usuarios jugadores de la partida
+     * @param tablero  tablero en su estado guardado
+     * @param saco     saco con las fichas que quedan
+     * @param semilla  semilla con la que se creó el saco
+     */
+    Partida(List<Usuario> usuarios, Tablero tablero, Saco saco, long semilla) {
+        this.usuarios = usuarios;
+        this.tablero = tablero;
+        this.saco = saco;
+        this.semilla = semilla;
+        this.estadisticas = new Estadistica();
+    }
+
     /** @return lista inmutable de usuarios que participan en la partida */
     public List<Usuario> getUsuarios() {
         return usuarios;
@@ -77,16 +113,20 @@ public class Partida implements Serializable {
     }
 
     /**
-     * Carga una partida previamente guardada desde un archivo.
+     * Carga una partida previamente guardada desde un archivo, tanto en el
+     * {@link FormatoPartida formato compacto} como serializada con
+     * {@code ObjectOutputStream} por versiones anteriores.
      *
-     * @param archivo ruta absoluta o relativa al fichero {@code .ser}
+     * @param archivo ruta absoluta o relativa al fichero {@code .sav}
      * @return instancia de {@code Partida} cargada o {@code null} si hubo error
      */
     public static Partida cargarPartida(String archivo) {
-        try (ObjectInputStream ois =
-                new ObjectInputStream(Files.newInputStream(Paths.get(archivo)))) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(archivo)))) {
+            Partida partida = FormatoPartida.esFormato(in)
+                    ? FormatoPartida.leer(in)
+                    : (Partida) new ObjectInputStream(in).readObject();
             System.out.println("Partida cargada desde " + archivo);
-            return (Partida) ois.readObject();
+            return partida;
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error al cargar la partida: " + e.getMessage());
             return null;
@@ -107,13 +147,13 @@ public class Partida implements Serializable {
     }
 
     /**
-     * Guarda el estado completo de la partida en disco.
+     * Guarda el estado de la partida en disco con el {@link FormatoPartida}.
      *
-     * @param archivo ruta de destino donde se escribirá el objeto serializado
+     * @param archivo ruta de destino del fichero
      */
     public void salvarPartida(String archivo) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(archivo))) {
-            oos.writeObject(this);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(archivo))) {
+            FormatoPartida.escribir(this, out);
             vista.printlnMensaje("Partida guardada correctamente en " + archivo);
         } catch (IOException e) {
             vista.printlnMensaje("Error al guardar la partida: " + e.getMessage());
@@ -137,12 +177,9 @@ public class Partida implements Serializable {
             this.tablero = new Tablero();
         }
 
-        if (this.diccionario == null) {
-            this.diccionario = new Diccionario();
-            this.diccionario.setCargarDiccionario(this.idioma);
-        }
-
-        this.algoritmo = new Algoritmo(diccionario, tablero, this.idioma);
+        Lexico lexico = RegistroLexicos.getInstance().getLexico(this.idioma);
+        this.diccionario = lexico.getDiccionario();
+        this.algoritmo = new Algoritmo(lexico, tablero);
 
 
         for (Usuario u : usuarios) {
@@ -173,13 +210,18 @@ public class Partida implements Serializable {
         vista.printlnMensaje("Partida iniciada con ID: " + id);
         vista.printlnMensaje("");
 
+        List<String> nombres = new ArrayList<>();
         for (Usuario usuario : usuarios) {
-            for (int i = 0; i < 7; i++) {
-                String letraRobada = saco.getRobarLetra();
-                if (letraRobada != null) {
-                    usuario.agregarFicha(letraRobada);
-                }
+            nombres.add(usuario.getUsername());
+        }
+        registro = new RegistroPartida(idioma, semilla, nombres, saco.getLetrasFreq());
+        haJugadoTurno = false;
+        for (int j = 0; j < usuarios.size(); j++) {
+            List<String> robadas = saco.robarFichas(7);
+            for (String letraRobada : robadas) {
+                usuarios.get(j).agregarFicha(letraRobada);
             }
+            registro.anadirRobo(j, robadas);
         }
         vista.printlnMensaje("Turno de: " + usuarios.get(turnoActual).getUsername());
         vista.printlnMensaje("");
@@ -199,10 +241,15 @@ public class Partida implements Serializable {
     }
 
     /**
-     * Avanza el turno al siguiente jugador, si la partida está en curso.
+     * Avanza el turno al siguiente jugador, si la partida está en curso.  Si
+     * el jugador no ha jugado ni cambiado fichas, se anota un pase en el registro.
      */
     public void pasarTurno() {
         if (partidaEnCurso) {
+            if (registro != null && !haJugadoTurno) {
+                registro.anadirPase(turnoActual);
+            }
+            haJugadoTurno = false;
             turnoActual = (turnoActual + 1) % usuarios.size();
         } else {
             vista.printlnMensaje("No hay partida en curso.");
@@ -215,12 +262,64 @@ public class Partida implements Serializable {
      * @param usuario jugador al que se le reponen las fichas
      */
     public void reponerFichasUsuario(Usuario usuario) {
-        Saco saco = getSaco();
-        while (usuario.getFichas().size() < 7 && !saco.estaVacio()) {
-            String letra = saco.getRobarLetra();
-            if (letra == null) break;
+        List<String> robadas = getSaco().robarFichas(7 - usuario.getFichas().size());
+        for (String letra : robadas) {
             usuario.agregarFicha(letra);
         }
+        if (registro != null) {
+            registro.anadirRobo(usuarios.indexOf(usuario), robadas);
+        }
+    }
+
+    /**
+     * Anota en el registro la jugada que acaba de hacer un jugador.  Pasar el
+     * turno después ya no cuenta como pase.
+     *
+     * @param usuario    jugador que ha jugado
+     * @param movimiento fichas colocadas, sus posiciones (base 1) y los puntos conseguidos
+     */
+    public void registrarJugada(Usuario usuario, Movimiento movimiento) {
+        haJugadoTurno = true;
+        if (registro != null) {
+            registro.anadirJugada(usuarios.indexOf(usuario), movimiento);
+        }
+    }
+
+    /**
+     * Cambia fichas del atril de un jugador por otras del saco: las aparta,
+     * roba el mismo número y después las devuelve al saco.  Solo se puede si
+     * en el saco quedan al menos {@link #MIN_FICHAS_CAMBIO} fichas.
+     *
+     * @param usuario jugador que cambia
+     * @param fichas  fichas del atril que se cambian
+     * @return {@code true} si se han cambiado
+     * @throws IllegalArgumentException si el jugador no tiene alguna de las fichas
+     */
+    public boolean cambiarFichas(Usuario usuario, List<String> fichas) {
+        if (saco.getNumFichas() < MIN_FICHAS_CAMBIO || fichas.isEmpty()) {
+            return false;
+        }
+        List<String> atril = new ArrayList<>(usuario.getFichas());
+        for (String ficha : fichas) {
+            if (!atril.remove(ficha)) {
+                throw new IllegalArgumentException("El jugador no tiene la ficha " + ficha + ".");
+            }
+        }
+        for (String ficha : fichas) {
+            usuario.eliminarLetra(ficha);
+        }
+        List<String> nuevas = saco.robarFichas(fichas.size());
+        for (String ficha : nuevas) {
+            usuario.agregarFicha(ficha);
+        }
+        saco.devolverFichas(fichas);
+        haJugadoTurno = true;
+        if (registro != null) {
+            int jugador = usuarios.indexOf(usuario);
+            registro.anadirRobo(jugador, nuevas);
+            registro.anadirCambio(jugador, fichas);
+        }
+        return true;
     }
 
     /**
@@ -254,6 +353,8 @@ public class Partida implements Serializable {
 
     /**
      * Carga el diccionario en un hilo con animación de *spinner* en consola.
+     * El léxico se obtiene de {@link RegistroLexicos}, por lo que solo se lee
+     * del disco la primera vez que se usa un idioma en el proceso.
      * Posteriormente crea el {@link Algoritmo} y lo asigna a los bots.
      *
      * @param idioma1 idioma del diccionario
@@ -275,9 +376,9 @@ public class Partida implements Serializable {
         });
         spinnerThread.start();
 
-        Diccionario diccionario1 = new Diccionario();
-        diccionario1.setCargarDiccionario(idioma1);
-        this.algoritmo = new Algoritmo(diccionario1, tablero, idioma1);
+        Lexico lexico = RegistroLexicos.getInstance().getLexico(idioma1);
+        this.diccionario = lexico.getDiccionario();
+        this.algoritmo = new Algoritmo(lexico, tablero);
 
         spinnerThread.interrupt();
         System.out.print("\r");
@@ -290,6 +391,21 @@ public class Partida implements Serializable {
         return this.turnoActual;
     }
 
+    /** @param turnoActual índice del turno actual, al cargar la partida */
+    void setTurnoActual(int turnoActual) {
+        this.turnoActual = turnoActual;
+    }
+
+    /** @return {@code true} si el jugador en turno ya ha jugado o cambiado fichas */
+    boolean getHaJugadoTurno() {
+        return haJugadoTurno;
+    }
+
+    /** @param haJugadoTurno si el jugador en turno ya ha jugado, al cargar la partida */
+    void setHaJugadoTurno(boolean haJugadoTurno) {
+        this.haJugadoTurno = haJugadoTurno;
+    }
+
     /** @return algoritmo usado por los bots para sugerir jugadas */
     public Algoritmo getAlgoritmo() {
         return this.algoritmo;
@@ -406,4 +522,51 @@ public class Partida implements Serializable {
     public void setTablero(Tablero tablero) {
         this.tablero = tablero;
     }
+
+    /**
+     * Añade las métricas de un turno de robot a la partida.
+     *
+     * @param metrica métricas del turno; se ignora si es {@code null}
+     */
+    public void registrarMetrica(MetricaTurno metrica) {
+        if (metrica == null) return;
+        if (metricas == null) {
+            metricas = new ArrayList<>();
+        }
+        metricas.add(metrica);
+    }
+
+    /** @return métricas de los turnos de los robots, en orden */
+    public List<MetricaTurno> getMetricas() {
+        return metricas == null ? new ArrayList<>() : metricas;
+    }
+
+    /**
+     * Fija la semilla del saco para poder repetir la partida.  Debe llamarse
+     * antes de llenar el saco, porque lo sustituye por uno vacío.
+     *
+     * @param semilla semilla del generador aleatorio del saco
+     */
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+        this.saco = new Saco(semilla);
+    }
+
+    /** @return semilla del saco (0 en partidas guardadas antes de tenerla) */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * @return registro de eventos de la partida, o {@code null} si aún no se
+     *         ha iniciado o se guardó antes de existir el registro
+     */
+    public RegistroPartida getRegistro() {
+        return registro;
+    }
+
+    /** @param registro registro de eventos, al cargar la partida */
+    void setRegistro(RegistroPartida registro) {
+        this.registro = registro;
+    }
 }
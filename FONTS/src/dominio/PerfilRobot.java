@@ -0,0 +1,107 @@
+package dominio;
+
+/**
+ * <p>
+ * Niveles de dificultad de los robots.  Cada perfil es un presupuesto de
+ * búsqueda: cuánto vocabulario usa el robot, cuántos candidatos estudia, qué
+ * términos entran en la valoración de las jugadas y cuánto tiempo tiene para
+ * decidir.  Los perfiles baratos permiten llenar una mesa de robots sin gastar
+ * CPU; el tiempo se reserva para los fuertes.
+ * </p>
+ * <ul>
+ *   <li><b>Principiante</b>: solo forma palabras cortas, juega la de mayor
+ *       puntuación sin mirar lo que deja en el atril y decide enseguida.</li>
+ *   <li><b>Club</b>: todo el vocabulario y el valor del resto del atril, y
+ *       simula la respuesta del rival a unos pocos candidatos.</li>
+ *   <li><b>Experto</b>: más candidatos y más tiempo de simulación, y resuelve
+ *       el final de partida ({@link SolucionadorFinal}).  Es el robot que se
+ *       creaba antes de existir los perfiles.</li>
+ * </ul>
+ * <p>
+ * El perfil se guarda con el {@link Robot} en la partida.
+ * </p>
+ */
+public enum PerfilRobot {
+
+    PRINCIPIANTE("Principiante", 5, 1, false, false, 300),
+    CLUB("Club", 0, 4, true, false, 1000),
+    EXPERTO("Experto", 0, EstrategiaMonteCarlo.CANDIDATOS_POR_DEFECTO, true, true, Robot.PLAZO_POR_DEFECTO_MS);
+
+    /** Nombre que se muestra al jugador. */
+    private final String nombre;
+
+    /** Longitud máxima de las palabras que forma el robot; 0 sin límite. */
+    private final int longitudMaxima;
+
+    /** Candidatos cuya respuesta del rival se simula; con 1 no se simula. */
+    private final int numCandidatos;
+
+    /** Indica si a la puntuación se suma el valor del resto del atril. */
+    private final boolean valorarRestos;
+
+    /** Indica si con el saco vacío se busca la mejor secuencia hasta el final. */
+    private final boolean resolverFinal;
+
+    /** Tiempo máximo de cada jugada, en milisegundos. */
+    private final long presupuestoMs;
+
+    PerfilRobot(String nombre, int longitudMaxima, int numCandidatos, boolean valorarRestos,
+                boolean resolverFinal, long presupuestoMs) {
+        this.nombre = nombre;
+        this.longitudMaxima = longitudMaxima;
+        this.numCandidatos = numCandidatos;
+        this.valorarRestos = valorarRestos;
+        this.resolverFinal = resolverFinal;
+        this.presupuestoMs = presupuestoMs;
+    }
+
+    /**
+     * Crea la estrategia del perfil.  La simulación dispone de la mitad del
+     * plazo: la otra mitad queda para la primera fase de la búsqueda y para
+     * recoger los resultados.
+     *
+     * @return estrategia de Monte Carlo, o {@code null} si el perfil juega
+     *         directamente la jugada de mayor valoración
+     */
+    public EstrategiaRobot crearEstrategia() {
+        if (numCandidatos <= 1) {
+            return null;
+        }
+        return new EstrategiaMonteCarlo(numCandidatos, Math.max(1, presupuestoMs / 2));
+    }
+
+    /** @return nombre del perfil que se muestra al jugador */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** @return longitud máxima de las palabras que forma el robot, o 0 si no hay límite */
+    public int getLongitudMaxima() {
+        return longitudMaxima;
+    }
+
+    /** @return número de candidatos cuya respuesta del rival se simula */
+    public int getNumCandidatos() {
+        return numCandidatos;
+    }
+
+    /** @return {@code true} si se valora el resto del atril */
+    public boolean isValorarRestos() {
+        return valorarRestos;
+    }
+
+    /** @return {@code true} si se resuelve el final de partida */
+    public boolean isResolverFinal() {
+        return resolverFinal;
+    }
+
+    /** @return tiempo máximo de cada jugada, en milisegundos */
+    public long getPresupuestoMs() {
+        return presupuestoMs;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,307 @@
+package dominio;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Valida y puntúa una jugada (las fichas nuevas de un turno, aún sin
+ * confirmar) en una sola pasada sobre las casillas de la palabra principal.
+ * En cada casilla se avanza a la vez por el {@link DAWG} del léxico y se suma
+ * el valor de la ficha con su bonificación; para cada ficha nueva la palabra
+ * perpendicular se comprueba y se puntúa con el conjunto de cruce y la suma
+ * de cruce que el {@link Tablero} mantiene al confirmar fichas, sin volver a
+ * leer sus letras.
+ * </p>
+ * <p>
+ * Las reglas son las del juego: en el primer turno la jugada tiene al menos
+ * dos fichas y pasa por la casilla central; las fichas están en una misma
+ * fila o columna sin huecos; todas las palabras de dos o más fichas son
+ * válidas y, si el tablero no estaba vacío, la jugada toca alguna ficha
+ * confirmada.  Colocar las siete fichas del atril suma
+ * {@value #BONIFICACION_BINGO} puntos a cualquier jugador, humano o robot,
+ * como indica el {@link Reglamento}.  Las bonificaciones de letra y de
+ * palabra solo cuentan en las casillas de las fichas nuevas: al confirmar
+ * una jugada la bonificación de sus casillas se anula (véase
+ * {@link Tablero#confirmarFichas(List)}).  Los errores se señalan con
+ * {@link Tablero.ErrorJuegoException} y los mismos códigos que ha usado
+ * siempre el juego.
+ * </p>
+ * <p>
+ * El mismo cálculo, con las tablas {@link #multiplicadorLetra(int)} y
+ * {@link #multiplicadorPalabra(int)}, es el que hace el
+ * {@link GeneradorMovimientos} al generar las jugadas del robot, de modo que
+ * la puntuación estimada y la obtenida al jugar coinciden siempre.
+ * </p>
+ */
+public class Puntuador {
+
+    /** Multiplicador de la ficha por tipo de bonificación (0 a 4). */
+    private static final int[] MULTIPLICADOR_LETRA = {1, 2, 3, 1, 1};
+
+    /** Multiplicador de la palabra por tipo de bonificación (0 a 4). */
+    private static final int[] MULTIPLICADOR_PALABRA = {1, 1, 1, 2, 3};
+
+    /**
+     * Fichas que hay que colocar en una jugada para obtener la bonificación de
+     * atril completo: las siete del atril (regla 4 del {@link Reglamento}).
+     */
+    public static final int FICHAS_BINGO = 7;
+
+    /** Puntos extra por colocar las siete fichas del atril en una jugada. */
+    public static final int BONIFICACION_BINGO = 50;
+
+    /** Léxico del idioma. */
+    private final Lexico lexico;
+
+    /**
+     * Crea un puntuador para un léxico.
+     *
+     * @param lexico Léxico del idioma del tablero.
+     */
+    public Puntuador(Lexico lexico) {
+        this.lexico = lexico;
+    }
+
+    /**
+     * @param bonificacion Tipo de bonificación de una casilla.
+     * @return Multiplicador que aplica al valor de la ficha colocada en ella.
+     */
+    public static int multiplicadorLetra(int bonificacion) {
+        return bonificacion >= 0 && bonificacion < MULTIPLICADOR_LETRA.length ? MULTIPLICADOR_LETRA[bonificacion] : 1;
+    }
+
+    /**
+     * @param bonificacion Tipo de bonificación de una casilla.
+     * @return Multiplicador que aplica a las palabras que usan la casilla.
+     */
+    public static int multiplicadorPalabra(int bonificacion) {
+        return bonificacion >= 0 && bonificacion < MULTIPLICADOR_PALABRA.length ? MULTIPLICADOR_PALABRA[bonificacion] : 1;
+    }
+
+    /**
+     * Valida y puntúa una jugada sobre el tablero.  Las fichas nuevas no
+     * tienen que estar colocadas en el tablero y este no se modifica (salvo
+     * para preparar sus conjuntos de cruce si aún no lo estaban).
+     *
+     * @param tablero    Tablero con las fichas confirmadas.
+     * @param fichas     Letras de las fichas nuevas.
+     * @param posiciones Posiciones (fila, columna, en base 1) de las fichas nuevas.
+     * @param palabras   Lista donde añadir las palabras formadas, o {@code null}.
+     * @return Puntuación de la jugada.
+     * @throws Tablero.ErrorJuegoException si la jugada no cumple las reglas.
+     */
+    public int puntuar(Tablero tablero, List<String> fichas, List<int[]> posiciones, List<String> palabras) {
+        int numFichas = posiciones.size();
+        if (numFichas == 0 || fichas.size() != numFichas) {
+            throw new Tablero.ErrorJuegoException(-7);
+        }
+        tablero.prepararCruces(lexico);
+        TableroCompacto compacto = tablero.getCompacto();
+        Alfabeto alfabeto = lexico.getAlfabeto();
+        int rows = tablero.getRows();
+        int cols = tablero.getCols();
+
+        boolean vacio = compacto.estaVacio();
+        if (vacio) {
+            if (numFichas == 1) {
+                throw new Tablero.ErrorJuegoException(-1);
+            }
+            boolean centro = false;
+            for (int[] posicion : posiciones) {
+                centro |= posicion[0] - 1 == rows / 2 && posicion[1] - 1 == cols / 2;
+            }
+            if (!centro) {
+                throw new Tablero.ErrorJuegoException(-2);
+            }
+        }
+
+        // Orientación de la palabra principal (una sola ficha: horizontal)
+        int fila = posiciones.get(0)[0];
+        int columna = posiciones.get(0)[1];
+        boolean mismaFila = true;
+        boolean mismaColumna = true;
+        for (int[] posicion : posiciones) {
+            mismaFila &= posicion[0] == fila;
+            mismaColumna &= posicion[1] == columna;
+        }
+        if (!mismaFila && !mismaColumna) {
+            throw new Tablero.ErrorJuegoException(-3);
+        }
+        boolean horizontal = mismaFila;
+        int errorHueco = horizontal ? -5 : -4;
+        int limite = horizontal ? cols : rows;
+
+        // Código de cada ficha nueva por casilla de la línea (base 0)
+        int[] nuevas = new int[limite];
+        Arrays.fill(nuevas, Tablero.VACIA);
+        int primera = limite;
+        int ultima = -1;
+        for (int i = 0; i < numFichas; i++) {
+            int f = posiciones.get(i)[0];
+            int c = posiciones.get(i)[1];
+            int p = (horizontal ? c : f) - 1;
+            if (f < 1 || f > rows || c < 1 || c > cols || compacto.estaOcupada(f - 1, c - 1) || nuevas[p] != Tablero.VACIA) {
+                throw new Tablero.ErrorJuegoException(errorHueco);
+            }
+            nuevas[p] = codigo(alfabeto, fichas.get(i));
+            primera = Math.min(primera, p);
+            ultima = Math.max(ultima, p);
+        }
+        int linea = (horizontal ? fila : columna) - 1;
+        for (int p = primera; p <= ultima; p++) {
+            if (nuevas[p] == Tablero.VACIA && !ocupada(compacto, horizontal, linea, p)) {
+                throw new Tablero.ErrorJuegoException(errorHueco);
+            }
+        }
+        int inicio = primera;
+        while (inicio > 0 && ocupada(compacto, horizontal, linea, inicio - 1)) inicio--;
+        int fin = ultima;
+        while (fin < limite - 1 && ocupada(compacto, horizontal, linea, fin + 1)) fin++;
+
+        // Una sola pasada: palabra principal por el DAWG y cruces precalculados
+        DAWG dawg = lexico.getDawg();
+        int nodo = dawg.getRaiz();
+        boolean valida = true;
+        boolean finPalabra = false;
+        boolean colindante = inicio < primera || fin > ultima;
+        int sumaPalabra = 0;
+        int multiplicador = 1;
+        int sumaCruces = 0;
+        for (int p = inicio; p <= fin; p++) {
+            int f = horizontal ? linea : p;
+            int c = horizontal ? p : linea;
+            int codigo = nuevas[p];
+            if (codigo == Tablero.VACIA) {
+                codigo = compacto.getFicha(f, c);
+                colindante = true;
+                sumaPalabra += valor(alfabeto, codigo);
+            } else {
+                int bonificacion = tablero.getBonificacionCasilla(f + 1, c + 1);
+                int valor = valor(alfabeto, codigo) * multiplicadorLetra(bonificacion);
+                int multiplicadorCasilla = multiplicadorPalabra(bonificacion);
+                sumaPalabra += valor;
+                multiplicador *= multiplicadorCasilla;
+                int sumaCruce = tablero.getSumaCruce(f + 1, c + 1, horizontal);
+                if (sumaCruce != Tablero.SIN_CRUCE) {
+                    colindante = true;
+                    if (codigo < 0 || (tablero.getCruces(f + 1, c + 1, horizontal) >>> codigo & 1) == 0) {
+                        valida = false;
+                    }
+                    sumaCruces += (sumaCruce + valor) * multiplicadorCasilla;
+                    if (palabras != null) {
+                        palabras.add(palabraCruce(tablero, compacto, alfabeto, f, c, codigo, horizontal));
+                    }
+                }
+            }
+            if (valida && fin > inicio) {
+                int arista = dawg.arista(nodo, codigo);
+                if (arista < 0) {
+                    valida = false;
+                } else {
+                    finPalabra = dawg.esFinDePalabra(arista);
+                    nodo = dawg.hijo(arista);
+                }
+            }
+        }
+        if (fin > inicio) {
+            valida &= finPalabra;
+            if (palabras != null) {
+                palabras.add(0, palabra(compacto, alfabeto, nuevas, horizontal, linea, inicio, fin));
+            }
+        }
+        if (!valida) {
+            throw new Tablero.ErrorJuegoException(-7);
+        }
+        if (!vacio && !colindante) {
+            throw new Tablero.ErrorJuegoException(-6);
+        }
+        int bingo = numFichas == FICHAS_BINGO ? BONIFICACION_BINGO : 0;
+        return (fin > inicio ? sumaPalabra * multiplicador : 0) + sumaCruces + bingo;
+    }
+
+    /**
+     * Valida y puntúa un movimiento generado.
+     *
+     * @param tablero    Tablero con las fichas confirmadas.
+     * @param movimiento Movimiento con las fichas nuevas y sus posiciones.
+     * @return Puntuación del movimiento.
+     * @throws Tablero.ErrorJuegoException si el movimiento no cumple las reglas.
+     */
+    public int puntuar(Tablero tablero, Movimiento movimiento) {
+        return puntuar(tablero, movimiento.getFichas(), movimiento.getPosiciones(), null);
+    }
+
+    /**
+     * @return código de una ficha en el alfabeto, o {@link Tablero#DESCONOCIDA}
+     */
+    private static int codigo(Alfabeto alfabeto, String ficha) {
+        if (ficha == null) return Tablero.DESCONOCIDA;
+        int codigo = alfabeto.codigo(ficha);
+        if (codigo == Alfabeto.NINGUNA) {
+            codigo = alfabeto.codigo(ficha.trim().toUpperCase());
+        }
+        return codigo == Alfabeto.NINGUNA ? Tablero.DESCONOCIDA : codigo;
+    }
+
+    /**
+     * @return valor de una ficha (0 si no pertenece al alfabeto)
+     */
+    private static int valor(Alfabeto alfabeto, int codigo) {
+        return codigo < 0 ? 0 : alfabeto.getPuntuacion(codigo);
+    }
+
+    /**
+     * @return {@code true} si la casilla {@code p} de la línea tiene una ficha confirmada
+     */
+    private static boolean ocupada(TableroCompacto compacto, boolean horizontal, int linea, int p) {
+        return horizontal ? compacto.estaOcupada(linea, p) : compacto.estaOcupada(p, linea);
+    }
+
+    /**
+     * @return letra de una ficha para mostrarla en una palabra
+     */
+    private static String letra(Alfabeto alfabeto, int codigo) {
+        return codigo < 0 ? "?" : alfabeto.getLetra(codigo);
+    }
+
+    /**
+     * @return palabra principal, de la casilla {@code inicio} a la {@code fin} de la línea
+     */
+    private static String palabra(TableroCompacto compacto, Alfabeto alfabeto, int[] nuevas, boolean horizontal,
+                                  int linea, int inicio, int fin) {
+        StringBuilder sb = new StringBuilder();
+        for (int p = inicio; p <= fin; p++) {
+            int codigo = nuevas[p] != Tablero.VACIA ? nuevas[p]
+                    : horizontal ? compacto.getFicha(linea, p) : compacto.getFicha(p, linea);
+            sb.append(letra(alfabeto, codigo));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return palabra perpendicular que forma la ficha nueva de la casilla (f, c) (base 0)
+     */
+    private static String palabraCruce(Tablero tablero, TableroCompacto compacto, Alfabeto alfabeto, int f, int c,
+                                       int codigo, boolean horizontal) {
+        int df = horizontal ? 1 : 0;
+        int dc = horizontal ? 0 : 1;
+        int fi = f;
+        int ci = c;
+        while (fi - df >= 0 && ci - dc >= 0 && compacto.estaOcupada(fi - df, ci - dc)) {
+            fi -= df;
+            ci -= dc;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (; fi < tablero.getRows() && ci < tablero.getCols(); fi += df, ci += dc) {
+            if (fi == f && ci == c) {
+                sb.append(letra(alfabeto, codigo));
+            } else if (compacto.estaOcupada(fi, ci)) {
+                sb.append(letra(alfabeto, compacto.getFicha(fi, ci)));
+            } else {
+                break;
+            }
+        }
+        return sb.toString();
+    }
+}
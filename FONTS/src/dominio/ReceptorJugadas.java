@@ -0,0 +1,21 @@
+package dominio;
+
+/**
+ * Receptor de los movimientos que va encontrando el
+ * {@link GeneradorMovimientos} (véase
+ * {@link GeneradorMovimientos#generar(Tablero, java.util.List, ReceptorJugadas)}).
+ * La {@link JugadaGenerada} que recibe se reutiliza para el siguiente
+ * movimiento, así que si quiere conservarla debe copiarla
+ * ({@link JugadaGenerada#copiar(JugadaGenerada)}) o convertirla
+ * ({@link JugadaGenerada#aMovimiento()}).
+ */
+@FunctionalInterface
+public interface ReceptorJugadas {
+
+    /**
+     * Recibe un movimiento legal, ya puntuado.
+     *
+     * @param jugada Movimiento encontrado; solo es válido durante la llamada.
+     */
+    void recibir(JugadaGenerada jugada);
+}
@@ -0,0 +1,248 @@
+package dominio;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Clase RegistroLexicos
+ * <p>
+ * Caché global de léxicos indexada por idioma y versión del diccionario.  Cada
+ * diccionario se lee, se normaliza y se convierte en {@link DAWG} como máximo
+ * una vez por proceso y versión; las peticiones posteriores devuelven la misma
+ * instancia de {@link Lexico}.
+ * </p>
+ * <p>
+ * La caché está acotada: cuando se supera la capacidad máxima se desaloja el
+ * léxico usado hace más tiempo (LRU).  Así un servidor puede alojar partidas
+ * en los tres idiomas sin reconstruir el DAWG en cada partida y sin retener
+ * para siempre léxicos que ya no se usan.  La capacidad por defecto se puede
+ * fijar con la propiedad del sistema {@code fibble.lexicos.max}.
+ * </p>
+ * <p>
+ * <b>Patrón Singleton:</b> {@link Tablero}, {@link Partida}, {@link Algoritmo}
+ * y {@link Robot} resuelven su léxico a través de la única instancia del
+ * registro.  Es seguro usarlo desde varios hilos: si dos hilos piden a la vez
+ * un léxico aún no cargado, solo uno de ellos lo construye y el otro espera.
+ * </p>
+ */
+public class RegistroLexicos {
+    /** Capacidad por defecto: un léxico por cada idioma del juego. */
+    private static final int CAPACIDAD_POR_DEFECTO = 3;
+
+    /** Instancia única del registro (Singleton). */
+    private static final RegistroLexicos instancia = new RegistroLexicos();
+
+    /** Léxicos construidos o en construcción, en orden de acceso (LRU). */
+    private final LinkedHashMap<String, FutureTask<Lexico>> lexicos;
+
+    /** Versión vigente del diccionario de cada idioma. */
+    private final Map<String, String> versiones;
+
+    /** Número máximo de léxicos que se mantienen en memoria. */
+    private int capacidadMaxima;
+
+    /** Peticiones servidas con un léxico ya presente en la caché. */
+    private long aciertos;
+
+    /** Peticiones que han obligado a construir un léxico. */
+    private long fallos;
+
+    /** Léxicos desalojados por superar la capacidad. */
+    private long desalojos;
+
+    /** Tiempo total empleado en construir léxicos, en nanosegundos. */
+    private long tiempoConstruccion;
+
+    /** Constructor privado para evitar la creación de instancias externas. */
+    private RegistroLexicos() {
+        lexicos = new LinkedHashMap<>(16, 0.75f, true);
+        versiones = new ConcurrentHashMap<>();
+        capacidadMaxima = Math.max(1, Integer.getInteger("fibble.lexicos.max", CAPACIDAD_POR_DEFECTO));
+    }
+
+    /**
+     * Método estático para obtener la única instancia del registro.
+     *
+     * @return La única instancia de RegistroLexicos.
+     */
+    public static RegistroLexicos getInstance() {
+        return instancia;
+    }
+
+    /**
+     * Devuelve el léxico de la versión vigente del diccionario del idioma,
+     * cargándolo si todavía no está en la caché.
+     *
+     * @param idioma Idioma del léxico («castellano», «catalan», «ingles»).
+     * @return Léxico compartido del idioma.
+     * @throws IllegalArgumentException si {@code idioma} es {@code null}.
+     * @throws IllegalStateException si la construcción del léxico falla.
+     */
+    public Lexico getLexico(String idioma) {
+        if (idioma == null) {
+            throw new IllegalArgumentException("El idioma del léxico no puede ser null.");
+        }
+        String clave = idioma + "@" + versiones.computeIfAbsent(idioma, RegistroLexicos::calcularVersion);
+        FutureTask<Lexico> tarea;
+        boolean construir = false;
+        synchronized (this) {
+            tarea = lexicos.get(clave);
+            if (tarea == null) {
+                tarea = new FutureTask<>(() -> construir(idioma));
+                lexicos.put(clave, tarea);
+                construir = true;
+                ++fallos;
+                desalojar();
+            } else {
+                ++aciertos;
+            }
+        }
+        if (construir) {
+            tarea.run();
+        }
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga del léxico interrumpida: " + idioma, e);
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                lexicos.remove(clave, tarea);
+            }
+            throw new IllegalStateException("No se pudo construir el léxico: " + idioma, e.getCause());
+        }
+    }
+
+    /**
+     * Vuelve a calcular la versión del diccionario de un idioma.  Si el fichero
+     * ha cambiado, la siguiente petición construye un léxico nuevo y el antiguo
+     * acabará desalojado.
+     *
+     * @param idioma Idioma cuyo diccionario se quiere revisar.
+     */
+    public void actualizarVersion(String idioma) {
+        versiones.put(idioma, calcularVersion(idioma));
+    }
+
+    /**
+     * Indica si el léxico de la versión vigente de un idioma está en memoria.
+     *
+     * @param idioma Idioma consultado.
+     * @return {@code true} si el léxico ya se ha construido o se está construyendo.
+     */
+    public synchronized boolean estaCargado(String idioma) {
+        String version = versiones.get(idioma);
+        return version != null && lexicos.containsKey(idioma + "@" + version);
+    }
+
+    /**
+     * Cambia la capacidad máxima de la caché, desalojando los léxicos menos
+     * usados si hace falta.
+     *
+     * @param capacidadMaxima Número máximo de léxicos en memoria (&ge; 1).
+     */
+    public synchronized void setCapacidadMaxima(int capacidadMaxima) {
+        if (capacidadMaxima < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché de léxicos debe ser al menos 1.");
+        }
+        this.capacidadMaxima = capacidadMaxima;
+        desalojar();
+    }
+
+    /** @return capacidad máxima de la caché */
+    public synchronized int getCapacidadMaxima() {
+        return capacidadMaxima;
+    }
+
+    /** @return número de léxicos presentes en la caché */
+    public synchronized int getNumLexicos() {
+        return lexicos.size();
+    }
+
+    /** @return peticiones resueltas sin construir ningún léxico */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /** @return peticiones que han construido un léxico */
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /** @return léxicos desalojados por falta de capacidad */
+    public synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    /** @return tiempo total de construcción de léxicos, en milisegundos */
+    public synchronized long getTiempoConstruccionMs() {
+        return tiempoConstruccion / 1_000_000L;
+    }
+
+    /** Vacía la caché y pone a cero los contadores. */
+    public synchronized void vaciar() {
+        lexicos.clear();
+        versiones.clear();
+        aciertos = 0;
+        fallos = 0;
+        desalojos = 0;
+        tiempoConstruccion = 0;
+    }
+
+    /**
+     * Construye el léxico de un idioma y acumula el tiempo empleado.
+     *
+     * @param idioma Idioma a cargar.
+     * @return Léxico construido.
+     */
+    private Lexico construir(String idioma) {
+        long inicio = System.nanoTime();
+        Lexico lexico = Lexico.cargar(idioma);
+        long duracion = System.nanoTime() - inicio;
+        synchronized (this) {
+            tiempoConstruccion += duracion;
+        }
+        return lexico;
+    }
+
+    /** Desaloja los léxicos menos usados hasta respetar la capacidad máxima. */
+    private void desalojar() {
+        Iterator<FutureTask<Lexico>> it = lexicos.values().iterator();
+        while (lexicos.size() > capacidadMaxima && it.hasNext()) {
+            it.next();
+            it.remove();
+            ++desalojos;
+        }
+    }
+
+    /**
+     * Calcula la versión del diccionario de un idioma a partir del tamaño y la
+     * fecha de modificación del recurso {@code <idioma>Dic.txt}.
+     *
+     * @param idioma Idioma del diccionario.
+     * @return Cadena que identifica la versión del fichero.
+     */
+    private static String calcularVersion(String idioma) {
+        URL recurso = RegistroLexicos.class.getClassLoader().getResource(idioma + "Dic.txt");
+        if (recurso == null) {
+            return "0";
+        }
+        try {
+            URLConnection conexion = recurso.openConnection();
+            conexion.setUseCaches(false);
+            String version = conexion.getContentLengthLong() + "-" + conexion.getLastModified();
+            conexion.getInputStream().close();
+            return version;
+        } catch (IOException e) {
+            return Objects.toString(recurso);
+        }
+    }
+}
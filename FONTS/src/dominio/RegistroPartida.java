@@ -0,0 +1,460 @@
+package dominio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Registro compacto de una partida, al que solo se añaden eventos: los robos
+ * del saco, las jugadas (fichas, casillas y puntos), los pases y los cambios
+ * de fichas, en el orden en que ocurren.  Con la cabecera (idioma, semilla
+ * del saco, jugadores y contenido inicial del saco) basta para reproducir la
+ * partida exactamente con {@link ReproductorPartida}, sin volver a robar ni a
+ * validar nada, así que sirve como corpus de regresión y rendimiento del
+ * generador de movimientos y como forma de guardar una partida mucho más
+ * barata que la instantánea completa.
+ * </p>
+ * <p>
+ * Cada ficha se codifica con un byte, su índice en la tabla de letras de la
+ * cabecera, y cada casilla con otro, {@code (fila - 1) * 15 + (columna - 1)};
+ * una jugada de siete fichas ocupa 19 bytes.  {@link #escribir} y
+ * {@link #leer} usan este formato binario, versionado con {@link #VERSION}.
+ * </p>
+ */
+public class RegistroPartida implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Marca de los ficheros de registro («FBRP»). */
+    private static final int MAGICO = 0x46425250;
+
+    /** Versión del formato binario. */
+    public static final int VERSION = 1;
+
+    /** Lado del tablero, para codificar las casillas. */
+    private static final int LADO = 15;
+
+    /** Eventos codificados. */
+    private static final byte LETRA = 0, ROBO = 1, JUGADA = 2, PASE = 3, CAMBIO = 4;
+
+    /** Tipos de evento. */
+    public enum TipoEvento {
+        /** El jugador roba fichas del saco. */
+        ROBO,
+        /** El jugador coloca fichas en el tablero. */
+        JUGADA,
+        /** El jugador pasa. */
+        PASE,
+        /** El jugador devuelve fichas al saco al cambiarlas (las nuevas se registran antes como robo). */
+        CAMBIO
+    }
+
+    /** Idioma de la partida. */
+    private final String idioma;
+
+    /** Semilla del saco. */
+    private final long semilla;
+
+    /** Nombre de cada jugador, en orden de juego. */
+    private final String[] jugadores;
+
+    /** Letras de la tabla; las primeras son las del saco inicial. */
+    private final List<String> letras = new ArrayList<>();
+
+    /** Fichas de cada letra en el saco inicial. */
+    private final int[] cantidadesIniciales;
+
+    /** Eventos codificados; solo son válidos los primeros {@link #tamano} bytes. */
+    private byte[] datos = new byte[256];
+
+    /** Bytes de eventos escritos. */
+    private int tamano;
+
+    /** Número de eventos (sin contar las definiciones de letras). */
+    private int numEventos;
+
+    /**
+     * Crea un registro vacío.
+     *
+     * @param idioma       Idioma de la partida.
+     * @param semilla      Semilla del saco.
+     * @param jugadores    Nombre de cada jugador, en orden de juego.
+     * @param sacoInicial  Fichas de cada letra en el saco antes de repartir, en el
+     *                     orden del saco.
+     */
+    public RegistroPartida(String idioma, long semilla, List<String> jugadores, Map<String, Integer> sacoInicial) {
+        this.idioma = idioma == null ? "" : idioma;
+        this.semilla = semilla;
+        this.jugadores = jugadores.toArray(new String[0]);
+        this.cantidadesIniciales = new int[sacoInicial.size()];
+        for (Map.Entry<String, Integer> entrada : sacoInicial.entrySet()) {
+            cantidadesIniciales[letras.size()] = entrada.getValue();
+            letras.add(entrada.getKey());
+        }
+    }
+
+    /**
+     * Anota que un jugador roba fichas del saco.  No hace nada si no roba ninguna.
+     *
+     * @param jugador Índice del jugador.
+     * @param fichas  Fichas robadas.
+     */
+    public void anadirRobo(int jugador, List<String> fichas) {
+        if (!fichas.isEmpty()) {
+            anadirFichas(ROBO, jugador, fichas);
+        }
+    }
+
+    /**
+     * Anota una jugada.
+     *
+     * @param jugador    Índice del jugador.
+     * @param movimiento Movimiento con las fichas colocadas, sus posiciones (base 1) y su puntuación.
+     */
+    public void anadirJugada(int jugador, Movimiento movimiento) {
+        List<String> fichas = movimiento.getFichas();
+        List<int[]> posiciones = movimiento.getPosiciones();
+        int[] codigos = codificar(fichas);
+        asegurar(3 + 2 * codigos.length + 2);
+        datos[tamano++] = JUGADA;
+        datos[tamano++] = (byte) jugador;
+        datos[tamano++] = (byte) codigos.length;
+        for (int i = 0; i < codigos.length; i++) {
+            int[] posicion = posiciones.get(i);
+            datos[tamano++] = (byte) codigos[i];
+            datos[tamano++] = (byte) ((posicion[0] - 1) * LADO + posicion[1] - 1);
+        }
+        int puntos = movimiento.getPuntuacion();
+        datos[tamano++] = (byte) (puntos >> 8);
+        datos[tamano++] = (byte) puntos;
+        numEventos++;
+    }
+
+    /**
+     * Anota que un jugador pasa.
+     *
+     * @param jugador Índice del jugador.
+     */
+    public void anadirPase(int jugador) {
+        asegurar(2);
+        datos[tamano++] = PASE;
+        datos[tamano++] = (byte) jugador;
+        numEventos++;
+    }
+
+    /**
+     * Anota que un jugador devuelve fichas al saco al cambiarlas.
+     *
+     * @param jugador Índice del jugador.
+     * @param fichas  Fichas devueltas.
+     */
+    public void anadirCambio(int jugador, List<String> fichas) {
+        anadirFichas(CAMBIO, jugador, fichas);
+    }
+
+    private void anadirFichas(byte tipo, int jugador, List<String> fichas) {
+        int[] codigos = codificar(fichas);
+        asegurar(3 + codigos.length);
+        datos[tamano++] = tipo;
+        datos[tamano++] = (byte) jugador;
+        datos[tamano++] = (byte) codigos.length;
+        for (int codigo : codigos) {
+            datos[tamano++] = (byte) codigo;
+        }
+        numEventos++;
+    }
+
+    /**
+     * Codifica las fichas.  Las letras que no están en la tabla se añaden con
+     * un evento de definición antes del evento que las usa.
+     */
+    private int[] codificar(List<String> fichas) {
+        int[] codigos = new int[fichas.size()];
+        for (int i = 0; i < codigos.length; i++) {
+            String ficha = fichas.get(i);
+            int codigo = letras.indexOf(ficha);
+            if (codigo < 0) {
+                codigo = letras.size();
+                if (codigo > 255) {
+                    throw new IllegalStateException("El registro admite como mucho 256 letras distintas.");
+                }
+                letras.add(ficha);
+                byte[] texto = ficha.getBytes(StandardCharsets.UTF_8);
+                asegurar(2 + texto.length);
+                datos[tamano++] = LETRA;
+                datos[tamano++] = (byte) texto.length;
+                System.arraycopy(texto, 0, datos, tamano, texto.length);
+                tamano += texto.length;
+            }
+            codigos[i] = codigo;
+        }
+        return codigos;
+    }
+
+    private void asegurar(int bytes) {
+        if (tamano + bytes > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(2 * datos.length, tamano + bytes));
+        }
+    }
+
+    /**
+     * Decodifica los eventos.
+     *
+     * @return Eventos en orden.
+     */
+    public List<Evento> getEventos() {
+        List<Evento> eventos = new ArrayList<>(numEventos);
+        // Las letras definidas en los eventos se vuelven a añadir en el mismo orden
+        List<String> tabla = new ArrayList<>(letras.subList(0, cantidadesIniciales.length));
+        int i = 0;
+        while (i < tamano) {
+            byte tipo = datos[i++];
+            if (tipo == LETRA) {
+                int largo = datos[i++] & 0xFF;
+                tabla.add(new String(datos, i, largo, StandardCharsets.UTF_8));
+                i += largo;
+                continue;
+            }
+            int jugador = datos[i++] & 0xFF;
+            if (tipo == PASE) {
+                eventos.add(new Evento(TipoEvento.PASE, jugador, Collections.emptyList(), Collections.emptyList(), 0));
+                continue;
+            }
+            int n = datos[i++] & 0xFF;
+            List<String> fichas = new ArrayList<>(n);
+            List<int[]> posiciones = new ArrayList<>(tipo == JUGADA ? n : 0);
+            for (int k = 0; k < n; k++) {
+                fichas.add(tabla.get(datos[i++] & 0xFF));
+                if (tipo == JUGADA) {
+                    int casilla = datos[i++] & 0xFF;
+                    posiciones.add(new int[]{casilla / LADO + 1, casilla % LADO + 1});
+                }
+            }
+            if (tipo == JUGADA) {
+                int puntos = (short) (((datos[i] & 0xFF) << 8) | (datos[i + 1] & 0xFF));
+                i += 2;
+                eventos.add(new Evento(TipoEvento.JUGADA, jugador, fichas, posiciones, puntos));
+            } else {
+                eventos.add(new Evento(tipo == ROBO ? TipoEvento.ROBO : TipoEvento.CAMBIO, jugador, fichas, posiciones, 0));
+            }
+        }
+        return eventos;
+    }
+
+    /** @return idioma de la partida */
+    public String getIdioma() {
+        return idioma;
+    }
+
+    /** @return semilla del saco */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /** @return nombre de cada jugador, en orden de juego */
+    public List<String> getJugadores() {
+        return Collections.unmodifiableList(Arrays.asList(jugadores));
+    }
+
+    /** @return fichas de cada letra en el saco antes de repartir, en el orden del saco */
+    public Map<String, Integer> getSacoInicial() {
+        Map<String, Integer> saco = new LinkedHashMap<>();
+        for (int i = 0; i < cantidadesIniciales.length; i++) {
+            saco.put(letras.get(i), cantidadesIniciales[i]);
+        }
+        return saco;
+    }
+
+    /** @return número de eventos registrados */
+    public int getNumEventos() {
+        return numEventos;
+    }
+
+    /** @return bytes que ocupan los eventos */
+    public int getTamanoEventos() {
+        return tamano;
+    }
+
+    /**
+     * Escribe el registro en formato binario.
+     *
+     * @param salida Destino; no se cierra.
+     * @throws IOException si falla la escritura.
+     */
+    public void escribir(OutputStream salida) throws IOException {
+        DataOutputStream out = new DataOutputStream(salida);
+        out.writeInt(MAGICO);
+        out.writeByte(VERSION);
+        out.writeUTF(idioma);
+        out.writeLong(semilla);
+        out.writeByte(jugadores.length);
+        for (String jugador : jugadores) {
+            out.writeUTF(jugador);
+        }
+        out.writeByte(cantidadesIniciales.length);
+        for (int i = 0; i < cantidadesIniciales.length; i++) {
+            out.writeUTF(letras.get(i));
+            out.writeShort(cantidadesIniciales[i]);
+        }
+        escribirEventos(out);
+        out.flush();
+    }
+
+    /**
+     * Escribe solo los eventos, para guardarlos dentro de otro formato que ya
+     * tenga la cabecera (como {@link FormatoPartida}).
+     */
+    void escribirEventos(DataOutputStream out) throws IOException {
+        out.writeInt(numEventos);
+        out.writeInt(tamano);
+        out.write(datos, 0, tamano);
+    }
+
+    /**
+     * Lee un registro escrito con {@link #escribir}.
+     *
+     * @param entrada Origen; no se cierra.
+     * @return Registro leído.
+     * @throws IOException si falla la lectura o el formato no es válido.
+     */
+    public static RegistroPartida leer(InputStream entrada) throws IOException {
+        DataInputStream in = new DataInputStream(entrada);
+        if (in.readInt() != MAGICO) {
+            throw new IOException("No es un registro de partida.");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Versión de registro no soportada: " + version);
+        }
+        String idioma = in.readUTF();
+        long semilla = in.readLong();
+        List<String> jugadores = new ArrayList<>();
+        for (int j = in.readUnsignedByte(); j > 0; j--) {
+            jugadores.add(in.readUTF());
+        }
+        Map<String, Integer> saco = new LinkedHashMap<>();
+        for (int l = in.readUnsignedByte(); l > 0; l--) {
+            String letra = in.readUTF();
+            saco.put(letra, in.readUnsignedShort());
+        }
+        RegistroPartida registro = new RegistroPartida(idioma, semilla, jugadores, saco);
+        registro.leerEventos(in);
+        return registro;
+    }
+
+    /**
+     * Lee los eventos escritos con {@link #escribirEventos} y los añade a este
+     * registro, que debe estar recién creado con su cabecera.
+     */
+    void leerEventos(DataInputStream in) throws IOException {
+        numEventos = in.readInt();
+        tamano = in.readInt();
+        if (tamano < 0) {
+            throw new IOException("Tamaño de eventos no válido: " + tamano);
+        }
+        datos = new byte[Math.max(tamano, 16)];
+        in.readFully(datos, 0, tamano);
+        // Vuelve a anotar las letras definidas en los eventos para seguir añadiendo
+        List<String> tabla = getLetrasUsadas();
+        letras.clear();
+        letras.addAll(tabla);
+    }
+
+    /**
+     * @return tabla de letras completa: las del saco inicial y las definidas en los eventos
+     */
+    private List<String> getLetrasUsadas() {
+        List<String> tabla = new ArrayList<>(getSacoInicial().keySet());
+        int i = 0;
+        while (i < tamano) {
+            byte tipo = datos[i++];
+            if (tipo == LETRA) {
+                int largo = datos[i++] & 0xFF;
+                tabla.add(new String(datos, i, largo, StandardCharsets.UTF_8));
+                i += largo;
+            } else if (tipo == PASE) {
+                i++;
+            } else {
+                int n = datos[i + 1] & 0xFF;
+                i += 2 + (tipo == JUGADA ? 2 * n + 2 : n);
+            }
+        }
+        return tabla;
+    }
+
+    /**
+     * Evento del registro.
+     */
+    public static class Evento {
+
+        private final TipoEvento tipo;
+        private final int jugador;
+        private final List<String> fichas;
+        private final List<int[]> posiciones;
+        private final int puntos;
+
+        Evento(TipoEvento tipo, int jugador, List<String> fichas, List<int[]> posiciones, int puntos) {
+            this.tipo = tipo;
+            this.jugador = jugador;
+            this.fichas = fichas;
+            this.posiciones = posiciones;
+            this.puntos = puntos;
+        }
+
+        /** @return tipo de evento */
+        public TipoEvento getTipo() {
+            return tipo;
+        }
+
+        /** @return índice del jugador */
+        public int getJugador() {
+            return jugador;
+        }
+
+        /** @return fichas robadas, colocadas o devueltas */
+        public List<String> getFichas() {
+            return fichas;
+        }
+
+        /** @return posiciones (base 1) de las fichas de una jugada; vacía en el resto */
+        public List<int[]> getPosiciones() {
+            return posiciones;
+        }
+
+        /** @return puntos de una jugada; 0 en el resto */
+        public int getPuntos() {
+            return puntos;
+        }
+
+        /**
+         * @return movimiento de una jugada, con sus posiciones y su puntuación
+         * @throws IllegalStateException si el evento no es una jugada
+         */
+        public Movimiento aMovimiento() {
+            if (tipo != TipoEvento.JUGADA) {
+                throw new IllegalStateException("El evento no es una jugada: " + tipo);
+            }
+            int[] primera = posiciones.get(0);
+            boolean horizontal = posiciones.size() == 1 || posiciones.get(1)[0] == primera[0];
+            Movimiento movimiento = new Movimiento(new ArrayList<>(fichas), primera[0], primera[1], horizontal, puntos, "");
+            movimiento.setCoordenadas(posiciones);
+            return movimiento;
+        }
+
+        @Override
+        public String toString() {
+            return tipo + " j" + jugador + " " + fichas + (tipo == TipoEvento.JUGADA ? " " + puntos : "");
+        }
+    }
+}
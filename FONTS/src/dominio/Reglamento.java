@@ -1,6 +1,8 @@
 //SINGLETON!
 package dominio;
 
+import java.util.List;
+
 /**
  * Clase Reglamento
  * <p>
@@ -29,6 +31,7 @@ public class Reglamento {
     4. PUNTUACIÓN DE LAS FICHAS:
        - Cada ficha tiene un valor en puntos. Los valores están indicados en las fichas.
        - Las casillas especiales del tablero pueden duplicar o triplicar el valor de una ficha o de una palabra.
+       - Colocar las 7 fichas del atril en una sola jugada suma 50 puntos extra.
 
     5. TURNOS DE LOS JUGADORES:
        - En su turno, un jugador puede:
@@ -82,4 +85,34 @@ public class Reglamento {
     public String getReglamento() {
         return reglas; 
     }
+
+   /**
+    * Regla 8: la partida termina cuando todos los jugadores pasan su turno
+    * consecutivamente, es decir, tras tantos pases seguidos como jugadores.
+    * La comparten el {@link MotorJuego} y el {@link SolucionadorFinal}.
+    *
+    * @param pasesSeguidos Pases seguidos hasta ahora.
+    * @param numJugadores  Número de jugadores de la partida.
+    * @return {@code true} si la partida termina por los pases.
+    */
+    public static boolean terminaPorPases(int pasesSeguidos, int numJugadores) {
+        return pasesSeguidos >= numJugadores;
+    }
+
+   /**
+    * Regla 8: al terminar la partida, los puntos de las fichas que quedan en
+    * el atril de cada jugador se restan de su puntuación final.  La comparten
+    * el {@link MotorJuego} y el {@link SolucionadorFinal}.
+    *
+    * @param atril     Fichas que le quedan al jugador.
+    * @param alfabeto  Alfabeto del idioma, con la puntuación de cada ficha.
+    * @return Puntos que se restan al jugador.
+    */
+    public static int valorAtril(List<String> atril, Alfabeto alfabeto) {
+        int total = 0;
+        for (String ficha : atril) {
+            total += alfabeto.puntuar(ficha);
+        }
+        return total;
+    }
 }
@@ -0,0 +1,172 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Reproduce una partida a partir de su {@link RegistroPartida}: aplica los
+ * eventos uno a uno sobre un tablero, los atriles, las puntuaciones y el
+ * contenido del saco, sin robar al azar ni validar las palabras, así que es
+ * mucho más rápido que volver a jugarla.  Entre evento y evento se puede
+ * consultar el estado, por ejemplo para lanzar el generador de movimientos
+ * sobre cada posición de la partida.
+ * </p>
+ * <p>
+ * Si el registro no es coherente (se roba una ficha que ya no está en el
+ * saco o se coloca una que el jugador no tiene) se lanza
+ * {@link IllegalStateException}.
+ * </p>
+ */
+public class ReproductorPartida {
+
+    /** Registro que se reproduce. */
+    private final RegistroPartida registro;
+
+    /** Eventos del registro. */
+    private final List<RegistroPartida.Evento> eventos;
+
+    /** Tablero de la partida. */
+    private final Tablero tablero;
+
+    /** Atril de cada jugador. */
+    private final List<List<String>> atriles = new ArrayList<>();
+
+    /** Puntuación de cada jugador. */
+    private final int[] puntuaciones;
+
+    /** Fichas que quedan en el saco de cada letra. */
+    private final Map<String, Integer> saco;
+
+    /** Índice del siguiente evento. */
+    private int siguiente;
+
+    /**
+     * Prepara la reproducción desde el principio de la partida.
+     *
+     * @param registro Registro de la partida.
+     */
+    public ReproductorPartida(RegistroPartida registro) {
+        this.registro = registro;
+        this.eventos = registro.getEventos();
+        this.tablero = new Tablero();
+        this.tablero.setIdioma(registro.getIdioma());
+        this.puntuaciones = new int[registro.getJugadores().size()];
+        for (int j = 0; j < puntuaciones.length; j++) {
+            atriles.add(new ArrayList<>());
+        }
+        this.saco = new LinkedHashMap<>(registro.getSacoInicial());
+    }
+
+    /**
+     * Aplica el siguiente evento.
+     *
+     * @return Evento aplicado, o {@code null} si ya no quedan.
+     * @throws IllegalStateException si el evento no es coherente con el estado.
+     */
+    public RegistroPartida.Evento siguiente() {
+        if (siguiente == eventos.size()) {
+            return null;
+        }
+        RegistroPartida.Evento evento = eventos.get(siguiente++);
+        List<String> atril = atriles.get(evento.getJugador());
+        switch (evento.getTipo()) {
+            case ROBO -> {
+                for (String ficha : evento.getFichas()) {
+                    int quedan = saco.getOrDefault(ficha, 0);
+                    if (quedan == 0) {
+                        throw new IllegalStateException("Evento " + siguiente + ": no queda " + ficha + " en el saco.");
+                    }
+                    saco.put(ficha, quedan - 1);
+                    atril.add(ficha);
+                }
+            }
+            case JUGADA -> {
+                quitar(atril, evento.getFichas());
+                tablero.aplicarMovimiento(evento.aMovimiento());
+                puntuaciones[evento.getJugador()] += evento.getPuntos();
+            }
+            case CAMBIO -> {
+                quitar(atril, evento.getFichas());
+                for (String ficha : evento.getFichas()) {
+                    saco.merge(ficha, 1, Integer::sum);
+                }
+            }
+            case PASE -> {
+                // No cambia nada
+            }
+        }
+        return evento;
+    }
+
+    /**
+     * Aplica todos los eventos que quedan.
+     *
+     * @return Este reproductor, con la partida en su estado final.
+     */
+    public ReproductorPartida reproducir() {
+        while (siguiente() != null) {
+            // aplica el siguiente
+        }
+        return this;
+    }
+
+    private void quitar(List<String> atril, List<String> fichas) {
+        for (String ficha : fichas) {
+            if (!atril.remove(ficha)) {
+                throw new IllegalStateException("Evento " + siguiente + ": el jugador no tiene la ficha " + ficha + ".");
+            }
+        }
+    }
+
+    /** @return registro que se reproduce */
+    public RegistroPartida getRegistro() {
+        return registro;
+    }
+
+    /** @return {@code true} si ya se han aplicado todos los eventos */
+    public boolean haTerminado() {
+        return siguiente == eventos.size();
+    }
+
+    /** @return número de eventos aplicados */
+    public int getEventosAplicados() {
+        return siguiente;
+    }
+
+    /**
+     * Devuelve el tablero reproducido.  No debe modificarse.
+     *
+     * @return Tablero en el estado tras el último evento aplicado.
+     */
+    public Tablero getTablero() {
+        return tablero;
+    }
+
+    /**
+     * @param jugador Índice del jugador.
+     * @return copia del atril del jugador
+     */
+    public List<String> getAtril(int jugador) {
+        return new ArrayList<>(atriles.get(jugador));
+    }
+
+    /**
+     * @param jugador Índice del jugador.
+     * @return puntuación del jugador
+     */
+    public int getPuntuacion(int jugador) {
+        return puntuaciones[jugador];
+    }
+
+    /** @return fichas que quedan en el saco de cada letra, solo las que quedan */
+    public Map<String, Integer> getSaco() {
+        Map<String, Integer> quedan = new LinkedHashMap<>();
+        saco.forEach((letra, cantidad) -> {
+            if (cantidad > 0) quedan.put(letra, cantidad);
+        });
+        return quedan;
+    }
+}
@@ -1,12 +1,22 @@
 package dominio;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * La clase Robot representa un jugador automatizado en el juego de Scrabble.
  * Extiende la clase Usuario y utiliza un algoritmo para calcular y realizar movimientos en el tablero.
  */
 public class Robot extends Usuario {
+    /** Fijado al de las versiones anteriores para seguir cargando sus partidas guardadas. */
+    private static final long serialVersionUID = -2651535103052967639L;
+
+    /** Plazo por defecto de cada jugada, en milisegundos. */
+    public static final long PLAZO_POR_DEFECTO_MS = 2000;
+
     /**
      * Algoritmo utilizado por el robot para calcular la mejor jugada.
      * Es marcado como {@code transient} para evitar su serialización.
@@ -18,6 +28,53 @@ public class Robot extends Usuario {
      */
     private Tablero tablero;
 
+    /**
+     * Indica si el robot valora las fichas que deja en el atril al elegir la
+     * jugada; deja de tener sentido cuando el saco está vacío.
+     */
+    private boolean valorarRestos = true;
+
+    /**
+     * Estrategia con la que el robot elige la jugada; si es {@code null} juega
+     * el movimiento de mayor valoración.
+     */
+    private EstrategiaRobot estrategia;
+
+    /**
+     * Fichas que el robot no ve (saco y atriles de los rivales) en el turno
+     * actual; las usan las estrategias que simulan las jugadas del rival.
+     */
+    private transient List<String> fichasNoVistas;
+
+    /**
+     * Fichas del único rival cuando el saco está vacío; si se conocen, el
+     * robot busca la mejor secuencia hasta el final de la partida.
+     */
+    private transient List<String> fichasRival;
+
+    /**
+     * Tiempo máximo que tarda el robot en decidir su jugada, en milisegundos.
+     * La dificultad del robot se traduce en este presupuesto.
+     */
+    private long presupuestoMs = PLAZO_POR_DEFECTO_MS;
+
+    /**
+     * Perfil de dificultad del robot, o {@code null} si se configura a mano
+     * (y en las partidas guardadas antes de existir los perfiles).
+     */
+    private PerfilRobot perfil;
+
+    /**
+     * Métricas del último turno del robot.
+     */
+    private transient MetricaTurno ultimaMetrica;
+
+    /**
+     * Caché de líneas que comparten los algoritmos de los sucesivos turnos del
+     * robot; se crea en el primer turno, también tras cargar una partida.
+     */
+    private transient CacheLineas cacheLineas;
+
     /**
      * Constructor de la clase Robot.
      *
@@ -33,100 +90,209 @@ public class Robot extends Usuario {
 
     /**
      * Realiza un movimiento en el tablero utilizando el algoritmo para calcular la mejor jugada.
+     * Espera a que termine la búsqueda de {@link #pensar(Tablero)} (como mucho
+     * {@link #getPresupuestoMs()} milisegundos, o lo que tarde la primera
+     * fase), ejecuta la mejor jugada encontrada y espera a que se detenga la
+     * fase interrumpida para que no siga usando la caché de líneas en el turno
+     * siguiente.
      * Si no hay movimientos posibles, se muestra un mensaje indicando esta situación.
      */
     public Movimiento jugar(Tablero tablero) {
-        this.tablero = tablero;
-
         System.out.println("Turno del robot: " + this.getUsername());
-
-        Movimiento mejor = algoritmo.calcularMejorJugada(this);
+        long inicio = System.nanoTime();
+        BusquedaJugada busqueda = pensar(tablero);
+        Movimiento mejor = busqueda.getResultado().join();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        try {
+            busqueda.esperarFin();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         System.out.println("Mejor movimiento: " + mejor);
         if (mejor != null) {
             ejecutarMovimiento(mejor);
+            cacheLineas.invalidar(mejor);
         } else {
             System.out.println("No hay movimientos posibles para el Robot.");
         }
+        ultimaMetrica = new MetricaTurno(getUsername(), perfil, ms, busqueda.getFasesTerminadas(),
+                mejor == null ? null : mejor.getPalabraFormada(), mejor == null ? 0 : mejor.getPuntuacion());
         return mejor;
     }
 
+    /**
+     * Lanza en segundo plano la búsqueda de la jugada del robot sin modificar
+     * el tablero ni el atril: trabaja sobre copias tomadas en el momento de la
+     * llamada.  La primera fase es la jugada de mayor valoración; si el robot
+     * conoce las fichas del rival (final de partida) o tiene una estrategia,
+     * la segunda fase la refina.  El resultado llega en
+     * {@link #getPresupuestoMs()} milisegundos (o al terminar la primera fase,
+     * si tarda más) con la mejor jugada encontrada hasta entonces, y la
+     * búsqueda se puede cancelar antes.  El perfil del
+     * robot, si lo tiene, limita el vocabulario, la valoración y el final de
+     * partida.
+     *
+     * @param tablero Tablero de la partida.
+     * @return Búsqueda en curso.
+     */
+    public BusquedaJugada pensar(Tablero tablero) {
+        this.tablero = tablero;
+        if (algoritmo == null) {
+            // Tras cargar una partida el algoritmo (transient) se resuelve con el léxico compartido
+            algoritmo = new Algoritmo(RegistroLexicos.getInstance().getLexico(tablero.getIdioma()), tablero);
+        }
+
+        Tablero copia = new Tablero(tablero);
+        Algoritmo algoritmoCopia = new Algoritmo(algoritmo.getLexico(), copia);
+        // La caché de líneas se comparte de un turno a otro
+        if (cacheLineas == null) {
+            cacheLineas = new CacheLineas();
+        }
+        algoritmoCopia.setCacheLineas(cacheLineas);
+        algoritmoCopia.setValorarRestos(valorarRestos && (perfil == null || perfil.isValorarRestos()));
+        algoritmoCopia.setLongitudMaxima(perfil == null ? 0 : perfil.getLongitudMaxima());
+        List<String> fichas = new ArrayList<>(getFichas());
+        List<String> rival = perfil == null || perfil.isResolverFinal() ? fichasRival : null;
+        List<String> noVistas = fichasNoVistas;
+        EstrategiaRobot estrategiaTurno = estrategia;
+
+        List<Supplier<Movimiento>> fases = new ArrayList<>();
+        fases.add(() -> algoritmoCopia.calcularMejorJugada(fichas));
+        if (rival != null) {
+            fases.add(() -> algoritmoCopia.calcularJugadaFinal(fichas, rival));
+        } else if (estrategiaTurno != null) {
+            fases.add(() -> estrategiaTurno.elegirJugada(algoritmoCopia, fichas, copia, noVistas));
+        }
+        // Las partidas guardadas antes de existir el plazo lo cargan a 0
+        return BusquedaJugada.iniciar(fases, presupuestoMs > 0 ? presupuestoMs : PLAZO_POR_DEFECTO_MS);
+    }
+
     /**
      * Ejecuta un movimiento en el tablero.
-     * Coloca las fichas en las posiciones correspondientes y actualiza la puntuación del robot.
+     * Coloca cada ficha del movimiento en su posición (las fichas del tablero
+     * que atraviesa la palabra no se tocan) y actualiza la puntuación del robot.
      *
      * @param movimiento Movimiento que se desea ejecutar.
      */
     private void ejecutarMovimiento(Movimiento movimiento) {
         try {
-            System.out.println("tablero en ejecutarMovimiento:");
-            String[][] tablero80 = this.tablero.getTab();
-            for (int i = 0; i < 15; i++) {
-                for (int j = 0; j < 15; j++) {
-                    System.out.print(tablero80[i][j] + " ");
-                }
-                System.out.println();
-            }
-            // Imprimir las fichas recibidas en el movimiento
             List<String> fichas = movimiento.getFichas();
-            //System.out.println("Fichas recibidas: " + fichas);
-            
-            // Imprimir las posiciones del movimiento
             List<int[]> posiciones = movimiento.getPosiciones();
-            System.out.println("Posiciones del movimiento:");
-            for (int[] posicion : posiciones) {
-                System.out.println("Fila: " + posicion[0] + ", Columna: " + posicion[1]);
-            }
-            
-            // Colocar las fichas en el tablero
-            int fila = movimiento.getFila();
-            int columna = movimiento.getColumna();
-            boolean esHorizontal = movimiento.esHorizontal();
-            //System.out.println("puntuacion " +this.getPuntuacionPartidaActual());
-            
-            System.out.println("tablero en ejecutarMovimiento2:");
-            String[][] tablero81 = this.tablero.getTab();
-            for (int i = 0; i < 15; i++) {
-                for (int j = 0; j < 15; j++) {
-                    System.out.print(tablero81[i][j] + " ");
-                }
-                System.out.println();
+            for (int i = 0; i < fichas.size(); i++) {
+                int[] posicion = posiciones.get(i);
+                tablero.setCasilla(fichas.get(i), posicion[0], posicion[1]); // Colocar la ficha en el tablero
             }
 
-            for (String ficha : fichas) {
-                tablero.setCasilla(ficha, fila, columna); // Colocar la ficha en el tablero
-                tablero.setCasillaOcupada(fila, columna); // Marcar la casilla como ocupada
-
-                // Incrementar fila o columna según la orientación
-                if (esHorizontal) {
-                    columna++;
-                } else {
-                    fila++;
-                }
-            }
+            // Se puntúa igual que una jugada humana y después se confirman las fichas
+            int bonificacion=tablero.extraerPalabras(posiciones, true, this);
+            tablero.confirmarFichas(posiciones);
             for (String ficha : fichas) {
                 this.getFichas().remove(ficha);
             }
-            System.out.println("tablero en ejecutarMovimiento3:");
-            String[][] tablero82 = this.tablero.getTab();
-            for (int i = 0; i < 15; i++) {
-                for (int j = 0; j < 15; j++) {
-                    System.out.print(tablero82[i][j] + " ");
-                }
-                System.out.println();
-            }
-            
-            int bonificacion=tablero.extraerPalabras(movimiento.getPosiciones(), true, this);
             movimiento.setPuntuacion(bonificacion);
             this.sumarPuntos(bonificacion);
-            for (int[] posicion : posiciones) {
-                tablero.setBonificacionCasilla(posicion[0], posicion[1], 0); // Clear the bonus after using it
-            }
 
         }catch(Exception e){
             System.out.println("Error al ejecutar el movimiento: " + e.getMessage());
         }
     }
 
+    /**
+     * Indica si el robot debe valorar las fichas que deja en el atril.
+     *
+     * @param valorarRestos {@code false} cuando el saco está vacío.
+     */
+    public void setValorarRestos(boolean valorarRestos) {
+        this.valorarRestos = valorarRestos;
+    }
+
+    /** @return {@code true} si el robot valora las fichas que deja en el atril */
+    public boolean isValorarRestos() {
+        return valorarRestos;
+    }
+
+    /**
+     * Indica las fichas que el robot no ve en el turno actual.
+     *
+     * @param fichasNoVistas Fichas del saco y de los atriles de los rivales.
+     */
+    public void setFichasNoVistas(List<String> fichasNoVistas) {
+        this.fichasNoVistas = fichasNoVistas;
+    }
+
+    /**
+     * Establece el tiempo máximo que tarda el robot en decidir su jugada.
+     *
+     * @param presupuestoMs Plazo de cada jugada, en milisegundos.
+     */
+    public void setPresupuestoMs(long presupuestoMs) {
+        this.presupuestoMs = presupuestoMs;
+    }
+
+    /** @return tiempo máximo que tarda el robot en decidir su jugada, en milisegundos */
+    public long getPresupuestoMs() {
+        return presupuestoMs;
+    }
+
+    /**
+     * Indica las fichas del rival cuando el saco está vacío y solo hay uno.
+     *
+     * @param fichasRival Fichas del atril del rival, o {@code null} si no se
+     *                    conocen (quedan fichas en el saco o hay varios rivales).
+     */
+    public void setFichasRival(List<String> fichasRival) {
+        this.fichasRival = fichasRival;
+    }
+
+    /**
+     * Establece la estrategia con la que el robot elige sus jugadas.
+     *
+     * @param estrategia Estrategia del robot, o {@code null} para jugar
+     *                   siempre el movimiento de mayor valoración.
+     */
+    public void setEstrategia(EstrategiaRobot estrategia) {
+        this.estrategia = estrategia;
+    }
+
+    /**
+     * @return estrategia del robot, o {@code null} si juega el movimiento de
+     *         mayor valoración
+     */
+    public EstrategiaRobot getEstrategia() {
+        return estrategia;
+    }
+
+    /**
+     * Aplica un perfil de dificultad: fija el plazo de cada jugada y la
+     * estrategia del perfil, y a partir de ahora limita el vocabulario, la
+     * valoración y el final de partida según el perfil.  El plazo y la
+     * estrategia se pueden cambiar después con sus propios métodos.
+     *
+     * @param perfil Perfil del robot, o {@code null} para configurarlo a mano.
+     */
+    public void setPerfil(PerfilRobot perfil) {
+        this.perfil = perfil;
+        if (perfil != null) {
+            this.presupuestoMs = perfil.getPresupuestoMs();
+            this.estrategia = perfil.crearEstrategia();
+        }
+    }
+
+    /** @return perfil de dificultad del robot, o {@code null} si se configuró a mano */
+    public PerfilRobot getPerfil() {
+        return perfil;
+    }
+
+    /** @return métricas del último turno del robot, o {@code null} si aún no ha jugado */
+    public MetricaTurno getUltimaMetrica() {
+        return ultimaMetrica;
+    }
+
+    /** @return caché de líneas de los turnos del robot, o {@code null} si aún no ha jugado */
+    public CacheLineas getCacheLineas() {
+        return cacheLineas;
+    }
+
     /**
      * Establece un nuevo algoritmo para el robot.
      *
@@ -135,4 +301,17 @@ public class Robot extends Usuario {
     public void setAlgoritmo(Algoritmo algoritmo) {
         this.algoritmo = algoritmo;
     }
+
+    /**
+     * Las partidas guardadas antes de existir algunos campos no los traen: se
+     * dejan con su valor por defecto en lugar del cero de la deserialización.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        tablero = (Tablero) campos.get("tablero", null);
+        valorarRestos = campos.get("valorarRestos", true);
+        estrategia = (EstrategiaRobot) campos.get("estrategia", null);
+        presupuestoMs = campos.get("presupuestoMs", PLAZO_POR_DEFECTO_MS);
+        perfil = (PerfilRobot) campos.get("perfil", null);
+    }
 }
\ No newline at end of file
@@ -1,19 +1,28 @@
 package dominio;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.InputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * <p>
- * Representa el saco de fichas utilizado durante la partida.  Internamente se
- * modela como un mapa <em>letra → frecuencia</em>, donde la clave es la letra
- * (mayúscula o secuencia especial como «LL», «QU», etc.) y el valor es el número
- * de fichas restantes de esa letra en el saco.
+ * Representa el saco de fichas utilizado durante la partida.  Cada letra
+ * (mayúscula o secuencia especial como «LL», «QU», etc.) tiene un ordinal, el
+ * de su línea en el fichero de frecuencias, y el saco guarda cuántas fichas
+ * quedan de cada ordinal en un array de enteros con un árbol de Fenwick
+ * encima.  Así robar una ficha al azar, respetando las frecuencias, cuesta
+ * O(log n) en lugar de recorrer todas las letras.
  * </p>
  *
  * <h3>Características principales</h3>
@@ -22,7 +31,13 @@ import java.util.Random;
  *       ubicado en el <em>classpath</em>.  Cada línea debe tener el formato
  *       <code>LETRA FRECUENCIA</code>.</li>
  *   <li>Permite extraer una ficha al azar respetando la distribución de
- *       frecuencias (método {@link #getRobarLetra()}).</li>
+ *       frecuencias (método {@link #getRobarLetra()}) o varias de una vez
+ *       ({@link #robarFichas(int)}).</li>
+ *   <li>El generador aleatorio se puede inyectar: con una semilla fija las
+ *       fichas salen siempre en el mismo orden y las partidas se pueden
+ *       repetir.  El estado de un generador con semilla cabe en dos números,
+ *       la semilla y los pasos que ha dado ({@link #getPasosAzar()}), y
+ *       {@link #Saco(long, long)} lo recupera.</li>
  *   <li>Informa si el saco está vacío y expone el mapa de frecuencias con fines
  *       de depuración o visualización.</li>
  * </ul>
@@ -30,7 +45,8 @@ import java.util.Random;
  * <p>
  * La clase implementa {@link java.io.Serializable} para persistir el estado de
  * la partida.  Se añade un {@code serialVersionUID} explícito para evitar
- * conflictos en futuras versiones.
+ * conflictos en futuras versiones; las partidas guardadas con el formato
+ * anterior (un mapa letra → frecuencia) se siguen pudiendo cargar.
  * </p>
  *
  * @author  Yeray Franco
@@ -39,12 +55,84 @@ public class Saco implements java.io.Serializable {
 
     private static final long serialVersionUID = 1L;
 
-    /** Mapa que almacena la cantidad restante de cada letra. */
-    private Map<String, Integer> letrasFreq;
+    /** Letra de cada ordinal, en el orden del fichero de frecuencias. */
+    private String[] letras = new String[0];
+
+    /** Fichas que quedan de cada ordinal. */
+    private int[] cantidades = new int[0];
+
+    /** Árbol de Fenwick (base 1) sobre {@link #cantidades}; se reconstruye al cargar. */
+    private transient int[] arbol = new int[1];
+
+    /** Número total de fichas en el saco. */
+    private transient int total;
+
+    /** Generador con el que se roban las fichas; se guarda si es serializable. */
+    private transient RandomGenerator azar;
+
+    /**
+     * Generador con semilla que cuenta sus pasos, para poder guardar su estado
+     * como la semilla y el número de pasos.
+     */
+    private static class AzarContado extends Random {
+        private static final long serialVersionUID = 1L;
+
+        /** Semilla con la que se creó. */
+        private final long semilla;
+
+        /** Pasos dados desde la semilla. */
+        private long pasos;
+
+        AzarContado(long semilla, long pasos) {
+            super(semilla);
+            this.semilla = semilla;
+            for (long i = 0; i < pasos; i++) {
+                next(32);
+            }
+        }
+
+        @Override
+        protected int next(int bits) {
+            pasos++;
+            return super.next(bits);
+        }
+    }
 
     /** Crea un saco vacío. El contenido se carga posteriormente con {@link #setLlenarSaco(String)}. */
     public Saco() {
-        letrasFreq = new HashMap<>();
+        this(new Random());
+    }
+
+    /**
+     * Crea un saco vacío cuyas fichas salen siempre en el mismo orden: dos
+     * sacos con la misma semilla, llenados con el mismo idioma, reparten las
+     * mismas fichas.  Sirve para repetir partidas en pruebas y torneos.
+     *
+     * @param semilla Semilla del generador aleatorio.
+     */
+    public Saco(long semilla) {
+        this(semilla, 0);
+    }
+
+    /**
+     * Crea un saco vacío cuyo generador continúa donde lo dejó el de otro saco
+     * con la misma semilla, por ejemplo al cargar una partida guardada.
+     *
+     * @param semilla Semilla del generador aleatorio.
+     * @param pasos   Pasos que había dado el generador ({@link #getPasosAzar()}).
+     */
+    public Saco(long semilla, long pasos) {
+        this(new AzarContado(semilla, pasos));
+    }
+
+    /**
+     * Crea un saco vacío que roba las fichas con el generador indicado.
+     *
+     * @param azar Generador aleatorio; si no es {@link Serializable}, al cargar
+     *             una partida guardada se sustituye por uno nuevo.
+     */
+    public Saco(RandomGenerator azar) {
+        this.azar = azar;
     }
 
     /**
@@ -54,7 +142,8 @@ public class Saco implements java.io.Serializable {
      * @param idioma código de idioma en minúsculas («castellano», «catalan», «ingles»…)
      */
     public void setLlenarSaco(String idioma) {
-        letrasFreq.clear();
+        Map<String, Integer> frecuencias = new LinkedHashMap<>();
+        construir(frecuencias);
         String nombreArchivo = idioma + "Freq.txt";
         InputStream inputStream = getClass().getClassLoader().getResourceAsStream(nombreArchivo);
         if (inputStream == null) {
@@ -72,7 +161,7 @@ public class Saco implements java.io.Serializable {
                 String letra = partes[0];
                 try {
                     int frecuencia = Integer.parseInt(partes[1]);
-                    letrasFreq.put(letra, frecuencia);
+                    frecuencias.put(letra, frecuencia);
                 } catch (NumberFormatException e) {
                     System.out.println("Error al convertir la frecuencia en la línea: " + linea);
                 }
@@ -80,6 +169,39 @@ public class Saco implements java.io.Serializable {
         } catch (IOException e) {
             System.out.println("Error al leer el archivo: " + e.getMessage());
         }
+        construir(frecuencias);
+    }
+
+    /**
+     * Sustituye el contenido del saco.  Los ordinales siguen el orden de
+     * iteración del mapa.
+     */
+    private void construir(Map<String, Integer> frecuencias) {
+        letras = new String[frecuencias.size()];
+        cantidades = new int[frecuencias.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            letras[i] = entrada.getKey();
+            cantidades[i] = Math.max(0, entrada.getValue());
+            i++;
+        }
+        reconstruirArbol();
+    }
+
+    /**
+     * Construye el árbol de Fenwick y el total a partir de las cantidades, en O(n).
+     */
+    private void reconstruirArbol() {
+        arbol = new int[cantidades.length + 1];
+        total = 0;
+        for (int i = 1; i <= cantidades.length; i++) {
+            arbol[i] += cantidades[i - 1];
+            total += cantidades[i - 1];
+            int padre = i + (i & -i);
+            if (padre <= cantidades.length) {
+                arbol[padre] += arbol[i];
+            }
+        }
     }
 
     /**
@@ -87,53 +209,152 @@ public class Saco implements java.io.Serializable {
      * frecuencias restantes.
      *
      * @return la letra robada o {@code null} si el saco está vacío
-     * @throws IllegalStateException si ocurre un error inesperado durante la selección
      */
     public String getRobarLetra() {
-        int totalFrecuencia = letrasFreq.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalFrecuencia == 0) return null; // Saco vacío
-
-        int randomInt = new Random().nextInt(totalFrecuencia) + 1;
-        int acumulado = 0;
-        for (Map.Entry<String, Integer> entry : letrasFreq.entrySet()) {
-            acumulado += entry.getValue();
-            if (randomInt <= acumulado) {
-                String letraSeleccionada = entry.getKey();
-                int nuevaFreq = entry.getValue() - 1;
-                if (nuevaFreq == 0) {
-                    letrasFreq.remove(letraSeleccionada);
-                } else {
-                    letrasFreq.put(letraSeleccionada, nuevaFreq);
-                }
-                return letraSeleccionada;
+        if (total == 0) return null; // Saco vacío
+        if (azar == null) azar = new Random();
+
+        // Busca en el árbol el ordinal que contiene la ficha número «objetivo»
+        int objetivo = azar.nextInt(total);
+        int posicion = 0;
+        for (int paso = Integer.highestOneBit(cantidades.length); paso > 0; paso >>= 1) {
+            int siguiente = posicion + paso;
+            if (siguiente <= cantidades.length && arbol[siguiente] <= objetivo) {
+                posicion = siguiente;
+                objetivo -= arbol[siguiente];
+            }
+        }
+        cantidades[posicion]--;
+        total--;
+        for (int i = posicion + 1; i <= cantidades.length; i += i & -i) {
+            arbol[i]--;
+        }
+        return letras[posicion];
+    }
+
+    /**
+     * Roba varias fichas de una vez, por ejemplo para reponer un atril.
+     *
+     * @param numero Número de fichas que se quieren robar.
+     * @return Fichas robadas; menos de {@code numero} si el saco se vacía antes.
+     */
+    public List<String> robarFichas(int numero) {
+        int robadas = Math.max(0, Math.min(numero, total));
+        List<String> fichas = new ArrayList<>(robadas);
+        for (int i = 0; i < robadas; i++) {
+            fichas.add(getRobarLetra());
+        }
+        return fichas;
+    }
+
+    /**
+     * Devuelve fichas al saco, por ejemplo al cambiarlas por otras.
+     *
+     * @param fichas Fichas que se devuelven.
+     * @throws IllegalArgumentException si alguna ficha no es de este saco; en
+     *         ese caso no se devuelve ninguna.
+     */
+    public void devolverFichas(List<String> fichas) {
+        int[] ordinales = new int[fichas.size()];
+        for (int f = 0; f < ordinales.length; f++) {
+            ordinales[f] = Arrays.asList(letras).indexOf(fichas.get(f));
+            if (ordinales[f] < 0) {
+                throw new IllegalArgumentException("La ficha " + fichas.get(f) + " no es de este saco.");
+            }
+        }
+        for (int ordinal : ordinales) {
+            cantidades[ordinal]++;
+            total++;
+            for (int i = ordinal + 1; i <= cantidades.length; i += i & -i) {
+                arbol[i]++;
             }
         }
-        
-        throw new IllegalStateException("No se pudo seleccionar una letra.");
     }
 
     /**
      * @return {@code true} si el saco ya no contiene fichas.
      */
     public boolean estaVacio() {
-        return letrasFreq.isEmpty();
+        return total == 0;
+    }
+
+    /** @return número de fichas que quedan en el saco */
+    public int getNumFichas() {
+        return total;
     }
 
     /**
-     * Devuelve el mapa interno de frecuencias.  Se recomienda devolver una copia
-     * inmutable en futuras versiones para evitar mutaciones externas.
+     * Devuelve las frecuencias de las letras que quedan en el saco, en el
+     * orden del fichero.  Es una copia: modificarla no cambia el saco.
+     *
+     * @return Mapa letra → fichas restantes, solo con las letras que quedan.
      */
     public Map<String, Integer> getLetrasFreq() {
-        return letrasFreq;
+        Map<String, Integer> frecuencias = new LinkedHashMap<>();
+        for (int i = 0; i < letras.length; i++) {
+            if (cantidades[i] > 0) {
+                frecuencias.put(letras[i], cantidades[i]);
+            }
+        }
+        return frecuencias;
+    }
+
+    /**
+     * Devuelve todas las letras del saco en el orden del fichero, también las
+     * que ya no quedan; la posición de cada una es su ordinal.
+     *
+     * @return Lista de letras; es una copia.
+     */
+    public List<String> getLetras() {
+        return new ArrayList<>(Arrays.asList(letras));
+    }
+
+    /** @return {@code true} si el generador se creó con una semilla y su estado se puede guardar */
+    public boolean tieneSemilla() {
+        return azar instanceof AzarContado;
     }
 
-    /** Sustituye el mapa de frecuencias por otro (principalmente para tests). */
+    /** @return semilla del generador, o 0 si no se creó con una ({@link #tieneSemilla()}) */
+    public long getSemilla() {
+        return azar instanceof AzarContado ? ((AzarContado) azar).semilla : 0;
+    }
+
+    /** @return pasos que ha dado el generador desde su semilla, o 0 si no se creó con una */
+    public long getPasosAzar() {
+        return azar instanceof AzarContado ? ((AzarContado) azar).pasos : 0;
+    }
+
+    /** Sustituye el contenido del saco por las frecuencias del mapa (principalmente para tests). */
     public void setLetrasFreq(Map<String, Integer> letrasFreq) {
-        this.letrasFreq = letrasFreq;
+        construir(letrasFreq);
     }
 
     /** Elimina todas las fichas del saco. Equivale a dejar el saco vacío. */
     public void vaciarSaco() {
-        letrasFreq.clear();
+        Arrays.fill(cantidades, 0);
+        reconstruirArbol();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(azar instanceof Serializable ? azar : null);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        String[] guardadas = (String[]) campos.get("letras", null);
+        if (guardadas == null) {
+            // Formato anterior: mapa letra → frecuencia
+            @SuppressWarnings("unchecked")
+            Map<String, Integer> letrasFreq = (Map<String, Integer>) campos.get("letrasFreq", null);
+            construir(letrasFreq == null ? new LinkedHashMap<>() : letrasFreq);
+            azar = new Random();
+            return;
+        }
+        letras = guardadas;
+        cantidades = (int[]) campos.get("cantidades", null);
+        reconstruirArbol();
+        Object generador = in.readObject();
+        azar = generador instanceof RandomGenerator ? (RandomGenerator) generador : new Random();
     }
 }
@@ -0,0 +1,438 @@
+package dominio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Búsqueda exacta del final de partida.  Cuando el saco está vacío y solo
+ * queda un rival, los dos atriles son conocidos y la partida es un juego de
+ * información perfecta: gana la secuencia de jugadas que maximiza la
+ * diferencia entre los puntos propios y los del rival hasta que uno de los
+ * dos se queda sin fichas o ambos pasan seguidos.  Al final a cada uno se le
+ * restan los puntos de las fichas que le quedan (regla 8 del
+ * {@link Reglamento}, la misma que aplica el {@link MotorJuego}), así que
+ * quedarse sin fichas vale también las del rival y quedarse bloqueado con
+ * fichas caras cuesta puntos.
+ * </p>
+ * <p>
+ * La búsqueda es un <i>negamax</i> con poda alfa-beta sobre una copia del
+ * tablero en la que las jugadas se aplican y se deshacen
+ * ({@link Tablero#aplicarMovimiento}, {@link Tablero#deshacerMovimiento}).
+ * Las posiciones se guardan en una tabla de transposición con una clave de
+ * Zobrist (fichas del tablero, atriles, turno y pase pendiente), y en cada
+ * nodo se prueba primero la mejor jugada de la tabla y después el resto de
+ * mayor a menor puntuación, dejando el pase para el final.
+ * </p>
+ * <p>
+ * Se profundiza de forma iterativa, una jugada más cada vez, hasta que la
+ * búsqueda llega al final de todas las líneas (el resultado es exacto) o se
+ * agota el presupuesto de nodos o de tiempo, o se interrumpe el hilo (por
+ * ejemplo, al cancelar la {@link BusquedaJugada}); entonces se devuelve la mejor
+ * jugada de la última profundidad completa.  En el horizonte cada posición
+ * se estima con la mejor puntuación inmediata del jugador al que le toca.
+ * Los contadores de la última búsqueda (nodos por segundo, aciertos de la
+ * tabla...) sirven para ajustar los presupuestos.
+ * </p>
+ * <p>
+ * Como el {@link GeneradorMovimientos}, un solucionador no debe usarse desde
+ * varios hilos a la vez.
+ * </p>
+ */
+public class SolucionadorFinal {
+
+    /** Presupuesto de tiempo por defecto de cada búsqueda, en milisegundos. */
+    public static final long PRESUPUESTO_POR_DEFECTO_MS = 1000;
+
+    /** Presupuesto de nodos por defecto de cada búsqueda. */
+    public static final long NODOS_POR_DEFECTO = 200_000;
+
+    /**
+     * Profundidad máxima, en jugadas: cada jugada coloca al menos una de las
+     * fichas de los dos atriles y no puede haber dos pases seguidos.
+     */
+    private static final int PROFUNDIDAD_MAXIMA = 4 * TablaRestos.MAX_FICHAS + 1;
+
+    /** Profundidad de las entradas de la tabla calculadas hasta el final de todas sus líneas. */
+    private static final int COMPLETA = PROFUNDIDAD_MAXIMA + 1;
+
+    /** Índice del pase en las listas de jugadas. */
+    private static final int PASE = -1;
+
+    /** Tipos de entrada de la tabla de transposición. */
+    private static final byte EXACTA = 0, INFERIOR = 1, SUPERIOR = 2;
+
+    /**
+     * Entrada de la tabla de transposición: valor de una posición para el
+     * jugador al que le toca y mejor jugada encontrada.
+     */
+    private static class Entrada {
+        int profundidad;
+        int valor;
+        byte tipo;
+        int mejor;
+    }
+
+    /** Léxico del idioma. */
+    private final Lexico lexico;
+
+    /** Generador de las jugadas de la búsqueda, sin valoración de restos. */
+    private final GeneradorMovimientos generador;
+
+    /** Número aleatorio de cada ficha en cada casilla: {@code [casilla][indice]}. */
+    private final long[][] aleatoriosCasilla;
+
+    /** Número aleatorio de cada cantidad de cada ficha en cada atril: {@code [jugador][indice][cantidad]}. */
+    private final long[][][] aleatoriosAtril;
+
+    /** Sumando de la clave cuando le toca al rival. */
+    private final long aleatorioTurno;
+
+    /** Sumando de la clave cuando la jugada anterior ha sido un pase. */
+    private final long aleatorioPase;
+
+    /** Presupuesto de tiempo de cada búsqueda, en milisegundos. */
+    private long presupuestoMs = PRESUPUESTO_POR_DEFECTO_MS;
+
+    /** Presupuesto de nodos de cada búsqueda. */
+    private long maxNodos = NODOS_POR_DEFECTO;
+
+    /* Estado de la búsqueda en curso */
+    private Tablero tablero;
+    private List<List<String>> atriles;
+    private int[][] cantidades;
+    private long claveTablero;
+    private long claveAtriles;
+    private Map<Long, Entrada> transposiciones;
+    private long limite;
+    private boolean agotada;
+    private boolean horizonte;
+
+    /* Contadores de la última búsqueda */
+    private long nodos;
+    private long consultas;
+    private long aciertos;
+    private long nanos;
+    private int profundidad;
+    private boolean exacta;
+    private int valor;
+
+    /**
+     * Crea un solucionador para un léxico.
+     *
+     * @param lexico Léxico del idioma.
+     */
+    public SolucionadorFinal(Lexico lexico) {
+        this.lexico = lexico;
+        this.generador = new GeneradorMovimientos(lexico);
+        // El índice numLetras es el de las fichas que no pertenecen al alfabeto
+        int indices = lexico.getAlfabeto().getNumLetras() + 1;
+        SplittableRandom aleatorio = new SplittableRandom(0x46494E41L);
+        this.aleatoriosCasilla = new long[TableroCompacto.CASILLAS][indices];
+        for (long[] casilla : aleatoriosCasilla) {
+            for (int i = 0; i < indices; i++) casilla[i] = aleatorio.nextLong();
+        }
+        this.aleatoriosAtril = new long[2][indices][TablaRestos.MAX_FICHAS + 1];
+        for (long[][] jugador : aleatoriosAtril) {
+            for (long[] ficha : jugador) {
+                for (int k = 0; k < ficha.length; k++) ficha[k] = aleatorio.nextLong();
+            }
+        }
+        this.aleatorioTurno = aleatorio.nextLong();
+        this.aleatorioPase = aleatorio.nextLong();
+    }
+
+    /**
+     * @param presupuestoMs Tiempo máximo de cada búsqueda, en milisegundos.
+     */
+    public void setPresupuestoMs(long presupuestoMs) {
+        this.presupuestoMs = presupuestoMs;
+    }
+
+    /**
+     * @param maxNodos Número máximo de nodos de cada búsqueda.
+     */
+    public void setMaxNodos(long maxNodos) {
+        this.maxNodos = maxNodos;
+    }
+
+    /**
+     * Busca la mejor jugada del final de partida.  No modifica el tablero.
+     *
+     * @param original Tablero de la partida.
+     * @param propias  Fichas del jugador al que le toca.
+     * @param rival    Fichas del rival.
+     * @return Mejor jugada, o {@code null} si no hay ninguna o lo mejor es pasar.
+     */
+    public Movimiento resolver(Tablero original, List<String> propias, List<String> rival) {
+        long inicio = System.nanoTime();
+        limite = inicio + TimeUnit.MILLISECONDS.toNanos(presupuestoMs);
+        nodos = consultas = aciertos = 0;
+        profundidad = 0;
+        exacta = false;
+        valor = 0;
+        agotada = false;
+
+        tablero = new Tablero(original);
+        atriles = List.of(new ArrayList<>(propias), new ArrayList<>(rival));
+        cantidades = new int[2][aleatoriosAtril[0].length];
+        claveAtriles = 0;
+        for (int j = 0; j < 2; j++) {
+            for (String ficha : atriles.get(j)) {
+                cantidades[j][indice(ficha)]++;
+            }
+            for (int i = 0; i < cantidades[j].length; i++) {
+                claveAtriles ^= aleatoriosAtril[j][i][Math.min(cantidades[j][i], TablaRestos.MAX_FICHAS)];
+            }
+        }
+        claveTablero = 0;
+        for (int f = 0; f < tablero.getRows(); f++) {
+            for (int c = 0; c < tablero.getCols(); c++) {
+                if (tablero.isOcupadafunc(f + 1, c + 1)) {
+                    claveTablero ^= aleatoriosCasilla[f * TableroCompacto.TAMANO + c][indice(tablero.getLetra(f, c))];
+                }
+            }
+        }
+        transposiciones = new HashMap<>();
+
+        List<Movimiento> raiz = generador.generar(tablero, atriles.get(0));
+        Movimiento mejor = null;
+        for (Movimiento movimiento : raiz) {
+            if (mejor == null || movimiento.getPuntuacion() > mejor.getPuntuacion()) mejor = movimiento;
+        }
+        if (mejor != null) {
+            for (int p = 1; p <= PROFUNDIDAD_MAXIMA; p++) {
+                horizonte = false;
+                int v = buscar(p, Integer.MIN_VALUE + 1, Integer.MAX_VALUE, 0, 0);
+                if (agotada) break;
+                Entrada entrada = transposiciones.get(clave(0, 0));
+                mejor = entrada.mejor == PASE ? null : raiz.get(entrada.mejor);
+                valor = v;
+                profundidad = p;
+                if (!horizonte) {
+                    exacta = true;
+                    break;
+                }
+            }
+        }
+        nanos = System.nanoTime() - inicio;
+        tablero = null;
+        transposiciones = null;
+        return mejor;
+    }
+
+    /**
+     * Negamax con poda alfa-beta.
+     *
+     * @return valor de la posición para el jugador {@code turno}
+     */
+    private int buscar(int restante, int alfa, int beta, int turno, int pases) {
+        nodos++;
+        if (nodos > maxNodos || ((nodos & 15) == 0
+                && (System.nanoTime() > limite || Thread.currentThread().isInterrupted()))) {
+            agotada = true;
+            return 0;
+        }
+        if (Reglamento.terminaPorPases(pases, 2)) {
+            return valorAtril(1 - turno) - valorAtril(turno);
+        }
+        List<String> atril = atriles.get(turno);
+        if (restante == 0) {
+            horizonte = true;
+            int estimacion = 0;
+            for (Movimiento movimiento : generador.generar(tablero, atril)) {
+                estimacion = Math.max(estimacion, movimiento.getPuntuacion());
+            }
+            return estimacion;
+        }
+
+        long clave = clave(turno, pases);
+        Entrada entrada = transposiciones.get(clave);
+        consultas++;
+        int primera = Integer.MIN_VALUE;
+        if (entrada != null) {
+            aciertos++;
+            if (entrada.profundidad >= restante) {
+                boolean corte = entrada.tipo == EXACTA;
+                if (entrada.tipo == INFERIOR) alfa = Math.max(alfa, entrada.valor);
+                if (entrada.tipo == SUPERIOR) beta = Math.min(beta, entrada.valor);
+                if (corte || alfa >= beta) {
+                    // Un valor calculado con horizonte sigue siendo una estimación
+                    horizonte |= entrada.profundidad != COMPLETA;
+                    return entrada.valor;
+                }
+            }
+            primera = entrada.mejor;
+        }
+
+        List<Movimiento> movimientos = generador.generar(tablero, atril);
+        int[] orden = ordenar(movimientos, primera);
+        boolean horizonteAnterior = horizonte;
+        horizonte = false;
+        int alfaInicial = alfa;
+        int mejorValor = Integer.MIN_VALUE + 1;
+        int mejor = PASE;
+        for (int indice : orden) {
+            int v;
+            if (indice == PASE) {
+                v = -buscar(restante - 1, -beta, -alfa, 1 - turno, pases + 1);
+            } else {
+                Movimiento movimiento = movimientos.get(indice);
+                aplicar(movimiento, turno);
+                v = atril.isEmpty()
+                        ? movimiento.getPuntuacion() + valorAtril(1 - turno) // se queda sin fichas: fin de la partida
+                        : movimiento.getPuntuacion() - buscar(restante - 1, -beta, -alfa, 1 - turno, 0);
+                deshacer(movimiento, turno);
+            }
+            if (agotada) return 0;
+            if (v > mejorValor) {
+                mejorValor = v;
+                mejor = indice;
+            }
+            alfa = Math.max(alfa, v);
+            if (alfa >= beta) break;
+        }
+
+        if (entrada == null) {
+            entrada = new Entrada();
+            transposiciones.put(clave, entrada);
+        }
+        entrada.profundidad = horizonte ? restante : COMPLETA;
+        entrada.valor = mejorValor;
+        entrada.tipo = mejorValor <= alfaInicial ? SUPERIOR : mejorValor >= beta ? INFERIOR : EXACTA;
+        entrada.mejor = mejor;
+        horizonte |= horizonteAnterior;
+        return mejorValor;
+    }
+
+    /**
+     * @return índices de las jugadas en el orden en que se prueban: la mejor
+     *         de la tabla, el resto de mayor a menor puntuación y el pase
+     */
+    private static int[] ordenar(List<Movimiento> movimientos, int primera) {
+        int n = movimientos.size();
+        Integer[] indices = new Integer[n];
+        for (int i = 0; i < n; i++) indices[i] = i;
+        Arrays.sort(indices, (a, b) -> movimientos.get(b).getPuntuacion() - movimientos.get(a).getPuntuacion());
+        int[] orden = new int[n + 1];
+        int k = 0;
+        if (primera >= n) primera = Integer.MIN_VALUE; // colisión de claves
+        if (primera != Integer.MIN_VALUE) orden[k++] = primera;
+        for (int indice : indices) {
+            if (indice != primera) orden[k++] = indice;
+        }
+        if (primera != PASE) orden[k] = PASE;
+        return orden;
+    }
+
+    /**
+     * Aplica una jugada sobre el tablero de la búsqueda y saca sus fichas del atril.
+     */
+    private void aplicar(Movimiento movimiento, int turno) {
+        tablero.aplicarMovimiento(movimiento);
+        List<String> fichas = movimiento.getFichas();
+        for (int i = 0; i < fichas.size(); i++) {
+            int[] posicion = movimiento.getPosiciones().get(i);
+            int ficha = indice(fichas.get(i));
+            claveTablero ^= aleatoriosCasilla[(posicion[0] - 1) * TableroCompacto.TAMANO + posicion[1] - 1][ficha];
+            cambiarCantidad(turno, ficha, -1);
+            atriles.get(turno).remove(fichas.get(i));
+        }
+    }
+
+    /**
+     * Deshace {@link #aplicar}.
+     */
+    private void deshacer(Movimiento movimiento, int turno) {
+        tablero.deshacerMovimiento();
+        List<String> fichas = movimiento.getFichas();
+        for (int i = 0; i < fichas.size(); i++) {
+            int[] posicion = movimiento.getPosiciones().get(i);
+            int ficha = indice(fichas.get(i));
+            claveTablero ^= aleatoriosCasilla[(posicion[0] - 1) * TableroCompacto.TAMANO + posicion[1] - 1][ficha];
+            cambiarCantidad(turno, ficha, 1);
+            atriles.get(turno).add(fichas.get(i));
+        }
+    }
+
+    private void cambiarCantidad(int turno, int ficha, int cambio) {
+        int antes = Math.min(cantidades[turno][ficha], TablaRestos.MAX_FICHAS);
+        cantidades[turno][ficha] += cambio;
+        int despues = Math.min(cantidades[turno][ficha], TablaRestos.MAX_FICHAS);
+        claveAtriles ^= aleatoriosAtril[turno][ficha][antes] ^ aleatoriosAtril[turno][ficha][despues];
+    }
+
+    /**
+     * @return puntos de las fichas que le quedan a un jugador, que se le
+     *         restan al terminar la partida
+     */
+    private int valorAtril(int jugador) {
+        return Reglamento.valorAtril(atriles.get(jugador), lexico.getAlfabeto());
+    }
+
+    /**
+     * @return clave de la posición en curso
+     */
+    private long clave(int turno, int pases) {
+        long clave = claveTablero ^ claveAtriles;
+        if (turno == 1) clave ^= aleatorioTurno;
+        if (pases == 1) clave ^= aleatorioPase;
+        return clave;
+    }
+
+    /**
+     * @return índice de una ficha en las tablas de números aleatorios
+     */
+    private int indice(String ficha) {
+        int codigo = lexico.getAlfabeto().codigo(ficha);
+        return codigo == Alfabeto.NINGUNA ? aleatoriosAtril[0].length - 1 : codigo;
+    }
+
+    /** @return nodos visitados en la última búsqueda */
+    public long getNodos() {
+        return nodos;
+    }
+
+    /** @return nodos por segundo de la última búsqueda */
+    public double getNodosPorSegundo() {
+        return nanos == 0 ? 0 : nodos * 1e9 / nanos;
+    }
+
+    /** @return consultas a la tabla de transposición en la última búsqueda */
+    public long getConsultasTransposicion() {
+        return consultas;
+    }
+
+    /** @return fracción de consultas a la tabla de transposición que encontraron la posición */
+    public double getTasaAciertosTransposicion() {
+        return consultas == 0 ? 0 : (double) aciertos / consultas;
+    }
+
+    /** @return última profundidad completada, en jugadas */
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    /** @return {@code true} si la última búsqueda llegó al final de todas las líneas */
+    public boolean esExacta() {
+        return exacta;
+    }
+
+    /**
+     * @return diferencia de puntos (propios menos del rival) hasta el final de
+     *         la partida según la última búsqueda
+     */
+    public int getValor() {
+        return valor;
+    }
+
+    /** @return milisegundos de la última búsqueda */
+    public long getMilisegundos() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
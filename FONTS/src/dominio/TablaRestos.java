@@ -0,0 +1,367 @@
+package dominio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * Tabla de valores del resto del atril de un idioma: para cada conjunto de
+ * fichas que puede quedar en el atril tras una jugada, cuántos puntos vale
+ * quedárselo respecto a la media (positivo para restos equilibrados como
+ * «E R S», negativo para restos como «Q V V»).  El robot suma este valor a la
+ * puntuación de cada movimiento candidato.
+ * </p>
+ * <p>
+ * Cada conjunto se identifica por un <i>hash</i> de multiconjunto: la suma de
+ * un número aleatorio fijo por cada par (ficha, número de copia).  Como la
+ * suma no depende del orden, el {@link GeneradorMovimientos} la mantiene a
+ * medida que saca y devuelve fichas del atril, y la consulta cuesta una sola
+ * búsqueda en una tabla de direccionamiento abierto, sin crear objetos.  Los
+ * restos que no están en la tabla se valoran sumando el valor marginal de
+ * cada ficha (el de la ficha sola y, para las copias repetidas, la diferencia
+ * entre «E E» y «E»...).
+ * </p>
+ * <p>
+ * Los valores se leen del fichero <code>&lt;idioma&gt;Restos.txt</code> del
+ * <em>classpath</em>, que genera {@link GeneradorTablaRestos} a partir de
+ * partidas simuladas.  Cada línea tiene las fichas del resto separadas por
+ * espacios y el valor al final («E R S 6.25»); el resto vacío se escribe
+ * «-» y las líneas que empiezan por {@code #} son comentarios.  Si el fichero
+ * no existe, la tabla queda vacía y todos los restos valen 0.
+ * </p>
+ */
+public class TablaRestos {
+
+    /** Número máximo de fichas del atril. */
+    public static final int MAX_FICHAS = 7;
+
+    /** Semilla de los números aleatorios de las claves, fija para que sean reproducibles. */
+    private static final long SEMILLA = 0x46424C52L;
+
+    /** Idioma de la tabla. */
+    private final String idioma;
+
+    /** Alfabeto del idioma. */
+    private final Alfabeto alfabeto;
+
+    /** Número aleatorio de cada copia de cada ficha: {@code [codigo][copia]}. */
+    private final long[][] aleatorios;
+
+    /** Valor marginal de cada copia de cada ficha, para los restos que no están en la tabla. */
+    private final double[][] marginales;
+
+    /** Claves de la tabla de direccionamiento abierto. */
+    private long[] claves;
+
+    /** Valores de la tabla, en las mismas posiciones que {@link #claves}. */
+    private float[] valores;
+
+    /** Posiciones ocupadas de la tabla. */
+    private boolean[] usadas;
+
+    /** Número de restos de la tabla. */
+    private int numEntradas;
+
+    /**
+     * Crea una tabla vacía: todos los restos valen 0.
+     *
+     * @param idioma   Idioma de la tabla.
+     * @param alfabeto Alfabeto del idioma.
+     */
+    public TablaRestos(String idioma, Alfabeto alfabeto) {
+        this.idioma = idioma;
+        this.alfabeto = alfabeto;
+        int numLetras = alfabeto.getNumLetras();
+        this.aleatorios = new long[numLetras][MAX_FICHAS];
+        this.marginales = new double[numLetras][MAX_FICHAS];
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        for (long[] copias : aleatorios) {
+            for (int k = 0; k < MAX_FICHAS; k++) {
+                copias[k] = aleatorio.nextLong();
+            }
+        }
+        this.claves = new long[64];
+        this.valores = new float[64];
+        this.usadas = new boolean[64];
+    }
+
+    /**
+     * Lee la tabla de un idioma del fichero <code>&lt;idioma&gt;Restos.txt</code>.
+     * Si el fichero no existe, la tabla queda vacía.
+     *
+     * @param idioma   Idioma de la tabla.
+     * @param alfabeto Alfabeto del idioma.
+     * @return Tabla de restos del idioma.
+     */
+    public static TablaRestos cargar(String idioma, Alfabeto alfabeto) {
+        TablaRestos tabla = new TablaRestos(idioma, alfabeto);
+        String nombreArchivo = idioma + "Restos.txt";
+        try (InputStream entrada = TablaRestos.class.getClassLoader().getResourceAsStream(nombreArchivo)) {
+            if (entrada == null) {
+                System.out.println("No se encontró la tabla de restos: " + nombreArchivo);
+                return tabla;
+            }
+            BufferedReader br = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.startsWith("#")) continue;
+                String[] partes = linea.split("\\s+");
+                try {
+                    double valor = Double.parseDouble(partes[partes.length - 1]);
+                    int[] codigos = tabla.codificar(Arrays.asList(partes).subList(0, partes.length - 1));
+                    if (codigos != null) {
+                        tabla.poner(codigos, valor);
+                    } else {
+                        System.out.println("Ficha desconocida en la tabla de restos: " + linea);
+                    }
+                } catch (NumberFormatException e) {
+                    System.out.println("Formato incorrecto en la línea: " + linea);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error al leer la tabla de restos: " + e.getMessage());
+        }
+        return tabla;
+    }
+
+    /**
+     * @return códigos de las fichas de un resto («-» es el resto vacío), o
+     *         {@code null} si alguna no pertenece al alfabeto
+     */
+    private int[] codificar(List<String> fichas) {
+        List<Integer> codigos = new ArrayList<>();
+        for (String ficha : fichas) {
+            if (ficha.equals("-")) continue;
+            int codigo = alfabeto.codigo(ficha);
+            if (codigo == Alfabeto.NINGUNA) return null;
+            codigos.add(codigo);
+        }
+        return codigos.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Devuelve el número aleatorio de una copia de una ficha.  La clave de un
+     * resto es la suma de los de todas sus fichas: la primera copia de cada
+     * ficha suma el de la copia 0, la segunda el de la copia 1...
+     *
+     * @param codigo Código de la ficha.
+     * @param copia  Número de copia (0 para la primera).
+     * @return Sumando de la clave.
+     */
+    public long getAleatorio(int codigo, int copia) {
+        return aleatorios[codigo][copia];
+    }
+
+    /**
+     * @param codigo Código de la ficha.
+     * @param copia  Número de copia (0 para la primera).
+     * @return Valor marginal de la copia, para los restos que no están en la tabla.
+     */
+    public double getMarginal(int codigo, int copia) {
+        return marginales[codigo][copia];
+    }
+
+    /**
+     * Calcula la clave de un resto.
+     *
+     * @param codigos Códigos de las fichas del resto, en cualquier orden.
+     * @return Clave del resto.
+     */
+    public long clave(int[] codigos) {
+        int[] copias = new int[alfabeto.getNumLetras()];
+        long clave = 0;
+        for (int codigo : codigos) {
+            clave += aleatorios[codigo][copias[codigo]++];
+        }
+        return clave;
+    }
+
+    /**
+     * Guarda el valor de un resto.  Si el resto son copias de una sola ficha
+     * (o está vacío) se recalculan los valores marginales de esa ficha.
+     *
+     * @param codigos Códigos de las fichas del resto, en cualquier orden.
+     * @param valor   Valor del resto.
+     * @throws IllegalArgumentException si el resto tiene más de {@link #MAX_FICHAS} fichas.
+     */
+    public void poner(int[] codigos, double valor) {
+        if (codigos.length > MAX_FICHAS) {
+            throw new IllegalArgumentException("Un resto no puede tener más de " + MAX_FICHAS + " fichas.");
+        }
+        if ((numEntradas + 1) * 2 > claves.length) {
+            ampliar();
+        }
+        if (insertar(clave(codigos), (float) valor)) {
+            numEntradas++;
+        }
+        if (codigos.length == 0) {
+            for (int codigo = 0; codigo < marginales.length; codigo++) {
+                calcularMarginales(codigo);
+            }
+        } else if (Arrays.stream(codigos).allMatch(c -> c == codigos[0])) {
+            calcularMarginales(codigos[0]);
+        }
+    }
+
+    /**
+     * Recalcula los valores marginales de las copias de una ficha a partir de
+     * los restos «F», «F F», «F F F»...  Si falta alguno, la copia vale lo
+     * mismo que la anterior si es negativo y 0 si no.
+     */
+    private void calcularMarginales(int codigo) {
+        int[] repetidas = new int[0];
+        double anterior = valor(0, 0);
+        for (int k = 0; k < MAX_FICHAS; k++) {
+            repetidas = Arrays.copyOf(repetidas, k + 1);
+            repetidas[k] = codigo;
+            long clave = clave(repetidas);
+            int posicion = buscar(clave);
+            if (posicion >= 0) {
+                marginales[codigo][k] = valores[posicion] - anterior;
+                anterior = valores[posicion];
+            } else {
+                marginales[codigo][k] = k == 0 ? 0 : Math.min(0, marginales[codigo][k - 1]);
+                anterior += marginales[codigo][k];
+            }
+        }
+    }
+
+    /**
+     * Devuelve el valor de un resto a partir de su clave.  Es la consulta que
+     * hace el generador por cada movimiento: la clave y el valor aditivo se
+     * mantienen a medida que se sacan fichas del atril.
+     *
+     * @param clave   Clave del resto.
+     * @param aditivo Valor del resto vacío más los valores marginales de sus
+     *                fichas, que se usa si el resto no está en la tabla.
+     * @return Valor del resto.
+     */
+    public double valor(long clave, double aditivo) {
+        int posicion = buscar(clave);
+        return posicion >= 0 ? valores[posicion] : aditivo;
+    }
+
+    /**
+     * Devuelve el valor de un resto dado por sus fichas.  Las fichas que no
+     * pertenecen al alfabeto no cuentan.
+     *
+     * @param resto Fichas que quedan en el atril.
+     * @return Valor del resto.
+     */
+    public double valor(List<String> resto) {
+        int[] copias = new int[alfabeto.getNumLetras()];
+        long clave = 0;
+        double aditivo = getValorVacio();
+        for (String ficha : resto) {
+            int codigo = alfabeto.codigo(ficha);
+            if (codigo == Alfabeto.NINGUNA || copias[codigo] == MAX_FICHAS) continue;
+            clave += aleatorios[codigo][copias[codigo]];
+            aditivo += marginales[codigo][copias[codigo]];
+            copias[codigo]++;
+        }
+        return valor(clave, aditivo);
+    }
+
+    /** @return valor del resto vacío (el de atril vacío) */
+    public double getValorVacio() {
+        return valor(0, 0);
+    }
+
+    /** @return número de restos de la tabla */
+    public int getNumEntradas() {
+        return numEntradas;
+    }
+
+    /** @return {@code true} si la tabla no tiene ningún resto */
+    public boolean estaVacia() {
+        return numEntradas == 0;
+    }
+
+    /** @return idioma de la tabla */
+    public String getIdioma() {
+        return idioma;
+    }
+
+    /**
+     * Escribe una línea de la tabla con el formato de
+     * <code>&lt;idioma&gt;Restos.txt</code>.
+     *
+     * @param salida  Destino.
+     * @param codigos Códigos de las fichas del resto.
+     * @param valor   Valor del resto.
+     * @throws IOException si falla la escritura.
+     */
+    public void escribir(Writer salida, int[] codigos, double valor) throws IOException {
+        StringBuilder linea = new StringBuilder();
+        for (int codigo : codigos) {
+            linea.append(alfabeto.getLetra(codigo)).append(' ');
+        }
+        if (codigos.length == 0) {
+            linea.append("- ");
+        }
+        linea.append(String.format(Locale.ROOT, "%.2f", valor)).append('\n');
+        salida.write(linea.toString());
+    }
+
+    /**
+     * @return posición de la clave en la tabla, o -1 si no está
+     */
+    private int buscar(long clave) {
+        int mascara = claves.length - 1;
+        for (int i = mezclar(clave) & mascara; usadas[i]; i = (i + 1) & mascara) {
+            if (claves[i] == clave) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return {@code true} si la clave no estaba y se ha añadido
+     */
+    private boolean insertar(long clave, float valor) {
+        int mascara = claves.length - 1;
+        int i = mezclar(clave) & mascara;
+        while (usadas[i] && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        boolean nueva = !usadas[i];
+        usadas[i] = true;
+        claves[i] = clave;
+        valores[i] = valor;
+        return nueva;
+    }
+
+    /**
+     * Duplica la capacidad de la tabla.
+     */
+    private void ampliar() {
+        long[] clavesAnteriores = claves;
+        float[] valoresAnteriores = valores;
+        boolean[] usadasAnteriores = usadas;
+        claves = new long[clavesAnteriores.length * 2];
+        valores = new float[clavesAnteriores.length * 2];
+        usadas = new boolean[clavesAnteriores.length * 2];
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (usadasAnteriores[i]) {
+                insertar(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    /**
+     * @return posición inicial de una clave (las claves ya son aleatorias,
+     *         basta con plegar sus 64 bits)
+     */
+    private static int mezclar(long clave) {
+        return (int) (clave ^ (clave >>> 32));
+    }
+}
@@ -1,10 +1,9 @@
 package dominio;
 
 import java.util.List;
-import java.util.Set;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -53,6 +52,65 @@ public class Tablero implements Serializable {
      */
     private Map<Usuario, String> mapaJugadoresPalabraLarga = new HashMap<>();
 
+    /**
+     * Código de ficha de una casilla sin ficha confirmada.
+     */
+    public static final int VACIA = -1;
+
+    /**
+     * Código de ficha de una casilla con una letra que no pertenece al alfabeto.
+     */
+    public static final int DESCONOCIDA = -2;
+
+    /**
+     * Suma de cruce de una casilla que no tiene palabra perpendicular.
+     */
+    public static final int SIN_CRUCE = -1;
+
+    /**
+     * Fichas confirmadas en un {@link TableroCompacto}: código de cada ficha y
+     * mapas de bits de ocupación, de los que salen los anclajes.  Se construye
+     * la primera vez que se pide y después se actualiza en
+     * {@link #setCasillaOcupada(int, int)}.
+     */
+    private transient TableroCompacto compacto;
+
+    /**
+     * Léxico con el que se han calculado los códigos y los conjuntos de cruce,
+     * o {@code null} si están por calcular.
+     */
+    private transient Lexico lexicoCruces;
+
+    /**
+     * Conjuntos de cruce de las casillas libres (un bit por código de ficha):
+     * {@code [0]} para movimientos horizontales (palabra perpendicular
+     * vertical) y {@code [1]} para verticales.
+     */
+    private transient long[][] cruces;
+
+    /**
+     * Suma de las fichas de la palabra perpendicular de cada casilla libre,
+     * o {@link #SIN_CRUCE}; mismos índices que {@link #cruces}.
+     */
+    private transient int[][] sumasCruce;
+
+    /**
+     * Pila de registros de {@link #aplicarMovimiento(Movimiento)}.  Los
+     * registros se reutilizan: solo los primeros {@link #profundidadDeshacer}
+     * están en uso.
+     */
+    private transient List<RegistroDeshacer> pilaDeshacer;
+
+    /** Número de movimientos aplicados pendientes de deshacer. */
+    private transient int profundidadDeshacer;
+
+    /**
+     * Registro del movimiento que se está aplicando, donde
+     * {@link #calcularCruce(int, int, int)} anota los valores que sobrescribe,
+     * o {@code null} fuera de {@link #aplicarMovimiento(Movimiento)}.
+     */
+    private transient RegistroDeshacer registroActual;
+
 
 
     // ANSI escape codes para colores
@@ -98,6 +156,14 @@ public class Tablero implements Serializable {
         }
         // Copia el mapa de palabras largas de los jugadores si es necesario
         this.mapaJugadoresPalabraLarga = new HashMap<>(original.mapaJugadoresPalabraLarga);
+        if (original.compacto != null) {
+            this.compacto = new TableroCompacto(original.compacto);
+        }
+        if (original.lexicoCruces != null) {
+            this.lexicoCruces = original.lexicoCruces;
+            this.cruces = new long[][]{original.cruces[0].clone(), original.cruces[1].clone()};
+            this.sumasCruce = new int[][]{original.sumasCruce[0].clone(), original.sumasCruce[1].clone()};
+        }
     }
 
     /**
@@ -107,34 +173,13 @@ public class Tablero implements Serializable {
     public void inicializarMatriz() {
         for (int row = 1; row < 16; row++) {
             for (int col = 1;col < 16; col++) {
-                int tiposBonus=0;
-                if ((row == 1 || row == 15) && (col == 1 || col == 8 || col == 15)) {
-                    tiposBonus = 4; // Triple word score
-                } else if ((row == 1 || row == 15) && (col == 4 || col == 12)) {
-                    tiposBonus=1; // Double letter score
-                } else if ((row == 3 || row == 13) && (col == 7 || col == 9)) {
-                    tiposBonus=1; // Double letter score
-                } else if ((row == 4 || row == 12) && (col == 8 || col == 1 || col == 15)) {
-                    tiposBonus=1; // Double letter score
-                } else if ((row == 7 || row == 9) && (col == 7 || col == 9 || col == 3 || col == 13)) {
-                    tiposBonus=1; // Double letter score
-                } else if ((row == 8) && (col == 4 || col == 12)) {
-                    tiposBonus=1; // Double letter score
-                } else if (row == 8 && col == 8) {
-                    tiposBonus = 3; // double word score
-                } else if (row == 8 && (col == 1 || col == 15)) {
-                    tiposBonus = 4; // Triple word score
-                } else if ((row == 6 || row ==10) && (col == 2 || col == 6 || col == 10 || col ==14)) {
-                    tiposBonus = 2; // Triple letter score
-                } else if ((row == 2 || row == 14 )&& (col == 6 || col == 10)) {
-                    tiposBonus = 2; // Triple letter score
-                } else if ((row == col || row + col == 16)) {
-                    tiposBonus = 3; // double word
-                }
-
+                int tiposBonus = TableroCompacto.getBonificacion(row - 1, col - 1);
                 this.matrizOcupacio[row-1][col-1] = new Casilla(tiposBonus, col, row,  false);
             }
         }
+        this.compacto = null;
+        this.lexicoCruces = null;
+        this.profundidadDeshacer = 0;
     }
 
     /**
@@ -202,6 +247,15 @@ public class Tablero implements Serializable {
         return contadorHumano;
     }
 
+    /**
+     * Restablece el contador de palabras del jugador humano al cargar una partida.
+     *
+     * @param contadorHumano Número de palabras jugadas por el jugador humano.
+     */
+    void setContadorHumano(int contadorHumano) {
+        this.contadorHumano = contadorHumano;
+    }
+
     /**
      * Obtiene el mapa de jugadores y sus palabras más largas.
      * 
@@ -261,6 +315,8 @@ public class Tablero implements Serializable {
      */
     public void setIdioma(String idioma) {
         this.idioma = idioma;
+        this.compacto = null;
+        this.lexicoCruces = null;
     }
 
     /**
@@ -387,40 +443,6 @@ public class Tablero implements Serializable {
         return tablero; // Devolver la matriz
     }
 
-    /**
-     * Obtiene los puntos de anclaje disponibles en el tablero.
-     * 
-     * @return Una lista de coordenadas de los puntos de anclaje.
-     */
-    /*private String getColor(int row, int col) {
-        // Define the positions of special cells
-        if ((row == 1 || row == 15) && (col == 1 || col == 8 || col == 15)) {
-            return ANSI_RED_BACKGROUND; // Triple word score
-        } else if ((row == 1 || row == 15) && (col == 4 || col == 12)) {
-            return ANSI_CYAN_BACKGROUND; // Double letter score
-        } else if ((row == 3 || row == 13) && (col == 7 || col == 9)) {
-            return ANSI_CYAN_BACKGROUND; // Double letter score
-        } else if ((row == 4 || row == 12) && (col == 8 || col == 1 || col == 15)) {
-            return ANSI_CYAN_BACKGROUND; // Double letter score
-        } else if ((row == 7 || row == 9) && (col == 7 || col == 9 || col == 3 || col == 13)) {
-            return ANSI_CYAN_BACKGROUND; // Double letter score
-        } else if ((row == 8) && (col == 4 || col == 12)) {
-            return ANSI_CYAN_BACKGROUND; // Double letter score
-        } else if (row == 8 && col == 8) {
-            return ANSI_ORANGE_BACKGROUND; // Center cell
-        } else if (row == 8 && (col == 1 || col == 15)) {
-            return ANSI_RED_BACKGROUND; // Triple word score
-        } else if ((row == 6 || row ==10) && (col == 2 || col == 6 || col == 10 || col ==14)) {
-            return ANSI_PURPLE_BACKGROUND; // Triple word score
-        } else if ((row == 2 || row == 14 )&& (col == 6 || col == 10)) {
-            return ANSI_PURPLE_BACKGROUND; // Triple word score
-        } else if ((row == col || row + col == 16)) {
-            return ANSI_ORANGE_BACKGROUND; // Diagonal cells except 7-7, 7-9, 9-7, and 9-9
-        } else {
-            return ANSI_BACKGROUND; // Normal cell
-        }
-    }*/
-
     /**
      * Obtiene los puntos de anclaje disponibles en el tablero.
      * Los puntos de anclaje son casillas vacías adyacentes a casillas ocupadas.
@@ -429,55 +451,363 @@ public class Tablero implements Serializable {
      * @return Una lista de coordenadas de los puntos de anclaje en formato {@code List<int[]>}.
      */
     public List<int[]> obtenerPuntosDeAnclaje() {
-        Set<String> anclajesSet = new HashSet<>();
-        boolean hayCasillasOcupadas = false;
-        
-        System.out.println("tablero en obtenerPuntosDeAnclaje:");
-        String[][] tablerothis = getTab();
-        for (int i = 0; i < 15; i++) {
-            for (int j = 0; j < 15; j++) {
-                System.out.print(tablerothis[i][j] + " ");
+        asegurarCompacto();
+        List<int[]> lista = new ArrayList<>();
+        for (int f = 0; f < rows; f++) {
+            int anclajesFila = compacto.getAnclajesFila(f);
+            for (int c = 0; c < cols; c++) {
+                if ((anclajesFila >>> c & 1) != 0) {
+                    lista.add(new int[]{f + 1, c + 1});
+                }
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Indica si una casilla es un anclaje.
+     *
+     * @param f La fila de la casilla.
+     * @param c La columna de la casilla.
+     * @return {@code true} si la casilla es un anclaje.
+     */
+    public boolean esAnclaje(int f, int c) {
+        asegurarCompacto();
+        return compacto.esAnclaje(f - 1, c - 1);
+    }
+
+    /**
+     * Devuelve el núcleo compacto con las fichas confirmadas del tablero.  Si
+     * aún no se han preparado los conjuntos de cruce, las fichas tienen el
+     * código {@link #DESCONOCIDA}.
+     *
+     * @return Tablero compacto, mantenido al confirmar fichas; no debe modificarse.
+     */
+    public TableroCompacto getCompacto() {
+        asegurarCompacto();
+        return compacto;
+    }
+
+    /**
+     * Construye el tablero compacto recorriendo las casillas si aún no existe.
+     */
+    private void asegurarCompacto() {
+        if (compacto != null) return;
+        compacto = new TableroCompacto();
+        for (int f = 0; f < rows; f++) {
+            for (int c = 0; c < cols; c++) {
+                if (matrizOcupacio[f][c].isOcupada()) {
+                    compacto.colocar(f, c, codigoCasilla(f, c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepara los códigos de ficha y los conjuntos de cruce del tablero para
+     * un léxico.  Si ya estaban calculados para ese léxico no hace nada: a
+     * partir de entonces {@link #setCasillaOcupada(int, int)} los mantiene
+     * actualizados recalculando solo los extremos de la fila y la columna de
+     * cada ficha nueva.
+     *
+     * @param lexico Léxico del idioma del tablero.
+     * @throws IllegalArgumentException si el alfabeto tiene más de 64 fichas.
+     */
+    public void prepararCruces(Lexico lexico) {
+        if (lexicoCruces == lexico && compacto != null) return;
+        if (lexico.getAlfabeto().getNumLetras() > Long.SIZE) {
+            throw new IllegalArgumentException("Los conjuntos de cruce admiten alfabetos de hasta " + Long.SIZE + " fichas.");
+        }
+        lexicoCruces = lexico;
+        compacto = null;
+        asegurarCompacto();
+        cruces = new long[2][rows * cols];
+        sumasCruce = new int[2][rows * cols];
+        for (int f = 0; f < rows; f++) {
+            for (int c = 0; c < cols; c++) {
+                calcularCruce(f, c, 0);
+                calcularCruce(f, c, 1);
             }
-            System.out.println();
-        }
-        
-        for (int fila = 1; fila <= this.getRows(); fila++) {
-            for (int columna = 1; columna <= this.getCols(); columna++) {
-                if (this.isOcupadafunc(fila, columna)) {
-                    hayCasillasOcupadas = true;
-                    // Add adjacent empty cells as anchor points
-                    if (fila > 1 && !this.isOcupadafunc(fila - 1, columna) && ((fila<this.getRows() && !this.isOcupadafunc(fila + 1, columna))|| fila==this.getRows())) // Above
-                        anclajesSet.add((fila - 1) + "," + columna);
-                    if (fila < this.getRows() && !this.isOcupadafunc(fila+1, columna) && ((fila > 1 && !this.isOcupadafunc(fila - 1, columna)) || fila==1)) // Below
-                        anclajesSet.add((fila + 1) + "," + columna);
-                    if (columna > 1 && !this.isOcupadafunc(fila, columna - 1)&& ((columna<this.getCols() && !this.isOcupadafunc(fila, columna+1))|| columna==this.getCols())) // Left
-                        anclajesSet.add(fila + "," + (columna - 1) );
-                    if (columna < this.getCols() && !this.isOcupadafunc(fila, columna+1)&& ((columna>1  && !this.isOcupadafunc(fila , columna-1)) || columna==1)) // Right
-                        anclajesSet.add(fila + "," + (columna + 1));
+        }
+    }
+
+    /**
+     * @return código de la ficha confirmada de una casilla (base 0) en el
+     *         alfabeto de {@link #lexicoCruces}, o {@link #DESCONOCIDA} si aún
+     *         no hay léxico
+     */
+    private int codigoCasilla(int f, int c) {
+        Casilla casilla = matrizOcupacio[f][c];
+        if (!casilla.isOcupada() || casilla.getLetra() == null || casilla.getLetra().equals("\0")) {
+            return VACIA;
+        }
+        if (lexicoCruces == null) {
+            return DESCONOCIDA;
+        }
+        int codigo = lexicoCruces.getAlfabeto().codigo(casilla.getLetra());
+        return codigo == Alfabeto.NINGUNA ? DESCONOCIDA : codigo;
+    }
+
+    /**
+     * Actualiza los códigos y los conjuntos de cruce tras ocupar una casilla:
+     * solo cambian las casillas libres de los extremos de la palabra vertical
+     * y de la horizontal que contienen la ficha nueva.
+     */
+    private void actualizarCruces(int f, int c) {
+        int arriba = f;
+        while (arriba > 0 && compacto.getFicha((arriba - 1) * cols + c) != VACIA) arriba--;
+        int abajo = f;
+        while (abajo < rows - 1 && compacto.getFicha((abajo + 1) * cols + c) != VACIA) abajo++;
+        if (arriba > 0) calcularCruce(arriba - 1, c, 0);
+        if (abajo < rows - 1) calcularCruce(abajo + 1, c, 0);
+
+        int izquierda = c;
+        while (izquierda > 0 && compacto.getFicha(f * cols + izquierda - 1) != VACIA) izquierda--;
+        int derecha = c;
+        while (derecha < cols - 1 && compacto.getFicha(f * cols + derecha + 1) != VACIA) derecha++;
+        if (izquierda > 0) calcularCruce(f, izquierda - 1, 1);
+        if (derecha < cols - 1) calcularCruce(f, derecha + 1, 1);
+    }
+
+    /**
+     * Calcula el conjunto de cruce de una casilla libre para una orientación
+     * de movimiento: las fichas que, colocadas en ella, forman con las fichas
+     * confirmadas contiguas en la dirección perpendicular una palabra válida.
+     *
+     * @param f           Fila (base 0).
+     * @param c           Columna (base 0).
+     * @param orientacion 0 para movimientos horizontales, 1 para verticales.
+     */
+    private void calcularCruce(int f, int c, int orientacion) {
+        int i = f * cols + c;
+        if (compacto.getFicha(i) != VACIA) return;
+        // Paso entre casillas contiguas de la palabra perpendicular
+        int paso = orientacion == 0 ? cols : 1;
+        int posicion = orientacion == 0 ? f : c;
+        int limite = orientacion == 0 ? rows : cols;
+        int antes = 0;
+        while (posicion - antes > 0 && compacto.getFicha(i - (antes + 1) * paso) != VACIA) antes++;
+        int despues = 0;
+        while (posicion + despues < limite - 1 && compacto.getFicha(i + (despues + 1) * paso) != VACIA) despues++;
+        if (registroActual != null) {
+            registroActual.guardarCruce(orientacion * rows * cols + i, cruces[orientacion][i], sumasCruce[orientacion][i]);
+        }
+        if (antes == 0 && despues == 0) {
+            cruces[orientacion][i] = -1L;
+            sumasCruce[orientacion][i] = SIN_CRUCE;
+            return;
+        }
+
+        DAWG dawg = lexicoCruces.getDawg();
+        Alfabeto alfabeto = lexicoCruces.getAlfabeto();
+        int suma = 0;
+        int nodo = dawg.getRaiz();
+        for (int k = antes; k > 0; k--) {
+            int codigo = compacto.getFicha(i - k * paso);
+            suma += codigo < 0 ? 0 : alfabeto.getPuntuacion(codigo);
+            int arista = dawg.arista(nodo, codigo);
+            nodo = arista < 0 ? 0 : dawg.hijo(arista);
+        }
+        for (int k = 1; k <= despues; k++) {
+            int codigo = compacto.getFicha(i + k * paso);
+            suma += codigo < 0 ? 0 : alfabeto.getPuntuacion(codigo);
+        }
+        sumasCruce[orientacion][i] = suma;
+
+        long mascara = 0;
+        for (int arista = nodo; nodo != 0; arista++) {
+            boolean fin = dawg.esFinDePalabra(arista);
+            int siguiente = dawg.hijo(arista);
+            for (int k = 1; k <= despues; k++) {
+                int a = dawg.arista(siguiente, compacto.getFicha(i + k * paso));
+                if (a < 0) {
+                    fin = false;
+                    break;
                 }
+                fin = dawg.esFinDePalabra(a);
+                siguiente = dawg.hijo(a);
             }
+            if (fin) {
+                mascara |= 1L << dawg.etiqueta(arista);
+            }
+            if (dawg.esUltima(arista)) break;
         }
+        cruces[orientacion][i] = mascara;
+    }
+
+    /**
+     * Devuelve el código de la ficha confirmada de una casilla.  Requiere
+     * haber llamado antes a {@link #prepararCruces(Lexico)}.
+     *
+     * @param f La fila de la casilla.
+     * @param c La columna de la casilla.
+     * @return Código de la ficha, {@link #VACIA} o {@link #DESCONOCIDA}.
+     */
+    public int getCodigoCasilla(int f, int c) {
+        return compacto.getFicha(f - 1, c - 1);
+    }
 
-        // If no occupied cells, add the center of the board as the anchor point
-        if (!hayCasillasOcupadas) {
-            int centroFila = this.getRows() / 2 + 1;
-            int centroColumna = this.getCols() / 2 + 1;
-            anclajesSet.add(centroFila + "," + centroColumna);
+    /**
+     * Devuelve el conjunto de cruce de una casilla libre.  Requiere haber
+     * llamado antes a {@link #prepararCruces(Lexico)}.
+     *
+     * @param f          La fila de la casilla.
+     * @param c          La columna de la casilla.
+     * @param horizontal {@code true} para un movimiento horizontal (la palabra
+     *                   perpendicular es vertical).
+     * @return Un bit por cada código de ficha que se puede colocar en la casilla.
+     */
+    public long getCruces(int f, int c, boolean horizontal) {
+        return cruces[horizontal ? 0 : 1][(f - 1) * cols + (c - 1)];
+    }
+
+    /**
+     * Devuelve la suma de las fichas de la palabra perpendicular de una
+     * casilla libre.  Requiere haber llamado antes a
+     * {@link #prepararCruces(Lexico)}.
+     *
+     * @param f          La fila de la casilla.
+     * @param c          La columna de la casilla.
+     * @param horizontal {@code true} para un movimiento horizontal.
+     * @return Suma sin bonificaciones, o {@link #SIN_CRUCE} si no hay palabra perpendicular.
+     */
+    public int getSumaCruce(int f, int c, boolean horizontal) {
+        return sumasCruce[horizontal ? 0 : 1][(f - 1) * cols + (c - 1)];
+    }
+
+    /**
+     * Estado anterior de las casillas y de los conjuntos de cruce que ha
+     * modificado un movimiento aplicado con {@link #aplicarMovimiento(Movimiento)}.
+     */
+    private static final class RegistroDeshacer {
+        int numCasillas;
+        int[] casillas = new int[TableroCompacto.TAMANO];
+        String[] letras = new String[TableroCompacto.TAMANO];
+        int[] bonificaciones = new int[TableroCompacto.TAMANO];
+        Lexico lexico;
+        int numCruces;
+        int[] indicesCruce = new int[4 * TableroCompacto.TAMANO];
+        long[] mascarasCruce = new long[4 * TableroCompacto.TAMANO];
+        int[] sumasCruce = new int[4 * TableroCompacto.TAMANO];
+
+        void guardarCruce(int indice, long mascara, int suma) {
+            if (numCruces == indicesCruce.length) {
+                indicesCruce = Arrays.copyOf(indicesCruce, numCruces * 2);
+                mascarasCruce = Arrays.copyOf(mascarasCruce, numCruces * 2);
+                sumasCruce = Arrays.copyOf(sumasCruce, numCruces * 2);
+            }
+            indicesCruce[numCruces] = indice;
+            mascarasCruce[numCruces] = mascara;
+            sumasCruce[numCruces] = suma;
+            numCruces++;
+        }
+    }
+
+    /**
+     * Aplica un movimiento de forma reversible: coloca y confirma sus fichas,
+     * anula la bonificación de las casillas usadas y guarda en una pila lo
+     * necesario para deshacerlo.  Los anclajes y los conjuntos de cruce se
+     * actualizan igual que al confirmar fichas, de modo que una búsqueda puede
+     * simular miles de jugadas sobre el mismo tablero sin copiarlo.  No
+     * comprueba las palabras ni puntúa.
+     *
+     * @param movimiento Movimiento con las fichas nuevas y sus posiciones.
+     * @throws IllegalArgumentException si alguna posición está fuera del
+     *         tablero o ya ocupada.
+     * @see #deshacerMovimiento()
+     */
+    public void aplicarMovimiento(Movimiento movimiento) {
+        List<String> fichas = movimiento.getFichas();
+        List<int[]> posiciones = movimiento.getPosiciones();
+        for (int[] posicion : posiciones) {
+            int f = posicion[0] - 1;
+            int c = posicion[1] - 1;
+            if (f < 0 || f >= rows || c < 0 || c >= cols || matrizOcupacio[f][c].isOcupada()) {
+                throw new IllegalArgumentException("No se puede colocar una ficha en (" + posicion[0] + ", " + posicion[1] + ").");
+            }
         }
 
-        // Convert the Set back to a List of int[] for compatibility
-        List<int[]> anclajes = new ArrayList<>();
-        if(this.estalimpioTablero()){
-            System.out.println("LO DETECTA COMO PUTO LIMPIO");
-            anclajes.add(new int[]{8, 8});
-            return anclajes;
+        if (pilaDeshacer == null) {
+            pilaDeshacer = new ArrayList<>();
         }
-        for (String coord : anclajesSet) {
-            String[] parts = coord.split(",");
-            anclajes.add(new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])});
+        if (profundidadDeshacer == pilaDeshacer.size()) {
+            pilaDeshacer.add(new RegistroDeshacer());
+        }
+        RegistroDeshacer registro = pilaDeshacer.get(profundidadDeshacer++);
+        registro.numCasillas = 0;
+        registro.numCruces = 0;
+        registro.lexico = lexicoCruces;
+        if (registro.casillas.length < posiciones.size()) {
+            registro.casillas = new int[posiciones.size()];
+            registro.letras = new String[posiciones.size()];
+            registro.bonificaciones = new int[posiciones.size()];
         }
 
-        return anclajes;
+        registroActual = registro;
+        try {
+            for (int i = 0; i < posiciones.size(); i++) {
+                int f = posiciones.get(i)[0] - 1;
+                int c = posiciones.get(i)[1] - 1;
+                Casilla casilla = matrizOcupacio[f][c];
+                if (casilla.isOcupada()) continue; // posición repetida en el movimiento
+                registro.casillas[registro.numCasillas] = f * cols + c;
+                registro.letras[registro.numCasillas] = casilla.getLetra();
+                registro.bonificaciones[registro.numCasillas] = casilla.getBonificacion();
+                registro.numCasillas++;
+                casilla.ColocarFicha(fichas.get(i));
+                casilla.setBonificacion(0);
+                setCasillaOcupada(f + 1, c + 1);
+            }
+        } finally {
+            registroActual = null;
+        }
+    }
+
+    /**
+     * Deshace el último movimiento aplicado con
+     * {@link #aplicarMovimiento(Movimiento)}: devuelve las casillas, sus
+     * bonificaciones, los anclajes y los conjuntos de cruce al estado anterior.
+     *
+     * @throws IllegalStateException si no hay ningún movimiento que deshacer.
+     */
+    public void deshacerMovimiento() {
+        if (profundidadDeshacer == 0) {
+            throw new IllegalStateException("No hay ningún movimiento que deshacer.");
+        }
+        RegistroDeshacer registro = pilaDeshacer.get(--profundidadDeshacer);
+        for (int k = registro.numCasillas - 1; k >= 0; k--) {
+            int f = registro.casillas[k] / cols;
+            int c = registro.casillas[k] % cols;
+            Casilla casilla = matrizOcupacio[f][c];
+            casilla.setOcupada(false);
+            casilla.ColocarFicha(registro.letras[k]);
+            casilla.setBonificacion(registro.bonificaciones[k]);
+            if (compacto != null) {
+                compacto.quitar(f, c);
+            }
+        }
+        if (lexicoCruces != null && registro.lexico == lexicoCruces) {
+            int casillas = rows * cols;
+            for (int k = registro.numCruces - 1; k >= 0; k--) {
+                int orientacion = registro.indicesCruce[k] / casillas;
+                int i = registro.indicesCruce[k] % casillas;
+                cruces[orientacion][i] = registro.mascarasCruce[k];
+                sumasCruce[orientacion][i] = registro.sumasCruce[k];
+            }
+        } else {
+            // Los conjuntos de cruce se han calculado después de aplicar el
+            // movimiento: se recalcularán en el próximo prepararCruces
+            lexicoCruces = null;
+        }
+        registro.lexico = null;
+    }
+
+    /**
+     * @return número de movimientos aplicados con
+     *         {@link #aplicarMovimiento(Movimiento)} pendientes de deshacer
+     */
+    public int getProfundidadDeshacer() {
+        return profundidadDeshacer;
     }
 
     /**
@@ -525,286 +855,56 @@ public class Tablero implements Serializable {
     /**
      * Extrae palabras del tablero basándose en las coordenadas dadas.
      * Verifica que las palabras sean válidas según las reglas del juego y el idioma configurado.
+     * Las letras de las coordenadas deben estar colocadas con {@link #setCasilla}
+     * pero aún sin confirmar; la validación y la puntuación las hace un
+     * {@link Puntuador} en una sola pasada.
      * 
      * @param coordenadasLetras Una lista de coordenadas de las letras colocadas.
-     * @param cambiarBon {@code true} si se deben aplicar las bonificaciones, {@code false} en caso contrario.
+     * @param cambiarBon {@code true} si se deben anotar las palabras formadas al jugador, {@code false} en caso contrario.
+     * @param jugador Jugador que realiza la jugada.
      * @return La puntuación total obtenida al extraer las palabras.
-     * @throws IllegalArgumentException Si las reglas del juego no se cumplen.
+     * @throws ErrorJuegoException Si las reglas del juego no se cumplen.
      */
     public int extraerPalabras(List<int[]> coordenadasLetras, boolean cambiarBon, Usuario jugador) {
-        int n=0;
-        // Verificar si hay letras en el centro
-        
-        if(this.estalimpioTablero()){
-            //checquear que no hayas puesto una letra solo
-            if (coordenadasLetras.size() == 1) {
-                limpiarMap();
-                throw new ErrorJuegoException(-1);  
-                           
-            }
-            boolean centro = false;
-            for (int[] coordenada : coordenadasLetras) {
-                int fila = coordenada[0]-1;
-                int columna = coordenada[1]-1;
-                
-                if (fila == 7 && columna == 7) {
-                    centro = true; // Al menos una ficha está en el centro
-                }
-            }
-            if (!centro) {
-                limpiarMap();
-                throw new ErrorJuegoException(-2); // Código -2: Letras no están en el centro
-            }
-        }
-
-        //System.out.println(this.idioma ); // Mostrar las fichas disponibles
-        Diccionario diccionario = new Diccionario();
-        diccionario.setCargarDiccionario(this.idioma); // Cargar el diccionario según el idioma
-        Algoritmo algoritmo = new Algoritmo(diccionario, this, this.idioma);
-        boolean colindante = false;
-
-        // Verificar si las letras están en la misma fila o columna
-        boolean mismaFila = true;
-        boolean mismaColumna = true;
-        int filaBase = coordenadasLetras.get(0)[0]-1;
-        int columnaBase = coordenadasLetras.get(0)[1]-1;
-        if(cambiarBon) System.out.println("coordenadasBasewwwwwww: " + (filaBase+1) + " " + (columnaBase+1) + "  letra: " + this.matrizOcupacio[filaBase][columnaBase].getLetra());
-
+        List<String> fichas = new ArrayList<>();
         for (int[] coordenada : coordenadasLetras) {
-            //System.out.println("coordenadas: " + coordenada[0] + " " + filaBase+1);
-            if (coordenada[0] != filaBase+1) {
-                //System.out.println("entra1");
-                mismaFila = false;
-            }
-            //System.out.println("coordenadasssssss: " + columnaBase+1 + " " + coordenada[1]);
-            if (coordenada[1] != columnaBase+1) {
-                //System.out.println("entra2");
-                mismaColumna = false;
-            }
-        }
-        //System.out.println(mismaFila + " " + mismaColumna);
-        if (!mismaFila && !mismaColumna) {
-            //System.out.println("entra qui");
-            limpiarMap();
-            throw new ErrorJuegoException(-3); // Código -3: Letras no alineadas
+            int fila = coordenada[0] - 1;
+            int columna = coordenada[1] - 1;
+            boolean dentro = fila >= 0 && fila < rows && columna >= 0 && columna < cols;
+            fichas.add(dentro ? this.matrizOcupacio[fila][columna].getLetra() : null);
         }
 
-        // Verificar si hay espacios en blanco entre las letras
-        if(mismaColumna){
-            int minFila = Integer.MAX_VALUE;
-            int maxFila = Integer.MIN_VALUE;
-            for (int[] coordenada : coordenadasLetras) {
-                minFila = Math.min(minFila, coordenada[0]-1);
-                maxFila = Math.max(maxFila, coordenada[0]-1);
-            }
-            //System.out.println(minFila + " filasss "+ maxFila+ " " + columnaBase);
-            for (int fila = minFila; fila <= maxFila; fila++) {
-                //System.out.println(this.matrizOcupacio[fila][columnaBase].getLetra());
-                if (columnaBase>=15 || fila>=15 || columnaBase<0 || fila<0 || this.matrizOcupacio[fila][columnaBase].getLetra().equals("\0")){
-                    limpiarMap();
-                    throw new ErrorJuegoException(-4); // Código -4: Espacio en blanco en columna
-                }
-            }
-        } else if(mismaFila){
-            int minCol = Integer.MAX_VALUE;
-            int maxCol = Integer.MIN_VALUE;
-            for (int[] coordenada : coordenadasLetras) {
-                minCol = Math.min(minCol, coordenada[1]-1);
-                maxCol = Math.max(maxCol, coordenada[1]-1);
-            }
-            for (int col = minCol; col <= maxCol; col++) {
-                if (filaBase>=15 || col>=15 || filaBase<0 || col<0 || this.matrizOcupacio[filaBase][col].getLetra()==("/0")) {
-                    limpiarMap();
-                    throw new ErrorJuegoException(-5); // Código -5: Espacio en blanco en fila
-                }
-            }
+        // El léxico del idioma se comparte entre todas las llamadas: no se relee el diccionario
+        Puntuador puntuador = new Puntuador(RegistroLexicos.getInstance().getLexico(this.idioma));
+        List<String> palabras = cambiarBon ? new ArrayList<>() : null;
+        int n;
+        try {
+            n = puntuador.puntuar(this, fichas, coordenadasLetras, palabras);
+        } catch (ErrorJuegoException e) {
+            limpiarMap();
+            throw e;
         }
-        boolean recorrerV1vez = true;
-        boolean recorrerH1vez = true;
-        //recorrer coordinadasLetras
-        for (int[] coordenada : coordenadasLetras) {
-            int fila = coordenada[0]-1;
-            int columna = coordenada[1]-1;
-            //.println(fila + " " + columna);
-            //if(cambiarBon) System.out.println("xxxxxxxxxxxxxxxxxx " + fila + " " + columna);
-
-
-            // Verificar si hay palabra vertical
-            if((mismaColumna &&recorrerV1vez) || (!mismaColumna &&((fila > 0 && fila <= this.getRows() && this.matrizOcupacio[fila - 1][columna].getLetra()!=("\0")) || (fila>=0 && fila < this.getRows() - 1 && this.matrizOcupacio[fila + 1][columna].getLetra()!=("\0")))))
-            {   System.out.println("palabra vertical");
-                List<int[]> coordenadasPalabra = new ArrayList<>();
-                recorrerV1vez = false;
-                StringBuilder palabraV = new StringBuilder();
-                boolean haypalabraV = false;
-                int ftop=-1;
-
-                // Verificar si hay letra encima
-                if(fila > 0 && fila <= this.getRows() && this.matrizOcupacio[fila - 1][columna].getLetra()!=("\0")) {
-                    haypalabraV = true;
-                    if(cambiarBon)System.out.println("hay letra arriba");
-                    int filaActual = fila - 1;
-
-                    while (filaActual >=0 && this.matrizOcupacio[filaActual][columna].getLetra()!=("\0")) {
-                        if(this.matrizOcupacio[filaActual][columna].isOcupada()) {
-                            colindante = true;
-                            
-                        }
-                        filaActual--;
-                        //System.out.println("coooordenadasasdfasdf: " + (filaActual+1) + " " + (columna+1));
-                    }
-
-                    //añadir de arriba hacia abajo
-                    ftop = filaActual+1;
-                    for(int i=ftop; i<fila; i++) {
-                        if(i>=0 && i<this.getRows() && columna>=0 && columna <this.getCols()){
-                            palabraV.append(this.matrizOcupacio[i][columna].getLetra());
-                            coordenadasPalabra.add(new int[]{i+1, columna+1});
-                            //coordenadasPalabra.add(new int[]{i + 1, columna + 1});
-                            if(cambiarBon)System.out.println("Coordenadav11 " + (i+1) + " " + (columna+1));
-                            //if(cambiarBon)System.out.println("coordenadasasdfasdf: " + (i) + " " + (columna));
-                        }
-                    }
-                }
-
-                palabraV.append(this.matrizOcupacio[fila][columna].getLetra());
-                System.out.println("coordenadasACt: " + (fila+1) + " " + (columna+1));
-                coordenadasPalabra.add(new int[]{fila+1, columna+1});
-                //verificar si hay letra debajo
-                if (fila>=0 && fila < this.getRows() - 1 && this.matrizOcupacio[fila + 1][columna].getLetra()!=("\0")) {
-                    if(ftop==-1) ftop=fila;
-                    haypalabraV= true;
-                    int filaActual = fila + 1;
-                    if(cambiarBon)System.out.println("hay letra abajo");
-                    
-                    while (filaActual < this.getRows() && this.matrizOcupacio[filaActual][columna].getLetra()!=("\0")) {
-                        if(this.matrizOcupacio[filaActual][columna].isOcupada()) {
-                            colindante = true;
-                        }
-                        palabraV.append(this.matrizOcupacio[filaActual][columna].getLetra());
-                        coordenadasPalabra.add(new int[]{filaActual+1, columna+1});
-                        filaActual++;
-                        //if(cambiarBon)System.out.println("Coordenadav22 " + (filaActual) + " " + (columna+1));
-                    }
-                }
-                //System.out.println("palabraV: " + palabraV);
-                //System.out.println("palabraV: " + palabraV.toString());
-                if (haypalabraV) {
-                    String palabraVF = palabraV.toString().replaceAll("\\\\0", "").trim().toUpperCase();
-                    if (palabraVF.length() > 1) { // Verificar explícitamente que la palabra tiene más de una letra
-                        if (algoritmo.esPalabraValida(palabraVF.toString(), this.idioma)) {
-                            //System.out.println("coordenadasV: " + ftop +1 + " " + columna+1);
-                            if(cambiarBon) System.out.println("palabraVpunt: " + palabraVF);
-                            if(cambiarBon) System.out.println("coordenadasV: " + ftop + " " + (columna+1));
-                            for (int[] coordenadaPalabra : coordenadasPalabra) {
-                                int filaPalabra = coordenadaPalabra[0];
-                                int columnaPalabra = coordenadaPalabra[1];
-                                if(cambiarBon)System.out.println("coordenadas ocupadasV: " + filaPalabra + " " + columnaPalabra);
-                                
-                            }
-                            n += algoritmo.calcularPuntuacion(palabraVF, ftop+1, columna+1, false, cambiarBon);
-                            if(cambiarBon) {
-                                if (jugador instanceof Humano) ++contadorHumano;
-                                this.anadirPalabraAJugador(jugador, palabraVF);   
-                                
-                            }
-                        } else {
-                            limpiarMap();
-                            throw new ErrorJuegoException(-7); // Código -5: Espacio en blanco en fila
-                        }
-                    } else {
-                        //System.out.println("Palabra ignorada por tener solo una letra: " + palabraVF.toString());
-                    }
-                }
-            }
-            if((mismaFila && recorrerH1vez) || (!mismaFila && ((columna > 0 && columna <= this.getCols() && this.matrizOcupacio[fila][columna - 1].getLetra()!=("\0")) || (columna>=0 && columna < this.getCols() - 1 && this.matrizOcupacio[fila][columna + 1].getLetra()!=("\0"))))) {
-                List<int[]> coordenadasPalabra = new ArrayList<>();
-                recorrerH1vez = false;
-                // Verificar si hay letra horizonal
-                StringBuilder palabraH = new StringBuilder();
-                boolean haypalabraH = false;
-                int ctop=-1;
-                
-                // Verificar si hay letra a la izquierda
-                if(columna > 0 && columna<=this.getCols() && this.matrizOcupacio[fila][columna - 1].getLetra()!=("\0")) {
-                    haypalabraH = true;
-
-                    int columnaActual = columna - 1;
-
-                    while (columnaActual >=0 && this.matrizOcupacio[fila][columnaActual].getLetra()!=("\0")) {
-                        //System.out.println(this.matrizOcupacio[fila][columnaActual].getLetra());
-                        if(this.matrizOcupacio[fila][columnaActual].isOcupada()) {
-                            colindante = true;
-                        }
-                        
-                        columnaActual--;
-                    }
-
-                    //añadir de izquierda a derecha
-                    ctop = columnaActual+1;
-                    for(int i=columnaActual; i<columna; i++) {
-                        if(i>=0 && i<this.getCols() && fila>=0 && fila<getRows()) {
-                            palabraH.append(this.matrizOcupacio[fila][i].getLetra());
-                            coordenadasPalabra.add(new int[]{fila+1, i+1});
-                        }
-                    }
-                }
-                palabraH.append(this.matrizOcupacio[fila][columna].getLetra());
-                //verificar si hay letra a la derecha
-                if (columna > 0 && columna < this.getCols() - 1 && this.matrizOcupacio[fila][columna + 1].getLetra()!=("\0")) {
-                    if(ctop==-1) ctop=columna;
-                    haypalabraH= true;
-                    int columnaActual = columna + 1;
-                    while (columnaActual < this.getCols() && this.matrizOcupacio[fila][columnaActual].getLetra()!=("\0")) {
-                        if(this.matrizOcupacio[fila][columnaActual].isOcupada()) {
-                            colindante = true;
-                        }
-                        palabraH.append(this.matrizOcupacio[fila][columnaActual].getLetra());
-                        coordenadasPalabra.add(new int[]{fila+1, columnaActual+1});
-                        columnaActual++;
-                    }
-                }
-                //System.out.println("palabraH: " + palabraH);
-                //System.out.println("palabraH: " + palabraH.toString());
-                
-                if (haypalabraH) {
-                    ++ctop;
-                    String palabraHF = palabraH.toString().replaceAll("\\\\0", "").trim().toUpperCase();
-                    if (palabraHF.length() > 1) { // Verificar explícitamente que la palabra tiene más de una letra
-                        if (algoritmo.esPalabraValida(palabraHF.toString(), this.idioma)) {
-                            if(cambiarBon) System.out.println("palabraHpunt: " + palabraHF);
-                            if(cambiarBon) System.out.println("coordenadasH: " + (fila +1)+ " " +ctop );
-                            for (int[] coordenadaPalabra : coordenadasPalabra) {
-                                int filaPalabra = coordenadaPalabra[0];
-                                int columnaPalabra = coordenadaPalabra[1];
-                                if(cambiarBon) System.out.println("coordenadas ocupadasH: " + filaPalabra + " " + columnaPalabra);
-                            }
-                            //System.out.println("coordinadasH: " + ctop +1 + " " + fila +1);
-
-                            n+=algoritmo.calcularPuntuacion(palabraHF, fila+1, ctop, true, cambiarBon);
-                            if(cambiarBon){
-                                if (jugador instanceof Humano) ++contadorHumano;
-                                System.out.println("puntuacionH: " + n);
-                                this.anadirPalabraAJugador(jugador, palabraHF);
-                                System.out.println("Palabra: " + palabraHF + " Coordenadas: " + coordenadasPalabra);
-                            }
-                        } else {
-                            limpiarMap();
-                            throw new ErrorJuegoException(-7); // Código -5: Espacio en blanco en fila
-                        }
-                    } else {
-                        //System.out.println("Palabra ignorada por tener solo una letra: " + palabraHF.toString());
-                    }
-                }
-
+        if (cambiarBon) {
+            for (String palabra : palabras) {
+                if (jugador instanceof Humano) ++contadorHumano;
+                this.anadirPalabraAJugador(jugador, palabra);
             }
         }
+        return n;
+    }
 
-        // Si hay letras contiguas, agregar la palabra a la lista
-        if(!this.estalimpioTablero() && !colindante) {
-            limpiarMap();
-            throw new ErrorJuegoException(-6); // Código -5: Espacio en blanco en fila
+    /**
+     * Confirma las fichas de una jugada ya puntuada: marca sus casillas como
+     * ocupadas y anula su bonificación, que solo cuenta en el turno en que se
+     * cubre la casilla.
+     *
+     * @param coordenadasLetras Coordenadas de las fichas de la jugada.
+     */
+    public void confirmarFichas(List<int[]> coordenadasLetras) {
+        for (int[] coordenada : coordenadasLetras) {
+            setCasillaOcupada(coordenada[0], coordenada[1]);
+            setBonificacionCasilla(coordenada[0], coordenada[1], 0);
         }
-        return n;
     }
     
     /**
@@ -839,7 +939,14 @@ public class Tablero implements Serializable {
      * @param col La columna de la casilla.
      */
     public void setCasillaOcupada(int fila, int col) {
+        boolean nueva = !this.matrizOcupacio[fila-1][col-1].isOcupada();
         this.matrizOcupacio[fila-1][col-1].setOcupada(true);
+        if (nueva && compacto != null) {
+            compacto.colocar(fila - 1, col - 1, codigoCasilla(fila - 1, col - 1));
+        }
+        if (nueva && lexicoCruces != null) {
+            actualizarCruces(fila - 1, col - 1);
+        }
     }
 
 }
@@ -0,0 +1,227 @@
+package dominio;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Núcleo compacto del tablero de 15x15 sobre vectores primitivos: el código
+ * de la ficha de cada casilla en un {@code byte[225]}, la ocupación en un
+ * mapa de bits por fila y otro por columna, y las bonificaciones en una
+ * tabla estática compartida.  Copiarlo cuesta tres vectores pequeños y
+ * colocar o quitar una ficha no crea ningún objeto, así que sirve para
+ * simular jugadas sin clonar las 225 {@link Casilla} del {@link Tablero}.
+ * </p>
+ * <p>
+ * Las coordenadas son en base 0 y la casilla ({@code f}, {@code c}) tiene el
+ * índice {@code f * TAMANO + c}.  Los códigos de ficha son los del
+ * {@link Alfabeto} del idioma (menores que 127).
+ * </p>
+ */
+public class TableroCompacto {
+
+    /** Número de filas y de columnas del tablero. */
+    public static final int TAMANO = 15;
+
+    /** Número de casillas del tablero. */
+    public static final int CASILLAS = TAMANO * TAMANO;
+
+    /** Fila y columna de la casilla central (base 0). */
+    public static final int CENTRO = TAMANO / 2;
+
+    /** Máscara con un bit por casilla de una fila o columna. */
+    private static final int MASCARA = (1 << TAMANO) - 1;
+
+    /**
+     * Bonificación de cada casilla: 0 ninguna, 1 doble letra, 2 triple letra,
+     * 3 doble palabra, 4 triple palabra.
+     */
+    private static final byte[] BONIFICACIONES = new byte[CASILLAS];
+
+    static {
+        for (int row = 1; row <= TAMANO; row++) {
+            for (int col = 1; col <= TAMANO; col++) {
+                int tiposBonus = 0;
+                if ((row == 1 || row == 15) && (col == 1 || col == 8 || col == 15)) {
+                    tiposBonus = 4; // Triple word score
+                } else if ((row == 1 || row == 15) && (col == 4 || col == 12)) {
+                    tiposBonus = 1; // Double letter score
+                } else if ((row == 3 || row == 13) && (col == 7 || col == 9)) {
+                    tiposBonus = 1; // Double letter score
+                } else if ((row == 4 || row == 12) && (col == 8 || col == 1 || col == 15)) {
+                    tiposBonus = 1; // Double letter score
+                } else if ((row == 7 || row == 9) && (col == 7 || col == 9 || col == 3 || col == 13)) {
+                    tiposBonus = 1; // Double letter score
+                } else if ((row == 8) && (col == 4 || col == 12)) {
+                    tiposBonus = 1; // Double letter score
+                } else if (row == 8 && col == 8) {
+                    tiposBonus = 3; // double word score
+                } else if (row == 8 && (col == 1 || col == 15)) {
+                    tiposBonus = 4; // Triple word score
+                } else if ((row == 6 || row == 10) && (col == 2 || col == 6 || col == 10 || col == 14)) {
+                    tiposBonus = 2; // Triple letter score
+                } else if ((row == 2 || row == 14) && (col == 6 || col == 10)) {
+                    tiposBonus = 2; // Triple letter score
+                } else if (row == col || row + col == 16) {
+                    tiposBonus = 3; // double word
+                }
+                BONIFICACIONES[(row - 1) * TAMANO + (col - 1)] = (byte) tiposBonus;
+            }
+        }
+    }
+
+    /** Código de la ficha de cada casilla, o {@link Tablero#VACIA}. */
+    private final byte[] fichas;
+
+    /** Ocupación por filas: el bit {@code c} de {@code filas[f]} indica que (f, c) está ocupada. */
+    private final int[] filas;
+
+    /** Ocupación por columnas: el bit {@code f} de {@code columnas[c]} indica que (f, c) está ocupada. */
+    private final int[] columnas;
+
+    /** Número de fichas colocadas. */
+    private int numFichas;
+
+    /**
+     * Crea un tablero compacto vacío.
+     */
+    public TableroCompacto() {
+        this.fichas = new byte[CASILLAS];
+        Arrays.fill(fichas, (byte) Tablero.VACIA);
+        this.filas = new int[TAMANO];
+        this.columnas = new int[TAMANO];
+    }
+
+    /**
+     * Constructor de copia: solo copia los tres vectores primitivos.
+     *
+     * @param original Tablero compacto a copiar.
+     */
+    public TableroCompacto(TableroCompacto original) {
+        this.fichas = original.fichas.clone();
+        this.filas = original.filas.clone();
+        this.columnas = original.columnas.clone();
+        this.numFichas = original.numFichas;
+    }
+
+    /**
+     * Devuelve la bonificación de la tabla estándar de una casilla.
+     *
+     * @param f Fila (base 0).
+     * @param c Columna (base 0).
+     * @return Tipo de bonificación (0 a 4).
+     */
+    public static int getBonificacion(int f, int c) {
+        return BONIFICACIONES[f * TAMANO + c];
+    }
+
+    /**
+     * @param f Fila (base 0).
+     * @param c Columna (base 0).
+     * @return Código de la ficha de la casilla, o {@link Tablero#VACIA}.
+     */
+    public int getFicha(int f, int c) {
+        return fichas[f * TAMANO + c];
+    }
+
+    /**
+     * @param indice Índice de la casilla ({@code f * TAMANO + c}).
+     * @return Código de la ficha de la casilla, o {@link Tablero#VACIA}.
+     */
+    public int getFicha(int indice) {
+        return fichas[indice];
+    }
+
+    /**
+     * @param f Fila (base 0).
+     * @param c Columna (base 0).
+     * @return {@code true} si la casilla tiene ficha.
+     */
+    public boolean estaOcupada(int f, int c) {
+        return (filas[f] >>> c & 1) != 0;
+    }
+
+    /**
+     * Coloca una ficha en una casilla libre.
+     *
+     * @param f      Fila (base 0).
+     * @param c      Columna (base 0).
+     * @param codigo Código de la ficha (o {@link Tablero#DESCONOCIDA}).
+     * @throws IllegalArgumentException si la casilla ya está ocupada.
+     */
+    public void colocar(int f, int c, int codigo) {
+        if (estaOcupada(f, c)) {
+            throw new IllegalArgumentException("La casilla (" + f + ", " + c + ") ya está ocupada.");
+        }
+        fichas[f * TAMANO + c] = (byte) codigo;
+        filas[f] |= 1 << c;
+        columnas[c] |= 1 << f;
+        numFichas++;
+    }
+
+    /**
+     * Quita la ficha de una casilla ocupada (deshace {@link #colocar}).
+     *
+     * @param f Fila (base 0).
+     * @param c Columna (base 0).
+     */
+    public void quitar(int f, int c) {
+        if (!estaOcupada(f, c)) return;
+        fichas[f * TAMANO + c] = (byte) Tablero.VACIA;
+        filas[f] &= ~(1 << c);
+        columnas[c] &= ~(1 << f);
+        numFichas--;
+    }
+
+    /**
+     * @param f Fila (base 0).
+     * @return Mapa de bits de las casillas ocupadas de la fila.
+     */
+    public int getFila(int f) {
+        return filas[f];
+    }
+
+    /**
+     * @param c Columna (base 0).
+     * @return Mapa de bits de las casillas ocupadas de la columna.
+     */
+    public int getColumna(int c) {
+        return columnas[c];
+    }
+
+    /**
+     * Calcula los anclajes de una fila con operaciones de bits: casillas
+     * libres con una ficha a la izquierda, a la derecha, encima o debajo.  Si
+     * el tablero está vacío, el único anclaje es la casilla central.
+     *
+     * @param f Fila (base 0).
+     * @return Mapa de bits de los anclajes de la fila.
+     */
+    public int getAnclajesFila(int f) {
+        if (numFichas == 0) {
+            return f == CENTRO ? 1 << CENTRO : 0;
+        }
+        int vecinas = filas[f] << 1 | filas[f] >>> 1;
+        if (f > 0) vecinas |= filas[f - 1];
+        if (f < TAMANO - 1) vecinas |= filas[f + 1];
+        return vecinas & ~filas[f] & MASCARA;
+    }
+
+    /**
+     * @param f Fila (base 0).
+     * @param c Columna (base 0).
+     * @return {@code true} si la casilla es un anclaje.
+     */
+    public boolean esAnclaje(int f, int c) {
+        return (getAnclajesFila(f) >>> c & 1) != 0;
+    }
+
+    /** @return número de fichas colocadas */
+    public int getNumFichas() {
+        return numFichas;
+    }
+
+    /** @return {@code true} si no hay ninguna ficha */
+    public boolean estaVacio() {
+        return numFichas == 0;
+    }
+}
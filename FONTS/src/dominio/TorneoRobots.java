@@ -0,0 +1,304 @@
+package dominio;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Torneo de autojuego entre robots para medir el rendimiento del
+ * {@link Algoritmo} y ajustar las estrategias.  Juega partidas completas
+ * entre robots con un {@link PerfilRobot} cada uno, repartidas entre varios
+ * hilos, sobre {@link MotorJuego}s independientes.  La partida {@code i} usa
+ * un {@link Saco} con semilla {@code semilla + i}, así que con la misma
+ * semilla los torneos reparten las mismas fichas (las simulaciones de Monte
+ * Carlo y los plazos pueden cambiar las jugadas).  La tarea de Gradle
+ * {@code torneoRobots} ejecuta {@link #main(String[])}.
+ * </p>
+ * <p>
+ * El informe da partidas y jugadas por segundo, la latencia media y el
+ * percentil 99 de cada turno (desde que el robot empieza a pensar hasta que
+ * tiene la jugada) y la distribución de las puntuaciones finales y las
+ * victorias de cada jugador.
+ * </p>
+ * <p>
+ * Cada partida ocupa como mucho un hilo a la vez: los robots generan y
+ * simulan en serie, en el hilo de su búsqueda, y el turno siguiente no empieza
+ * hasta que la búsqueda anterior se ha detenido.  Así el número de hilos del
+ * torneo limita los núcleos que usa y las cifras son comparables.
+ * </p>
+ */
+public class TorneoRobots {
+
+    /** Léxico del idioma. */
+    private final Lexico lexico;
+
+    /** Perfil de cada jugador, en orden de juego. */
+    private final List<PerfilRobot> perfiles;
+
+    /** Semilla del saco de la primera partida. */
+    private final long semilla;
+
+    /**
+     * Crea el torneo.
+     *
+     * @param lexico   Léxico del idioma.
+     * @param perfiles Perfil de cada jugador, en orden de juego (al menos dos).
+     * @param semilla  Semilla del saco de la primera partida.
+     * @throws IllegalArgumentException si hay menos de dos jugadores.
+     */
+    public TorneoRobots(Lexico lexico, List<PerfilRobot> perfiles, long semilla) {
+        if (perfiles.size() < 2) {
+            throw new IllegalArgumentException("Un torneo necesita al menos dos robots.");
+        }
+        this.lexico = lexico;
+        this.perfiles = new ArrayList<>(perfiles);
+        this.semilla = semilla;
+    }
+
+    /**
+     * Juega una partida completa.
+     *
+     * @param numero Número de la partida; fija la semilla de su saco.
+     * @return Resultado de la partida.
+     * @throws InterruptedException si se interrumpe el hilo mientras un robot piensa.
+     */
+    public ResultadoPartida jugarPartida(int numero) throws InterruptedException {
+        MotorJuego motor = new MotorJuego(lexico, perfiles.size(), new Saco(semilla + numero));
+        Tablero tablero = motor.getTablero();
+        List<Robot> robots = new ArrayList<>();
+        for (int j = 0; j < perfiles.size(); j++) {
+            Robot robot = new Robot("Robot" + (j + 1), new Algoritmo(lexico, tablero), tablero);
+            robot.setPerfil(perfiles.get(j));
+            if (robot.getEstrategia() instanceof EstrategiaMonteCarlo) {
+                // Sin el ejecutor compartido: cada partida simula en el hilo de su búsqueda
+                ((EstrategiaMonteCarlo) robot.getEstrategia()).setEjecutor(null, 1);
+            }
+            robots.add(robot);
+        }
+
+        List<Long> latencias = new ArrayList<>();
+        int jugadas = 0;
+        EstadoJuego estado = motor.getEstado();
+        while (!estado.isTerminada()) {
+            int turno = estado.getTurno();
+            Robot robot = robots.get(turno);
+            robot.setFichas(motor.getAtril(turno));
+            robot.setFichasNoVistas(motor.getFichasNoVistas(turno));
+            robot.setFichasRival(motor.getFichasRival(turno));
+
+            long inicio = System.nanoTime();
+            BusquedaJugada busqueda = robot.pensar(tablero);
+            Movimiento jugada;
+            try {
+                jugada = busqueda.getResultado().get();
+            } catch (ExecutionException e) {
+                jugada = null; // la búsqueda nunca termina con excepción
+            }
+            latencias.add(System.nanoTime() - inicio);
+            // La fase cancelada al vencer el plazo no debe solaparse con el turno siguiente
+            busqueda.esperarFin();
+
+            if (jugada == null) {
+                estado = motor.pasar();
+                continue;
+            }
+            try {
+                estado = motor.jugar(jugada);
+                jugadas++;
+            } catch (Tablero.ErrorJuegoException | IllegalArgumentException e) {
+                // Una jugada generada siempre es válida; si no lo es se cuenta como pase
+                estado = motor.pasar();
+            }
+        }
+        long[] nanos = new long[latencias.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = latencias.get(i);
+        }
+        return new ResultadoPartida(estado.getPuntuaciones(), estado.getGanador(), estado.getNumTurno(), jugadas, nanos);
+    }
+
+    /**
+     * Juega un torneo repartiendo las partidas entre varios hilos.
+     *
+     * @param partidas Número de partidas.
+     * @param hilos    Número de hilos.
+     * @return Resultado de cada partida, en orden.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws ExecutionException si alguna partida falla.
+     */
+    public List<ResultadoPartida> jugar(int partidas, int hilos) throws InterruptedException, ExecutionException {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.max(1, hilos));
+        try {
+            List<Callable<ResultadoPartida>> tareas = new ArrayList<>();
+            for (int i = 0; i < partidas; i++) {
+                int numero = i;
+                tareas.add(() -> jugarPartida(numero));
+            }
+            List<ResultadoPartida> resultados = new ArrayList<>();
+            for (Future<ResultadoPartida> resultado : ejecutor.invokeAll(tareas)) {
+                resultados.add(resultado.get());
+            }
+            return resultados;
+        } finally {
+            ejecutor.shutdown();
+        }
+    }
+
+    /**
+     * Escribe el informe de un torneo.
+     *
+     * @param salida     Destino.
+     * @param resultados Resultados de las partidas.
+     * @param nanos      Duración del torneo, en nanosegundos.
+     */
+    public void informar(PrintStream salida, List<ResultadoPartida> resultados, long nanos) {
+        double segundos = nanos / 1e9;
+        int turnos = 0;
+        int jugadas = 0;
+        int empates = 0;
+        List<Long> latencias = new ArrayList<>();
+        int[] victorias = new int[perfiles.size()];
+        int[][] puntuaciones = new int[perfiles.size()][resultados.size()];
+        for (int p = 0; p < resultados.size(); p++) {
+            ResultadoPartida resultado = resultados.get(p);
+            turnos += resultado.getTurnos();
+            jugadas += resultado.getJugadas();
+            for (long latencia : resultado.getLatenciasNanos()) {
+                latencias.add(latencia);
+            }
+            if (resultado.getGanador() < 0) {
+                empates++;
+            } else {
+                victorias[resultado.getGanador()]++;
+            }
+            for (int j = 0; j < perfiles.size(); j++) {
+                puntuaciones[j][p] = resultado.getPuntuacion(j);
+            }
+        }
+        latencias.sort(null);
+        double media = latencias.stream().mapToLong(Long::longValue).average().orElse(0) / 1e6;
+
+        salida.printf(Locale.ROOT, "%d partidas (%s) en %.1f s con semilla %d%n",
+                resultados.size(), lexico.getIdioma(), segundos, semilla);
+        salida.printf(Locale.ROOT, "  %.2f partidas/s, %.1f jugadas/s (%d jugadas en %d turnos)%n",
+                resultados.size() / segundos, jugadas / segundos, jugadas, turnos);
+        salida.printf(Locale.ROOT, "  latencia por turno: media %.1f ms, p99 %.1f ms, máxima %.1f ms%n",
+                media, percentil(latencias, 0.99) / 1e6, percentil(latencias, 1.0) / 1e6);
+        for (int j = 0; j < perfiles.size(); j++) {
+            int[] puntos = puntuaciones[j];
+            Arrays.sort(puntos);
+            salida.printf(Locale.ROOT, "  Robot%d (%s): %d victorias, puntos media %.1f, mín %d, p10 %d, mediana %d, p90 %d, máx %d%n",
+                    j + 1, perfiles.get(j).getNombre(), victorias[j], Arrays.stream(puntos).average().orElse(0),
+                    percentil(puntos, 0), percentil(puntos, 0.1), percentil(puntos, 0.5),
+                    percentil(puntos, 0.9), percentil(puntos, 1.0));
+        }
+        salida.println("  empates: " + empates);
+    }
+
+    /**
+     * @return percentil {@code q} (entre 0 y 1) de una lista ordenada, o 0 si está vacía
+     */
+    private static long percentil(List<Long> ordenados, double q) {
+        if (ordenados.isEmpty()) return 0;
+        return ordenados.get((int) Math.min(ordenados.size() - 1, Math.ceil(q * ordenados.size()) - (q > 0 ? 1 : 0)));
+    }
+
+    /**
+     * @return percentil {@code q} (entre 0 y 1) de un array ordenado, o 0 si está vacío
+     */
+    private static int percentil(int[] ordenados, double q) {
+        if (ordenados.length == 0) return 0;
+        return ordenados[(int) Math.min(ordenados.length - 1, Math.ceil(q * ordenados.length) - (q > 0 ? 1 : 0))];
+    }
+
+    /**
+     * Resultado de una partida del torneo.
+     */
+    public static class ResultadoPartida {
+
+        /** Puntuación final de cada jugador. */
+        private final int[] puntuaciones;
+
+        /** Jugador ganador, o -1 si hay empate. */
+        private final int ganador;
+
+        /** Turnos jugados, incluidos los pases. */
+        private final int turnos;
+
+        /** Turnos en los que se ha colocado una palabra. */
+        private final int jugadas;
+
+        /** Latencia de cada turno, en nanosegundos. */
+        private final long[] latenciasNanos;
+
+        ResultadoPartida(int[] puntuaciones, int ganador, int turnos, int jugadas, long[] latenciasNanos) {
+            this.puntuaciones = puntuaciones;
+            this.ganador = ganador;
+            this.turnos = turnos;
+            this.jugadas = jugadas;
+            this.latenciasNanos = latenciasNanos;
+        }
+
+        /**
+         * @param jugador Índice del jugador.
+         * @return puntuación final del jugador
+         */
+        public int getPuntuacion(int jugador) {
+            return puntuaciones[jugador];
+        }
+
+        /** @return jugador ganador, o -1 si hay empate */
+        public int getGanador() {
+            return ganador;
+        }
+
+        /** @return turnos jugados, incluidos los pases */
+        public int getTurnos() {
+            return turnos;
+        }
+
+        /** @return turnos en los que se ha colocado una palabra */
+        public int getJugadas() {
+            return jugadas;
+        }
+
+        /** @return latencia de cada turno, en nanosegundos */
+        public long[] getLatenciasNanos() {
+            return latenciasNanos.clone();
+        }
+    }
+
+    /**
+     * Juega un torneo y escribe el informe por la salida estándar.
+     *
+     * @param args idioma (por defecto {@code ingles}), número de partidas (por
+     *             defecto 100), número de hilos (por defecto, los procesadores
+     *             disponibles), semilla (por defecto 1) y perfiles de los
+     *             robots separados por comas (por defecto
+     *             {@code PRINCIPIANTE,PRINCIPIANTE}).
+     * @throws Exception si alguna partida falla.
+     */
+    public static void main(String[] args) throws Exception {
+        String idioma = args.length > 0 ? args[0] : "ingles";
+        int partidas = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long semilla = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        List<PerfilRobot> perfiles = new ArrayList<>();
+        for (String perfil : (args.length > 4 ? args[4] : "PRINCIPIANTE,PRINCIPIANTE").split(",")) {
+            perfiles.add(PerfilRobot.valueOf(perfil.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        TorneoRobots torneo = new TorneoRobots(RegistroLexicos.getInstance().getLexico(idioma), perfiles, semilla);
+        long inicio = System.nanoTime();
+        List<ResultadoPartida> resultados = torneo.jugar(partidas, hilos);
+        torneo.informar(System.out, resultados, System.nanoTime() - inicio);
+    }
+}
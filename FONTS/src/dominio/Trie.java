@@ -2,7 +2,6 @@ package dominio;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.List;
 
 /**
  * La clase Trie implementa una estructura de datos de tipo árbol de prefijos (Trie),
@@ -50,32 +49,17 @@ public class Trie {
     }
 
     /**
-     * Inserta una palabra en el Trie.
+     * Inserta una palabra en el Trie, con una arista por ficha del alfabeto
+     * (los dígrafos ocupan una sola arista).
      *
-     * @param word La palabra que se desea insertar.
+     * @param word     La palabra que se desea insertar.
+     * @param alfabeto Alfabeto del idioma de la palabra.
      */
-    public void insert(String word, List<String> letrasEspeciales) {
+    public void insert(String word, Alfabeto alfabeto) {
         TrieNode current = root;
-        for (int i = 0; i < word.length();) {
-            String letra = String.valueOf(word.charAt(i));
-            boolean letraEspecialEncontrada = false;
-
-            for (String especial : letrasEspeciales) {
-                if (i + especial.length() <= word.length() &&
-                    word.substring(i, i + especial.length()).equals(especial)) {
-                    letra = especial;
-                    i += especial.length();
-                    letraEspecialEncontrada = true;
-                    break;
-                }
-            }
-
-            if (!letraEspecialEncontrada) {
-                i++;
-            }
-
-            current.children.putIfAbsent(letra, new TrieNode());
-            current = current.children.get(letra);
+        for (byte codigo : alfabeto.codificar(word)) {
+            String letra = alfabeto.getLetra(codigo & 0xFF);
+            current = current.children.computeIfAbsent(letra, l -> new TrieNode());
         }
         current.isEndOfWord = true;
     }
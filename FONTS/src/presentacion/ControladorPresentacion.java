@@ -4,6 +4,7 @@ import javax.swing.*;
 import java.awt.CardLayout;
 import dominio.ControladorDeDominio;
 import dominio.ControladorPartida;
+import dominio.PerfilRobot;
 import dominio.Usuario;
 import dominio.Tablero;
 import dominio.Estadistica;
@@ -222,10 +223,11 @@ public class ControladorPresentacion {
      * @param nombre   Nombre de la partida.
      * @param idioma   Idioma seleccionado.
      * @param numBots  Número de bots.
+     * @param perfil   Perfil de dificultad de los bots.
      */
-    public void crearPartida(String nombre, String idioma, int numBots) {
+    public void crearPartida(String nombre, String idioma, int numBots, PerfilRobot perfil) {
         ControladorPartida cp = controladorDeDominio.getControladorPartida();
-        cp.crearPartida(nombre, idioma, numBots);
+        cp.crearPartida(nombre, idioma, numBots, perfil);
         this.vistaPartida = new VistaPartida(this);
         panelPrincipal.add(vistaPartida, "PARTIDA");
     }
@@ -1,12 +1,14 @@
 package presentacion;
 
+import dominio.PerfilRobot;
+
 import javax.swing.*;
 import javax.swing.plaf.basic.BasicComboBoxUI;
 import java.awt.*;
 
 /**
  * VistaCrearPartida representa la interfaz gráfica para la creación de una nueva partida en el sistema Scrabble.
- * Permite al usuario introducir el nombre de la partida, seleccionar el idioma y el número de bots, y confirmar o cancelar la creación.
+ * Permite al usuario introducir el nombre de la partida, seleccionar el idioma, el número de bots y su dificultad, y confirmar o cancelar la creación.
  *
  * <p>Componentes principales:
  * <ul>
@@ -25,6 +27,7 @@ public class VistaCrearPartida extends JPanel {
     private JTextField txtNombrePartida;
     private JComboBox<String> comboIdiomas;
     private JComboBox<Integer> comboNumBots;
+    private JComboBox<PerfilRobot> comboPerfil;
 
     /**
      * Crea la vista de creación de partida, inicializando los componentes gráficos y los listeners de los botones.
@@ -119,6 +122,38 @@ public class VistaCrearPartida extends JPanel {
         panelNumBots.add(Box.createRigidArea(new Dimension(10, 0)));
         panelNumBots.add(comboNumBots);
 
+        JPanel panelPerfil = new JPanel();
+        panelPerfil.setLayout(new BoxLayout(panelPerfil, BoxLayout.X_AXIS));
+        panelPerfil.setBackground(new Color(34, 34, 34));
+        panelPerfil.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JLabel lblPerfil = new JLabel("Dificultad de los bots:");
+        lblPerfil.setFont(new Font("Arial", Font.PLAIN, 16));
+        lblPerfil.setForeground(new Color(245, 245, 245));
+
+        comboPerfil = new JComboBox<>(PerfilRobot.values());
+        comboPerfil.setSelectedItem(PerfilRobot.EXPERTO);
+        comboPerfil.setMaximumSize(new Dimension(150, 30));
+        comboPerfil.setBorder(new RoundedBorder(15));
+        comboPerfil.setBackground(new Color(34, 34, 34));
+        comboPerfil.setForeground(new Color(220, 220, 220));
+        comboPerfil.setOpaque(false);
+        comboPerfil.setUI(new BasicComboBoxUI() {
+            @Override
+            protected JButton createArrowButton() {
+                JButton arrowButton = new JButton("\u25BC");
+                arrowButton.setFont(new Font("Arial", Font.BOLD, 12));
+                arrowButton.setBackground(new Color(34, 34, 34));
+                arrowButton.setForeground(new Color(200, 200, 200));
+                arrowButton.setBorder(null);
+                return arrowButton;
+            }
+        });
+
+        panelPerfil.add(lblPerfil);
+        panelPerfil.add(Box.createRigidArea(new Dimension(10, 0)));
+        panelPerfil.add(comboPerfil);
+
         panelCentral.add(lblNombrePartida);
         panelCentral.add(Box.createRigidArea(new Dimension(0, 10)));
         panelCentral.add(txtNombrePartida);
@@ -128,6 +163,8 @@ public class VistaCrearPartida extends JPanel {
         panelCentral.add(comboIdiomas);
         panelCentral.add(Box.createRigidArea(new Dimension(0, 20)));
         panelCentral.add(panelNumBots);
+        panelCentral.add(Box.createRigidArea(new Dimension(0, 20)));
+        panelCentral.add(panelPerfil);
         panelCentral.add(Box.createRigidArea(new Dimension(0, 30)));
 
         JPanel panelBotones = new JPanel();
@@ -150,6 +187,7 @@ public class VistaCrearPartida extends JPanel {
             String nombrePartida = txtNombrePartida.getText().trim();
             String idiomaSeleccionado = (String) comboIdiomas.getSelectedItem();
             Integer numBots = (Integer) comboNumBots.getSelectedItem();
+            PerfilRobot perfil = (PerfilRobot) comboPerfil.getSelectedItem();
         
             if (nombrePartida.isEmpty()) {
                 JOptionPane.showMessageDialog(this, "El nombre de la partida es obligatorio.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -159,7 +197,7 @@ public class VistaCrearPartida extends JPanel {
                 JOptionPane.showMessageDialog(this, "Debe seleccionar al menos un bot.", "Error", JOptionPane.ERROR_MESSAGE);
             } else {
                 try {
-                    controlador.crearPartida(nombrePartida, idiomaSeleccionado, numBots);
+                    controlador.crearPartida(nombrePartida, idiomaSeleccionado, numBots, perfil);
                     controlador.mostrarVista("PARTIDA");
                 } catch (IllegalArgumentException ex) {
                     JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
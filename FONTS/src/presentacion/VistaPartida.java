@@ -7,6 +7,7 @@ import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import dominio.Vista;
 
 /**
@@ -41,6 +42,11 @@ public class VistaPartida extends JPanel {
      */
     private JButton btnConfirmar, btnCancelarMovimiento, btnPasarTurno;
 
+    /**
+     * Botones para finalizar, guardar y abandonar la partida.
+     */
+    private JButton btnFinalizarPartida, btnGuardarPartida, btnVolverMenu;
+
     /**
      * Botón de letra actualmente seleccionado en el atril.
      */
@@ -285,7 +291,7 @@ public class VistaPartida extends JPanel {
         panelControles.add(btnPasarTurno);
         panelControles.add(Box.createRigidArea(new Dimension(0, separacion)));
 
-        JButton btnFinalizarPartida = new JButton("Finalizar Partida");
+        btnFinalizarPartida = new JButton("Finalizar Partida");
         btnFinalizarPartida.setFont(new Font("Arial", Font.BOLD, 14));
         btnFinalizarPartida.setBackground(new Color(255, 182, 193));
         btnFinalizarPartida.setForeground(new Color(34, 34, 34));
@@ -303,7 +309,7 @@ public class VistaPartida extends JPanel {
         panelControles.add(btnFinalizarPartida);
         panelControles.add(Box.createRigidArea(new Dimension(0, separacion)));
 
-        JButton btnGuardarPartida = new JButton("Guardar Partida");
+        btnGuardarPartida = new JButton("Guardar Partida");
         btnGuardarPartida.setFont(new Font("Arial", Font.BOLD, 14));
         btnGuardarPartida.setBackground(new Color(144, 238, 144));
         btnGuardarPartida.setForeground(new Color(34, 34, 34));
@@ -321,7 +327,7 @@ public class VistaPartida extends JPanel {
         panelControles.add(btnGuardarPartida);
         panelControles.add(Box.createRigidArea(new Dimension(0, separacion)));
 
-        JButton btnVolverMenu = new JButton("Volver al menú");
+        btnVolverMenu = new JButton("Volver al menú");
         btnVolverMenu.setFont(new Font("Arial", Font.BOLD, 14));
         btnVolverMenu.setBackground(new Color(255, 239, 213));
         btnVolverMenu.setForeground(new Color(34, 34, 34));
@@ -556,8 +562,8 @@ public class VistaPartida extends JPanel {
         jugadaActual.clear();
         String nombreJugadorActual = controlador.getTurnoActual();
         if (nombreJugadorActual.startsWith("Bot")) {
+            // La jugada se busca fuera del hilo de Swing; al terminar se pasa el turno
             jugarTurnoRobot();
-            pasarTurno();
         } else {
             cargarTablero();
             actualizarSaco();
@@ -628,39 +634,95 @@ public class VistaPartida extends JPanel {
     }
 
     /**
-     * Gestiona el turno del robot, mostrando la jugada realizada y actualizando la vista.
+     * Gestiona el turno del robot.  La jugada se calcula en segundo plano con
+     * un {@link SwingWorker}, de modo que la interfaz no se bloquea mientras
+     * el robot piensa (como mucho el plazo del robot); al terminar se muestra
+     * la jugada, se actualiza la vista y se pasa el turno.
      */
     private void jugarTurnoRobot() {
         String nombreJugadorActual = controlador.getTurnoActual();
 
         if (nombreJugadorActual.startsWith("Bot")) {
-            Map<String, List<int[]>> jugadaRobot = controlador.getJugadaRobot();
-            if (jugadaRobot == null) controlador.pasarTurno();
+            habilitarControles(false);
+            new SwingWorker<Map<String, List<int[]>>, Void>() {
+                @Override
+                protected Map<String, List<int[]>> doInBackground() {
+                    return controlador.getJugadaRobot();
+                }
 
-            if (jugadaRobot == null) {
-                JOptionPane.showMessageDialog(this, "El robot no pudo realizar su jugada.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-    
-            for (Map.Entry<String, List<int[]>> entrada : jugadaRobot.entrySet()) {
-                String letra = entrada.getKey();
-                List<int[]> coordenadasList = entrada.getValue();
-    
-                for (int[] coordenadas : coordenadasList) {
-                    int fila = coordenadas[0]-1;
-                    int columna = coordenadas[1]-1;
-    
-                    botonesTablero[fila][columna].setText(letra);
+                @Override
+                protected void done() {
+                    habilitarControles(true);
+                    Map<String, List<int[]>> jugadaRobot;
+                    try {
+                        jugadaRobot = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        jugadaRobot = null;
+                    }
+                    mostrarJugadaRobot(jugadaRobot);
+                    pasarTurno();
                 }
+            }.execute();
+        }
+    }
+
+    /**
+     * Muestra en el tablero la jugada del robot y actualiza puntuaciones y atril.
+     *
+     * @param jugadaRobot Letras de la jugada y sus coordenadas, o {@code null}
+     *                    si el robot no ha podido jugar.
+     */
+    private void mostrarJugadaRobot(Map<String, List<int[]>> jugadaRobot) {
+        if (jugadaRobot == null) controlador.pasarTurno();
+
+        if (jugadaRobot == null) {
+            JOptionPane.showMessageDialog(this, "El robot no pudo realizar su jugada.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        for (Map.Entry<String, List<int[]>> entrada : jugadaRobot.entrySet()) {
+            String letra = entrada.getKey();
+            List<int[]> coordenadasList = entrada.getValue();
+
+            for (int[] coordenadas : coordenadasList) {
+                int fila = coordenadas[0]-1;
+                int columna = coordenadas[1]-1;
+
+                botonesTablero[fila][columna].setText(letra);
             }
+        }
 
-            actualizarPuntuaciones();
-    
-            actualizarSaco();
-    
-            JOptionPane.showMessageDialog(this, "El robot ha realizado su jugada.", "Turno del Robot", JOptionPane.INFORMATION_MESSAGE);
+        actualizarPuntuaciones();
+
+        actualizarSaco();
+
+        JOptionPane.showMessageDialog(this, "El robot ha realizado su jugada.", "Turno del Robot", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Habilita o deshabilita todo lo que modifica la partida (botones de
+     * control, tablero y atril) mientras el robot calcula su jugada.  Al
+     * habilitarlos, las fichas del atril vacías siguen deshabilitadas.
+     *
+     * @param habilitar {@code true} para habilitarlos.
+     */
+    private void habilitarControles(boolean habilitar) {
+        btnConfirmar.setEnabled(habilitar);
+        btnCancelarMovimiento.setEnabled(habilitar);
+        btnPasarTurno.setEnabled(habilitar);
+        btnFinalizarPartida.setEnabled(habilitar);
+        btnGuardarPartida.setEnabled(habilitar);
+        btnVolverMenu.setEnabled(habilitar);
+        for (JButton[] fila : botonesTablero) {
+            for (JButton boton : fila) {
+                boton.setEnabled(habilitar);
+            }
+        }
+        for (JButton botonLetra : botonesSaco) {
+            botonLetra.setEnabled(habilitar && !botonLetra.getText().isEmpty());
         }
     }
+
     /**
      * Actualiza las puntuaciones de los jugadores en la vista.
      */
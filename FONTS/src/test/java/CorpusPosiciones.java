@@ -0,0 +1,93 @@
+import static org.junit.Assert.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import dominio.Movimiento;
+import dominio.Tablero;
+
+/**
+ * Corpus de posiciones inglesas de los recursos de prueba
+ * (<code>posicionesIngles.txt</code>) que comparten las pruebas de la
+ * generación de movimientos, y claves con las que comparar los movimientos
+ * generados por distintos caminos.
+ */
+public final class CorpusPosiciones {
+
+    /** Posición del corpus: tablero y atril del jugador en turno. */
+    public static class Posicion {
+        Tablero tablero;
+        List<String> atril;
+        /** Número de casillas ocupadas del tablero. */
+        int ocupadas;
+    }
+
+    private CorpusPosiciones() {
+    }
+
+    /**
+     * Lee las posiciones del corpus de los recursos de prueba.
+     *
+     * @return Posiciones, en el orden del fichero.
+     */
+    public static List<Posicion> cargar() throws IOException {
+        List<Posicion> posiciones = new ArrayList<>();
+        try (InputStream entrada = CorpusPosiciones.class.getClassLoader().getResourceAsStream("posicionesIngles.txt")) {
+            assertNotNull("Falta el corpus posicionesIngles.txt", entrada);
+            BufferedReader br = new BufferedReader(new InputStreamReader(entrada));
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (!linea.startsWith("atril ")) continue;
+                Posicion posicion = new Posicion();
+                posicion.atril = new ArrayList<>();
+                for (char c : linea.substring(6).trim().toCharArray()) {
+                    posicion.atril.add(String.valueOf(c));
+                }
+                posicion.tablero = new Tablero();
+                posicion.tablero.setIdioma("ingles");
+                for (int f = 1; f <= 15; f++) {
+                    String fila = br.readLine();
+                    for (int c = 1; c <= 15; c++) {
+                        char letra = fila.charAt(c - 1);
+                        if (letra != '.') {
+                            posicion.tablero.setCasilla(String.valueOf(letra), f, c);
+                            posicion.tablero.setCasillaOcupada(f, c);
+                            posicion.tablero.setBonificacionCasilla(f, c, 0);
+                            posicion.ocupadas++;
+                        }
+                    }
+                }
+                posiciones.add(posicion);
+            }
+        }
+        return posiciones;
+    }
+
+    /**
+     * @return clave (fichas, posiciones, puntuación y valor del resto) de un
+     *         movimiento; las fichas y sus posiciones determinan la palabra
+     */
+    public static String clave(Movimiento movimiento) {
+        StringBuilder clave = new StringBuilder();
+        for (int i = 0; i < movimiento.getFichas().size(); i++) {
+            clave.append(movimiento.getFichas().get(i)).append(Arrays.toString(movimiento.getPosiciones().get(i)));
+        }
+        clave.append('=').append(movimiento.getPuntuacion());
+        clave.append('/').append(Math.round(movimiento.getValorResto() * 1000));
+        return clave.toString();
+    }
+
+    /**
+     * @return claves de los movimientos, en orden
+     */
+    public static List<String> claves(List<Movimiento> movimientos) {
+        List<String> claves = new ArrayList<>();
+        for (Movimiento movimiento : movimientos) {
+            claves.add(clave(movimiento));
+        }
+        return claves;
+    }
+}
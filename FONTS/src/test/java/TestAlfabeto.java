@@ -0,0 +1,84 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import dominio.Alfabeto;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link Alfabeto}.
+ */
+public class TestAlfabeto {
+
+    /**
+     * Los códigos siguen el orden del fichero de puntuaciones.
+     */
+    @Test
+    public void testCargarIngles() {
+        Alfabeto alfabeto = Alfabeto.cargar("ingles");
+
+        assertEquals(26, alfabeto.getNumLetras());
+        assertEquals(0, alfabeto.codigo("A"));
+        assertEquals("A", alfabeto.getLetra(0));
+        assertEquals(Alfabeto.NINGUNA, alfabeto.codigo("Ñ"));
+    }
+
+    /**
+     * Los dígrafos castellanos se reconocen como una sola ficha.
+     */
+    @Test
+    public void testDigrafosCastellano() {
+        Alfabeto alfabeto = Alfabeto.cargar("castellano");
+        String palabra = "CHURRO";
+
+        int ch = alfabeto.leer(palabra, 0);
+        assertEquals("CH", alfabeto.getLetra(ch));
+        assertEquals(2, alfabeto.longitud(ch));
+        assertEquals("U", alfabeto.getLetra(alfabeto.leer(palabra, 2)));
+        assertEquals("RR", alfabeto.getLetra(alfabeto.leer(palabra, 3)));
+        assertEquals("O", alfabeto.getLetra(alfabeto.leer(palabra, 5)));
+    }
+
+    /**
+     * «L·L» del catalán ocupa tres caracteres; una «L» suelta es otra ficha.
+     */
+    @Test
+    public void testDigrafoCatalan() {
+        Alfabeto alfabeto = new Alfabeto("prueba", Arrays.asList("A", "L", "L·L", "NY"));
+
+        assertEquals(2, alfabeto.leer("AL·LA", 1));
+        assertEquals(1, alfabeto.leer("ALA", 1));
+        assertEquals(3, alfabeto.leer("ANY", 1));
+        assertEquals(Alfabeto.NINGUNA, alfabeto.leer("ANA", 1));
+    }
+
+    /**
+     * Un alfabeto no admite letras repetidas.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testLetraRepetida() {
+        new Alfabeto("prueba", Arrays.asList("A", "B", "A"));
+    }
+
+    /**
+     * Una palabra se codifica en una sola pasada y se puntúa con la tabla del alfabeto.
+     */
+    @Test
+    public void testCodificarYPuntuar() {
+        Alfabeto alfabeto = Alfabeto.cargar("castellano");
+        byte[] fichas = alfabeto.codificar("CHURRO");
+
+        assertEquals(4, fichas.length);
+        assertEquals("CHURRO", alfabeto.decodificar(fichas));
+        assertEquals(5 + 1 + 8 + 1, alfabeto.puntuar(fichas));
+        assertEquals(alfabeto.puntuar(fichas), alfabeto.puntuar("CHURRO"));
+    }
+
+    /**
+     * Un carácter que no es ficha no se puede codificar.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCodificarLetraDesconocida() {
+        Alfabeto.cargar("ingles").codificar("AÑO");
+    }
+}
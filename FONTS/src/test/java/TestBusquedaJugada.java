@@ -0,0 +1,131 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import dominio.Algoritmo;
+import dominio.BusquedaJugada;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Robot;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link BusquedaJugada}.
+ * Comprueba que el resultado llegue con la mejor jugada hasta el momento al
+ * terminar, al vencer el plazo o al cancelar, que al vencer el plazo se
+ * detenga la fase en curso y que {@link Robot#pensar} no modifique la partida.
+ */
+public class TestBusquedaJugada {
+
+    private final PrintStream originalOut = System.out;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Movimiento jugada(String palabra, int puntos) {
+        return new Movimiento(Arrays.asList(palabra.split("")), 8, 8, true, puntos, palabra);
+    }
+
+    private static Supplier<Movimiento> lenta(Movimiento movimiento, long ms) {
+        return () -> {
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return movimiento;
+        };
+    }
+
+    @Test
+    public void testTodasLasFases() throws Exception {
+        Movimiento primera = jugada("AT", 2);
+        Movimiento segunda = jugada("CAT", 5);
+        List<Supplier<Movimiento>> fases = Arrays.asList(() -> primera, () -> segunda, () -> null);
+        BusquedaJugada busqueda = BusquedaJugada.iniciar(fases, 5000);
+        assertSame(segunda, busqueda.getResultado().get(5, TimeUnit.SECONDS));
+        assertEquals(3, busqueda.getFasesTerminadas());
+    }
+
+    @Test
+    public void testPlazo() throws Exception {
+        Movimiento rapida = jugada("AT", 2);
+        List<Supplier<Movimiento>> fases = Arrays.asList(() -> rapida, lenta(jugada("CAT", 5), 10_000));
+        long inicio = System.nanoTime();
+        BusquedaJugada busqueda = BusquedaJugada.iniciar(fases, 200);
+        Movimiento resultado = busqueda.getResultado().get(5, TimeUnit.SECONDS);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        assertSame(rapida, resultado);
+        assertSame(rapida, busqueda.getMejorHastaAhora());
+        assertTrue("El resultado ha tardado " + ms + " ms", ms < 2000);
+        // Al vencer el plazo se interrumpe la fase lenta
+        busqueda.esperarFin();
+        ms = (System.nanoTime() - inicio) / 1_000_000;
+        assertTrue("La fase se ha detenido a los " + ms + " ms", ms < 2000);
+    }
+
+    /** El plazo no deja sin jugada: la primera fase termina aunque tarde más. */
+    @Test
+    public void testPlazoEsperaALaPrimeraFase() throws Exception {
+        Movimiento primera = jugada("AT", 2);
+        AtomicBoolean segundaEmpezada = new AtomicBoolean();
+        List<Supplier<Movimiento>> fases = Arrays.asList(lenta(primera, 300), () -> {
+            segundaEmpezada.set(true);
+            return jugada("CAT", 5);
+        });
+        BusquedaJugada busqueda = BusquedaJugada.iniciar(fases, 50);
+        assertSame(primera, busqueda.getResultado().get(5, TimeUnit.SECONDS));
+        busqueda.esperarFin();
+        assertEquals(1, busqueda.getFasesTerminadas());
+        assertFalse(segundaEmpezada.get());
+    }
+
+    @Test
+    public void testCancelar() throws Exception {
+        BusquedaJugada busqueda = BusquedaJugada.iniciar(Arrays.asList(lenta(jugada("AT", 2), 10_000)), 10_000);
+        assertFalse(busqueda.haTerminado());
+        busqueda.cancelar();
+        assertTrue(busqueda.haTerminado());
+        assertNull(busqueda.getResultado().get(1, TimeUnit.SECONDS));
+        assertEquals(0, busqueda.getFasesTerminadas());
+    }
+
+    @Test
+    public void testPensarNoModificaLaPartida() throws Exception {
+        Lexico lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        Tablero tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        Robot robot = new Robot("RobotBusqueda", new Algoritmo(lexico, tablero), tablero);
+        robot.setFichas(new ArrayList<>(Arrays.asList("C", "A", "T", "S", "E", "R", "O")));
+        robot.setPresupuestoMs(1000);
+        String[][] antes = tablero.getTab();
+
+        BusquedaJugada busqueda = robot.pensar(tablero);
+        Movimiento jugada = busqueda.getResultado().get(5, TimeUnit.SECONDS);
+        assertNotNull(jugada);
+        assertArrayEquals(antes, tablero.getTab());
+        assertEquals(7, robot.getFichas().size());
+        assertEquals(0, robot.getPuntuacionPartidaActual());
+
+        Movimiento jugado = robot.jugar(tablero);
+        assertEquals(jugada.getPuntuacion(), jugado.getPuntuacion());
+        assertEquals(jugado.getPuntuacion(), robot.getPuntuacionPartidaActual());
+    }
+}
@@ -0,0 +1,162 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import dominio.Algoritmo;
+import dominio.CacheLineas;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link CacheLineas}.
+ * Comprueba que la generación con caché dé los mismos movimientos que sin
+ * ella, que las líneas que no cambian se reutilicen tras un movimiento, que
+ * se invaliden solo las líneas que toca, que la configuración del generador
+ * forme parte de la clave y que se respete la capacidad en jugadas.
+ */
+public class TestCacheLineas {
+
+    private Lexico lexico;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+    }
+
+    @Test
+    public void testMismosMovimientosConYSinCache() throws IOException {
+        GeneradorMovimientos sinCache = new GeneradorMovimientos(lexico);
+        GeneradorMovimientos conCache = new GeneradorMovimientos(lexico);
+        sinCache.setTablaRestos(lexico.getTablaRestos());
+        conCache.setTablaRestos(lexico.getTablaRestos());
+        CacheLineas cache = new CacheLineas(1 << 20);
+        conCache.setCache(cache);
+        List<CorpusPosiciones.Posicion> corpus = CorpusPosiciones.cargar();
+        for (int ronda = 0; ronda < 2; ronda++) {
+            for (CorpusPosiciones.Posicion posicion : corpus) {
+                assertEquals(CorpusPosiciones.claves(sinCache.generar(posicion.tablero, posicion.atril)),
+                        CorpusPosiciones.claves(conCache.generar(posicion.tablero, posicion.atril)));
+            }
+        }
+        // La segunda ronda se sirve entera de la caché
+        assertEquals(0.5, cache.getTasaAciertos(), 0.05);
+    }
+
+    @Test
+    public void testReutilizaLasLineasQueNoCambian() {
+        Tablero tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        List<String> atril = Arrays.asList("R", "E", "T", "A", "I", "N", "S");
+        Algoritmo algoritmo = new Algoritmo(lexico, tablero);
+        assertNull(algoritmo.getCacheLineas()); // la caché es opcional
+        CacheLineas cache = new CacheLineas();
+        algoritmo.setCacheLineas(cache);
+
+        Movimiento jugada = algoritmo.calcularMejorJugada(Arrays.asList("Q", "U", "I", "E", "T", "L", "Y"));
+        tablero.aplicarMovimiento(jugada);
+        // Otro movimiento: solo las líneas que toca y sus vecinas deben recalcularse
+        Movimiento segunda = algoritmo.calcularMejorJugada(atril);
+        tablero.aplicarMovimiento(segunda);
+        cache.invalidar(segunda);
+        long consultas = cache.getConsultas();
+        long aciertos = cache.getAciertos();
+        GeneradorMovimientos referencia = new GeneradorMovimientos(lexico);
+        referencia.setTablaRestos(lexico.getTablaRestos());
+        assertEquals(CorpusPosiciones.claves(referencia.generar(tablero, atril)),
+                CorpusPosiciones.claves(algoritmo.generarMovimientos(atril)));
+        long nuevasConsultas = cache.getConsultas() - consultas;
+        long nuevosAciertos = cache.getAciertos() - aciertos;
+        assertEquals(30, nuevasConsultas);
+        assertTrue("Aciertos: " + nuevosAciertos, nuevosAciertos > 0 && nuevosAciertos < nuevasConsultas);
+    }
+
+    @Test
+    public void testInvalidarSoloLasLineasTocadas() {
+        Tablero tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        CacheLineas cache = new CacheLineas();
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        generador.setCache(cache);
+        generador.generar(tablero, Arrays.asList("C", "A", "T"));
+        assertEquals(30, cache.getTamano());
+
+        Movimiento movimiento = new Movimiento(Arrays.asList("C", "A", "T"), 8, 7, true, 5, "CAT");
+        movimiento.setCoordenadas(Arrays.asList(new int[]{8, 7}, new int[]{8, 8}, new int[]{8, 9}));
+        cache.invalidar(movimiento);
+        // Filas 7-9 y columnas 6-10
+        assertEquals(30 - 3 - 5, cache.getTamano());
+    }
+
+    /** Una caché compartida por generadores con y sin restos no mezcla sus jugadas. */
+    @Test
+    public void testConfiguracionEnLaClave() throws IOException {
+        CacheLineas cache = new CacheLineas(1 << 20);
+        GeneradorMovimientos conRestos = new GeneradorMovimientos(lexico);
+        conRestos.setTablaRestos(lexico.getTablaRestos());
+        conRestos.setCache(cache);
+        GeneradorMovimientos sinRestos = new GeneradorMovimientos(lexico);
+        sinRestos.setCache(cache);
+        GeneradorMovimientos referencia = new GeneradorMovimientos(lexico);
+        CorpusPosiciones.Posicion posicion = CorpusPosiciones.cargar().get(0);
+        conRestos.generar(posicion.tablero, posicion.atril);
+        assertEquals(CorpusPosiciones.claves(referencia.generar(posicion.tablero, posicion.atril)),
+                CorpusPosiciones.claves(sinRestos.generar(posicion.tablero, posicion.atril)));
+        assertEquals(0, cache.getAciertos());
+    }
+
+    @Test
+    public void testCapacidad() throws IOException {
+        CacheLineas cache = new CacheLineas(40);
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        generador.setCache(cache);
+        for (CorpusPosiciones.Posicion posicion : CorpusPosiciones.cargar()) {
+            generador.generar(posicion.tablero, posicion.atril);
+            assertTrue(cache.getNumJugadas() <= 40);
+        }
+        assertTrue(cache.getTamano() > 0);
+        cache.vaciar();
+        assertEquals(0, cache.getTamano());
+        assertEquals(0, cache.getNumJugadas());
+        assertEquals(0, cache.getConsultas());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacidadNoValida() {
+        new CacheLineas(0);
+    }
+
+    /**
+     * Mide cuánto se ahorra en el turno de un robot, que genera primero la
+     * jugada de mayor valoración y después los candidatos de su estrategia
+     * con el mismo atril.
+     */
+    @Test
+    public void testRendimientoEnUnTurnoDeRobot() throws IOException {
+        List<CorpusPosiciones.Posicion> corpus = CorpusPosiciones.cargar();
+        long[] nanos = new long[2];
+        CacheLineas cache = null;
+        for (int variante = 0; variante < 2; variante++) {
+            for (int ronda = 0; ronda < 3; ronda++) {
+                long inicio = System.nanoTime();
+                for (CorpusPosiciones.Posicion posicion : corpus) {
+                    Algoritmo algoritmo = new Algoritmo(lexico, posicion.tablero);
+                    algoritmo.setCacheLineas(variante == 0 ? null : new CacheLineas());
+                    algoritmo.calcularMejorJugada(posicion.atril);
+                    algoritmo.calcularMejoresJugadas(posicion.atril, 8);
+                    cache = algoritmo.getCacheLineas();
+                }
+                if (ronda > 0) { // la primera ronda es de calentamiento
+                    nanos[variante] += System.nanoTime() - inicio;
+                }
+            }
+        }
+        System.out.printf("Turno de robot: sin caché %d ms, con caché %d ms, %.0f%% de aciertos%n",
+                nanos[0] / 1_000_000, nanos[1] / 1_000_000, 100 * cache.getTasaAciertos());
+        assertEquals(0.5, cache.getTasaAciertos(), 1e-9);
+    }
+}
@@ -0,0 +1,96 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import dominio.ConstructorDAWG;
+import dominio.DAWG;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link ConstructorDAWG}.
+ * Las palabras se codifican con un {@code char} por letra: 'A' = 0, 'B' = 1...
+ */
+public class TestConstructorDAWG {
+
+    private static final String[] ETIQUETAS = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M",
+            "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"};
+
+    private static String codificar(String palabra) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : palabra.toCharArray()) {
+            sb.append((char) (c - 'A'));
+        }
+        return sb.toString();
+    }
+
+    private static boolean contiene(DAWG dawg, String palabra) {
+        int nodo = dawg.getRaiz();
+        boolean fin = false;
+        for (char c : palabra.toCharArray()) {
+            int arista = dawg.arista(nodo, String.valueOf(c));
+            if (arista < 0) {
+                return false;
+            }
+            fin = dawg.esFinDePalabra(arista);
+            nodo = dawg.hijo(arista);
+        }
+        return fin;
+    }
+
+    /**
+     * El DAWG reconoce exactamente las palabras añadidas.
+     */
+    @Test
+    public void testPalabrasAnadidas() {
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        for (String palabra : new String[] {"CASA", "CASAS", "COSA", "COSAS", "PASA"}) {
+            constructor.agregar(codificar(palabra));
+        }
+        DAWG dawg = constructor.construir(ETIQUETAS);
+
+        assertEquals(5, constructor.getNumPalabras());
+        for (String palabra : new String[] {"CASA", "CASAS", "COSA", "COSAS", "PASA"}) {
+            assertTrue(palabra, contiene(dawg, palabra));
+        }
+        for (String palabra : new String[] {"CAS", "COS", "PASAS", "CASO", ""}) {
+            assertFalse(palabra, contiene(dawg, palabra));
+        }
+    }
+
+    /**
+     * Los sufijos comunes se comparten: «CASA(S)» y «COSA(S)» solo difieren en
+     * la segunda letra, así que el grafo mínimo tiene un estado por profundidad.
+     */
+    @Test
+    public void testSufijosCompartidos() {
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        for (String palabra : new String[] {"CASA", "CASAS", "COSA", "COSAS"}) {
+            constructor.agregar(codificar(palabra));
+        }
+        constructor.construir(ETIQUETAS);
+
+        // Estados tras C, tras CA/CO, tras CAS/COS, tras CASA/COSA y el final
+        assertEquals(5, constructor.getNumEstados());
+    }
+
+    /**
+     * Las palabras repetidas se ignoran.
+     */
+    @Test
+    public void testPalabraRepetida() {
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        constructor.agregar(codificar("SOL"));
+        constructor.agregar(codificar("SOL"));
+        constructor.construir(ETIQUETAS);
+
+        assertEquals(1, constructor.getNumPalabras());
+    }
+
+    /**
+     * Una palabra fuera de orden no se acepta.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFueraDeOrden() {
+        ConstructorDAWG constructor = new ConstructorDAWG();
+        constructor.agregar(codificar("SOL"));
+        constructor.agregar(codificar("MAR"));
+    }
+}
@@ -0,0 +1,136 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import dominio.Algoritmo;
+import dominio.EstrategiaMonteCarlo;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Robot;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link EstrategiaMonteCarlo}.
+ * Comprueba que el robot elija uno de los mejores candidatos dentro del
+ * presupuesto de tiempo y sin modificar el tablero de la partida, tanto en
+ * el hilo que llama como repartiendo las simulaciones en un ejecutor.
+ */
+public class TestEstrategiaMonteCarlo {
+
+    private Tablero tablero;
+    private Algoritmo algoritmo;
+    private Robot robot;
+    private final PrintStream originalOut = System.out;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Lexico lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        List<int[]> posiciones = new ArrayList<>();
+        String palabra = "QUIET";
+        for (int i = 0; i < palabra.length(); i++) {
+            tablero.setCasilla(String.valueOf(palabra.charAt(i)), 8, 6 + i);
+            posiciones.add(new int[]{8, 6 + i});
+        }
+        tablero.confirmarFichas(posiciones);
+        algoritmo = new Algoritmo(lexico, tablero);
+        robot = new Robot("RobotMC", algoritmo, tablero);
+        robot.setFichas(new ArrayList<>(Arrays.asList("S", "E", "A", "R", "T", "O", "N")));
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private List<String> noVistas() {
+        return new ArrayList<>(Arrays.asList("A", "E", "I", "O", "U", "L", "N", "R", "S", "T",
+                "D", "G", "B", "C", "M", "P", "F", "H", "V", "W", "Y", "K", "J", "X", "Z", "E", "A"));
+    }
+
+    @Test
+    public void testSinFichasNoVistasJuegaLaMejorValoracion() {
+        EstrategiaMonteCarlo estrategia = new EstrategiaMonteCarlo(5, 100);
+        Movimiento voraz = algoritmo.calcularMejorJugada(robot);
+        Movimiento elegido = estrategia.elegirJugada(algoritmo, robot.getFichas(), tablero, new ArrayList<>());
+        assertEquals(voraz.getValoracion(), elegido.getValoracion(), 1e-9);
+        assertEquals(0, estrategia.getUltimasSimulaciones());
+    }
+
+    @Test
+    public void testEligeUnCandidatoDentroDelPresupuesto() {
+        String[][] antes = tablero.getTab();
+        List<Movimiento> movimientos = new ArrayList<>(algoritmo.generarMovimientos(robot));
+        movimientos.sort(Comparator.comparingDouble(Movimiento::getValoracion).reversed());
+        double corte = movimientos.get(Math.min(4, movimientos.size() - 1)).getValoracion();
+
+        EstrategiaMonteCarlo estrategia = new EstrategiaMonteCarlo(5, 200);
+        long inicio = System.nanoTime();
+        Movimiento elegido = estrategia.elegirJugada(algoritmo, robot.getFichas(), tablero, noVistas());
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertNotNull(elegido);
+        assertTrue(elegido.getValoracion() >= corte);
+        assertTrue(estrategia.getUltimasSimulaciones() > 0);
+        assertTrue("La jugada ha tardado " + ms + " ms", ms < 200 + 1000);
+        // Las simulaciones se hacen sobre copias del tablero
+        assertArrayEquals(antes, tablero.getTab());
+        assertEquals(0, tablero.getProfundidadDeshacer());
+    }
+
+    @Test
+    public void testSimulaConElEjecutorIndicado() throws InterruptedException {
+        String[][] antes = tablero.getTab();
+        EstrategiaMonteCarlo estrategia = new EstrategiaMonteCarlo(5, 100);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+        try {
+            estrategia.setEjecutor(ejecutor, 3);
+            assertNotNull(estrategia.elegirJugada(algoritmo, robot.getFichas(), tablero, noVistas()));
+            assertTrue(estrategia.getUltimasSimulaciones() >= 3);
+        } finally {
+            ejecutor.shutdown();
+        }
+        assertTrue(ejecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertArrayEquals(antes, tablero.getTab());
+        assertEquals(0, tablero.getProfundidadDeshacer());
+    }
+
+    /** Sin indicar ejecutor se simula con el compartido; con {@code null}, en serie. */
+    @Test
+    public void testEjecutorCompartidoPorDefecto() {
+        EstrategiaMonteCarlo estrategia = new EstrategiaMonteCarlo(5, 100);
+        assertEquals(EstrategiaMonteCarlo.HILOS_POR_DEFECTO, estrategia.getHilos());
+        assertNotNull(estrategia.elegirJugada(algoritmo, robot.getFichas(), tablero, noVistas()));
+        assertTrue(estrategia.getUltimasSimulaciones() >= EstrategiaMonteCarlo.HILOS_POR_DEFECTO);
+
+        estrategia.setEjecutor(null, 4);
+        assertEquals(1, estrategia.getHilos());
+    }
+
+    @Test
+    public void testRobotConEstrategia() {
+        robot.setEstrategia(new EstrategiaMonteCarlo(3, 100));
+        robot.setFichasNoVistas(noVistas());
+        Movimiento jugada = robot.jugar(tablero);
+        assertNotNull(jugada);
+        assertEquals(jugada.getPuntuacion(), robot.getPuntuacionPartidaActual());
+        assertEquals(7 - jugada.getFichas().size(), robot.getFichas().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPresupuestoNoValido() {
+        new EstrategiaMonteCarlo(5, 0);
+    }
+}
@@ -0,0 +1,216 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import dominio.EstrategiaMonteCarlo;
+import dominio.FormatoPartida;
+import dominio.Humano;
+import dominio.Movimiento;
+import dominio.Partida;
+import dominio.PerfilRobot;
+import dominio.Robot;
+import dominio.Tablero;
+import dominio.Usuario;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link FormatoPartida}.  Comprueba
+ * que una partida guardada en el formato compacto se cargue con el mismo
+ * estado, que ocupe unos cientos de bytes y que las partidas serializadas por
+ * versiones anteriores se sigan pudiendo cargar.
+ */
+public class TestFormatoPartida {
+
+    private final PrintStream originalOut = System.out;
+    private Humano humano;
+    private Robot robot;
+    private Partida partida;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        humano = new Humano("Jugador1", "clave1");
+        robot = new Robot("Robot1", null, null);
+        robot.setPerfil(PerfilRobot.CLUB);
+        robot.setPresupuestoMs(1500);
+        partida = new Partida(new ArrayList<>(Arrays.asList(humano, robot)));
+        partida.setId("prueba");
+        partida.setIdioma("castellano");
+        partida.setSemilla(5);
+        partida.llenarSaco("castellano");
+        partida.getTablero().setIdioma("castellano");
+        partida.getTablero().anadirJugador(humano);
+        partida.getTablero().anadirJugador(robot);
+        partida.iniciarPartida();
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /** Coloca dos fichas del humano en el centro y pasa el turno. */
+    private List<String> jugarCentro() {
+        List<String> colocadas = new ArrayList<>(humano.getFichas().subList(0, 2));
+        Movimiento movimiento = new Movimiento(colocadas, 8, 8, true, 12, "");
+        movimiento.setCoordenadas(Arrays.asList(new int[]{8, 8}, new int[]{8, 9}));
+        partida.getTablero().aplicarMovimiento(movimiento);
+        partida.getTablero().anadirPalabraAJugador(humano, String.join("", colocadas));
+        partida.registrarJugada(humano, movimiento);
+        for (String ficha : colocadas) {
+            humano.eliminarLetra(ficha);
+        }
+        humano.sumarPuntos(12);
+        partida.reponerFichasUsuario(humano);
+        partida.pasarTurno();
+        return colocadas;
+    }
+
+    private static byte[] escribir(Partida partida) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FormatoPartida.escribir(partida, bytes);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testSeRecuperaElEstado() throws Exception {
+        List<String> colocadas = jugarCentro();
+        partida.getTablero().setBonificacionCasilla(1, 2, 3);
+
+        Partida cargada = FormatoPartida.leer(new ByteArrayInputStream(escribir(partida)));
+
+        assertEquals("prueba", cargada.getId());
+        assertEquals("castellano", cargada.getIdioma());
+        assertEquals(partida.getSemilla(), cargada.getSemilla());
+        assertEquals(partida.getTurnoActual(), cargada.getTurnoActual());
+        assertEquals(partida.isPartidaEnCurso(), cargada.isPartidaEnCurso());
+        assertEquals(partida.getSaco().getLetrasFreq(), cargada.getSaco().getLetrasFreq());
+        assertEquals(partida.getSaco().getLetras(), cargada.getSaco().getLetras());
+
+        Tablero tablero = cargada.getTablero();
+        for (int f = 1; f <= 15; f++) {
+            for (int c = 1; c <= 15; c++) {
+                assertEquals(partida.getTablero().isOcupadafunc(f, c), tablero.isOcupadafunc(f, c));
+                assertEquals(partida.getTablero().getBonificacionCasilla(f, c), tablero.getBonificacionCasilla(f, c));
+                if (tablero.isOcupadafunc(f, c)) {
+                    assertEquals(partida.getTablero().getLetra(f - 1, c - 1), tablero.getLetra(f - 1, c - 1));
+                }
+            }
+        }
+        assertEquals(colocadas.get(0), tablero.getLetra(7, 7));
+        assertEquals(3, tablero.getBonificacionCasilla(1, 2));
+
+        List<Usuario> usuarios = cargada.getUsuarios();
+        assertEquals(2, usuarios.size());
+        assertTrue(usuarios.get(0) instanceof Humano);
+        assertEquals("Jugador1", usuarios.get(0).getUsername());
+        assertEquals("clave1", usuarios.get(0).getPassword());
+        assertEquals(12, usuarios.get(0).getPuntuacionPartidaActual());
+        assertEquals(humano.getFichas(), usuarios.get(0).getFichas());
+        assertEquals(String.join("", colocadas), tablero.getMapaJugadoresPalabraLarga().get(usuarios.get(0)));
+
+        Robot robotCargado = (Robot) usuarios.get(1);
+        assertEquals(robot.getFichas(), robotCargado.getFichas());
+        assertEquals(PerfilRobot.CLUB, robotCargado.getPerfil());
+        assertEquals(1500, robotCargado.getPresupuestoMs());
+        EstrategiaMonteCarlo estrategia = (EstrategiaMonteCarlo) robotCargado.getEstrategia();
+        assertEquals(((EstrategiaMonteCarlo) robot.getEstrategia()).getNumCandidatos(), estrategia.getNumCandidatos());
+
+        assertEquals(partida.getRegistro().getEventos().toString(), cargada.getRegistro().getEventos().toString());
+    }
+
+    /** La partida cargada sigue robando las mismas fichas que la original. */
+    @Test
+    public void testSeRecuperaElGeneradorDelSaco() throws Exception {
+        jugarCentro();
+        Partida cargada = FormatoPartida.leer(new ByteArrayInputStream(escribir(partida)));
+
+        assertEquals(partida.getSaco().robarFichas(7), cargada.getSaco().robarFichas(7));
+        assertEquals(partida.getSaco().robarFichas(7), cargada.getSaco().robarFichas(7));
+    }
+
+    @Test
+    public void testOcupaPocosBytes() throws Exception {
+        jugarCentro();
+        byte[] compacto = escribir(partida);
+        ByteArrayOutputStream serializada = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(serializada)) {
+            oos.writeObject(partida);
+        }
+        assertTrue("Ocupa " + compacto.length + " bytes", compacto.length < 1000);
+        assertTrue(compacto.length * 10 < serializada.size());
+    }
+
+    @Test
+    public void testSalvarYCargarFichero() throws Exception {
+        jugarCentro();
+        File fichero = File.createTempFile("partida", ".sav");
+        fichero.deleteOnExit();
+        partida.salvarPartida(fichero.getPath());
+
+        Partida cargada = Partida.cargarPartida(fichero.getPath());
+        assertNotNull(cargada);
+        assertEquals(humano.getFichas(), cargada.getUsuarios().get(0).getFichas());
+        assertEquals(partida.getSaco().getNumFichas(), cargada.getSaco().getNumFichas());
+    }
+
+    /** El formato anterior se reconoce por no empezar por la marca del compacto. */
+    @Test
+    public void testCargaPartidasSerializadas() throws Exception {
+        jugarCentro();
+        File fichero = File.createTempFile("partida", ".sav");
+        fichero.deleteOnExit();
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(fichero))) {
+            oos.writeObject(partida);
+        }
+
+        Partida cargada = Partida.cargarPartida(fichero.getPath());
+        assertNotNull(cargada);
+        assertEquals("prueba", cargada.getId());
+        assertEquals(humano.getFichas(), cargada.getUsuarios().get(0).getFichas());
+    }
+
+    /**
+     * Una partida guardada con la serialización de Java por una versión
+     * anterior (copia de una de las de <code>saves/</code>) se sigue cargando,
+     * y los campos que entonces no existían toman su valor por defecto.
+     */
+    @Test
+    public void testCargaPartidaGuardadaAntigua() throws Exception {
+        File fichero = File.createTempFile("antigua", ".sav");
+        fichero.deleteOnExit();
+        try (InputStream entrada = getClass().getClassLoader().getResourceAsStream("partidaSerializadaAntigua.sav")) {
+            assertNotNull(entrada);
+            Files.copy(entrada, fichero.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Partida cargada = Partida.cargarPartida(fichero.getPath());
+        assertNotNull(cargada);
+        assertEquals("PartidaNoMovimientosRobot", cargada.getId());
+        assertEquals("castellano", cargada.getIdioma());
+        assertEquals(44, cargada.getSaco().getNumFichas());
+        assertEquals(Arrays.asList("E", "G", "B", "S", "L", "A", "D"), cargada.getUsuarios().get(0).getFichas());
+        Robot robotCargado = (Robot) cargada.getUsuarios().get(1);
+        assertEquals(506, robotCargado.getPuntuacionPartidaActual());
+        assertEquals(Arrays.asList("Q", "LL", "O"), robotCargado.getFichas());
+        assertEquals(Robot.PLAZO_POR_DEFECTO_MS, robotCargado.getPresupuestoMs());
+        assertTrue(robotCargado.isValorarRestos());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRechazaOtrosFormatos() throws Exception {
+        FormatoPartida.leer(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+    }
+}
@@ -0,0 +1,109 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import dominio.Alfabeto;
+import dominio.Algoritmo;
+import dominio.GADDAG;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link GADDAG}.
+ * Comprueba que el GADDAG acepte las mismas palabras que el DAWG, que la
+ * generación de movimientos con ambas estructuras dé el mismo resultado y
+ * compara su rendimiento sobre el corpus de posiciones
+ * {@code posicionesIngles.txt}.
+ */
+public class TestGADDAG {
+
+    private Lexico lexico;
+    private GADDAG gaddag;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        gaddag = lexico.getGaddag();
+    }
+
+    /**
+     * @return claves (fichas, posiciones y puntuación) de los movimientos
+     */
+    private Set<String> claves(List<Movimiento> movimientos) {
+        Set<String> claves = new HashSet<>();
+        for (Movimiento movimiento : movimientos) {
+            String clave = CorpusPosiciones.clave(movimiento);
+            assertTrue("Movimiento repetido: " + clave, claves.add(clave));
+        }
+        return claves;
+    }
+
+    @Test
+    public void testMismasPalabrasQueElDAWG() {
+        Alfabeto alfabeto = lexico.getAlfabeto();
+        Algoritmo algoritmo = new Algoritmo(lexico, new Tablero());
+        for (String palabra : Arrays.asList("CAT", "CATS", "SCAT", "A", "QI", "ZA", "XYZ", "CATX", "AARDVARK", "TAC")) {
+            assertEquals(palabra,
+                    algoritmo.esPalabraValida(palabra, "ingles"), gaddag.contiene(alfabeto.codificar(palabra)));
+        }
+    }
+
+    @Test
+    public void testEstadisticasDeConstruccion() {
+        assertTrue(gaddag.getNumNodos() > 0);
+        assertTrue(gaddag.getNumAristas() > lexico.getDawg().getNumAristas());
+        assertTrue(gaddag.getTamanoBytes() > lexico.getDawg().getTamanoBytes());
+        assertEquals(lexico.getAlfabeto().getNumLetras(), gaddag.getSeparador());
+        assertNotNull(gaddag.getResumenConstruccion());
+    }
+
+    @Test
+    public void testMismosMovimientosEnElCorpus() throws IOException {
+        GeneradorMovimientos conDawg = new GeneradorMovimientos(lexico, false);
+        GeneradorMovimientos conGaddag = new GeneradorMovimientos(lexico, true);
+        List<CorpusPosiciones.Posicion> corpus = CorpusPosiciones.cargar();
+        assertFalse(corpus.isEmpty());
+        for (CorpusPosiciones.Posicion posicion : corpus) {
+            assertEquals(claves(conDawg.generar(posicion.tablero, posicion.atril)),
+                    claves(conGaddag.generar(posicion.tablero, posicion.atril)));
+        }
+    }
+
+    /**
+     * Compara los movimientos por segundo de ambas estructuras sobre el corpus.
+     */
+    @Test
+    public void testRendimientoSobreElCorpus() throws IOException {
+        List<CorpusPosiciones.Posicion> corpus = CorpusPosiciones.cargar();
+        long[] movimientos = new long[2];
+        long[] nanos = new long[2];
+        for (int variante = 0; variante < 2; variante++) {
+            GeneradorMovimientos generador = new GeneradorMovimientos(lexico, variante == 1);
+            for (int ronda = 0; ronda < 4; ronda++) {
+                long inicio = System.nanoTime();
+                long total = 0;
+                for (CorpusPosiciones.Posicion posicion : corpus) {
+                    total += generador.generar(posicion.tablero, posicion.atril).size();
+                }
+                if (ronda > 0) { // la primera ronda es de calentamiento
+                    nanos[variante] += System.nanoTime() - inicio;
+                    movimientos[variante] += total;
+                }
+            }
+        }
+        assertEquals(movimientos[0], movimientos[1]);
+        System.out.println("DAWG:   " + lexico.getDawg().getNumAristas() + " aristas, "
+                + lexico.getDawg().getTamanoBytes() / 1024 + " KB, "
+                + movimientos[0] * 1_000_000_000L / Math.max(1, nanos[0]) + " movimientos/s");
+        System.out.println("GADDAG: " + gaddag.getNumNodos() + " nodos, " + gaddag.getNumAristas() + " aristas, "
+                + gaddag.getTamanoBytes() / 1024 + " KB, "
+                + movimientos[1] * 1_000_000_000L / Math.max(1, nanos[1]) + " movimientos/s");
+    }
+}
@@ -0,0 +1,124 @@
+import static org.junit.Assert.*;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import dominio.Algoritmo;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias de la generación de movimientos en paralelo
+ * ({@link GeneradorMovimientos#generar(Tablero, List, java.util.concurrent.Executor, int)}).
+ * Comprueba que reparta las líneas del tablero entre varios hilos sin cambiar
+ * los movimientos ni su orden y mide la aceleración sobre las posiciones de
+ * mitad de partida del corpus {@code posicionesIngles.txt}.
+ */
+public class TestGeneracionParalela {
+
+    private static final int HILOS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static ExecutorService ejecutor;
+
+    private Lexico lexico;
+
+    @BeforeClass
+    public static void crearEjecutor() {
+        ejecutor = Executors.newFixedThreadPool(HILOS);
+    }
+
+    @AfterClass
+    public static void cerrarEjecutor() {
+        ejecutor.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+    }
+
+    @Test
+    public void testMismosMovimientosQueEnSerie() throws IOException {
+        List<CorpusPosiciones.Posicion> corpus = CorpusPosiciones.cargar();
+        assertFalse(corpus.isEmpty());
+        for (boolean usarGaddag : new boolean[]{false, true}) {
+            GeneradorMovimientos serie = new GeneradorMovimientos(lexico, usarGaddag);
+            GeneradorMovimientos paralelo = new GeneradorMovimientos(lexico, usarGaddag);
+            serie.setTablaRestos(lexico.getTablaRestos());
+            paralelo.setTablaRestos(lexico.getTablaRestos());
+            for (CorpusPosiciones.Posicion posicion : corpus) {
+                assertEquals(CorpusPosiciones.claves(serie.generar(posicion.tablero, posicion.atril)),
+                        CorpusPosiciones.claves(paralelo.generar(posicion.tablero, posicion.atril, ejecutor, HILOS)));
+            }
+        }
+    }
+
+    @Test
+    public void testSinEjecutorGeneraEnSerie() throws IOException {
+        CorpusPosiciones.Posicion posicion = CorpusPosiciones.cargar().get(0);
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        assertEquals(CorpusPosiciones.claves(generador.generar(posicion.tablero, posicion.atril)),
+                CorpusPosiciones.claves(generador.generar(posicion.tablero, posicion.atril, null, HILOS)));
+    }
+
+    @Test
+    public void testAlgoritmoConEjecutor() throws IOException {
+        CorpusPosiciones.Posicion posicion = CorpusPosiciones.cargar().get(CorpusPosiciones.cargar().size() / 2);
+        Algoritmo enSerie = new Algoritmo(lexico, posicion.tablero);
+        Algoritmo enParalelo = new Algoritmo(lexico, posicion.tablero);
+        enParalelo.setEjecutor(ejecutor, HILOS);
+        assertEquals(CorpusPosiciones.claves(enSerie.generarMovimientos(posicion.atril)),
+                CorpusPosiciones.claves(enParalelo.generarMovimientos(posicion.atril)));
+        assertEquals(enSerie.calcularMejorJugada(posicion.atril).getValoracion(),
+                enParalelo.calcularMejorJugada(posicion.atril).getValoracion(), 1e-9);
+    }
+
+    /**
+     * Compara el tiempo de la generación en serie y en paralelo sobre las
+     * posiciones de mitad de partida del corpus, que son las que tienen más
+     * anclajes.  La aceleración depende de los núcleos de la máquina, así que
+     * solo se muestra.
+     */
+    @Test
+    public void testRendimientoEnMitadDePartida() throws IOException {
+        List<CorpusPosiciones.Posicion> mitad = new ArrayList<>();
+        for (CorpusPosiciones.Posicion posicion : CorpusPosiciones.cargar()) {
+            if (posicion.ocupadas >= 20 && posicion.ocupadas <= 60) {
+                mitad.add(posicion);
+            }
+        }
+        assertFalse(mitad.isEmpty());
+        long[] nanos = new long[2];
+        long[] movimientos = new long[2];
+        for (int variante = 0; variante < 2; variante++) {
+            GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+            for (int ronda = 0; ronda < 4; ronda++) {
+                long inicio = System.nanoTime();
+                long total = 0;
+                for (CorpusPosiciones.Posicion posicion : mitad) {
+                    total += (variante == 0
+                            ? generador.generar(posicion.tablero, posicion.atril)
+                            : generador.generar(posicion.tablero, posicion.atril, ejecutor, HILOS)).size();
+                }
+                if (ronda > 0) { // la primera ronda es de calentamiento
+                    nanos[variante] += System.nanoTime() - inicio;
+                    movimientos[variante] += total;
+                }
+            }
+        }
+        assertEquals(movimientos[0], movimientos[1]);
+        System.out.println("Generación en paralelo: " + mitad.size() + " posiciones, "
+                + Runtime.getRuntime().availableProcessors() + " núcleos, " + HILOS + " tareas");
+        System.out.println("En serie:    " + movimientos[0] * 1_000_000_000L / Math.max(1, nanos[0]) + " movimientos/s");
+        System.out.println("En paralelo: " + movimientos[1] * 1_000_000_000L / Math.max(1, nanos[1]) + " movimientos/s");
+        System.out.printf("Aceleración: %.2fx%n", (double) nanos[0] / Math.max(1, nanos[1]));
+    }
+}
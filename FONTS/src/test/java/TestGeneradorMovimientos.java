@@ -0,0 +1,290 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import dominio.Algoritmo;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link GeneradorMovimientos}.
+ * Comprueba que el generador de Appel y Jacobson produzca cada colocación
+ * legal una sola vez, incluidas las que se enganchan o atraviesan fichas del
+ * tablero, y que todas las palabras que forman sean válidas.
+ */
+public class TestGeneradorMovimientos {
+
+    private Lexico lexico;
+    private Tablero tablero;
+    private GeneradorMovimientos generador;
+    private Algoritmo algoritmo;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        generador = new GeneradorMovimientos(lexico);
+        algoritmo = new Algoritmo(lexico, tablero);
+    }
+
+    /**
+     * Coloca y confirma una palabra horizontal en el tablero.
+     */
+    private void colocar(String palabra, int fila, int columna) {
+        for (int i = 0; i < palabra.length(); i++) {
+            tablero.setCasilla(String.valueOf(palabra.charAt(i)), fila, columna + i);
+            tablero.setCasillaOcupada(fila, columna + i);
+        }
+    }
+
+    /**
+     * Comprueba que los movimientos no se repiten y que, al aplicar cada uno
+     * sobre una copia del tablero, todas las palabras del tablero son válidas.
+     */
+    private void comprobarMovimientos(List<Movimiento> movimientos) {
+        Set<String> vistos = new HashSet<>();
+        for (Movimiento movimiento : movimientos) {
+            assertEquals(movimiento.getFichas().size(), movimiento.getPosiciones().size());
+            StringBuilder clave = new StringBuilder();
+            Tablero copia = new Tablero(tablero);
+            for (int i = 0; i < movimiento.getFichas().size(); i++) {
+                int[] posicion = movimiento.getPosiciones().get(i);
+                assertFalse(tablero.isOcupadafunc(posicion[0], posicion[1]));
+                copia.setCasilla(movimiento.getFichas().get(i), posicion[0], posicion[1]);
+                clave.append(movimiento.getFichas().get(i)).append(Arrays.toString(posicion));
+            }
+            assertTrue("Movimiento repetido: " + clave, vistos.add(clave.toString()));
+            assertTrue(algoritmo.esPalabraValida(movimiento.getPalabraFormada(), "ingles"));
+            for (String palabra : palabrasDelTablero(copia)) {
+                assertTrue(palabra + " no es válida en " + movimiento, algoritmo.esPalabraValida(palabra, "ingles"));
+            }
+        }
+    }
+
+    /**
+     * @return palabras de dos o más letras de todas las filas y columnas del tablero
+     */
+    private List<String> palabrasDelTablero(Tablero t) {
+        List<String> palabras = new java.util.ArrayList<>();
+        for (int orientacion = 0; orientacion < 2; orientacion++) {
+            for (int i = 0; i < 15; i++) {
+                StringBuilder actual = new StringBuilder();
+                for (int j = 0; j <= 15; j++) {
+                    String letra = j == 15 ? "\0" : orientacion == 0 ? t.getLetra(i, j) : t.getLetra(j, i);
+                    if (letra.equals("\0")) {
+                        if (actual.length() > 1) palabras.add(actual.toString());
+                        actual.setLength(0);
+                    } else {
+                        actual.append(letra);
+                    }
+                }
+            }
+        }
+        return palabras;
+    }
+
+    @Test
+    public void testTableroVacioPasaPorElCentro() {
+        List<Movimiento> movimientos = generador.generar(tablero, Arrays.asList("C", "A", "T", "S"));
+        assertFalse(movimientos.isEmpty());
+        for (Movimiento movimiento : movimientos) {
+            boolean centro = false;
+            for (int[] posicion : movimiento.getPosiciones()) {
+                centro |= posicion[0] == 8 && posicion[1] == 8;
+            }
+            assertTrue(movimiento.toString(), centro);
+        }
+        comprobarMovimientos(movimientos);
+    }
+
+    @Test
+    public void testEngancheYFichasAtravesadas() {
+        colocar("CAT", 8, 7);
+        List<Movimiento> movimientos = generador.generar(tablero, Arrays.asList("S", "B", "T"));
+        comprobarMovimientos(movimientos);
+
+        boolean gancho = false;
+        boolean atraviesa = false;
+        for (Movimiento movimiento : movimientos) {
+            if (movimiento.getPalabraFormada().equals("CATS") && movimiento.esHorizontal()) {
+                assertEquals(Arrays.asList("S"), movimiento.getFichas());
+                assertArrayEquals(new int[]{8, 10}, movimiento.getPosiciones().get(0));
+                assertEquals(7, movimiento.getColumna());
+                gancho = true;
+            }
+            if (movimiento.getPalabraFormada().equals("BAT") && !movimiento.esHorizontal()) {
+                assertEquals(Arrays.asList("B", "T"), movimiento.getFichas());
+                assertArrayEquals(new int[]{7, 8}, movimiento.getPosiciones().get(0));
+                assertArrayEquals(new int[]{9, 8}, movimiento.getPosiciones().get(1));
+                atraviesa = true;
+            }
+        }
+        assertTrue(gancho);
+        assertTrue(atraviesa);
+    }
+
+    @Test
+    public void testPuntuacionConBonificaciones() {
+        colocar("CAT", 8, 7);
+        tablero.setBonificacionCasilla(8, 10, 1); // Doble letra
+        tablero.setBonificacionCasilla(8, 6, 3);  // Doble palabra
+        boolean cats = false;
+        boolean scat = false;
+        for (Movimiento movimiento : generador.generar(tablero, Arrays.asList("S"))) {
+            if (movimiento.getPalabraFormada().equals("CATS")) {
+                assertEquals(3 + 1 + 1 + 2 * 1, movimiento.getPuntuacion());
+                cats = true;
+            }
+            if (movimiento.getPalabraFormada().equals("SCAT")) {
+                assertEquals((1 + 3 + 1 + 1) * 2, movimiento.getPuntuacion());
+                scat = true;
+            }
+        }
+        assertTrue(cats);
+        assertTrue(scat);
+    }
+
+    @Test
+    public void testAnclajesDelTableroVacio() {
+        List<int[]> anclajes = tablero.obtenerPuntosDeAnclaje();
+        assertEquals(1, anclajes.size());
+        assertArrayEquals(new int[]{8, 8}, anclajes.get(0));
+    }
+
+    /**
+     * Los anclajes y conjuntos de cruce mantenidos al confirmar fichas deben
+     * coincidir con los de un tablero igual calculado desde cero.
+     */
+    @Test
+    public void testCrucesIncrementalesIgualQueRecalculados() {
+        tablero.prepararCruces(lexico);
+        String[] atriles = {"CATSERO", "DOGSEIN", "QUIZLEA", "MAXIBEN", "PHONEYS"};
+        for (String atril : atriles) {
+            List<String> fichas = new java.util.ArrayList<>();
+            for (char c : atril.toCharArray()) fichas.add(String.valueOf(c));
+            Movimiento mejor = null;
+            for (Movimiento movimiento : generador.generar(tablero, fichas)) {
+                if (mejor == null || movimiento.getPuntuacion() > mejor.getPuntuacion()) mejor = movimiento;
+            }
+            assertNotNull(mejor);
+            for (int i = 0; i < mejor.getFichas().size(); i++) {
+                int[] posicion = mejor.getPosiciones().get(i);
+                tablero.setCasilla(mejor.getFichas().get(i), posicion[0], posicion[1]);
+                tablero.setCasillaOcupada(posicion[0], posicion[1]);
+            }
+
+            Tablero recalculado = new Tablero();
+            recalculado.setIdioma("ingles");
+            for (int f = 1; f <= 15; f++) {
+                for (int c = 1; c <= 15; c++) {
+                    if (tablero.isOcupadafunc(f, c)) {
+                        recalculado.setCasilla(tablero.getLetra(f - 1, c - 1), f, c);
+                        recalculado.setCasillaOcupada(f, c);
+                    }
+                }
+            }
+            recalculado.prepararCruces(lexico);
+            for (int f = 1; f <= 15; f++) {
+                for (int c = 1; c <= 15; c++) {
+                    String casilla = atril + " (" + f + ", " + c + ")";
+                    assertEquals(casilla, recalculado.esAnclaje(f, c), tablero.esAnclaje(f, c));
+                    assertEquals(casilla, recalculado.getCodigoCasilla(f, c), tablero.getCodigoCasilla(f, c));
+                    if (!tablero.isOcupadafunc(f, c)) {
+                        assertEquals(casilla, recalculado.getCruces(f, c, true), tablero.getCruces(f, c, true));
+                        assertEquals(casilla, recalculado.getCruces(f, c, false), tablero.getCruces(f, c, false));
+                        assertEquals(casilla, recalculado.getSumaCruce(f, c, true), tablero.getSumaCruce(f, c, true));
+                        assertEquals(casilla, recalculado.getSumaCruce(f, c, false), tablero.getSumaCruce(f, c, false));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return estado del tablero (letras, ocupación, bonificaciones, anclajes
+     *         y conjuntos de cruce) en forma de texto para compararlo
+     */
+    private String estado(Tablero t) {
+        StringBuilder sb = new StringBuilder();
+        for (int f = 1; f <= 15; f++) {
+            for (int c = 1; c <= 15; c++) {
+                sb.append(t.getLetra(f - 1, c - 1)).append(t.isOcupadafunc(f, c)).append(t.getBonificacionCasilla(f, c))
+                        .append(t.esAnclaje(f, c)).append(t.getCodigoCasilla(f, c));
+                if (!t.isOcupadafunc(f, c)) {
+                    sb.append(t.getCruces(f, c, true)).append(t.getCruces(f, c, false))
+                            .append(t.getSumaCruce(f, c, true)).append(t.getSumaCruce(f, c, false));
+                }
+                sb.append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Aplicar y deshacer cada movimiento generado (también dos niveles
+     * seguidos) debe dejar el tablero exactamente como estaba.
+     */
+    @Test
+    public void testAplicarYDeshacerMovimientos() {
+        colocar("CAT", 8, 7);
+        tablero.prepararCruces(lexico);
+        String inicial = estado(tablero);
+        List<Movimiento> movimientos = generador.generar(tablero, Arrays.asList("S", "B", "T", "E", "R"));
+        assertFalse(movimientos.isEmpty());
+        for (Movimiento movimiento : movimientos) {
+            tablero.aplicarMovimiento(movimiento);
+            assertEquals(1, tablero.getProfundidadDeshacer());
+            int[] posicion = movimiento.getPosiciones().get(0);
+            assertTrue(tablero.isOcupadafunc(posicion[0], posicion[1]));
+            assertEquals(0, tablero.getBonificacionCasilla(posicion[0], posicion[1]));
+            for (Movimiento respuesta : generador.generar(tablero, Arrays.asList("A", "E")).subList(0, 1)) {
+                String intermedio = estado(tablero);
+                tablero.aplicarMovimiento(respuesta);
+                tablero.deshacerMovimiento();
+                assertEquals(intermedio, estado(tablero));
+            }
+            tablero.deshacerMovimiento();
+            assertEquals(movimiento.toString(), inicial, estado(tablero));
+        }
+        assertEquals(0, tablero.getProfundidadDeshacer());
+    }
+
+    /**
+     * Tras aplicar un movimiento, los conjuntos de cruce deben ser los mismos
+     * que los de un tablero en el que se ha confirmado la jugada.
+     */
+    @Test
+    public void testAplicarIgualQueConfirmar() {
+        colocar("CAT", 8, 7);
+        tablero.prepararCruces(lexico);
+        for (Movimiento movimiento : generador.generar(tablero, Arrays.asList("S", "O", "N"))) {
+            Tablero confirmado = new Tablero(tablero);
+            for (int i = 0; i < movimiento.getFichas().size(); i++) {
+                int[] posicion = movimiento.getPosiciones().get(i);
+                confirmado.setCasilla(movimiento.getFichas().get(i), posicion[0], posicion[1]);
+                confirmado.setCasillaOcupada(posicion[0], posicion[1]);
+                confirmado.setBonificacionCasilla(posicion[0], posicion[1], 0);
+            }
+            tablero.aplicarMovimiento(movimiento);
+            assertEquals(movimiento.toString(), estado(confirmado), estado(tablero));
+            tablero.deshacerMovimiento();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDeshacerSinMovimientos() {
+        tablero.deshacerMovimiento();
+    }
+
+    @Test
+    public void testAtrilSinFichasDelAlfabeto() {
+        assertTrue(generador.generar(tablero, Arrays.asList("?", "")).isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import dominio.Alfabeto;
+import dominio.DAWG;
+import dominio.Diccionario;
+import dominio.ImagenLexico;
+import dominio.Lexico;
+import dominio.Trie;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link ImagenLexico}.
+ * Se compila un DAWG pequeño, se escribe su imagen en un fichero temporal y
+ * se comprueba que el DAWG proyectado en memoria reconoce las mismas palabras
+ * y que las imágenes de otro idioma o de otro diccionario se descartan.
+ */
+public class TestImagenLexico {
+
+    private Lexico lexico;
+
+    @Before
+    public void setUp() {
+        Alfabeto alfabeto = new Alfabeto("pruebaImagen", Arrays.asList("A", "C", "E", "O", "P", "S"));
+        Trie trie = new Trie();
+        for (String palabra : new String[] {"CASA", "CASAS", "CAS", "PASA", "PESO"}) {
+            trie.insert(palabra, alfabeto);
+        }
+        DAWG dawg = new DAWG();
+        dawg.buildFromTrie(trie);
+        lexico = new Lexico("pruebaImagen", new Diccionario(), dawg);
+    }
+
+    /**
+     * Recorre el DAWG letra a letra.
+     */
+    private boolean contiene(DAWG dawg, String palabra) {
+        int nodo = dawg.getRaiz();
+        boolean fin = false;
+        for (char c : palabra.toCharArray()) {
+            int arista = dawg.arista(nodo, String.valueOf(c));
+            if (arista < 0) {
+                return false;
+            }
+            fin = dawg.esFinDePalabra(arista);
+            nodo = dawg.hijo(arista);
+        }
+        return fin;
+    }
+
+    /**
+     * La imagen proyectada reconoce exactamente las palabras del DAWG original.
+     */
+    @Test
+    public void testIdaYVuelta() throws IOException {
+        Path fichero = Files.createTempFile("lexico", ".lex");
+        try {
+            ImagenLexico.escribir(lexico, fichero);
+            DAWG mapeado = ImagenLexico.abrir(fichero, "pruebaImagen", -1, -1);
+
+            assertNotNull(mapeado);
+            assertEquals(lexico.getDawg().getNumAristas(), mapeado.getNumAristas());
+            for (String palabra : new String[] {"CASA", "CASAS", "CAS", "PASA", "PESO"}) {
+                assertTrue(palabra, contiene(mapeado, palabra));
+            }
+            for (String palabra : new String[] {"CA", "PES", "CASO", "PASAS", ""}) {
+                assertFalse(palabra, contiene(mapeado, palabra));
+            }
+        } finally {
+            Files.deleteIfExists(fichero);
+        }
+    }
+
+    /**
+     * Una imagen de otro idioma no se acepta.
+     */
+    @Test
+    public void testIdiomaDistinto() throws IOException {
+        Path fichero = Files.createTempFile("lexico", ".lex");
+        try {
+            ImagenLexico.escribir(lexico, fichero);
+            assertNull(ImagenLexico.abrir(fichero, "otroIdioma", -1, -1));
+        } finally {
+            Files.deleteIfExists(fichero);
+        }
+    }
+
+    /**
+     * Una imagen compilada de un diccionario con otro tamaño o con otra fecha
+     * de modificación está desfasada.
+     */
+    @Test
+    public void testFuenteDistinta() throws IOException {
+        Path fichero = Files.createTempFile("lexico", ".lex");
+        try {
+            ImagenLexico.escribir(lexico, fichero);
+            assertNull(ImagenLexico.abrir(fichero, "pruebaImagen", 1234, -1));
+            assertNull(ImagenLexico.abrir(fichero, "pruebaImagen", -1, 1234));
+        } finally {
+            Files.deleteIfExists(fichero);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import dominio.Algoritmo;
+import dominio.GeneradorMovimientos;
+import dominio.JugadaGenerada;
+import dominio.Lexico;
+import dominio.MejoresJugadas;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link MejoresJugadas} y la
+ * generación de movimientos por receptor ({@link JugadaGenerada}).
+ * Comprueba que el receptor reciba los mismos movimientos que la lista, que
+ * el montículo se quede con las mismas jugadas que ordenar la lista entera y
+ * compara la memoria reservada por ambas formas de generar.
+ */
+public class TestMejoresJugadas {
+
+    private Lexico lexico;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+    }
+
+    @Test
+    public void testReceptorRecibeLosMismosMovimientos() throws IOException {
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        generador.setTablaRestos(lexico.getTablaRestos());
+        for (CorpusPosiciones.Posicion posicion : CorpusPosiciones.cargar()) {
+            List<Movimiento> recibidos = new ArrayList<>();
+            generador.generar(posicion.tablero, posicion.atril, jugada -> recibidos.add(jugada.aMovimiento()));
+            assertEquals(CorpusPosiciones.claves(generador.generar(posicion.tablero, posicion.atril)),
+                    CorpusPosiciones.claves(recibidos));
+        }
+    }
+
+    @Test
+    public void testMismasJugadasQueOrdenarLaLista() throws IOException {
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        generador.setTablaRestos(lexico.getTablaRestos());
+        for (int k : new int[]{1, 5, 40}) {
+            MejoresJugadas mejores = new MejoresJugadas(k);
+            for (CorpusPosiciones.Posicion posicion : CorpusPosiciones.cargar()) {
+                List<Movimiento> todos = new ArrayList<>(generador.generar(posicion.tablero, posicion.atril));
+                todos.sort(Comparator.comparingDouble(Movimiento::getValoracion).reversed());
+                List<Movimiento> esperados = todos.subList(0, Math.min(k, todos.size()));
+
+                mejores.vaciar();
+                generador.generar(posicion.tablero, posicion.atril, mejores);
+                assertEquals(todos.size(), mejores.getRecibidas());
+                assertEquals(CorpusPosiciones.claves(esperados), CorpusPosiciones.claves(mejores.getMovimientos()));
+                if (!esperados.isEmpty()) {
+                    assertEquals(CorpusPosiciones.clave(esperados.get(0)), CorpusPosiciones.clave(mejores.getMejor()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAlgoritmoCalculaLasMejoresJugadas() throws IOException {
+        CorpusPosiciones.Posicion posicion = CorpusPosiciones.cargar().get(10);
+        Algoritmo algoritmo = new Algoritmo(lexico, posicion.tablero);
+        List<Movimiento> todos = new ArrayList<>(algoritmo.generarMovimientos(posicion.atril));
+        todos.sort(Comparator.comparingDouble(Movimiento::getValoracion).reversed());
+        assertEquals(CorpusPosiciones.clave(todos.get(0)),
+                CorpusPosiciones.clave(algoritmo.calcularMejorJugada(posicion.atril)));
+        assertEquals(CorpusPosiciones.claves(todos.subList(0, 8)),
+                CorpusPosiciones.claves(algoritmo.calcularMejoresJugadas(posicion.atril, 8)));
+    }
+
+    @Test
+    public void testSinMovimientos() {
+        Tablero tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        MejoresJugadas mejores = new MejoresJugadas(3);
+        new GeneradorMovimientos(lexico).generar(tablero, new ArrayList<>(), mejores);
+        assertEquals(0, mejores.getRecibidas());
+        assertNull(mejores.getMejor());
+        assertTrue(mejores.getMovimientos().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTamanoNoValido() {
+        new MejoresJugadas(0);
+    }
+
+    /**
+     * Compara la memoria que reserva el hilo al generar la lista completa y al
+     * quedarse solo con la mejor jugada.  Solo se mide si la máquina virtual
+     * lo permite.
+     */
+    @Test
+    public void testMemoriaReservada() throws IOException {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!hilos.isThreadAllocatedMemorySupported() || !hilos.isThreadAllocatedMemoryEnabled()) return;
+        long hilo = Thread.currentThread().getId();
+        List<CorpusPosiciones.Posicion> corpus = CorpusPosiciones.cargar();
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        generador.setTablaRestos(lexico.getTablaRestos());
+        MejoresJugadas mejores = new MejoresJugadas(1);
+        long[] bytes = new long[2];
+        long movimientos = 0;
+        for (int ronda = 0; ronda < 2; ronda++) {
+            for (CorpusPosiciones.Posicion posicion : corpus) {
+                long antes = hilos.getThreadAllocatedBytes(hilo);
+                movimientos += generador.generar(posicion.tablero, posicion.atril).size();
+                long entre = hilos.getThreadAllocatedBytes(hilo);
+                mejores.vaciar();
+                generador.generar(posicion.tablero, posicion.atril, mejores);
+                long despues = hilos.getThreadAllocatedBytes(hilo);
+                if (ronda > 0) { // la primera ronda es de calentamiento
+                    bytes[0] += entre - antes;
+                    bytes[1] += despues - entre;
+                }
+            }
+        }
+        System.out.println("Memoria por generación: lista " + bytes[0] / corpus.size() / 1024 + " KB, "
+                + "mejor jugada " + bytes[1] / corpus.size() / 1024 + " KB (" + movimientos / 2 / corpus.size()
+                + " movimientos de media)");
+        assertTrue(bytes[1] < bytes[0]);
+    }
+}
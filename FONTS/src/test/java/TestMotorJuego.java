@@ -0,0 +1,183 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import dominio.EstadoJuego;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.MejoresJugadas;
+import dominio.MotorJuego;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Reglamento;
+import dominio.Saco;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link MotorJuego}.
+ * Comprueba el reparto inicial, que las jugadas se validen y puntúen como en
+ * el generador, que una jugada ilegal no cambie la partida y que se puedan
+ * jugar partidas completas, incluso varias a la vez, sin escribir nada.
+ */
+public class TestMotorJuego {
+
+    private Lexico lexico;
+    private final PrintStream originalOut = System.out;
+    private ByteArrayOutputStream salida;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        salida = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(salida));
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /** Juega la mejor jugada del jugador en turno, o pasa si no tiene ninguna. */
+    private static EstadoJuego jugarVoraz(MotorJuego motor, GeneradorMovimientos generador, MejoresJugadas mejor) {
+        mejor.vaciar();
+        generador.generar(motor.getTablero(), motor.getAtril(motor.getTurno()), mejor);
+        Movimiento jugada = mejor.getMejor();
+        return jugada == null ? motor.pasar() : motor.jugar(jugada);
+    }
+
+    /** Juega una partida completa y devuelve su estado final. */
+    private static EstadoJuego partidaCompleta(MotorJuego motor, Lexico lexico) {
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        MejoresJugadas mejor = new MejoresJugadas(1);
+        EstadoJuego estado = motor.getEstado();
+        while (!estado.isTerminada()) {
+            estado = jugarVoraz(motor, generador, mejor);
+        }
+        return estado;
+    }
+
+    @Test
+    public void testRepartoInicial() {
+        MotorJuego motor = new MotorJuego(lexico, 2, new Saco());
+        EstadoJuego estado = motor.getEstado();
+        assertEquals(0, estado.getTurno());
+        assertEquals(0, estado.getNumTurno());
+        assertFalse(estado.isTerminada());
+        assertEquals(7, motor.getAtril(0).size());
+        assertEquals(7, motor.getAtril(1).size());
+        assertEquals(motor.getFichasEnSaco(), estado.getFichasEnSaco());
+        assertEquals(estado.getFichasEnSaco() + 7, motor.getFichasNoVistas(0).size());
+        assertNull(motor.getFichasRival(0));
+    }
+
+    @Test
+    public void testJugadaLegal() {
+        MotorJuego motor = new MotorJuego(lexico, 2, new Saco());
+        MejoresJugadas mejor = new MejoresJugadas(1);
+        new GeneradorMovimientos(lexico).generar(motor.getTablero(), motor.getAtril(0), mejor);
+        Movimiento jugada = mejor.getMejor();
+        assertNotNull(jugada);
+        int enSaco = motor.getFichasEnSaco();
+
+        EstadoJuego estado = motor.jugar(jugada);
+        assertEquals(jugada.getPuntuacion(), estado.getPuntuacion(0));
+        assertEquals(jugada.getPuntuacion(), estado.getUltimaPuntuacion());
+        assertSame(jugada, estado.getUltimaJugada());
+        assertEquals(1, estado.getTurno());
+        assertEquals(7, motor.getAtril(0).size());
+        assertEquals(enSaco - jugada.getFichas().size(), estado.getFichasEnSaco());
+        assertEquals(1, motor.getTablero().getProfundidadDeshacer());
+    }
+
+    @Test
+    public void testJugadaIlegalNoCambiaLaPartida() {
+        MotorJuego motor = new MotorJuego(lexico, 2, new Saco());
+        List<String> atril = motor.getAtril(0);
+        // Primera jugada fuera de la casilla central
+        Movimiento fuera = new Movimiento(atril.subList(0, 2), 1, 1, true, 0, "");
+        fuera.setCoordenadas(Arrays.asList(new int[]{1, 1}, new int[]{1, 2}));
+        try {
+            motor.jugar(fuera);
+            fail("La jugada debería ser ilegal");
+        } catch (Tablero.ErrorJuegoException e) {
+            // esperado
+        }
+        Movimiento ajena = new Movimiento(Arrays.asList("?", "?"), 8, 8, true, 0, "");
+        ajena.setCoordenadas(Arrays.asList(new int[]{8, 8}, new int[]{8, 9}));
+        try {
+            motor.jugar(ajena);
+            fail("El jugador no tiene esas fichas");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+        assertEquals(atril, motor.getAtril(0));
+        assertEquals(0, motor.getTurno());
+        assertEquals(0, motor.getEstado().getNumTurno());
+        assertEquals(0, motor.getTablero().getProfundidadDeshacer());
+    }
+
+    @Test
+    public void testPartidaCompletaSinSalida() {
+        MotorJuego motor = new MotorJuego(lexico, 2, new Saco());
+        EstadoJuego fin = partidaCompleta(motor, lexico);
+        assertTrue(motor.haTerminado());
+        assertTrue(fin.getNumTurno() > 0);
+        comprobarGanador(fin);
+        assertEquals("", salida.toString());
+    }
+
+    /**
+     * Al terminar por pases a cada jugador se le restan sus fichas (regla 8)
+     * y gana el de mayor puntuación final (regla 9).
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testNoSeJuegaTrasTerminar() {
+        MotorJuego motor = new MotorJuego(lexico, 2, new Saco());
+        motor.pasar();
+        assertFalse(motor.haTerminado());
+        motor.pasar(); // los dos jugadores han pasado seguidos
+        assertTrue(motor.haTerminado());
+        EstadoJuego fin = motor.getEstado();
+        for (int j = 0; j < 2; j++) {
+            assertEquals(-Reglamento.valorAtril(motor.getAtril(j), lexico.getAlfabeto()), fin.getPuntuacion(j));
+        }
+        comprobarGanador(fin);
+        motor.pasar();
+    }
+
+    /** El ganador es el jugador con la mayor puntuación final, o -1 si hay empate. */
+    private static void comprobarGanador(EstadoJuego fin) {
+        int maxima = Arrays.stream(fin.getPuntuaciones()).max().getAsInt();
+        long conMaxima = Arrays.stream(fin.getPuntuaciones()).filter(p -> p == maxima).count();
+        if (conMaxima > 1) {
+            assertEquals(-1, fin.getGanador());
+        } else {
+            assertEquals(maxima, fin.getPuntuacion(fin.getGanador()));
+        }
+    }
+
+    @Test
+    public void testPartidasSimultaneas() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<EstadoJuego>> partidas = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                partidas.add(() -> partidaCompleta(new MotorJuego(lexico, 2, new Saco()), lexico));
+            }
+            for (Future<EstadoJuego> fin : hilos.invokeAll(partidas)) {
+                assertTrue(fin.get().isTerminada());
+            }
+        } finally {
+            hilos.shutdown();
+        }
+    }
+}
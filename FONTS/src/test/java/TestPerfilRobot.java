@@ -0,0 +1,148 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import dominio.Algoritmo;
+import dominio.Diccionario;
+import dominio.EstrategiaMonteCarlo;
+import dominio.Lexico;
+import dominio.MejoresJugadas;
+import dominio.MetricaTurno;
+import dominio.Movimiento;
+import dominio.PerfilRobot;
+import dominio.RegistroLexicos;
+import dominio.Robot;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link PerfilRobot}.
+ * Comprueba que cada perfil fije el plazo y la estrategia del robot, que el
+ * principiante solo forme palabras cortas, que el perfil se guarde con el
+ * robot y que cada turno deje sus métricas.
+ */
+public class TestPerfilRobot {
+
+    private Lexico lexico;
+    private Tablero tablero;
+    private final PrintStream originalOut = System.out;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        tablero = new Tablero();
+        tablero.setIdioma("ingles");
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Robot robot(PerfilRobot perfil) {
+        Robot robot = new Robot("Robot" + perfil.getNombre(), new Algoritmo(lexico, tablero), tablero);
+        robot.setPerfil(perfil);
+        robot.setFichas(new ArrayList<>(Arrays.asList("R", "E", "T", "A", "I", "N", "S")));
+        return robot;
+    }
+
+    @Test
+    public void testPerfilFijaPlazoYEstrategia() {
+        Robot principiante = robot(PerfilRobot.PRINCIPIANTE);
+        assertEquals(PerfilRobot.PRINCIPIANTE.getPresupuestoMs(), principiante.getPresupuestoMs());
+        assertNull(principiante.getEstrategia());
+
+        Robot club = robot(PerfilRobot.CLUB);
+        assertTrue(club.getEstrategia() instanceof EstrategiaMonteCarlo);
+        assertEquals(PerfilRobot.CLUB.getNumCandidatos(), ((EstrategiaMonteCarlo) club.getEstrategia()).getNumCandidatos());
+
+        Robot experto = robot(PerfilRobot.EXPERTO);
+        assertEquals(Robot.PLAZO_POR_DEFECTO_MS, experto.getPresupuestoMs());
+        assertEquals(EstrategiaMonteCarlo.CANDIDATOS_POR_DEFECTO,
+                ((EstrategiaMonteCarlo) experto.getEstrategia()).getNumCandidatos());
+        assertTrue(PerfilRobot.PRINCIPIANTE.getPresupuestoMs() < PerfilRobot.CLUB.getPresupuestoMs());
+        assertTrue(PerfilRobot.CLUB.getPresupuestoMs() <= PerfilRobot.EXPERTO.getPresupuestoMs());
+    }
+
+    @Test
+    public void testLongitudMaximaLimitaElVocabulario() {
+        List<String> atril = Arrays.asList("R", "E", "T", "A", "I", "N", "S");
+        Algoritmo algoritmo = new Algoritmo(lexico, tablero);
+        boolean hayLargas = algoritmo.generarMovimientos(atril).stream()
+                .anyMatch(movimiento -> movimiento.getPalabraFormada().length() > 5);
+        assertTrue(hayLargas);
+
+        algoritmo.setLongitudMaxima(5);
+        List<Movimiento> cortos = algoritmo.generarMovimientos(atril);
+        assertFalse(cortos.isEmpty());
+        for (Movimiento movimiento : cortos) {
+            assertTrue(movimiento.getPalabraFormada().length() <= 5);
+        }
+        MejoresJugadas mejores = new MejoresJugadas(1);
+        algoritmo.generarMovimientos(atril, mejores);
+        assertEquals(cortos.size(), mejores.getRecibidas());
+        assertTrue(algoritmo.calcularMejorJugada(atril).getPalabraFormada().length() <= 5);
+    }
+
+    /** La longitud se cuenta en fichas: «LL» y «CH» son una sola. */
+    @Test
+    public void testLongitudMaximaCuentaFichas() {
+        Diccionario diccionario = new Diccionario();
+        diccionario.setCargarPuntuaciones("castellano");
+        diccionario.getPalabras().addAll(Arrays.asList("AMA", "CHAL", "LLAMA", "MACHO"));
+        Tablero vacio = new Tablero();
+        vacio.setIdioma("castellano");
+        Algoritmo algoritmo = new Algoritmo(new Lexico("castellano", diccionario), vacio);
+        algoritmo.setLongitudMaxima(4);
+        List<String> atril = Arrays.asList("LL", "A", "M", "A", "L", "CH", "O");
+
+        List<Movimiento> movimientos = algoritmo.generarMovimientos(atril);
+        assertTrue(movimientos.stream().anyMatch(movimiento -> movimiento.getPalabraFormada().equals("LLAMA")));
+        assertTrue(movimientos.stream().anyMatch(movimiento -> movimiento.getPalabraFormada().equals("MACHO")));
+        for (Movimiento movimiento : movimientos) {
+            assertTrue(movimiento.getLargo() <= 4);
+        }
+        MejoresJugadas mejores = new MejoresJugadas(1);
+        algoritmo.generarMovimientos(atril, mejores);
+        assertEquals(movimientos.size(), mejores.getRecibidas());
+    }
+
+    @Test
+    public void testPrincipianteJuegaPalabrasCortasYDejaMetricas() {
+        Robot principiante = robot(PerfilRobot.PRINCIPIANTE);
+        Movimiento jugada = principiante.jugar(tablero);
+        assertNotNull(jugada);
+        assertTrue(jugada.getPalabraFormada().length() <= PerfilRobot.PRINCIPIANTE.getLongitudMaxima());
+
+        MetricaTurno metrica = principiante.getUltimaMetrica();
+        assertNotNull(metrica);
+        assertEquals(PerfilRobot.PRINCIPIANTE, metrica.getPerfil());
+        assertEquals(jugada.getPalabraFormada(), metrica.getPalabra());
+        assertEquals(jugada.getPuntuacion(), metrica.getPuntuacion());
+        assertEquals(1, metrica.getFasesTerminadas());
+        assertTrue(metrica.getMilisegundos() <= PerfilRobot.PRINCIPIANTE.getPresupuestoMs() + 1000);
+    }
+
+    @Test
+    public void testPerfilSeGuardaConElRobot() throws Exception {
+        Robot club = robot(PerfilRobot.CLUB);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream salida = new ObjectOutputStream(bytes)) {
+            salida.writeObject(club);
+        }
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Robot cargado = (Robot) entrada.readObject();
+            assertEquals(PerfilRobot.CLUB, cargado.getPerfil());
+            assertEquals(PerfilRobot.CLUB.getPresupuestoMs(), cargado.getPresupuestoMs());
+            assertNotNull(cargado.getEstrategia());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import dominio.Algoritmo;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.Puntuador;
+import dominio.RegistroLexicos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link Puntuador}.
+ * Comprueba los códigos de error de las reglas del juego y que la puntuación
+ * en una sola pasada coincida con la suma de
+ * {@link Algoritmo#calcularPuntuacion(String, int, int, boolean, boolean)} de cada
+ * palabra formada y con la estimada por el {@link GeneradorMovimientos}.
+ */
+public class TestPuntuador {
+
+    private Lexico lexico;
+    private Tablero tablero;
+    private Puntuador puntuador;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        puntuador = new Puntuador(lexico);
+    }
+
+    /**
+     * Coloca y confirma una palabra horizontal en el tablero.
+     */
+    private void colocar(String palabra, int fila, int columna) {
+        List<int[]> posiciones = new ArrayList<>();
+        for (int i = 0; i < palabra.length(); i++) {
+            tablero.setCasilla(String.valueOf(palabra.charAt(i)), fila, columna + i);
+            posiciones.add(new int[]{fila, columna + i});
+        }
+        tablero.confirmarFichas(posiciones);
+    }
+
+    /**
+     * @return código de error de la jugada, o su puntuación si es válida
+     */
+    private int puntuar(String fichas, int[]... posiciones) {
+        List<String> letras = new ArrayList<>();
+        for (char c : fichas.toCharArray()) letras.add(String.valueOf(c));
+        try {
+            return puntuador.puntuar(tablero, letras, Arrays.asList(posiciones), null);
+        } catch (Tablero.ErrorJuegoException e) {
+            return e.getCodigoError();
+        }
+    }
+
+    @Test
+    public void testPrimeraJugada() {
+        assertEquals(-1, puntuar("A", new int[]{8, 8}));
+        assertEquals(-2, puntuar("AT", new int[]{1, 2}, new int[]{1, 3}));
+        // CAT sobre la casilla central (doble palabra)
+        assertEquals((3 + 1 + 1) * 2, puntuar("CAT", new int[]{8, 7}, new int[]{8, 8}, new int[]{8, 9}));
+        assertEquals(-7, puntuar("XQZ", new int[]{8, 7}, new int[]{8, 8}, new int[]{8, 9}));
+    }
+
+    @Test
+    public void testErroresDeColocacion() {
+        colocar("CAT", 8, 7);
+        assertEquals(-3, puntuar("AS", new int[]{7, 7}, new int[]{9, 10}));
+        assertEquals(-4, puntuar("BT", new int[]{6, 8}, new int[]{9, 8}));
+        assertEquals(-5, puntuar("ST", new int[]{9, 7}, new int[]{9, 9}));
+        assertEquals(-6, puntuar("AT", new int[]{2, 2}, new int[]{2, 3}));
+        assertEquals(-7, puntuar("X", new int[]{8, 10}));
+        assertEquals(-5, puntuar("S", new int[]{8, 8}));
+    }
+
+    @Test
+    public void testGanchoYPalabrasFormadas() {
+        colocar("CAT", 8, 7);
+        List<String> palabras = new ArrayList<>();
+        // S en (8, 10): CATS en horizontal; doble letra en (8, 10) si se marca
+        tablero.setBonificacionCasilla(8, 10, 1);
+        int puntos = puntuador.puntuar(tablero, Arrays.asList("S", "O"),
+                Arrays.asList(new int[]{8, 10}, new int[]{9, 10}), palabras);
+        // SO en vertical (S doble letra) y CATS en horizontal
+        assertEquals(Arrays.asList("SO", "CATS"), palabras);
+        assertEquals((2 + 1) + (3 + 1 + 1 + 2), puntos);
+    }
+
+    @Test
+    public void testLasBonificacionesSeGastanAlConfirmar() {
+        colocar("CAT", 8, 7);
+        assertEquals(0, tablero.getBonificacionCasilla(8, 8));
+        // La doble palabra de la casilla central ya no cuenta para CATS
+        assertEquals(3 + 1 + 1 + 1, puntuar("S", new int[]{8, 10}));
+    }
+
+    @Test
+    public void testBonificacionPorUsarTodasLasFichas() {
+        Algoritmo algoritmo = new Algoritmo(lexico, tablero);
+        int[][] posiciones = new int[7][];
+        for (int i = 0; i < 7; i++) posiciones[i] = new int[]{8, 2 + i};
+        int puntos = puntuar("EXAMINE", posiciones);
+        for (int i = 0; i < 7; i++) tablero.setCasilla(String.valueOf("EXAMINE".charAt(i)), 8, 2 + i);
+        int palabra = algoritmo.calcularPuntuacion("EXAMINE", 8, 2, true, false);
+        tablero.limpiarMap();
+        assertEquals(palabra + Puntuador.BONIFICACION_BINGO, puntos);
+    }
+
+    /**
+     * Para cada movimiento generado la puntuación debe coincidir con la
+     * estimada por el generador y con la suma de las palabras formadas
+     * puntuadas una a una con {@link Algoritmo#calcularPuntuacion}.
+     */
+    @Test
+    public void testIgualQueElGeneradorYQuePalabraAPalabra() {
+        colocar("QUIET", 8, 5);
+        colocar("ZAX", 10, 3);
+        tablero.setCasilla("O", 9, 6);
+        tablero.confirmarFichas(Arrays.asList(new int[][]{{9, 6}}));
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        Algoritmo algoritmo = new Algoritmo(lexico, tablero);
+        List<Movimiento> movimientos = generador.generar(tablero, Arrays.asList("E", "R", "S", "T", "A", "I", "N"));
+        assertFalse(movimientos.isEmpty());
+        for (Movimiento movimiento : movimientos) {
+            List<String> palabras = new ArrayList<>();
+            int puntos = puntuador.puntuar(tablero, movimiento.getFichas(), movimiento.getPosiciones(), palabras);
+            assertEquals(movimiento.toString(), movimiento.getPuntuacion(), puntos);
+
+            // Referencia: cada palabra formada por separado, con el tablero con las fichas puestas
+            for (int i = 0; i < movimiento.getFichas().size(); i++) {
+                int[] posicion = movimiento.getPosiciones().get(i);
+                tablero.setCasilla(movimiento.getFichas().get(i), posicion[0], posicion[1]);
+            }
+            int referencia = 0;
+            for (int[] palabra : palabrasConFichaNueva(movimiento)) {
+                String texto = palabra[3] == 1 ? leerFila(palabra[0], palabra[1], palabra[2]) : leerColumna(palabra[0], palabra[1], palabra[2]);
+                assertTrue(palabras.contains(texto));
+                referencia += algoritmo.calcularPuntuacion(texto, palabra[0], palabra[1], palabra[3] == 1, false);
+            }
+            if (movimiento.getFichas().size() == Puntuador.FICHAS_BINGO) {
+                referencia += Puntuador.BONIFICACION_BINGO;
+            }
+            tablero.limpiarMap();
+            assertEquals(movimiento.toString(), referencia, puntos);
+        }
+    }
+
+    /**
+     * @return palabras de dos o más letras que contienen alguna ficha del
+     *         movimiento: {fila, columna, longitud, horizontal ? 1 : 0}
+     */
+    private List<int[]> palabrasConFichaNueva(Movimiento movimiento) {
+        List<int[]> palabras = new ArrayList<>();
+        for (int horizontal = 0; horizontal < 2; horizontal++) {
+            for (int[] posicion : movimiento.getPosiciones()) {
+                int f = posicion[0];
+                int c = posicion[1];
+                int df = horizontal == 1 ? 0 : 1;
+                int dc = horizontal == 1 ? 1 : 0;
+                while (f - df >= 1 && c - dc >= 1 && !tablero.getLetra(f - df - 1, c - dc - 1).equals("\0")) {
+                    f -= df;
+                    c -= dc;
+                }
+                int longitud = 0;
+                while (f + df * longitud <= 15 && c + dc * longitud <= 15
+                        && !tablero.getLetra(f + df * longitud - 1, c + dc * longitud - 1).equals("\0")) {
+                    longitud++;
+                }
+                int[] palabra = {f, c, longitud, horizontal};
+                boolean repetida = false;
+                for (int[] otra : palabras) repetida |= Arrays.equals(otra, palabra);
+                if (longitud > 1 && !repetida) palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    private String leerFila(int f, int c, int longitud) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < longitud; i++) sb.append(tablero.getLetra(f - 1, c - 1 + i));
+        return sb.toString();
+    }
+
+    private String leerColumna(int f, int c, int longitud) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < longitud; i++) sb.append(tablero.getLetra(f - 1 + i, c - 1));
+        return sb.toString();
+    }
+}
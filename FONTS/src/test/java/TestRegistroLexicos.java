@@ -0,0 +1,97 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dominio.Lexico;
+import dominio.RegistroLexicos;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link RegistroLexicos}.
+ * Se usan idiomas sin fichero de diccionario para que los léxicos sean vacíos
+ * y las pruebas se centren en el comportamiento de la caché.
+ */
+public class TestRegistroLexicos {
+
+    private RegistroLexicos registro;
+    private int capacidadOriginal;
+
+    @Before
+    public void setUp() {
+        registro = RegistroLexicos.getInstance();
+        capacidadOriginal = registro.getCapacidadMaxima();
+        registro.vaciar();
+    }
+
+    @After
+    public void tearDown() {
+        registro.setCapacidadMaxima(capacidadOriginal);
+        registro.vaciar();
+    }
+
+    /**
+     * Pedir dos veces el mismo idioma devuelve la misma instancia y cuenta un acierto.
+     */
+    @Test
+    public void testMismoIdiomaMismoLexico() {
+        Lexico primero = registro.getLexico("pruebaA");
+        Lexico segundo = registro.getLexico("pruebaA");
+
+        assertSame(primero, segundo);
+        assertEquals(1, registro.getFallos());
+        assertEquals(1, registro.getAciertos());
+    }
+
+    /**
+     * Cada idioma tiene su propio léxico, aunque se pidan uno detrás de otro.
+     */
+    @Test
+    public void testIdiomasDistintosLexicosDistintos() {
+        Lexico a = registro.getLexico("pruebaA");
+        Lexico b = registro.getLexico("pruebaB");
+
+        assertNotSame(a, b);
+        assertEquals("pruebaA", a.getIdioma());
+        assertEquals("pruebaB", b.getIdioma());
+    }
+
+    /**
+     * Revisar la versión de un diccionario que no ha cambiado no obliga a
+     * construir de nuevo su léxico.
+     */
+    @Test
+    public void testVersionSinCambios() {
+        Lexico antes = registro.getLexico("pruebaA");
+        registro.actualizarVersion("pruebaA");
+
+        assertTrue(registro.estaCargado("pruebaA"));
+        assertSame(antes, registro.getLexico("pruebaA"));
+        assertEquals(1, registro.getFallos());
+    }
+
+    /**
+     * Al superar la capacidad se desaloja el léxico usado hace más tiempo.
+     */
+    @Test
+    public void testDesalojoLRU() {
+        registro.setCapacidadMaxima(2);
+        Lexico a = registro.getLexico("pruebaA");
+        registro.getLexico("pruebaB");
+        registro.getLexico("pruebaA");      // A pasa a ser el más reciente
+        registro.getLexico("pruebaC");      // desaloja B
+
+        assertEquals(2, registro.getNumLexicos());
+        assertEquals(1, registro.getDesalojos());
+        assertTrue(registro.estaCargado("pruebaA"));
+        assertFalse(registro.estaCargado("pruebaB"));
+        assertSame(a, registro.getLexico("pruebaA"));
+    }
+
+    /**
+     * Un idioma nulo no es válido.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdiomaNulo() {
+        registro.getLexico(null);
+    }
+}
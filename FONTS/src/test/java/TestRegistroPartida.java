@@ -0,0 +1,142 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import dominio.Movimiento;
+import dominio.Partida;
+import dominio.RegistroPartida;
+import dominio.ReproductorPartida;
+import dominio.Usuario;
+
+/**
+ * Clase de pruebas unitarias para las clases {@link RegistroPartida} y
+ * {@link ReproductorPartida}.  Comprueba que la partida anote robos,
+ * jugadas, pases y cambios, que el registro se guarde y se lea en binario y
+ * que al reproducirlo se llegue al mismo estado.
+ */
+public class TestRegistroPartida {
+
+    private final PrintStream originalOut = System.out;
+    private Usuario usuario1;
+    private Usuario usuario2;
+    private Partida partida;
+    private List<String> colocadas;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        usuario1 = new Usuario("Jugador1", "clave1");
+        usuario2 = new Usuario("Jugador2", "clave2");
+        partida = new Partida(Arrays.asList(usuario1, usuario2));
+        partida.setSemilla(9);
+        partida.llenarSaco("castellano");
+        partida.iniciarPartida();
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Movimiento jugada(List<String> fichas, int fila, int columna, int puntos) {
+        List<int[]> posiciones = new ArrayList<>();
+        for (int i = 0; i < fichas.size(); i++) {
+            posiciones.add(new int[]{fila, columna + i});
+        }
+        Movimiento movimiento = new Movimiento(fichas, fila, columna, true, puntos, "");
+        movimiento.setCoordenadas(posiciones);
+        return movimiento;
+    }
+
+    /** Juega una jugada, un cambio y un pase y devuelve el registro leído de su forma binaria. */
+    private RegistroPartida jugarYReleer() throws Exception {
+        colocadas = new ArrayList<>(usuario1.getFichas().subList(0, 2));
+        partida.registrarJugada(usuario1, jugada(colocadas, 8, 8, 10));
+        for (String ficha : colocadas) {
+            usuario1.eliminarLetra(ficha);
+        }
+        partida.reponerFichasUsuario(usuario1);
+        partida.pasarTurno();
+
+        assertTrue(partida.cambiarFichas(usuario2, new ArrayList<>(usuario2.getFichas().subList(0, 3))));
+        partida.pasarTurno();
+        partida.pasarTurno(); // pase del jugador 1
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        partida.getRegistro().escribir(bytes);
+        return RegistroPartida.leer(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void testSeAnotanLosEventos() throws Exception {
+        RegistroPartida registro = jugarYReleer();
+        List<RegistroPartida.TipoEvento> tipos = new ArrayList<>();
+        for (RegistroPartida.Evento evento : registro.getEventos()) {
+            tipos.add(evento.getTipo());
+        }
+        assertEquals(Arrays.asList(RegistroPartida.TipoEvento.ROBO, RegistroPartida.TipoEvento.ROBO,
+                RegistroPartida.TipoEvento.JUGADA, RegistroPartida.TipoEvento.ROBO,
+                RegistroPartida.TipoEvento.ROBO, RegistroPartida.TipoEvento.CAMBIO,
+                RegistroPartida.TipoEvento.PASE), tipos);
+        assertEquals(7, registro.getNumEventos());
+        assertEquals(9, registro.getSemilla());
+        assertEquals(Arrays.asList("Jugador1", "Jugador2"), registro.getJugadores());
+    }
+
+    @Test
+    public void testLaReproduccionLlegaAlMismoEstado() throws Exception {
+        RegistroPartida registro = jugarYReleer();
+        ReproductorPartida reproductor = new ReproductorPartida(registro).reproducir();
+        assertTrue(reproductor.haTerminado());
+        assertEquals(usuario1.getFichas(), reproductor.getAtril(0));
+        assertEquals(usuario2.getFichas(), reproductor.getAtril(1));
+        assertEquals(10, reproductor.getPuntuacion(0));
+        assertEquals(0, reproductor.getPuntuacion(1));
+        assertEquals(partida.getSaco().getLetrasFreq(), reproductor.getSaco());
+        // getLetra usa coordenadas en base 0
+        assertEquals(colocadas.get(0), reproductor.getTablero().getLetra(7, 7));
+        assertEquals(colocadas.get(1), reproductor.getTablero().getLetra(7, 8));
+    }
+
+    @Test
+    public void testMismaSemillaMismoReparto() {
+        Usuario otro1 = new Usuario("Jugador1", "clave1");
+        Usuario otro2 = new Usuario("Jugador2", "clave2");
+        Partida otra = new Partida(Arrays.asList(otro1, otro2));
+        otra.setSemilla(9);
+        otra.llenarSaco("castellano");
+        otra.iniciarPartida();
+        assertEquals(usuario1.getFichas(), otro1.getFichas());
+        assertEquals(usuario2.getFichas(), otro2.getFichas());
+    }
+
+    @Test
+    public void testFormatoCompacto() {
+        Map<String, Integer> saco = new LinkedHashMap<>();
+        saco.put("A", 10);
+        saco.put("B", 10);
+        RegistroPartida registro = new RegistroPartida("castellano", 1, Arrays.asList("a", "b"), saco);
+        registro.anadirRobo(0, Arrays.asList("A", "A", "B", "A", "B", "A", "A"));
+        int antes = registro.getTamanoEventos();
+        registro.anadirJugada(0, jugada(Arrays.asList("A", "A", "B", "A", "B", "A", "A"), 8, 2, 70));
+        assertEquals(19, registro.getTamanoEventos() - antes);
+        assertEquals(70, registro.getEventos().get(1).getPuntos());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRegistroIncoherente() {
+        Map<String, Integer> saco = new LinkedHashMap<>();
+        saco.put("A", 1);
+        RegistroPartida registro = new RegistroPartida("castellano", 1, Arrays.asList("a", "b"), saco);
+        registro.anadirRobo(0, Arrays.asList("A", "A"));
+        new ReproductorPartida(registro).reproducir();
+    }
+}
@@ -32,6 +32,7 @@ public class TestReglamento {
       4. PUNTUACIÓN DE LAS FICHAS:
          - Cada ficha tiene un valor en puntos. Los valores están indicados en las fichas.
          - Las casillas especiales del tablero pueden duplicar o triplicar el valor de una ficha o de una palabra.
+         - Colocar las 7 fichas del atril en una sola jugada suma 50 puntos extra.
   
       5. TURNOS DE LOS JUGADORES:
          - En su turno, un jugador puede:
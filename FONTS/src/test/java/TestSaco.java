@@ -1,7 +1,14 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 
 import static org.junit.Assert.*;
 
@@ -89,4 +96,65 @@ public class TestSaco {
         assertTrue(saco.estaVacio());
         assertTrue(saco.getLetrasFreq().isEmpty());
     }
+
+    @Test
+    public void testSacosConLaMismaSemillaRepartenLoMismo() {
+        Saco primero = new Saco(42);
+        Saco segundo = new Saco(42);
+        primero.setLlenarSaco("castellano");
+        segundo.setLlenarSaco("castellano");
+        while (!primero.estaVacio()) {
+            assertEquals(primero.getRobarLetra(), segundo.getRobarLetra());
+        }
+        assertTrue(segundo.estaVacio());
+    }
+
+    @Test
+    public void testRobarFichasDeUnaVez() {
+        saco.setLlenarSaco("castellano");
+        int antes = saco.getNumFichas();
+        List<String> fichas = saco.robarFichas(7);
+        assertEquals(7, fichas.size());
+        assertEquals(antes - 7, saco.getNumFichas());
+
+        List<String> resto = saco.robarFichas(antes);
+        assertEquals(antes - 7, resto.size());
+        assertTrue(saco.estaVacio());
+        assertTrue(saco.robarFichas(7).isEmpty());
+        assertNull(saco.getRobarLetra());
+    }
+
+    @Test
+    public void testSeRobanTodasLasFichasConSusFrecuencias() {
+        saco = new Saco(new SplittableRandom(3));
+        saco.setLlenarSaco("castellano");
+        Map<String, Integer> esperadas = saco.getLetrasFreq();
+        Map<String, Integer> robadas = new HashMap<>();
+        String letra;
+        while ((letra = saco.getRobarLetra()) != null) {
+            robadas.merge(letra, 1, Integer::sum);
+        }
+        assertEquals(esperadas, robadas);
+        assertEquals(0, saco.getNumFichas());
+    }
+
+    @Test
+    public void testGuardarYCargarConservaFichasYOrden() throws Exception {
+        saco = new Saco(11);
+        saco.setLlenarSaco("castellano");
+        saco.robarFichas(20);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream salida = new ObjectOutputStream(bytes)) {
+            salida.writeObject(saco);
+        }
+        Saco cargado;
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            cargado = (Saco) entrada.readObject();
+        }
+        assertEquals(saco.getLetrasFreq(), cargado.getLetrasFreq());
+        assertEquals(saco.getNumFichas(), cargado.getNumFichas());
+        // El generador con semilla se guarda con el saco
+        assertEquals(saco.robarFichas(10), cargado.robarFichas(10));
+    }
 }
@@ -0,0 +1,170 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import dominio.Algoritmo;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.Reglamento;
+import dominio.Robot;
+import dominio.SolucionadorFinal;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link SolucionadorFinal}.
+ * Compara el valor del final de partida con un minimax sin poda ni tabla de
+ * transposición sobre finales pequeños, que se resten las fichas que quedan
+ * en los atriles y comprueba los presupuestos y la interrupción.
+ */
+public class TestSolucionadorFinal {
+
+    private Lexico lexico;
+    private Tablero tablero;
+    private GeneradorMovimientos generador;
+    private final PrintStream originalOut = System.out;
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        generador = new GeneradorMovimientos(lexico);
+        tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        colocar("JUMP", 8, 6);
+        colocar("OX", 9, 9);
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private void colocar(String palabra, int fila, int columna) {
+        List<int[]> posiciones = new ArrayList<>();
+        for (int i = 0; i < palabra.length(); i++) {
+            tablero.setCasilla(String.valueOf(palabra.charAt(i)), fila, columna + i);
+            posiciones.add(new int[]{fila, columna + i});
+        }
+        tablero.confirmarFichas(posiciones);
+    }
+
+    private static List<String> fichas(String letras) {
+        List<String> fichas = new ArrayList<>();
+        for (char c : letras.toCharArray()) fichas.add(String.valueOf(c));
+        return fichas;
+    }
+
+    /**
+     * Minimax completo: diferencia de puntos hasta el final para el jugador
+     * {@code turno}, restando al final las fichas de cada atril.
+     */
+    private int minimax(List<List<String>> atriles, int turno, int pases) {
+        List<String> atril = atriles.get(turno);
+        int restoRival = Reglamento.valorAtril(atriles.get(1 - turno), lexico.getAlfabeto());
+        if (pases >= 2) return restoRival - Reglamento.valorAtril(atril, lexico.getAlfabeto());
+        int mejor = -minimax(atriles, 1 - turno, pases + 1);
+        for (Movimiento movimiento : generador.generar(tablero, atril)) {
+            tablero.aplicarMovimiento(movimiento);
+            for (String ficha : movimiento.getFichas()) atril.remove(ficha);
+            int valor = atril.isEmpty()
+                    ? movimiento.getPuntuacion() + restoRival
+                    : movimiento.getPuntuacion() - minimax(atriles, 1 - turno, 0);
+            atril.addAll(movimiento.getFichas());
+            tablero.deshacerMovimiento();
+            mejor = Math.max(mejor, valor);
+        }
+        return mejor;
+    }
+
+    @Test
+    public void testIgualQueElMinimaxCompleto() {
+        String[][] finales = {{"EAT", "SO"}, {"VOW", "QI"}, {"UUV", "ED"}, {"AT", "Q"}};
+        for (String[] fin : finales) {
+            int esperado = minimax(List.of(fichas(fin[0]), fichas(fin[1])), 0, 0);
+            SolucionadorFinal solucionador = new SolucionadorFinal(lexico);
+            solucionador.setPresupuestoMs(60_000);
+            Movimiento jugada = solucionador.resolver(tablero, fichas(fin[0]), fichas(fin[1]));
+            assertNotNull(jugada);
+            assertTrue(solucionador.esExacta());
+            assertEquals(fin[0] + " contra " + fin[1], esperado, solucionador.getValor());
+            assertTrue(solucionador.getNodos() > 0);
+            assertTrue(solucionador.getTasaAciertosTransposicion() >= 0);
+        }
+        assertEquals(0, tablero.getProfundidadDeshacer());
+    }
+
+    /**
+     * Quedarse sin fichas con QUIZ (33 puntos) suma también las fichas del
+     * rival, que está bloqueado con QV, y vale más que las jugadas de más
+     * puntos que no gastan todo el atril.
+     */
+    @Test
+    public void testSalirAntesQueQuedarseBloqueado() {
+        List<String> propias = fichas("IQZ");
+        int mayor = 0;
+        for (Movimiento movimiento : generador.generar(tablero, propias)) {
+            mayor = Math.max(mayor, movimiento.getPuntuacion());
+        }
+        SolucionadorFinal solucionador = new SolucionadorFinal(lexico);
+        solucionador.setPresupuestoMs(60_000);
+        Movimiento jugada = solucionador.resolver(tablero, propias, fichas("QV"));
+
+        assertNotNull(jugada);
+        assertTrue(solucionador.esExacta());
+        assertEquals(3, jugada.getFichas().size());
+        assertTrue(jugada.getPuntuacion() < mayor);
+        assertEquals(jugada.getPuntuacion() + Reglamento.valorAtril(fichas("QV"), lexico.getAlfabeto()),
+                solucionador.getValor());
+        assertEquals(minimax(List.of(fichas("IQZ"), fichas("QV")), 0, 0), solucionador.getValor());
+    }
+
+    @Test
+    public void testPresupuestoDeNodos() {
+        String[][] antes = tablero.getTab();
+        SolucionadorFinal solucionador = new SolucionadorFinal(lexico);
+        solucionador.setMaxNodos(3);
+        Movimiento jugada = solucionador.resolver(tablero, fichas("RETAINS"), fichas("QUOTED"));
+        // Sin terminar ninguna profundidad se juega el movimiento de mayor puntuación
+        assertNotNull(jugada);
+        assertFalse(solucionador.esExacta());
+        assertTrue(solucionador.getNodos() <= 4);
+        int mejor = 0;
+        for (Movimiento movimiento : generador.generar(tablero, fichas("RETAINS"))) {
+            mejor = Math.max(mejor, movimiento.getPuntuacion());
+        }
+        assertEquals(mejor, jugada.getPuntuacion());
+        assertArrayEquals(antes, tablero.getTab());
+    }
+
+    /** Con el hilo interrumpido la búsqueda se detiene como al agotar el presupuesto. */
+    @Test
+    public void testSeDetieneAlInterrumpir() {
+        SolucionadorFinal solucionador = new SolucionadorFinal(lexico);
+        solucionador.setPresupuestoMs(60_000);
+        solucionador.setMaxNodos(Long.MAX_VALUE);
+        Thread.currentThread().interrupt();
+        try {
+            assertNotNull(solucionador.resolver(tablero, fichas("RETAINS"), fichas("QUOTED")));
+        } finally {
+            Thread.interrupted();
+        }
+        assertFalse(solucionador.esExacta());
+        assertTrue(solucionador.getNodos() <= 16);
+    }
+
+    @Test
+    public void testRobotJuegaElFinal() {
+        Robot robot = new Robot("RobotFinal", new Algoritmo(lexico, tablero), tablero);
+        robot.setFichas(fichas("VOW"));
+        robot.setFichasRival(fichas("QI"));
+        Movimiento jugada = robot.jugar(tablero);
+        assertNotNull(jugada);
+        assertEquals(jugada.getPuntuacion(), robot.getPuntuacionPartidaActual());
+    }
+}
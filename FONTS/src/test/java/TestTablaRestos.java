@@ -0,0 +1,113 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import dominio.Alfabeto;
+import dominio.GeneradorMovimientos;
+import dominio.Lexico;
+import dominio.Movimiento;
+import dominio.RegistroLexicos;
+import dominio.TablaRestos;
+import dominio.Tablero;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link TablaRestos}.
+ * Comprueba las claves de multiconjunto, la valoración aditiva de los restos
+ * que no están en la tabla y que el valor del resto que calcula el
+ * {@link GeneradorMovimientos} sobre la marcha coincida con el de la tabla.
+ */
+public class TestTablaRestos {
+
+    private Lexico lexico;
+    private Alfabeto alfabeto;
+    private TablaRestos tabla;
+
+    @Before
+    public void setUp() {
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        alfabeto = lexico.getAlfabeto();
+        tabla = new TablaRestos("ingles", alfabeto);
+    }
+
+    private int[] codigos(String... fichas) {
+        int[] codigos = new int[fichas.length];
+        for (int i = 0; i < fichas.length; i++) codigos[i] = alfabeto.codigo(fichas[i]);
+        return codigos;
+    }
+
+    @Test
+    public void testClaveNoDependeDelOrden() {
+        assertEquals(tabla.clave(codigos("E", "R", "S")), tabla.clave(codigos("S", "E", "R")));
+        assertNotEquals(tabla.clave(codigos("E", "R")), tabla.clave(codigos("E", "E", "R")));
+        assertEquals(0, tabla.clave(new int[0]));
+    }
+
+    @Test
+    public void testTablaVacia() {
+        assertTrue(tabla.estaVacia());
+        assertEquals(0.0, tabla.valor(Arrays.asList("Q", "V", "V")), 0.0);
+    }
+
+    @Test
+    public void testValoresDeLaTabla() {
+        tabla.poner(codigos("E", "R", "S"), 6.25);
+        tabla.poner(codigos("Q"), -7);
+        assertEquals(2, tabla.getNumEntradas());
+        assertEquals(6.25, tabla.valor(Arrays.asList("S", "R", "E")), 1e-6);
+        assertEquals(-7, tabla.valor(Arrays.asList("Q")), 1e-6);
+        // Volver a poner un resto sustituye su valor
+        tabla.poner(codigos("R", "S", "E"), 5);
+        assertEquals(2, tabla.getNumEntradas());
+        assertEquals(5, tabla.valor(Arrays.asList("E", "R", "S")), 1e-6);
+    }
+
+    @Test
+    public void testValorAditivoDeLosRestosQueFaltan() {
+        tabla.poner(codigos("E"), 2);
+        tabla.poner(codigos("E", "E"), 1);
+        tabla.poner(codigos("S"), 3);
+        // La segunda E resta 1 y la tercera, sin entrada, lo mismo que la segunda
+        assertEquals(-1, tabla.getMarginal(alfabeto.codigo("E"), 1), 1e-6);
+        assertEquals(2 - 1 - 1, tabla.valor(Arrays.asList("E", "E", "E")), 1e-6);
+        assertEquals(2 + 3, tabla.valor(Arrays.asList("S", "E")), 1e-6);
+        // Las fichas sin valor propio no cuentan
+        assertEquals(3, tabla.valor(Arrays.asList("S", "T")), 1e-6);
+    }
+
+    /**
+     * El generador mantiene la clave del resto a medida que saca fichas del
+     * atril; su valor debe ser el mismo que el de consultar la tabla con las
+     * fichas que quedan.
+     */
+    @Test
+    public void testValorDelRestoEnElGenerador() {
+        tabla.poner(codigos("E"), 1.5);
+        tabla.poner(codigos("S"), 4);
+        tabla.poner(codigos("E", "S"), 7);
+        tabla.poner(codigos("I", "I"), -6);
+        tabla.poner(codigos("Q"), -5);
+
+        Tablero tablero = new Tablero();
+        tablero.setIdioma("ingles");
+        GeneradorMovimientos generador = new GeneradorMovimientos(lexico);
+        generador.setTablaRestos(tabla);
+        List<String> atril = Arrays.asList("S", "E", "I", "I", "Q", "T", "N");
+        List<Movimiento> movimientos = generador.generar(tablero, atril);
+        assertFalse(movimientos.isEmpty());
+        for (Movimiento movimiento : movimientos) {
+            List<String> resto = new ArrayList<>(atril);
+            for (String ficha : movimiento.getFichas()) resto.remove(ficha);
+            assertEquals(movimiento.toString(), tabla.valor(resto), movimiento.getValorResto(), 1e-6);
+            assertEquals(movimiento.getPuntuacion() + movimiento.getValorResto(), movimiento.getValoracion(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testTablaDelIdioma() {
+        TablaRestos ingles = lexico.getTablaRestos();
+        assertFalse(ingles.estaVacia());
+        assertTrue(ingles.valor(Arrays.asList("S")) > ingles.valor(Arrays.asList("Q")));
+    }
+}
@@ -0,0 +1,107 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import dominio.Tablero;
+import dominio.TableroCompacto;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link TableroCompacto}.
+ * Comprueba la colocación y retirada de fichas, el cálculo de anclajes con
+ * mapas de bits, la independencia de las copias y que la tabla de
+ * bonificaciones coincida con la del {@link Tablero}.
+ */
+public class TestTableroCompacto {
+
+    private TableroCompacto compacto;
+
+    @Before
+    public void setUp() {
+        compacto = new TableroCompacto();
+    }
+
+    @Test
+    public void testTableroVacio() {
+        assertTrue(compacto.estaVacio());
+        assertEquals(Tablero.VACIA, compacto.getFicha(3, 4));
+        assertTrue(compacto.esAnclaje(TableroCompacto.CENTRO, TableroCompacto.CENTRO));
+        assertFalse(compacto.esAnclaje(0, 0));
+    }
+
+    @Test
+    public void testColocarYQuitar() {
+        compacto.colocar(7, 7, 5);
+        assertTrue(compacto.estaOcupada(7, 7));
+        assertEquals(5, compacto.getFicha(7, 7));
+        assertEquals(1 << 7, compacto.getFila(7));
+        assertEquals(1 << 7, compacto.getColumna(7));
+        assertEquals(1, compacto.getNumFichas());
+        compacto.quitar(7, 7);
+        assertTrue(compacto.estaVacio());
+        assertEquals(Tablero.VACIA, compacto.getFicha(7, 7));
+        assertEquals(0, compacto.getFila(7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testColocarEnCasillaOcupada() {
+        compacto.colocar(0, 0, 1);
+        compacto.colocar(0, 0, 2);
+    }
+
+    @Test
+    public void testAnclajes() {
+        compacto.colocar(7, 7, 0);
+        compacto.colocar(7, 8, 1);
+        assertEquals(1 << 6 | 1 << 9, compacto.getAnclajesFila(7));
+        assertEquals(1 << 7 | 1 << 8, compacto.getAnclajesFila(6));
+        assertEquals(1 << 7 | 1 << 8, compacto.getAnclajesFila(8));
+        assertEquals(0, compacto.getAnclajesFila(5));
+        assertFalse(compacto.esAnclaje(7, 7));
+    }
+
+    @Test
+    public void testAnclajesEnElBorde() {
+        compacto.colocar(0, 14, 0);
+        assertEquals(1 << 13, compacto.getAnclajesFila(0));
+        assertEquals(1 << 14, compacto.getAnclajesFila(1));
+    }
+
+    @Test
+    public void testCopiaIndependiente() {
+        compacto.colocar(7, 7, 3);
+        TableroCompacto copia = new TableroCompacto(compacto);
+        copia.colocar(7, 8, 4);
+        copia.quitar(7, 7);
+        assertTrue(compacto.estaOcupada(7, 7));
+        assertFalse(compacto.estaOcupada(7, 8));
+        assertEquals(1, compacto.getNumFichas());
+        assertEquals(1, copia.getNumFichas());
+    }
+
+    @Test
+    public void testBonificacionesIgualQueTablero() {
+        Tablero tablero = new Tablero();
+        for (int f = 1; f <= 15; f++) {
+            for (int c = 1; c <= 15; c++) {
+                assertEquals(tablero.getBonificacionCasilla(f, c), TableroCompacto.getBonificacion(f - 1, c - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testTableroMantieneElCompacto() {
+        Tablero tablero = new Tablero();
+        tablero.setCasilla("A", 8, 8);
+        tablero.setCasillaOcupada(8, 8);
+        TableroCompacto delTablero = tablero.getCompacto();
+        assertTrue(delTablero.estaOcupada(7, 7));
+        tablero.setCasilla("B", 8, 9);
+        tablero.setCasillaOcupada(8, 9);
+        assertTrue(delTablero.estaOcupada(7, 8));
+        assertEquals(2, delTablero.getNumFichas());
+        Tablero copia = new Tablero(tablero);
+        copia.setCasilla("C", 8, 10);
+        copia.setCasillaOcupada(8, 10);
+        assertEquals(2, tablero.getCompacto().getNumFichas());
+        assertEquals(3, copia.getCompacto().getNumFichas());
+    }
+}
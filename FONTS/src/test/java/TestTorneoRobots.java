@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import dominio.Lexico;
+import dominio.PerfilRobot;
+import dominio.RegistroLexicos;
+import dominio.TorneoRobots;
+
+/**
+ * Clase de pruebas unitarias para la clase {@link TorneoRobots}.
+ * Comprueba que se jueguen partidas completas en paralelo sin escribir nada
+ * y que el informe recoja el rendimiento y las puntuaciones de cada robot.
+ */
+public class TestTorneoRobots {
+
+    private Lexico lexico;
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(salida));
+        lexico = RegistroLexicos.getInstance().getLexico("ingles");
+        salida.reset();
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void testPartidasEnParalelo() throws Exception {
+        TorneoRobots torneo = new TorneoRobots(lexico,
+                Arrays.asList(PerfilRobot.PRINCIPIANTE, PerfilRobot.PRINCIPIANTE), 7);
+        List<TorneoRobots.ResultadoPartida> resultados = torneo.jugar(3, 2);
+        assertEquals(3, resultados.size());
+        for (TorneoRobots.ResultadoPartida resultado : resultados) {
+            assertTrue(resultado.getTurnos() > 0);
+            assertTrue(resultado.getJugadas() <= resultado.getTurnos());
+            assertEquals(resultado.getTurnos(), resultado.getLatenciasNanos().length);
+            assertTrue(resultado.getGanador() >= -1 && resultado.getGanador() < 2);
+        }
+        // Los robots del torneo no escriben nada
+        assertEquals("", salida.toString());
+    }
+
+    @Test
+    public void testInforme() throws Exception {
+        TorneoRobots torneo = new TorneoRobots(lexico,
+                Arrays.asList(PerfilRobot.PRINCIPIANTE, PerfilRobot.PRINCIPIANTE), 1);
+        List<TorneoRobots.ResultadoPartida> resultados = Collections.singletonList(torneo.jugarPartida(0));
+        ByteArrayOutputStream informe = new ByteArrayOutputStream();
+        torneo.informar(new PrintStream(informe), resultados, 1_000_000_000L);
+        String texto = informe.toString();
+        assertTrue(texto.contains("partidas/s"));
+        assertTrue(texto.contains("jugadas/s"));
+        assertTrue(texto.contains("p99"));
+        assertTrue(texto.contains("Robot1 (Principiante)"));
+        assertTrue(texto.contains("Robot2 (Principiante)"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnSoloRobot() {
+        new TorneoRobots(lexico, Collections.singletonList(PerfilRobot.CLUB), 1);
+    }
+}